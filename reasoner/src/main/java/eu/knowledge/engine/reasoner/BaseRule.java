@@ -345,35 +345,71 @@ public class BaseRule {
 		Map<TriplePattern, Set<CombiMatch>> matchesPerRule = new HashMap<>();
 
 		for (BaseRule candidateRule : allCandidateRules) {
-			// first find all triples in the consequent that match each triple in the
-			// antecedent
-			List<Match> foundMatches;
-			for (TriplePattern tripleTarget : aTargetPattern) {
-				// find all possible matches of the current antecedent triple in the consequent
-				if (useCandidateConsequent ? !candidateRule.consequent.isEmpty()
-						: !candidateRule.antecedent.isEmpty()) {
-					foundMatches = findMatches(tripleTarget,
-							useCandidateConsequent ? candidateRule.consequent : candidateRule.antecedent);
-					if (!foundMatches.isEmpty()) {
-
-						Set<CombiMatch> ruleMatches = matchesPerRule.get(tripleTarget);
-						if (ruleMatches == null) {
-							ruleMatches = new HashSet<>();
-							matchesPerRule.put(tripleTarget, ruleMatches);
-						}
+			addMatchesPerTriple(matchesPerRule,
+					getMatchesPerTriple(aTargetPattern, candidateRule, useCandidateConsequent));
+		}
+		return matchesPerRule;
+	}
 
-						for (Match m : foundMatches) {
-							CombiMatch newCombiMatch = new CombiMatch();
-							Set<Match> newMatchSet = new HashSet<>();
-							newMatchSet.add(m);
-							newCombiMatch.put(candidateRule, newMatchSet);
-							ruleMatches.add(newCombiMatch);
-						}
-					}
+	/**
+	 * Find the matches of a single candidate rule per triple pattern of
+	 * {@code aTargetPattern}. Every match is wrapped in its own combi match.
+	 * 
+	 * @param aTargetPattern         The graph pattern to match.
+	 * @param aCandidateRule         The rule whose antecedent or consequent should
+	 *                               match.
+	 * @param useCandidateConsequent Whether to use the consequent or antecedent of
+	 *                               {@code aCandidateRule}.
+	 * @return The combi matches per triple pattern of {@code aTargetPattern}. Triple
+	 *         patterns without any match are not included.
+	 */
+	public static Map<TriplePattern, Set<CombiMatch>> getMatchesPerTriple(Set<TriplePattern> aTargetPattern,
+			BaseRule aCandidateRule, boolean useCandidateConsequent) {
+
+		Map<TriplePattern, Set<CombiMatch>> matchesPerTriple = new HashMap<>();
+
+		// first find all triples in the consequent that match each triple in the
+		// antecedent
+		Set<TriplePattern> candidatePattern = useCandidateConsequent ? aCandidateRule.consequent
+				: aCandidateRule.antecedent;
+		if (candidatePattern.isEmpty())
+			return matchesPerTriple;
+
+		List<Match> foundMatches;
+		for (TriplePattern tripleTarget : aTargetPattern) {
+			// find all possible matches of the current antecedent triple in the consequent
+			foundMatches = findMatches(tripleTarget, candidatePattern);
+			if (!foundMatches.isEmpty()) {
+
+				Set<CombiMatch> ruleMatches = new HashSet<>();
+				matchesPerTriple.put(tripleTarget, ruleMatches);
+
+				for (Match m : foundMatches) {
+					CombiMatch newCombiMatch = new CombiMatch();
+					Set<Match> newMatchSet = new HashSet<>();
+					newMatchSet.add(m);
+					newCombiMatch.put(aCandidateRule, newMatchSet);
+					ruleMatches.add(newCombiMatch);
 				}
 			}
 		}
-		return matchesPerRule;
+		return matchesPerTriple;
+	}
+
+	/**
+	 * Add the combi matches per triple pattern of {@code someMatchesPerTriple} to
+	 * {@code aTarget}.
+	 */
+	public static void addMatchesPerTriple(Map<TriplePattern, Set<CombiMatch>> aTarget,
+			Map<TriplePattern, Set<CombiMatch>> someMatchesPerTriple) {
+		for (Map.Entry<TriplePattern, Set<CombiMatch>> entry : someMatchesPerTriple.entrySet()) {
+			Set<CombiMatch> ruleMatches = aTarget.get(entry.getKey());
+			if (ruleMatches == null) {
+				ruleMatches = new HashSet<>();
+				aTarget.put(entry.getKey(), ruleMatches);
+			}
+			ruleMatches.addAll(entry.getValue());
+		}
 	}
 
 	// new implementation of matching towards full match
@@ -397,6 +433,39 @@ public class BaseRule {
 
 		Set<TriplePattern> targetGP = antecedentOfTarget ? aTargetRule.getAntecedent() : aTargetRule.getConsequent();
 
+		// first find all triples in the someCandidateRules that match each triple
+		// in targetGP
+		Map<TriplePattern, Set<CombiMatch>> combiMatchesPerTriple = getMatchesPerTriplePerRule(targetGP,
+				new ArrayList<>(someCandidateRules), antecedentOfTarget);
+
+		return getMatches(aTargetRule, combiMatchesPerTriple, antecedentOfTarget, aConfig);
+	}
+
+	/**
+	 * This method combines the already found matches per triple pattern of
+	 * {@code aTargetRule} into combi matches using the specific {@code aConfig}.
+	 * This allows callers that keep track of the matches per triple pattern (see
+	 * {@link #getMatchesPerTriple(Set, BaseRule, boolean)}) to skip matching all
+	 * candidate rules again.
+	 * 
+	 * @param aTargetRule           The target rule for which we want to find
+	 *                              matches.
+	 * @param combiMatchesPerTriple The combi matches of all candidate rules per
+	 *                              triple pattern of {@code aTargetRule}.
+	 * @param antecedentOfTarget    Whether to match the antecedent or consequent
+	 *                              of {@code aTargetRule}
+	 * @param aConfig               A collection of {@link MatchFlag}s that
+	 *                              determine how elaborate the matching process
+	 *                              happens.
+	 * @return A set of combi matches of the candidate rules to
+	 *         {@code aTargetRule}
+	 */
+	public static Set<CombiMatch> getMatches(BaseRule aTargetRule,
+			Map<TriplePattern, Set<CombiMatch>> combiMatchesPerTriple, boolean antecedentOfTarget,
+			EnumSet<MatchFlag> aConfig) {
+
+		Set<TriplePattern> targetGP = antecedentOfTarget ? aTargetRule.getAntecedent() : aTargetRule.getConsequent();
+
 		/*
 		 * we use a list instead of a set for performance reasons. The list does not
 		 * call Match#equals(...) method often everytime we add an entry. The algorithm
@@ -404,11 +473,6 @@ public class BaseRule {
 		 */
 		List<CombiMatch> allMatches = new ArrayList<CombiMatch>();
 
-		// first find all triples in the someCandidateRules that match each triple
-		// in targetGP
-		Map<TriplePattern, Set<CombiMatch>> combiMatchesPerTriple = getMatchesPerTriplePerRule(targetGP,
-				new ArrayList<>(someCandidateRules), antecedentOfTarget);
-
 		// if not every triple pattern can be matched, we stop the process if we require
 		// a full match.
 		if (targetGP.isEmpty() || (aConfig.contains(MatchFlag.FULLY_COVERED)
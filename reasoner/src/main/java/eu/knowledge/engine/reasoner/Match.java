@@ -10,6 +10,7 @@ import java.util.Set;
 
 import org.apache.jena.graph.Node;
 
+import eu.knowledge.engine.reasoner.api.MatchTranslation;
 import eu.knowledge.engine.reasoner.api.TripleNode;
 import eu.knowledge.engine.reasoner.api.TriplePattern;
 
@@ -44,6 +45,11 @@ public class Match {
 
 	private int hashCodeCache;
 
+	/**
+	 * The compiled translation of bindings along this match, created on first use.
+	 */
+	private volatile MatchTranslation translation;
+
 	public Match(TriplePattern matchTriple, TriplePattern uponTriple, Map<TripleNode, TripleNode> someMapping) {
 		Map<TriplePattern, TriplePattern> someMatchingPatterns = new HashMap<>();
 		someMatchingPatterns.put(matchTriple, uponTriple);
@@ -129,6 +135,19 @@ public class Match {
 		return this.matchingPatterns;
 	}
 
+	/**
+	 * @return The translation of bindings along this match. It is compiled once
+	 *         and then reused, because the match never changes.
+	 */
+	public MatchTranslation getTranslation() {
+		MatchTranslation t = this.translation;
+		if (t == null) {
+			t = new MatchTranslation(this);
+			this.translation = t;
+		}
+		return t;
+	}
+
 	/**
 	 * Returns null if the contexts have conflicting values.
 	 * 
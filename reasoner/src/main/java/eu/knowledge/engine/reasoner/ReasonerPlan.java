@@ -73,6 +73,102 @@ public class ReasonerPlan {
 		createOrGetRuleNode(this.start);
 	}
 
+	/**
+	 * Create an empty reasoner plan with the same store and configuration as the
+	 * given template. Used by {@link #copy(Map)}, which fills in the rule nodes.
+	 */
+	private ReasonerPlan(ReasonerPlan aTemplate, ProactiveRule aStartRule) {
+		this.store = aTemplate.store;
+		this.start = aStartRule;
+		this.ruleToRuleNode = new HashMap<>();
+		this.matchConfig = aTemplate.matchConfig;
+		this.useTaskBoard = aTemplate.useTaskBoard;
+	}
+
+	/**
+	 * Creates a copy of this plan with fresh (i.e. not yet executed)
+	 * {@link RuleNode}s, but with the same neighbours, matches and combi matches.
+	 * Because the (expensive) matching process is not repeated, this is much
+	 * cheaper than creating a new plan and allows a single (never executed) plan
+	 * to be used as a template for many executions.
+	 * 
+	 * The rules of this plan can be replaced by other rules in the copy. This
+	 * allows the caller to attach different binding set handlers to the copy.
+	 * Note that a replacement rule should have the same antecedent and consequent
+	 * as the rule it replaces, because the matches are reused.
+	 * 
+	 * @param someReplacements A mapping from rules of this plan to the rules that
+	 *                         should replace them in the copy. Rules of this plan
+	 *                         that do not occur in this mapping are reused as is.
+	 * @return A new reasoner plan that can be executed independently of this
+	 *         plan.
+	 */
+	public ReasonerPlan copy(Map<BaseRule, BaseRule> someReplacements) {
+
+		BaseRule newStart = someReplacements.getOrDefault(this.start, this.start);
+		assert newStart instanceof ProactiveRule;
+		final ReasonerPlan copy = new ReasonerPlan(this, (ProactiveRule) newStart);
+
+		// first create the nodes
+		Map<RuleNode, RuleNode> oldToNew = new HashMap<>();
+		for (RuleNode node : this.ruleToRuleNode.values()) {
+			BaseRule newRule = someReplacements.getOrDefault(node.getRule(), node.getRule());
+			assert newRule.getAntecedent().equals(node.getRule().getAntecedent());
+			assert newRule.getConsequent().equals(node.getRule().getConsequent());
+			RuleNode newNode = copy.newNode(newRule);
+			copy.ruleToRuleNode.put(newRule, newNode);
+			oldToNew.put(node, newNode);
+		}
+
+		// then connect them in the same way as in this plan.
+		for (RuleNode node : this.ruleToRuleNode.values()) {
+			final RuleNode newNode = oldToNew.get(node);
+
+			if (node instanceof AntSide) {
+				AntSide antNode = (AntSide) node;
+				antNode.getAntecedentNeighbours().forEach((neighbor, matches) -> {
+					((AntSide) newNode).addAntecedentNeighbour(oldToNew.get(neighbor), matches);
+				});
+				if (antNode.getAntecedentCombiMatches() != null)
+					((AntSide) newNode).setAntecedentCombiMatches(
+							replaceCombiMatchRules(antNode.getAntecedentCombiMatches(), someReplacements));
+			}
+
+			if (node instanceof ConsSide) {
+				ConsSide consNode = (ConsSide) node;
+				consNode.getConsequentNeighbours().forEach((neighbor, matches) -> {
+					((ConsSide) newNode).addConsequentNeighbour(oldToNew.get(neighbor), matches);
+				});
+				if (consNode.getConsequentCombiMatches() != null)
+					((ConsSide) newNode).setConsequentCombiMatches(
+							replaceCombiMatchRules(consNode.getConsequentCombiMatches(), someReplacements));
+			}
+		}
+
+		return copy;
+	}
+
+	/**
+	 * Copy the given combi matches while replacing the rules they refer to.
+	 * 
+	 * @param someCombiMatches The combi matches to copy.
+	 * @param someReplacements The rules that should be replaced.
+	 * @return A new set of combi matches that refer to the replaced rules.
+	 */
+	private static Set<CombiMatch> replaceCombiMatchRules(Set<CombiMatch> someCombiMatches,
+			Map<BaseRule, BaseRule> someReplacements) {
+		Set<CombiMatch> newCombiMatches = new HashSet<>();
+		CombiMatch newCm;
+		for (CombiMatch cm : someCombiMatches) {
+			newCm = new CombiMatch();
+			for (Map.Entry<BaseRule, Set<Match>> entry : cm.entrySet()) {
+				newCm.put(someReplacements.getOrDefault(entry.getKey(), entry.getKey()), entry.getValue());
+			}
+			newCombiMatches.add(newCm);
+		}
+		return newCombiMatches;
+	}
+
 	/**
 	 * Creates (or gets) a {@link RuleNode} for the given {@link BaseRule}. It
 	 * recursively creates {@link RuleNode}'s for any neighbors encountered.
@@ -307,13 +403,21 @@ public class ReasonerPlan {
 	}
 
 	public TaskBoard execute(BindingSet bindingSet) {
+		this.start(bindingSet);
+		return this.propagate(Set.of());
+	}
 
+	/**
+	 * Start (or restart) this plan with the given binding set. The binding set is
+	 * propagated through the plan by {@link #propagate(Set)}.
+	 * 
+	 * @param bindingSet The binding set of the start node.
+	 */
+	void start(BindingSet bindingSet) {
 		if (bindingSet.isEmpty())
 			bindingSet.add(new Binding());
 
 		RuleNode startNode = this.getStartNode();
-		TaskBoard taskBoard = new TaskBoard();
-
 		if (this.isBackward()) {
 			assert startNode instanceof PassiveAntRuleNode;
 			((PassiveAntRuleNode) startNode).setFilterBindingSetOutput(bindingSet);
@@ -321,6 +425,25 @@ public class ReasonerPlan {
 			assert startNode instanceof PassiveConsRuleNode;
 			((PassiveConsRuleNode) startNode).setResultBindingOutput(bindingSet);
 		}
+	}
+
+	/**
+	 * Propagate the binding sets through this plan until nothing changes anymore
+	 * and collect the rule nodes that are ready to apply their rule.
+	 * 
+	 * Rule nodes that are still applying their rule (i.e. their binding set
+	 * handler did not yet finish) are neither scheduled again nor is their result
+	 * binding set propagated, because that binding set is being written by the
+	 * handler's thread. Once they have finished, the next call of this method
+	 * takes care of them.
+	 * 
+	 * @param someRunningNodes The rule nodes that are still applying their rule.
+	 * @return A task board with the rule nodes that should apply their rule.
+	 */
+	TaskBoard propagate(Set<RuleNode> someRunningNodes) {
+
+		RuleNode startNode = this.getStartNode();
+		TaskBoard taskBoard = new TaskBoard();
 
 		Deque<RuleNode> stack = new ArrayDeque<>();
 		Set<RuleNode> visited = new HashSet<>();
@@ -346,7 +469,8 @@ public class ReasonerPlan {
 
 				// Ready, and current version of input has not been scheduled on taskboard? ->
 				// Add to taskboard otherwise -> Do not add to taskboard
-				if (current.readyForApplyRule() && !current.isResultBindingSetInputAlreadyScheduledOrDone()) {
+				if (current.readyForApplyRule() && !current.isResultBindingSetInputAlreadyScheduledOrDone()
+						&& !someRunningNodes.contains(current)) {
 					this.scheduleOrDoTask(current, taskBoard);
 					current.setResultBindingSetInputAlreadyScheduledOrDone(true);
 				}
@@ -366,7 +490,7 @@ public class ReasonerPlan {
 					current.setFilterBindingSetOutputPropagated();
 				}
 
-				if (current.shouldPropagateResultBindingSetOutput()) {
+				if (!someRunningNodes.contains(current) && current.shouldPropagateResultBindingSetOutput()) {
 					TripleVarBindingSet toBeResultPropagated = current.getResultBindingSetOutput();
 					assert current instanceof ConsSide;
 					((ConsSide) current).getConsequentNeighbours().forEach((n, matches) -> {
@@ -395,7 +519,7 @@ public class ReasonerPlan {
 
 		LOG.trace("Finished reasoning round with {} tasks.", taskBoard.getNrOfTasks());
 		
-		this.done = !taskBoard.hasTasks();
+		this.done = !taskBoard.hasTasks() && someRunningNodes.isEmpty();
 		return taskBoard;
 	}
 
@@ -416,6 +540,23 @@ public class ReasonerPlan {
 		}
 	}
 
+	/**
+	 * Get the results that are available at the start node, even if the plan is
+	 * not yet done. This is useful when the execution of the plan is stopped early
+	 * (see {@link TaskScheduler#stop()}), for example because enough results are
+	 * available or a deadline passed.
+	 *
+	 * @return The full bindings that reached the start node so far.
+	 */
+	public BindingSet getPartialResults() {
+		if (this.isBackward()) {
+			return ((PassiveAntRuleNode) this.getStartNode()).getResultBindingSetInput().getFullBindingSet()
+					.toBindingSet();
+		} else {
+			throw new RuntimeException("Results should only be read for backward reasoning plans");
+		}
+	}
+
 	public RuleNode newNode(BaseRule rule) {
 		// based on the rule properties, return the appropriate rulenode
 		if (!rule.getAntecedent().isEmpty()) {
@@ -1,17 +1,25 @@
 package eu.knowledge.engine.reasoner;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import eu.knowledge.engine.reasoner.rulenode.BindingSetStore;
 import eu.knowledge.engine.reasoner.rulenode.RuleNode;
 
 /**
- * TODO replace part of this code with java's Executor Services.
+ * The rule nodes of a single round of a {@link ReasonerPlan} that are ready to
+ * apply their rule. Executing a plan round by round using this task board means
+ * that every round waits for the slowest task. The {@link TaskScheduler} does
+ * not have this problem and should be preferred.
  * 
  * @author nouwtb
  *
@@ -27,15 +35,11 @@ public class TaskBoard {
 	}
 
 	/**
-	 * Add the task to the list. TODO Currently, there is no aggregation of tasks
-	 * which we do typically want to happen here. We should find a structure in
-	 * which new tasks are merged with existing ones. The end result of a task need
-	 * to split again before sending it back to the correct node. Note that this
-	 * only seems to work for backward chaining and not for forward chaining (double
-	 * check).
+	 * Add the task to the list. Tasks are not aggregated, because a rule node
+	 * already merges the binding sets of all its matches in its
+	 * {@link BindingSetStore} before it calls its binding set handler once.
 	 * 
 	 * @param aNode
-	 * @param aBindingSet
 	 */
 	public void addTask(RuleNode aNode) {
 		tasks.add(aNode);
@@ -48,7 +52,11 @@ public class TaskBoard {
 	public boolean hasTask(RuleNode node) {
 		return this.tasks.contains(node);
 	}
-	
+
+	public Set<RuleNode> getTasks() {
+		return Collections.unmodifiableSet(this.tasks);
+	}
+
 	public int getNrOfTasks() {
 		return this.tasks.size();
 	}
@@ -61,13 +69,35 @@ public class TaskBoard {
 	 * @return
 	 */
 	public CompletableFuture<Void> executeScheduledTasks() {
-		Set<Future<Void>> futures = new HashSet<>();
-		this.tasks.forEach(task -> {
-			futures.add(task.applyRule());
-		});
+		Collection<CompletableFuture<Void>> futures = this.applyRules().values();
 		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
 	}
 
+	/**
+	 * Applies the rules of all tasks on this taskboard.
+	 * 
+	 * @return A future per task that completes when its rule has been applied.
+	 */
+	Map<RuleNode, CompletableFuture<Void>> applyRules() {
+		Map<RuleNode, CompletableFuture<Void>> futures = new HashMap<>();
+		this.prepareRules().forEach((task, apply) -> futures.put(task, apply.get()));
+		return futures;
+	}
+
+	/**
+	 * Takes the current input of all tasks on this taskboard, so their rules can
+	 * be applied later (see {@link RuleNode#prepareApplyRule()}).
+	 * 
+	 * @return An action per task that applies its rule.
+	 */
+	Map<RuleNode, Supplier<CompletableFuture<Void>>> prepareRules() {
+		Map<RuleNode, Supplier<CompletableFuture<Void>>> actions = new HashMap<>();
+		for (RuleNode task : this.tasks) {
+			actions.put(task, task.prepareApplyRule());
+		}
+		return actions;
+	}
+
 	@Override
 	public String toString() {
 		return "TaskBoard [tasks=" + tasks + "]";
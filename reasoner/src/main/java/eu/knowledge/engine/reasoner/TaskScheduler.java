@@ -0,0 +1,337 @@
+package eu.knowledge.engine.reasoner;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.reasoner.rulenode.RuleNode;
+
+/**
+ * Executes a {@link ReasonerPlan} by applying the rule of a {@link RuleNode} as
+ * soon as its inputs are ready, instead of in rounds (see {@link TaskBoard}).
+ * Whenever a rule node finishes applying its rule, its result is immediately
+ * propagated through the plan and any rule nodes that became ready are started,
+ * while the other rule nodes keep running. This way, a slow binding set handler
+ * only delays the rule nodes that actually depend on it.
+ *
+ * The state of the plan is only accessed while holding the lock of this
+ * scheduler. The binding set handlers are called after this lock is released
+ * (see {@link RuleNode#prepareApplyRule()}), so they run concurrently and a
+ * handler that takes a while to return does not delay the rule nodes that
+ * finish in the meantime. The future of the execution is also completed after
+ * this lock is released, so its callbacks can safely call this scheduler or
+ * block (see also {@link #defer(Runnable)}).
+ *
+ * The execution can be stopped before the plan is done (see {@link #stop()}),
+ * for example when enough results are available. The results that are
+ * available at that moment can be retrieved via
+ * {@link ReasonerPlan#getPartialResults()}.
+ *
+ * The number of rule nodes that apply their rule at the same time can be
+ * limited (see {@link #setMaxConcurrency(int)}). Rule nodes that are ready
+ * while the maximum is reached wait until another rule node finishes, in the
+ * order in which they became ready.
+ *
+ * If applying the rule of a rule node fails, the error is logged and the rule
+ * node continues with an empty result, so the other rule nodes can still
+ * contribute to the (partial) result of the plan.
+ */
+public class TaskScheduler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TaskScheduler.class);
+
+	private final ReasonerPlan plan;
+
+	/**
+	 * The executor on which the results of the binding set handlers are
+	 * processed.
+	 */
+	private final Executor executor;
+
+	/**
+	 * The rule nodes whose binding set handler did not yet finish, including the
+	 * rule nodes that are waiting to be started.
+	 */
+	private final Set<RuleNode> runningNodes = new HashSet<>();
+
+	/**
+	 * The rule nodes that are ready, but wait to be started because the maximum
+	 * concurrency is reached.
+	 */
+	private final Set<RuleNode> waitingNodes = new LinkedHashSet<>();
+
+	/**
+	 * The maximum number of rule nodes that apply their rule at the same time, or
+	 * 0 if unlimited.
+	 */
+	private int maxConcurrency = 0;
+
+	private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+	/**
+	 * Whether the execution finished, i.e. the plan is done, failed or was
+	 * stopped. The {@link #future} is completed later, after the lock of this
+	 * scheduler is released.
+	 */
+	private boolean finished = false;
+
+	/**
+	 * The actions that should run after the lock of this scheduler is released
+	 * (see {@link #defer(Runnable)}) and whether one of the threads is already
+	 * running them.
+	 */
+	private final Queue<Runnable> deferredActions = new ArrayDeque<>();
+	private boolean runningDeferredActions = false;
+
+	/**
+	 * Called after every propagation of the plan while holding the lock of this
+	 * scheduler, or {@code null}.
+	 */
+	private Runnable propagationListener;
+
+	/**
+	 * @param aPlan      The plan to execute.
+	 * @param anExecutor The executor on which the results of the binding set
+	 *                   handlers are processed.
+	 */
+	public TaskScheduler(ReasonerPlan aPlan, Executor anExecutor) {
+		this.plan = aPlan;
+		this.executor = anExecutor;
+	}
+
+	/**
+	 * Set a listener that is called every time new results have been propagated
+	 * through the plan, while holding the lock of this scheduler. This allows the
+	 * listener to inspect the (partial) results of the plan and {@link #stop()}
+	 * the execution. Anything the listener calls that might block or call this
+	 * scheduler from another thread should be deferred (see
+	 * {@link #defer(Runnable)}). Should be set before executing the plan.
+	 *
+	 * @param aListener The listener.
+	 */
+	public void setPropagationListener(Runnable aListener) {
+		this.propagationListener = aListener;
+	}
+
+	/**
+	 * Limit the number of rule nodes that apply their rule at the same time.
+	 * Should be set before executing the plan.
+	 *
+	 * @param aMaxConcurrency The maximum number of rule nodes, or 0 if unlimited.
+	 */
+	public void setMaxConcurrency(int aMaxConcurrency) {
+		assert aMaxConcurrency >= 0 : "the max concurrency should not be negative";
+		this.maxConcurrency = aMaxConcurrency;
+	}
+
+	/**
+	 * Stop executing the plan. Rule nodes that are still running are no longer
+	 * waited for and their results are ignored. The future returned by
+	 * {@link #execute(BindingSet)} completes normally, even though the plan is not
+	 * done. If this method is called while holding the lock of this scheduler
+	 * (e.g. by the propagation listener), the future completes once the lock is
+	 * released.
+	 *
+	 * @return {@code true} if the execution was stopped by this call,
+	 *         {@code false} if it already finished.
+	 */
+	public boolean stop() {
+		synchronized (this) {
+			if (this.finished)
+				return false;
+
+			LOG.trace("Stopping while {} tasks are running.", this.runningNodes.size() - this.waitingNodes.size());
+			this.finish(null);
+		}
+		this.runDeferredActions();
+		return true;
+	}
+
+	/**
+	 * Run the given action after the lock of this scheduler is released. Actions
+	 * run in the order in which they were deferred and never concurrently. This
+	 * allows the propagation listener to call back code that should not run while
+	 * holding the lock, because it might block or call this scheduler from
+	 * another thread.
+	 *
+	 * @param anAction The action to run.
+	 */
+	public synchronized void defer(Runnable anAction) {
+		this.deferredActions.add(anAction);
+	}
+
+	/**
+	 * Execute the plan with the given binding set. Should only be called once.
+	 *
+	 * @param aBindingSet The binding set of the start node of the plan.
+	 * @return A future that completes when the plan is done (see
+	 *         {@link ReasonerPlan#isDone()}), or completes exceptionally when
+	 *         propagating the binding sets through the plan failed.
+	 */
+	public CompletableFuture<Void> execute(BindingSet aBindingSet) {
+		synchronized (this) {
+			this.plan.start(aBindingSet);
+		}
+		this.propagate();
+		return this.future;
+	}
+
+	/**
+	 * Propagate the binding sets through the plan and start the rule nodes that
+	 * are ready. The input of these rule nodes is taken while holding the lock of
+	 * this scheduler, but their binding set handlers are called after releasing
+	 * it.
+	 */
+	private void propagate() {
+		Map<RuleNode, Supplier<CompletableFuture<Void>>> started = Map.of();
+		synchronized (this) {
+			if (this.finished)
+				return;
+
+			try {
+				TaskBoard taskBoard = this.plan.propagate(this.runningNodes);
+				if (this.propagationListener != null)
+					this.propagationListener.run();
+
+				if (!this.finished) {
+					this.runningNodes.addAll(taskBoard.getTasks());
+					if (this.maxConcurrency > 0)
+						taskBoard = this.limitConcurrency(taskBoard);
+					LOG.trace("Starting {} tasks while {} tasks are running.", taskBoard.getNrOfTasks(),
+							this.runningNodes.size() - this.waitingNodes.size() - taskBoard.getNrOfTasks());
+					started = taskBoard.prepareRules();
+
+					if (this.plan.isDone())
+						this.finish(null);
+				}
+			} catch (RuntimeException e) {
+				if (!this.finished)
+					this.finish(e);
+			}
+		}
+		this.runDeferredActions();
+		this.applyRules(started);
+	}
+
+	/**
+	 * Call the binding set handlers of the rule nodes that were started. Should be
+	 * called without holding the lock of this scheduler, because a handler might
+	 * take a while to return (for example when it answers the question on the
+	 * calling thread), which would make every rule node that finishes in the
+	 * meantime wait for it.
+	 *
+	 * If a handler throws, its rule node continues with an empty result, like when
+	 * its future completes exceptionally.
+	 */
+	private void applyRules(Map<RuleNode, Supplier<CompletableFuture<Void>>> someStartedNodes) {
+		assert !Thread.holdsLock(this);
+		someStartedNodes.forEach((node, apply) -> {
+			CompletableFuture<Void> future;
+			try {
+				future = apply.get();
+			} catch (RuntimeException e) {
+				future = CompletableFuture.failedFuture(e);
+			}
+			this.whenFinished(node, future);
+		});
+	}
+
+	/**
+	 * Mark the execution as finished and complete its future once the lock of
+	 * this scheduler is released. Should be called while holding the lock.
+	 *
+	 * @param aCause The reason the execution failed, or {@code null} if it did
+	 *               not fail.
+	 */
+	private void finish(Throwable aCause) {
+		assert Thread.holdsLock(this);
+		this.finished = true;
+		if (aCause == null)
+			this.deferredActions.add(() -> this.future.complete(null));
+		else
+			this.deferredActions.add(() -> this.future.completeExceptionally(aCause));
+	}
+
+	/**
+	 * Run the deferred actions, unless the current thread holds the lock of this
+	 * scheduler (then the outermost caller runs them after releasing it) or
+	 * another thread is already running them.
+	 */
+	private void runDeferredActions() {
+		if (Thread.holdsLock(this))
+			return;
+
+		synchronized (this) {
+			if (this.runningDeferredActions)
+				return;
+			this.runningDeferredActions = true;
+		}
+
+		while (true) {
+			Runnable action;
+			synchronized (this) {
+				action = this.deferredActions.poll();
+				if (action == null) {
+					this.runningDeferredActions = false;
+					return;
+				}
+			}
+			try {
+				action.run();
+			} catch (RuntimeException e) {
+				LOG.error("Deferred actions of the task scheduler should not result in errors.", e);
+			}
+		}
+	}
+
+	/**
+	 * Add the tasks of the given task board to the waiting rule nodes and take as
+	 * many waiting rule nodes as can be started without exceeding the maximum
+	 * concurrency. The waiting rule nodes remain in {@link #runningNodes}, so the
+	 * plan does not schedule them again and is not done while they wait.
+	 *
+	 * @return A task board with the rule nodes that should be started.
+	 */
+	private TaskBoard limitConcurrency(TaskBoard aTaskBoard) {
+		this.waitingNodes.addAll(aTaskBoard.getTasks());
+
+		int available = this.maxConcurrency - (this.runningNodes.size() - this.waitingNodes.size());
+		TaskBoard limited = new TaskBoard();
+		Iterator<RuleNode> iter = this.waitingNodes.iterator();
+		while (available > 0 && iter.hasNext()) {
+			RuleNode node = iter.next();
+			iter.remove();
+			// the input of the node might have changed while it was waiting, but it
+			// is applied with its latest input, so it need not be scheduled again.
+			node.setResultBindingSetInputAlreadyScheduledOrDone(true);
+			limited.addTask(node);
+			available--;
+		}
+		return limited;
+	}
+
+	private void whenFinished(RuleNode aNode, CompletableFuture<Void> aFuture) {
+		aFuture.whenCompleteAsync((_, t) -> {
+			synchronized (this) {
+				this.runningNodes.remove(aNode);
+				if (t != null) {
+					LOG.error("Applying the rule of {} should not result in errors.", aNode, t);
+					aNode.setEmptyResultBindingSetOutput();
+				}
+			}
+			this.propagate();
+		}, this.executor);
+	}
+
+}
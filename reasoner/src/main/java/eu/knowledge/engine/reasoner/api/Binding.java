@@ -8,9 +8,8 @@ import java.util.Set;
 import org.apache.jena.graph.Node;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.sparql.core.Var;
-import org.apache.jena.sparql.graph.PrefixMappingZero;
-import org.apache.jena.sparql.sse.SSE;
-import org.apache.jena.sparql.util.FmtUtils;
+
+import eu.knowledge.engine.reasoner.util.NodeCache;
 
 public class Binding extends HashMap<Var, Node> {
 
@@ -37,7 +36,7 @@ public class Binding extends HashMap<Var, Node> {
 	}
 
 	public Binding(String variable, String val) {
-		this(Var.alloc(variable), (Node) SSE.parseNode(val));
+		this(Var.alloc(variable), NodeCache.parse(val));
 	}
 
 	public Binding(Binding b) {
@@ -58,7 +57,7 @@ public class Binding extends HashMap<Var, Node> {
 	}
 
 	public Node put(String variable, String val) {
-		Node n = SSE.parseNode(val);
+		Node n = NodeCache.parse(val);
 		if (!n.isConcrete())
 			throw new IllegalArgumentException(
 					"Binding values should be concrete nodes (either RDF literals or RDF URIs).");
@@ -69,8 +68,7 @@ public class Binding extends HashMap<Var, Node> {
 
 		Map<String, String> result = new HashMap<String, String>();
 		for (Map.Entry<Var, Node> entry : this.entrySet()) {
-			// TODO: Util function that does the stringForNode without prefixes
-			result.put(entry.getKey().getName(), FmtUtils.stringForNode(entry.getValue(), new PrefixMappingZero()));
+			result.put(entry.getKey().getName(), NodeCache.format(entry.getValue()));
 		}
 
 		return result;
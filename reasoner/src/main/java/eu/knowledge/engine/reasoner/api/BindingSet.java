@@ -51,25 +51,7 @@ public class BindingSet extends HashSet<Binding> {
 	 */
 	public TripleVarBindingSet toTripleVarBindingSet(Set<TriplePattern> aGraphPattern) {
 
-		TripleVarBindingSet gbs = new TripleVarBindingSet(aGraphPattern);
-
-		TripleVarBinding tvb;
-		for (Binding b : this) {
-			tvb = new TripleVarBinding();
-			for (TriplePattern tp : aGraphPattern) {
-				if (tp.getSubject().isVariable() && b.containsKey(tp.getSubject())) {
-					tvb.put(new TripleNode(tp, tp.getSubject(), 0), b.get(tp.getSubject()));
-				}
-				if (tp.getPredicate().isVariable() && b.containsKey(tp.getPredicate())) {
-					tvb.put(new TripleNode(tp, tp.getPredicate(), 1), b.get(tp.getPredicate()));
-				}
-				if (tp.getObject().isVariable() && b.containsKey(tp.getObject())) {
-					tvb.put(new TripleNode(tp, tp.getObject(), 2), b.get(tp.getObject()));
-				}
-			}
-			gbs.add(tvb);
-		}
-		return gbs;
+		return new TripleVarBindingSet(aGraphPattern, this);
 	}
 
 	public void addAll(Set<Map<String, String>> maps) {
@@ -0,0 +1,159 @@
+package eu.knowledge.engine.reasoner.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.Var;
+
+import eu.knowledge.engine.reasoner.Match;
+
+/**
+ * The translation of bindings along a single {@link Match}, compiled into a
+ * flat list of instructions. How a binding is translated only depends on the
+ * match, so the triple nodes that are involved are looked up once, instead of
+ * for every binding that is translated (see
+ * {@link TripleVarBindingSet#translate(java.util.Set, java.util.Set)}).
+ *
+ * There are three kinds of instructions:
+ * <ul>
+ * <li>{@link #COPY}: copy the value of a source triple variable to a target
+ * triple variable, unless it conflicts with the value the target variable
+ * already has.</li>
+ * <li>{@link #CHECK}: check that the value of a source triple variable is the
+ * same as the constant it is matched upon.</li>
+ * <li>{@link #BIND}: bind a target triple variable to the constant that is
+ * matched upon it.</li>
+ * </ul>
+ * The target triple variables are numbered, so a translated binding is built in
+ * an array that is only turned into a {@link TripleVarBinding} when all
+ * instructions succeeded.
+ */
+public class MatchTranslation {
+
+	private static final byte COPY = 0;
+	private static final byte CHECK = 1;
+	private static final byte BIND = 2;
+
+	private final byte[] ops;
+	private final TripleNode[] sources;
+	private final int[] targets;
+	private final Node[] constants;
+
+	/**
+	 * The target triple variables and the index of their variable.
+	 */
+	private final TripleNode[] targetTripleVars;
+	private final int[] targetVars;
+	private final int nrOfVars;
+
+	public MatchTranslation(Match aMatch) {
+		List<Byte> someOps = new ArrayList<>();
+		List<TripleNode> someSources = new ArrayList<>();
+		List<Integer> someTargets = new ArrayList<>();
+		List<Node> someConstants = new ArrayList<>();
+
+		Map<TripleNode, Integer> slots = new HashMap<>();
+		Map<Var, Integer> vars = new HashMap<>();
+		List<Integer> someTargetVars = new ArrayList<>();
+
+		for (Map.Entry<TriplePattern, TriplePattern> keyValue : aMatch.getMatchingPatterns().entrySet()) {
+			TriplePattern fromTriple = keyValue.getKey();
+			TriplePattern toTriple = keyValue.getValue();
+			Map<TripleNode, TripleNode> mapping = fromTriple.findMatches(toTriple);
+			assert mapping != null : "the triple patterns of a match should match";
+
+			for (Map.Entry<TripleNode, TripleNode> singleMap : mapping.entrySet()) {
+				TripleNode fromTNode = singleMap.getKey();
+				TripleNode toTNode = singleMap.getValue();
+
+				// note that a concrete node matched upon a concrete node needs no translation.
+				int op;
+				if (fromTNode.node instanceof Var && toTNode.node instanceof Var)
+					op = COPY;
+				else if (fromTNode.node instanceof Var && toTNode.node.isConcrete())
+					op = CHECK;
+				else if (fromTNode.node.isConcrete() && toTNode.node instanceof Var)
+					op = BIND;
+				else
+					continue;
+
+				int target = -1;
+				if (op != CHECK) {
+					var toTVar = new TripleNode(toTriple, toTNode.node, toTNode.nodeIdx);
+					target = slots.computeIfAbsent(toTVar, _ -> {
+						someTargetVars.add(vars.computeIfAbsent((Var) toTVar.node, _ -> vars.size()));
+						return slots.size();
+					});
+				}
+
+				someOps.add((byte) op);
+				someSources.add(op != BIND ? new TripleNode(fromTriple, fromTNode.node, fromTNode.nodeIdx) : null);
+				someTargets.add(target);
+				someConstants.add(op == CHECK ? toTNode.node : op == BIND ? fromTNode.node : null);
+			}
+		}
+
+		this.ops = new byte[someOps.size()];
+		this.targets = new int[someOps.size()];
+		for (int i = 0; i < this.ops.length; i++) {
+			this.ops[i] = someOps.get(i);
+			this.targets[i] = someTargets.get(i);
+		}
+		this.sources = someSources.toArray(new TripleNode[this.ops.length]);
+		this.constants = someConstants.toArray(new Node[this.ops.length]);
+
+		this.targetTripleVars = new TripleNode[slots.size()];
+		for (Map.Entry<TripleNode, Integer> slot : slots.entrySet())
+			this.targetTripleVars[slot.getValue()] = slot.getKey();
+		this.targetVars = someTargetVars.stream().mapToInt(Integer::intValue).toArray();
+		this.nrOfVars = vars.size();
+	}
+
+	/**
+	 * Translate the given binding along the match. The variable names will be
+	 * changed and variables not relevant in the match will be removed.
+	 *
+	 * @param aBinding The binding to translate.
+	 * @return The translated binding, or {@code null} if the binding is
+	 *         incompatible with the match.
+	 */
+	public TripleVarBinding translate(TripleVarBinding aBinding) {
+		Node[] values = new Node[this.targetTripleVars.length];
+		Node[] varValues = new Node[this.nrOfVars];
+
+		for (int i = 0; i < this.ops.length; i++) {
+			byte op = this.ops[i];
+			if (op == COPY) {
+				Node value = aBinding.get(this.sources[i]);
+				if (value != null) {
+					int target = this.targets[i];
+					int var = this.targetVars[target];
+					Node varValue = varValues[var];
+					if (values[target] == null && (varValue == null || varValue.sameValueAs(value))) {
+						values[target] = value;
+						varValues[var] = value;
+					} else if (varValue != null && !value.sameValueAs(varValue)) {
+						return null; // conflict
+					}
+				}
+			} else if (op == CHECK) {
+				Node value = aBinding.get(this.sources[i]);
+				if (value != null && !value.sameValueAs(this.constants[i]))
+					return null; // conflict
+			} else {
+				int target = this.targets[i];
+				int var = this.targetVars[target];
+				Node varValue = varValues[var];
+				if (varValue != null && !varValue.sameValueAs(this.constants[i]))
+					return null; // conflict
+				values[target] = this.constants[i];
+				varValues[var] = this.constants[i];
+			}
+		}
+
+		return new TripleVarBinding(this.targetTripleVars, values);
+	}
+}
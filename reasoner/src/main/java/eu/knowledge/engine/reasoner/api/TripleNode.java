@@ -1,7 +1,8 @@
 package eu.knowledge.engine.reasoner.api;
 
 import org.apache.jena.graph.Node;
-import org.apache.jena.sparql.sse.SSE;
+
+import eu.knowledge.engine.reasoner.util.NodeCache;
 
 public class TripleNode {
 	public TriplePattern tp;
@@ -25,7 +26,7 @@ public class TripleNode {
 	}
 
 	public TripleNode(TriplePattern aTriplePattern, String aNode, int aNodeIdx) {
-		this(aTriplePattern, SSE.parseNode(aNode), aNodeIdx);
+		this(aTriplePattern, NodeCache.parse(aNode), aNodeIdx);
 	}
 
 	@Override
@@ -1,76 +1,167 @@
 package eu.knowledge.engine.reasoner.api;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.jena.graph.Node;
 import org.apache.jena.sparql.core.Var;
-import org.apache.jena.sparql.graph.PrefixMappingZero;
-import org.apache.jena.sparql.sse.SSE;
-import org.apache.jena.sparql.util.FmtUtils;
+
+import eu.knowledge.engine.reasoner.util.NodeCache;
 
 /**
  * A binding where the keys are triple/variable pairs.
  * 
+ * Because the reasoner creates many of these bindings with only a few entries
+ * each, the entries are stored in two small arrays instead of hash maps.
+ * Bindings that are created for the same graph pattern (see
+ * {@link #TripleVarBinding(TripleNode[], Binding)}) or copied from each other
+ * share their array of triple/variable pairs until one of them is modified.
+ * Pairs are only ever appended to the array, so the pairs that a binding uses
+ * never change underneath it.
+ * 
+ * The values are stored as {@link Node} references rather than as ids in a
+ * node dictionary. Values that are parsed via the {@link NodeCache} share a
+ * single {@link Node} per distinct value, so such a reference takes as much
+ * space as an id would. This only reduces the memory of the reasoner's
+ * internal bindings: {@link Binding} is still a hash map per row and
+ * {@link BindingSet} a hash set of them, so a large binding set costs about
+ * as much memory as before.
+ * 
  * @author nouwtb
  *
  */
 public class TripleVarBinding {
 
-	private Map<TripleNode, Node> tripleVarMapping;
+	private static final int INITIAL_CAPACITY = 4;
+
+	private TripleNode[] tripleVars;
+	private Node[] values;
+	private int size;
+
+	/**
+	 * Whether {@link #tripleVars} is shared with other bindings and should be
+	 * copied before it is modified.
+	 */
+	private boolean sharedTripleVars;
 
 	/**
-	 * Optimize the getVarValue method.
+	 * The cached hash code, or 0 if it is not (yet) calculated.
 	 */
-	private Map<Var, TripleNode> variableTripleVarMapping;
+	private int hashCodeValue;
 
 	public TripleVarBinding() {
-		tripleVarMapping = new HashMap<>(6, 1.0f);
-		variableTripleVarMapping = new HashMap<>(4, 1.0f);
+		this.tripleVars = new TripleNode[INITIAL_CAPACITY];
+		this.values = new Node[INITIAL_CAPACITY];
 	}
 
 	public TripleVarBinding(Set<TriplePattern> aGraphPattern, Binding aBinding) {
-		this();
-		TripleNode tripleVar;
-		for (TriplePattern tp : aGraphPattern) {
+		this(getTripleVars(aGraphPattern), aBinding);
+	}
 
-			if (tp.getSubject().isVariable() && aBinding.containsKey(tp.getSubject())) {
-				tripleVar = new TripleNode(tp, tp.getSubject(), 0);
-				tripleVarMapping.put(tripleVar, aBinding.get(tp.getSubject()));
-				variableTripleVarMapping.put((Var) tp.getSubject(), tripleVar);
-			}
-			if (tp.getPredicate().isVariable() && aBinding.containsKey(tp.getPredicate())) {
-				tripleVar = new TripleNode(tp, tp.getPredicate(), 1);
-				tripleVarMapping.put(tripleVar, aBinding.get(tp.getPredicate()));
-				variableTripleVarMapping.put((Var) tp.getPredicate(), tripleVar);
-			}
-			if (tp.getObject().isVariable() && aBinding.containsKey(tp.getObject())) {
-				tripleVar = new TripleNode(tp, tp.getObject(), 2);
-				tripleVarMapping.put(tripleVar, aBinding.get(tp.getObject()));
-				variableTripleVarMapping.put((Var) tp.getObject(), tripleVar);
+	/**
+	 * Create a binding with the values of {@code aBinding} for the given triple
+	 * variables. If all of them have a value, the array is shared instead of
+	 * copied, so the caller should not modify it.
+	 * 
+	 * @param someTripleVars The triple variables of a graph pattern (see
+	 *                       {@link #getTripleVars(Set)}).
+	 * @param aBinding       The binding with the values for the variables.
+	 */
+	public TripleVarBinding(TripleNode[] someTripleVars, Binding aBinding) {
+		this(someTripleVars, getValues(someTripleVars, aBinding));
+	}
+
+	/**
+	 * Create a binding with the given values for the given triple variables,
+	 * where a {@code null} value means that the triple variable is not bound. If
+	 * all of them have a value, both arrays are used instead of copied, so the
+	 * caller should not modify them.
+	 * 
+	 * @param someTripleVars The triple variables.
+	 * @param someValues     The value of each triple variable, or {@code null}.
+	 */
+	public TripleVarBinding(TripleNode[] someTripleVars, Node[] someValues) {
+		assert someTripleVars.length == someValues.length;
+		int count = 0;
+		for (int i = 0; i < someValues.length; i++) {
+			if (someValues[i] != null)
+				count++;
+		}
+
+		if (count == someTripleVars.length) {
+			this.tripleVars = someTripleVars;
+			this.sharedTripleVars = true;
+			this.values = someValues;
+			this.size = count;
+		} else {
+			this.tripleVars = new TripleNode[count];
+			this.values = new Node[count];
+			for (int i = 0; i < someTripleVars.length; i++) {
+				if (someValues[i] != null) {
+					this.tripleVars[this.size] = someTripleVars[i];
+					this.values[this.size] = someValues[i];
+					this.size++;
+				}
 			}
 		}
 	}
 
+	private static Node[] getValues(TripleNode[] someTripleVars, Binding aBinding) {
+		Node[] someValues = new Node[someTripleVars.length];
+		for (int i = 0; i < someTripleVars.length; i++)
+			someValues[i] = aBinding.get((Var) someTripleVars[i].node);
+		return someValues;
+	}
+
+	/**
+	 * Create a copy of the given binding. The copy shares the array of
+	 * triple/variable pairs of {@code b} and copies it before it is modified.
+	 * The given binding itself is not changed: it only ever appends to its array
+	 * beyond the pairs that the copy uses, so it can keep modifying the array in
+	 * place.
+	 * 
+	 * @param b The binding to copy.
+	 */
 	public TripleVarBinding(TripleVarBinding b) {
-		this();
-		for (Map.Entry<TripleNode, Node> entry : b.tripleVarMapping.entrySet()) {
-			this.put(entry.getKey(), entry.getValue());
-		}
+		this.tripleVars = b.tripleVars;
+		this.values = Arrays.copyOf(b.values, b.size);
+		this.size = b.size;
+		this.sharedTripleVars = true;
+	}
 
-		for (Map.Entry<Var, TripleNode> entry : b.variableTripleVarMapping.entrySet()) {
-			this.variableTripleVarMapping.put(entry.getKey(), entry.getValue());
+	/**
+	 * @return The triple variables of all variables in {@code aGraphPattern}.
+	 */
+	public static TripleNode[] getTripleVars(Set<TriplePattern> aGraphPattern) {
+		List<TripleNode> tripleVars = new ArrayList<>();
+		for (TriplePattern tp : aGraphPattern) {
+			if (tp.getSubject().isVariable())
+				tripleVars.add(new TripleNode(tp, tp.getSubject(), 0));
+			if (tp.getPredicate().isVariable())
+				tripleVars.add(new TripleNode(tp, tp.getPredicate(), 1));
+			if (tp.getObject().isVariable())
+				tripleVars.add(new TripleNode(tp, tp.getObject(), 2));
 		}
+		return tripleVars.toArray(new TripleNode[tripleVars.size()]);
 	}
 
 	public Set<Map.Entry<TripleNode, Node>> entrySet() {
-		return tripleVarMapping.entrySet();
+		Set<Map.Entry<TripleNode, Node>> entries = new HashSet<>(this.size * 2);
+		for (int i = 0; i < this.size; i++)
+			entries.add(new AbstractMap.SimpleImmutableEntry<>(this.tripleVars[i], this.values[i]));
+		return entries;
 	}
 
 	public Set<TripleNode> getTripleVars() {
-		return tripleVarMapping.keySet();
+		Set<TripleNode> keys = new HashSet<>(this.size * 2);
+		for (int i = 0; i < this.size; i++)
+			keys.add(this.tripleVars[i]);
+		return keys;
 	}
 
 	public void put(TripleNode aTripleVar, Node aLiteral) {
@@ -81,12 +172,26 @@ public class TripleVarBinding {
 					"Binding values should be concrete nodes (either RDF literals or URIs) and not '"
 							+ aLiteral.toString() + "'");
 
-		tripleVarMapping.put(aTripleVar, aLiteral);
-		variableTripleVarMapping.put((Var) aTripleVar.node, aTripleVar);
+		this.hashCodeValue = 0;
+		int idx = this.indexOf(aTripleVar);
+		if (idx >= 0) {
+			this.values[idx] = aLiteral;
+			return;
+		}
+
+		if (this.size == this.tripleVars.length || this.sharedTripleVars) {
+			int capacity = Math.max(INITIAL_CAPACITY, this.size * 2);
+			this.tripleVars = Arrays.copyOf(this.tripleVars, capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+			this.sharedTripleVars = false;
+		}
+		this.tripleVars[this.size] = aTripleVar;
+		this.values[this.size] = aLiteral;
+		this.size++;
 	}
 
 	public void put(TripleNode aTripleVar, String aLiteral) {
-		this.put(aTripleVar, (Node) SSE.parseNode(aLiteral));
+		this.put(aTripleVar, NodeCache.parse(aLiteral));
 	}
 
 	/**
@@ -100,9 +205,9 @@ public class TripleVarBinding {
 	public Binding toBinding() {
 
 		Binding b = new Binding();
-		for (Map.Entry<TripleNode, Node> entry : this.tripleVarMapping.entrySet()) {
-			assert entry.getKey().node.isVariable();
-			b.put((Var) entry.getKey().node, entry.getValue());
+		for (int i = 0; i < this.size; i++) {
+			assert this.tripleVars[i].node.isVariable();
+			b.put((Var) this.tripleVars[i].node, this.values[i]);
 		}
 		return b;
 	}
@@ -114,11 +219,11 @@ public class TripleVarBinding {
 	public boolean isConflicting(TripleVarBinding tvb) {
 
 		Node l;
-		for (Map.Entry<TripleNode, Node> e : this.tripleVarMapping.entrySet()) {
-			assert e.getKey().node.isVariable();
-			l = tvb.getVarValue((Var) e.getKey().node);
+		for (int i = 0; i < this.size; i++) {
+			assert this.tripleVars[i].node.isVariable();
+			l = tvb.getVarValue((Var) this.tripleVars[i].node);
 
-			if (l != null && !e.getValue().sameValueAs(l)) {
+			if (l != null && !this.values[i].sameValueAs(l)) {
 				return true;
 			}
 		}
@@ -146,29 +251,44 @@ public class TripleVarBinding {
 
 	/**
 	 * We assume all occurrences of a var have the same literal, we just return the
-	 * first one found.
+	 * last one found.
 	 * 
 	 * @param variable
 	 * @return
 	 */
 	public Node getVarValue(Var variable) {
-		TripleNode tripleVar = this.variableTripleVarMapping.get(variable);
-		return this.get(tripleVar);
+		for (int i = this.size - 1; i >= 0; i--) {
+			if (variable.equals(this.tripleVars[i].node))
+				return this.values[i];
+		}
+		return null;
 	}
 
 	public Node get(TripleNode key) {
-		return this.tripleVarMapping.get(key);
+		int idx = this.indexOf(key);
+		return idx >= 0 ? this.values[idx] : null;
 	}
 
 	public boolean containsKey(TripleNode key) {
-		return this.tripleVarMapping.containsKey(key);
+		return this.indexOf(key) >= 0;
+	}
+
+	private int indexOf(TripleNode key) {
+		if (key == null)
+			return -1;
+		int hash = key.hashCode();
+		for (int i = 0; i < this.size; i++) {
+			if (this.tripleVars[i].hashCode() == hash && this.tripleVars[i].equals(key))
+				return i;
+		}
+		return -1;
 	}
 
 	public Set<TripleNode> getTripleNodes(TriplePattern aTriplePattern) {
 		Set<TripleNode> nodes = new HashSet<TripleNode>();
-		for (TripleNode tv : this.tripleVarMapping.keySet()) {
-			if (tv.tp.equals(aTriplePattern)) {
-				nodes.add(tv);
+		for (int i = 0; i < this.size; i++) {
+			if (this.tripleVars[i].tp.equals(aTriplePattern)) {
+				nodes.add(this.tripleVars[i]);
 			}
 		}
 		return nodes;
@@ -177,20 +297,26 @@ public class TripleVarBinding {
 	public boolean containsVar(Var aVar) {
 		assert aVar instanceof Var;
 
-		for (TripleNode tNode : this.tripleVarMapping.keySet()) {
-			if (tNode.node.sameValueAs(aVar)) {
+		for (int i = 0; i < this.size; i++) {
+			if (this.tripleVars[i].node.sameValueAs(aVar)) {
 				return true;
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Same as the hash code of a map with the same entries.
+	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((tripleVarMapping == null) ? 0 : tripleVarMapping.hashCode());
-		return result;
+		if (this.hashCodeValue == 0) {
+			int mapHashCode = 0;
+			for (int i = 0; i < this.size; i++)
+				mapHashCode += this.tripleVars[i].hashCode() ^ this.values[i].hashCode();
+			this.hashCodeValue = 31 + mapHashCode;
+		}
+		return this.hashCodeValue;
 	}
 
 	@Override
@@ -202,13 +328,13 @@ public class TripleVarBinding {
 			return false;
 		}
 		TripleVarBinding other = (TripleVarBinding) obj;
-		if (tripleVarMapping == null) {
-			if (other.tripleVarMapping != null) {
-				return false;
-			}
-		} else if (!tripleVarMapping.equals(other.tripleVarMapping)) {
+		if (this.size != other.size || this.hashCode() != other.hashCode()) {
 			return false;
 		}
+		for (int i = 0; i < this.size; i++) {
+			if (!this.values[i].equals(other.get(this.tripleVars[i])))
+				return false;
+		}
 		return true;
 	}
 
@@ -218,9 +344,9 @@ public class TripleVarBinding {
 		StringBuilder sb = new StringBuilder();
 		String prefix = "";
 		sb.append("{");
-		for (Map.Entry<TripleNode, Node> entry : this.tripleVarMapping.entrySet()) {
-			sb.append(prefix).append(entry.getKey().node).append("=")
-					.append(FmtUtils.stringForNode(entry.getValue(), new PrefixMappingZero()));
+		for (int i = 0; i < this.size; i++) {
+			sb.append(prefix).append(this.tripleVars[i].node).append("=")
+					.append(NodeCache.format(this.values[i]));
 			prefix = ",";
 
 		}
@@ -229,7 +355,14 @@ public class TripleVarBinding {
 	}
 
 	public Set<TripleNode> keySet() {
-		return this.tripleVarMapping.keySet();
+		return this.getTripleVars();
+	}
+
+	/**
+	 * @return The number of triple/variable pairs in this binding.
+	 */
+	public int size() {
+		return this.size;
 	}
 
 	/**
@@ -243,29 +376,21 @@ public class TripleVarBinding {
 	public TripleVarBinding merge(TripleVarBinding otherB) {
 
 		assert !this.isConflicting(otherB);
-		TripleVarBinding b = new TripleVarBinding();
-		b.putAll(this.tripleVarMapping);
-		b.putAll(otherB.tripleVarMapping);
+		TripleVarBinding b = new TripleVarBinding(this);
+		for (int i = 0; i < otherB.size; i++) {
+			b.put(otherB.tripleVars[i], otherB.values[i]);
+		}
 
 		return b;
 	}
 
-	private void putAll(Map<TripleNode, Node> aTripleVarMapping) {
-
-		for (TripleNode tv : aTripleVarMapping.keySet()) {
-			assert tv.node.isVariable();
-			this.variableTripleVarMapping.put((Var) tv.node, tv);
-		}
-		this.tripleVarMapping.putAll(aTripleVarMapping);
-	}
-
 	public boolean isEmpty() {
-		return this.tripleVarMapping.isEmpty();
+		return this.size == 0;
 	}
 
 	public boolean containsTriplePattern(TriplePattern value) {
-		for (TripleNode tv : this.tripleVarMapping.keySet()) {
-			if (tv.tp.equals(value)) {
+		for (int i = 0; i < this.size; i++) {
+			if (this.tripleVars[i].tp.equals(value)) {
 				return true;
 			}
 		}
@@ -273,7 +398,10 @@ public class TripleVarBinding {
 	}
 
 	public Set<Var> getVars() {
-		return this.variableTripleVarMapping.keySet();
+		Set<Var> vars = new HashSet<>();
+		for (int i = 0; i < this.size; i++)
+			vars.add((Var) this.tripleVars[i].node);
+		return vars;
 	}
 
 }
@@ -1,6 +1,7 @@
 package eu.knowledge.engine.reasoner.api;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -8,6 +9,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
 
 import org.apache.jena.graph.Node;
 import org.apache.jena.sparql.core.Var;
@@ -42,8 +44,9 @@ public class TripleVarBindingSet {
 
 		this(aGraphPattern, aBindingSet.size());
 
+		TripleNode[] tripleVars = TripleVarBinding.getTripleVars(this.graphPattern);
 		for (Binding b : aBindingSet) {
-			this.add(new TripleVarBinding(this.graphPattern, b));
+			this.add(new TripleVarBinding(tripleVars, b));
 		}
 	}
 
@@ -96,7 +99,7 @@ public class TripleVarBindingSet {
 		Set<TripleNode> vars = this.getTripleVars();
 		int nrOfVars = vars.size();
 		for (TripleVarBinding tvb : bindings) {
-			if (tvb.keySet().size() < nrOfVars) {
+			if (tvb.size() < nrOfVars) {
 				gbs.add(tvb);
 			}
 		}
@@ -111,7 +114,7 @@ public class TripleVarBindingSet {
 		Set<TripleNode> vars = this.getTripleVars();
 		int nrOfVars = vars.size();
 		for (TripleVarBinding tvb : bindings) {
-			if (tvb.keySet().size() == nrOfVars) {
+			if (tvb.size() == nrOfVars) {
 				assert tvb.getTripleVars().equals(this.getTripleVars());
 				gbs.add(tvb);
 			}
@@ -192,6 +195,10 @@ public class TripleVarBindingSet {
 	 * from the input binding sets and does not add the input bindings separately
 	 * (see {@link #merge(TripleVarBindingSet)} for that).
 	 * 
+	 * If both binding sets share variables, a hash join on the values of these
+	 * variables is used (see {@link JoinIndex}). Only without shared variables all
+	 * combinations (i.e. the Cartesian product) are added.
+	 * 
 	 * @param aBindingSet
 	 * @return a NEW (!) binding set with the merged binding sets.
 	 * @apiNote Note that this method does not modify the original (this) binding
@@ -204,49 +211,193 @@ public class TripleVarBindingSet {
 
 		final int otherBindingSetSize = aBindingSet.getBindings().size();
 		final long totalCount = (long) otherBindingSetSize * (long) this.getBindings().size();
+
+		if (this.bindings.isEmpty()) {
+			TripleVarBindingSet gbs = new TripleVarBindingSet(this.graphPattern, otherBindingSetSize);
+			gbs.addAll(aBindingSet.getBindings());
+			return gbs;
+		}
+
+		Set<Var> overlappingVars = new HashSet<Var>();
+		if (this.bindings.size() > 0 && aBindingSet.getBindings().size() > 0) {
+			Set<Var> vars1 = this.getVariables();
+			Set<Var> vars2 = aBindingSet.getVariables();
+			overlappingVars.addAll(vars1);
+			overlappingVars.retainAll(vars2);
+		}
+
+		if (!overlappingVars.isEmpty()) {
+			return this.hashJoin(aBindingSet, overlappingVars);
+		}
+
+		// Cartesian product is the base case
 		if (totalCount > LARGE_BS_SIZE)
 			LOG.warn("Merging 2 large BindingSets ({} * {} = {}). This can take some time.",
 					aBindingSet.getBindings().size(), this.getBindings().size(), totalCount);
-		TripleVarBindingSet gbs = new TripleVarBindingSet(this.graphPattern, (int) totalCount);
+		TripleVarBindingSet gbs = new TripleVarBindingSet(this.graphPattern,
+				(int) Math.min(totalCount, Integer.MAX_VALUE));
 
-		if (this.bindings.isEmpty()) {
-			gbs.addAll(aBindingSet.getBindings());
-		} else {
-
-			Set<Var> overlappingVars = new HashSet<Var>();
-			if (this.bindings.size() > 0 && aBindingSet.getBindings().size() > 0) {
-				Set<Var> vars1 = this.getVariables();
-				Set<Var> vars2 = aBindingSet.getVariables();
-				overlappingVars.addAll(vars1);
-				overlappingVars.retainAll(vars2);
+		AtomicLong progress = new AtomicLong(0);
+
+		final int milestoneSize = PROGRESS_MILESTONE_SIZE;
+		AtomicLong nextMilestone = new AtomicLong(milestoneSize);
+
+		this.bindings.stream().parallel().forEach(tvb1 -> {
+			for (TripleVarBinding otherB : aBindingSet.getBindings()) {
+				gbs.add(tvb1.merge(otherB));
+			}
+			final long current = progress.incrementAndGet();
+
+			if (totalCount > LARGE_BS_SIZE && current == nextMilestone.get()) {
+				LOG.trace("{}/{} BindingSet merge tasks done!", current * otherBindingSetSize, totalCount);
+				nextMilestone.set(current + milestoneSize);
 			}
+		});
 
-			// Cartesian product is the base case
-			AtomicLong progress = new AtomicLong(0);
+		if (totalCount > LARGE_BS_SIZE)
+			LOG.trace("Merging large BindingSets done!");
 
-			final int milestoneSize = PROGRESS_MILESTONE_SIZE;
-			AtomicLong nextMilestone = new AtomicLong(milestoneSize);
+		return gbs;
+	}
 
-			this.bindings.stream().parallel().forEach(tvb1 -> {
-				for (TripleVarBinding otherB : aBindingSet.getBindings()) {
-					// always add a merged version of the two bindings, except when they conflict.
-					if (!tvb1.isConflicting2(otherB, overlappingVars)) {
-						gbs.add(tvb1.merge(otherB));
-					}
+	/**
+	 * Combine the bindings of this binding set with the given binding set using a
+	 * hash join on the given overlapping variables. The hash table is built on the
+	 * smallest of both binding sets, because building is sequential while probing
+	 * happens in parallel.
+	 */
+	private TripleVarBindingSet hashJoin(TripleVarBindingSet aBindingSet, Set<Var> someOverlappingVars) {
+		final boolean buildOnThis = this.bindings.size() <= aBindingSet.getBindings().size();
+		Set<TripleVarBinding> buildSide = buildOnThis ? this.bindings : aBindingSet.getBindings();
+		Set<TripleVarBinding> probeSide = buildOnThis ? aBindingSet.getBindings() : this.bindings;
+
+		TripleVarBindingSet gbs = new TripleVarBindingSet(this.graphPattern, probeSide.size());
+		JoinIndex index = new JoinIndex(buildSide, someOverlappingVars);
+
+		probeSide.stream().parallel().forEach(probe -> {
+			for (TripleVarBinding compatible : index.getCompatible(probe)) {
+				// always merge in the same order as the Cartesian product does.
+				gbs.add(buildOnThis ? compatible.merge(probe) : probe.merge(compatible));
+			}
+		});
+
+		LOG.trace("Hash joined {} bindings with {} bindings into {} bindings.", buildSide.size(), probeSide.size(),
+				gbs.getBindings().size());
+		return gbs;
+	}
+
+	/**
+	 * A hash index of bindings on the values of a set of join variables. A binding
+	 * does not necessarily have a value for every join variable and a missing
+	 * value never conflicts. Therefore, bindings are grouped by the join variables
+	 * they have a value for and every group is indexed on the join variables that
+	 * are bound in both the group and the probing binding. The latter indices are
+	 * created lazily, because usually all bindings bind the same variables.
+	 * 
+	 * Values are hashed on their indexing value, so that literals with the same
+	 * value (see {@link Node#sameValueAs(Object)}) end up in the same bucket.
+	 */
+	private static class JoinIndex {
+
+		private final List<Var> vars;
+		private final Set<Var> varSet;
+		private final Map<BitSet, List<TripleVarBinding>> groups = new HashMap<>();
+		private final Map<List<BitSet>, Map<List<Object>, List<TripleVarBinding>>> indices = new ConcurrentHashMap<>();
+
+		public JoinIndex(Set<TripleVarBinding> someBindings, Set<Var> someVars) {
+			this.vars = new ArrayList<>(someVars);
+			this.varSet = someVars;
+			for (TripleVarBinding tvb : someBindings) {
+				this.groups.computeIfAbsent(this.getBoundVars(tvb), _ -> new ArrayList<>()).add(tvb);
+			}
+		}
+
+		/**
+		 * @return All bindings in this index that do not conflict with
+		 *         {@code aBinding} on the join variables.
+		 */
+		public List<TripleVarBinding> getCompatible(TripleVarBinding aBinding) {
+			List<TripleVarBinding> compatible = new ArrayList<>();
+			this.findCompatible(aBinding, (b1, b2) -> b2.isConflicting2(b1, this.varSet), compatible);
+			return compatible;
+		}
+
+		/**
+		 * @param aConflictCheck Determines whether {@code aBinding} (first argument)
+		 *                       really conflicts with a binding of this index (second
+		 *                       argument) that has the same values for the join
+		 *                       variables.
+		 * @return Whether there is at least one binding in this index that does not
+		 *         conflict with {@code aBinding}.
+		 */
+		public boolean hasCompatible(TripleVarBinding aBinding,
+				BiPredicate<TripleVarBinding, TripleVarBinding> aConflictCheck) {
+			return this.findCompatible(aBinding, aConflictCheck, null);
+		}
+
+		/**
+		 * Find the bindings in this index that are compatible with {@code aBinding}
+		 * and add them to {@code someCompatible}. If the latter is {@code null}, it
+		 * stops at the first compatible binding.
+		 * 
+		 * @return Whether at least one compatible binding was found.
+		 */
+		private boolean findCompatible(TripleVarBinding aBinding,
+				BiPredicate<TripleVarBinding, TripleVarBinding> aConflictCheck,
+				List<TripleVarBinding> someCompatible) {
+			BitSet probeVars = this.getBoundVars(aBinding);
+			boolean found = false;
+			for (Map.Entry<BitSet, List<TripleVarBinding>> group : this.groups.entrySet()) {
+				BitSet keyVars = (BitSet) group.getKey().clone();
+				keyVars.and(probeVars);
+
+				List<TripleVarBinding> candidates;
+				if (keyVars.isEmpty()) {
+					candidates = group.getValue();
+				} else {
+					var index = this.indices.computeIfAbsent(List.of(group.getKey(), keyVars),
+							_ -> this.createIndex(group.getValue(), keyVars));
+					candidates = index.getOrDefault(this.getKey(aBinding, keyVars), List.of());
 				}
-				final long current = progress.incrementAndGet();
 
-				if (totalCount > LARGE_BS_SIZE && current == nextMilestone.get()) {
-					LOG.trace("{}/{} BindingSet merge tasks done!", current * otherBindingSetSize, totalCount);
-					nextMilestone.set(current + milestoneSize);
+				for (TripleVarBinding candidate : candidates) {
+					// protect against values with the same indexing value that are not the same.
+					if (!aConflictCheck.test(aBinding, candidate)) {
+						found = true;
+						if (someCompatible == null)
+							return true;
+						someCompatible.add(candidate);
+					}
 				}
-			});
+			}
+			return found;
 		}
 
-		if (totalCount > LARGE_BS_SIZE)
-			LOG.trace("Merging large BindingSets done!");
+		private Map<List<Object>, List<TripleVarBinding>> createIndex(List<TripleVarBinding> someBindings,
+				BitSet someKeyVars) {
+			Map<List<Object>, List<TripleVarBinding>> index = new HashMap<>();
+			for (TripleVarBinding tvb : someBindings) {
+				index.computeIfAbsent(this.getKey(tvb, someKeyVars), _ -> new ArrayList<>()).add(tvb);
+			}
+			return index;
+		}
 
-		return gbs;
+		private BitSet getBoundVars(TripleVarBinding aBinding) {
+			BitSet bound = new BitSet(this.vars.size());
+			for (int i = 0; i < this.vars.size(); i++) {
+				if (aBinding.getVarValue(this.vars.get(i)) != null)
+					bound.set(i);
+			}
+			return bound;
+		}
+
+		private List<Object> getKey(TripleVarBinding aBinding, BitSet someKeyVars) {
+			List<Object> key = new ArrayList<>(someKeyVars.cardinality());
+			for (int i = someKeyVars.nextSetBit(0); i >= 0; i = someKeyVars.nextSetBit(i + 1)) {
+				key.add(aBinding.getVarValue(this.vars.get(i)).getIndexingValue());
+			}
+			return key;
+		}
 	}
 
 	public boolean isEmpty() {
@@ -262,7 +413,9 @@ public class TripleVarBindingSet {
 	 * The format of the mapping is expected to be translate <from triple pattern>,
 	 * <to triple pattern>.
 	 * 
-	 * It also filters bindings that are incompatible with the match.
+	 * It also filters bindings that are incompatible with the match. Every match
+	 * is compiled into a {@link MatchTranslation} once, which is then applied to
+	 * all bindings.
 	 * 
 	 * The resulting TripleVarBindingSets are stored per match to allow follow-up
 	 * computation to be more efficient.
@@ -276,58 +429,18 @@ public class TripleVarBindingSet {
 
 		long start = System.currentTimeMillis();
 		Map<Match, TripleVarBindingSet> bsPerMatch = new HashMap<>();
-		TripleVarBinding toB;
-		for (TripleVarBinding fromB : this.bindings) {
-			for (Match aMatch : someMatches) {
-
-				TripleVarBindingSet matchBS = bsPerMatch.get(aMatch);
-				if (matchBS == null) {
-					matchBS = new TripleVarBindingSet(aGraphPattern);
-					bsPerMatch.put(aMatch, matchBS);
-				}
-
-				boolean skip = false;
-				toB = new TripleVarBinding();
-				for (Map.Entry<TriplePattern, TriplePattern> keyValue : aMatch.getMatchingPatterns().entrySet()) {
-					TriplePattern fromTriple = keyValue.getKey();
-					TriplePattern toTriple = keyValue.getValue();
-					Map<TripleNode, TripleNode> mapping = fromTriple.findMatches(toTriple);
-					for (Map.Entry<TripleNode, TripleNode> singleMap : mapping.entrySet()) {
-						TripleNode toTNode = singleMap.getValue();
-						TripleNode fromTNode = singleMap.getKey();
-
-						// first consider all possible combinations of concrete and variable nodes.
-						// note that there are slight variations in how we want to translate filter
-						// and result bindingsets
-						if (fromTNode.node instanceof Var && toTNode.node instanceof Var) {
-							var fromTVar = new TripleNode(fromTriple, (Var) fromTNode.node, fromTNode.nodeIdx);
-							var toTVar = new TripleNode(toTriple, (Var) toTNode.node, toTNode.nodeIdx);
-							var toBVarValue = toB.getVarValue((Var) toTVar.node);
-							if (fromB.containsKey(fromTVar) && !toB.containsKey(toTVar)
-									&& (toBVarValue == null || toBVarValue.sameValueAs(fromB.get(fromTVar)))) {
-								toB.put(toTVar, fromB.get(fromTVar));
-							} else if (fromB.containsKey(fromTVar) && toB.containsVar((Var) toTVar.node)
-									&& !fromB.get(fromTVar).sameValueAs(toBVarValue)) {
-								skip = true; // conflict, so skip
-							}
-						} else if (fromTNode.node instanceof Var && toTNode.node.isConcrete()) {
-							var fromTVar = new TripleNode(fromTriple, (Var) fromTNode.node, fromTNode.nodeIdx);
-							if (fromB.containsKey(fromTVar) && !fromB.get(fromTVar).sameValueAs(toTNode.node)) {
-								skip = true; // conflict, so skip
-							}
-						} else if (fromTNode.node.isConcrete() && toTNode.node instanceof Var) {
-							var toTVar = new TripleNode(toTriple, (Var) toTNode.node, toTNode.nodeIdx);
-							if (toB.containsVar((Var) toTVar.node)
-									&& !toB.getVarValue((Var) toTVar.node).sameValueAs(fromTNode.node)) {
-								skip = true;
-							} else
-								toB.put(toTVar, fromTNode.node);
-						}
-					}
-				}
-				if (!skip)
+		if (this.bindings.isEmpty())
+			return bsPerMatch;
+
+		for (Match aMatch : someMatches) {
+			MatchTranslation translation = aMatch.getTranslation();
+			TripleVarBindingSet matchBS = new TripleVarBindingSet(aGraphPattern);
+			for (TripleVarBinding fromB : this.bindings) {
+				TripleVarBinding toB = translation.translate(fromB);
+				if (toB != null)
 					matchBS.add(toB);
 			}
+			bsPerMatch.put(aMatch, matchBS);
 		}
 
 		LOG.trace("Translated binding set with '{}' bindings and '{}' matches in '{}ms'.", this.bindings.size(),
@@ -342,32 +455,36 @@ public class TripleVarBindingSet {
 
 	/**
 	 * Only keep those bindings in {@code this} bindingset that are compatible with
-	 * the bindings in the given {@code bindingSet}.
+	 * the bindings in the given {@code bindingSet}. This is a semi-join: the given
+	 * binding set is indexed on its variables (see {@link JoinIndex}) and every
+	 * binding of {@code this} bindingset probes the index once.
 	 * 
 	 * @param bindingSet
 	 * @return A new binding set that only contains the compatible bindings.
 	 */
 	public TripleVarBindingSet keepCompatible(TripleVarBindingSet bindingSet) {
 
-		TripleVarBindingSet newBS = new TripleVarBindingSet(this.getGraphPattern());
-
-		for (TripleVarBinding b : this.getBindings()) {
+		TripleVarBindingSet newBS = new TripleVarBindingSet(this.getGraphPattern(), this.bindings.size());
 
-			if (!bindingSet.isEmpty()) {
-				for (TripleVarBinding b2 : bindingSet.getBindings()) {
+		Set<Var> vars = new HashSet<>();
+		for (TripleVarBinding b2 : bindingSet.getBindings()) {
+			// an empty binding is compatible with everything.
+			if (b2.isEmpty()) {
+				newBS.addAll(this.bindings);
+				return newBS;
+			}
+			vars.addAll(b2.getVars());
+		}
 
-					if (!b2.isEmpty()) {
+		if (bindingSet.isEmpty()) {
+			newBS.addAll(this.bindings);
+			return newBS;
+		}
 
-						if (!b.isConflicting(b2)) {
-							newBS.add(b);
-						}
-					} else {
-						newBS.add(b);
-					}
-				}
-			} else {
+		JoinIndex index = new JoinIndex(bindingSet.getBindings(), vars);
+		for (TripleVarBinding b : this.getBindings()) {
+			if (index.hasCompatible(b, (b1, b2) -> b1.isConflicting(b2)))
 				newBS.add(b);
-			}
 		}
 
 		return newBS;
@@ -1,7 +1,7 @@
 package eu.knowledge.engine.reasoner.rulenode;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import eu.knowledge.engine.reasoner.BaseRule;
 import eu.knowledge.engine.reasoner.Rule;
@@ -38,20 +38,18 @@ public class ActiveAntRuleNode extends AntRuleNode {
 	}
 
 	@Override
-	public Future<Void> applyRule() {
+	public Supplier<CompletableFuture<Void>> prepareApplyRule() {
 		assert this.getRule() instanceof Rule;
 
 		var handler = ((Rule) this.getRule()).getSinkBindingSetHandler();
 		TripleVarBindingSet fullBindingSet = this.resultBindingSetInput.get().getFullBindingSet();
 
-		CompletableFuture<Void> f;
 		if (!fullBindingSet.isEmpty()) {
-			f = handler.handle(fullBindingSet.toBindingSet());
+			BindingSet input = fullBindingSet.toBindingSet();
+			return () -> handler.handle(input);
 		} else {
-			f = new CompletableFuture<Void>();
-			f.complete(null);
+			return () -> CompletableFuture.completedFuture(null);
 		}
-		return f;
 	}
 
 	@Override
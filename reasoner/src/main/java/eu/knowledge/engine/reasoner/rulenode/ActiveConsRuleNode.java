@@ -1,9 +1,12 @@
 package eu.knowledge.engine.reasoner.rulenode;
 
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import eu.knowledge.engine.reasoner.BaseRule;
 import eu.knowledge.engine.reasoner.Rule;
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.reasoner.api.TripleVarBindingSet;
 
 /**
  * Active means it has a bindingsethandler and can be applied.
@@ -33,18 +36,27 @@ public class ActiveConsRuleNode extends ConsRuleNode {
 	}
 
 	@Override
-	public Future<Void> applyRule() {
+	public Supplier<CompletableFuture<Void>> prepareApplyRule() {
 		assert this.readyForApplyRule();
 		assert this.getRule() instanceof Rule;
 		var handler = ((Rule) this.getRule()).getBindingSetHandler();
+		BindingSet input = this.filterBindingSetInput.get().toBindingSet();
 
+		return () -> handler.handle(input).thenAccept(result -> {
+			this.setResultBindingSetOutput(result.toTripleVarBindingSet(this.getRule().getConsequent()));
+		});
+	}
+
+	private void setResultBindingSetOutput(TripleVarBindingSet aResult) {
 		var previousBindingSetOutput = this.resultBindingSetOutput;
+		this.resultBindingSetOutput = aResult;
+		if (!this.resultBindingSetOutput.equals(previousBindingSetOutput))
+			this.isResultBindingSetOutputDirty = true;
+	}
 
-		return handler.handle(this.filterBindingSetInput.get().toBindingSet()).thenAccept(result -> {
-			this.resultBindingSetOutput = result.toTripleVarBindingSet(this.getRule().getConsequent());
-			if (!this.resultBindingSetOutput.equals(previousBindingSetOutput))
-				this.isResultBindingSetOutputDirty = true;
-		});
+	@Override
+	public void setEmptyResultBindingSetOutput() {
+		this.setResultBindingSetOutput(new TripleVarBindingSet(this.getRule().getConsequent()));
 	}
 
 	@Override
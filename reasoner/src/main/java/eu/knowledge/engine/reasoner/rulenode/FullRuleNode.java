@@ -7,8 +7,8 @@ import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -20,6 +20,7 @@ import eu.knowledge.engine.reasoner.BaseRule.CombiMatch;
 import eu.knowledge.engine.reasoner.ConsSide;
 import eu.knowledge.engine.reasoner.Match;
 import eu.knowledge.engine.reasoner.Rule;
+import eu.knowledge.engine.reasoner.api.BindingSet;
 import eu.knowledge.engine.reasoner.api.TripleVarBindingSet;
 
 /**
@@ -183,7 +184,7 @@ public class FullRuleNode extends RuleNode implements AntSide, ConsSide {
 	}
 
 	@Override
-	public Future<Void> applyRule() {
+	public Supplier<CompletableFuture<Void>> prepareApplyRule() {
 		assert this.readyForApplyRule();
 		assert this.getRule() instanceof Rule;
 		var handler = ((Rule) this.getRule()).getBindingSetHandler();
@@ -191,23 +192,28 @@ public class FullRuleNode extends RuleNode implements AntSide, ConsSide {
 
 		var previousBindingSetOutput = this.resultBindingSetOutput;
 
-		CompletableFuture<Void> f;
 		if (!fullBindingSet.isEmpty()) {
-			f = handler.handle(fullBindingSet.toBindingSet()).thenAccept(result -> {
+			BindingSet input = fullBindingSet.toBindingSet();
+			return () -> handler.handle(input).thenAccept(result -> {
 				this.resultBindingSetOutput = result.toTripleVarBindingSet(this.getRule().getConsequent());
 				if (!this.resultBindingSetOutput.equals(previousBindingSetOutput))
 					this.isResultBindingSetOutputDirty = true;
 
 			});
 		} else {
-			f = new CompletableFuture<>();
 			this.resultBindingSetOutput = new TripleVarBindingSet(this.getRule().getConsequent());
-			f.complete(null);
 			if (!this.resultBindingSetOutput.equals(previousBindingSetOutput))
 				this.isResultBindingSetOutputDirty = true;
+			return () -> CompletableFuture.completedFuture(null);
 		}
+	}
 
-		return f;
+	@Override
+	public void setEmptyResultBindingSetOutput() {
+		var previousBindingSetOutput = this.resultBindingSetOutput;
+		this.resultBindingSetOutput = new TripleVarBindingSet(this.getRule().getConsequent());
+		if (!this.resultBindingSetOutput.equals(previousBindingSetOutput))
+			this.isResultBindingSetOutputDirty = true;
 	}
 
 	/**
@@ -1,7 +1,7 @@
 package eu.knowledge.engine.reasoner.rulenode;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import eu.knowledge.engine.reasoner.BaseRule;
 import eu.knowledge.engine.reasoner.api.BindingSet;
@@ -41,11 +41,11 @@ public class PassiveAntRuleNode extends AntRuleNode {
 	}
 
 	@Override
-	public Future<Void> applyRule() {
+	public Supplier<CompletableFuture<Void>> prepareApplyRule() {
 		assert false;
 		CompletableFuture<Void> f = new CompletableFuture<>();
 		f.completeExceptionally(new IllegalStateException("`applyRule` cannot be called for PassiveAntRuleNodes."));
-		return f;
+		return () -> f;
 	}
 
 	@Override
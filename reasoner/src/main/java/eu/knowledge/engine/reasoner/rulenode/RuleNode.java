@@ -7,12 +7,14 @@ import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import eu.knowledge.engine.reasoner.AntSide;
 import eu.knowledge.engine.reasoner.BaseRule;
 import eu.knowledge.engine.reasoner.Match;
 import eu.knowledge.engine.reasoner.ProactiveRule;
+import eu.knowledge.engine.reasoner.TaskScheduler;
 import eu.knowledge.engine.reasoner.api.TriplePattern;
 import eu.knowledge.engine.reasoner.api.TripleVarBindingSet;
 
@@ -38,7 +40,26 @@ public abstract class RuleNode {
 
 	public abstract Set<RuleNode> getAllNeighbours();
 
-	public abstract Future<Void> applyRule();
+	/**
+	 * Apply the rule of this node to its current input, i.e. call the binding set
+	 * handler of its rule.
+	 * 
+	 * @return A future that completes when the rule has been applied.
+	 */
+	public CompletableFuture<Void> applyRule() {
+		return this.prepareApplyRule().get();
+	}
+
+	/**
+	 * Take the current input of this node and return an action that applies the
+	 * rule to it. The action only writes the result binding set output of this
+	 * node, so it can run without holding the lock that protects the other binding
+	 * sets of the plan (see {@link TaskScheduler}).
+	 * 
+	 * @return An action that calls the binding set handler of the rule and returns
+	 *         a future that completes when the rule has been applied.
+	 */
+	public abstract Supplier<CompletableFuture<Void>> prepareApplyRule();
 
 	public abstract boolean readyForApplyRule();
 
@@ -56,6 +77,13 @@ public abstract class RuleNode {
 
 	public abstract Set<RuleNode> getAllSameLoopNeighbors();
 
+	/**
+	 * Give this node an empty result, for example because applying its rule
+	 * failed. Nodes without a result binding set output ignore this.
+	 */
+	public void setEmptyResultBindingSetOutput() {
+	}
+
 	public void setResultBindingSetInputAlreadyScheduledOrDone(boolean b) {
 		this.resultBindingSetOutputScheduled = b;
 	}
@@ -1,6 +1,8 @@
 package eu.knowledge.engine.reasoner.rulestore;
 
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -8,6 +10,7 @@ import eu.knowledge.engine.reasoner.BaseRule;
 import eu.knowledge.engine.reasoner.BaseRule.CombiMatch;
 import eu.knowledge.engine.reasoner.BaseRule.MatchFlag;
 import eu.knowledge.engine.reasoner.Match;
+import eu.knowledge.engine.reasoner.api.TriplePattern;
 
 /**
  * This class encapsulates and stores the information about which rule matches
@@ -67,10 +70,61 @@ public class MatchNode {
 	 */
 	private Set<CombiMatch> consequentCombiMatches;
 
+	/**
+	 * The matches per triple pattern of this rule's antecedent per candidate rule
+	 * in the store. Candidate rules without any match are not included. This
+	 * mapping remains null until it is first needed and is kept up to date when
+	 * rules are added to or removed from the store.
+	 */
+	private Map<BaseRule, Map<TriplePattern, Set<CombiMatch>>> antecedentMatchesPerRule;
+
+	/**
+	 * The matches per triple pattern of this rule's consequent per candidate rule
+	 * in the store.
+	 * 
+	 * @see #antecedentMatchesPerRule
+	 */
+	private Map<BaseRule, Map<TriplePattern, Set<CombiMatch>>> consequentMatchesPerRule;
+
+	/**
+	 * The combi matches on the antecedent side per {@link MatchFlag}
+	 * configuration. Cleared whenever {@link #antecedentMatchesPerRule} changes.
+	 */
+	private Map<EnumSet<MatchFlag>, Set<CombiMatch>> cachedAntecedentCombiMatches;
+
+	/**
+	 * The combi matches on the consequent side per {@link MatchFlag}
+	 * configuration. Cleared whenever {@link #consequentMatchesPerRule} changes.
+	 */
+	private Map<EnumSet<MatchFlag>, Set<CombiMatch>> cachedConsequentCombiMatches;
+
 	public MatchNode(BaseRule aRule) {
 		this.rule = aRule;
 		this.antecedentNeighbors = new HashMap<>();
 		this.consequentNeighbors = new HashMap<>();
+		this.cachedAntecedentCombiMatches = new HashMap<>();
+		this.cachedConsequentCombiMatches = new HashMap<>();
+	}
+
+	/**
+	 * Create a copy of the given node for another store. The matches that were
+	 * already found are shared with the copy, because they are replaced (rather
+	 * than modified) when they change.
+	 */
+	MatchNode(MatchNode aNode) {
+		this.rule = aNode.rule;
+		this.antecedentNeighbors = new HashMap<>(aNode.antecedentNeighbors);
+		this.consequentNeighbors = new HashMap<>(aNode.consequentNeighbors);
+		if (aNode.antecedentCombiMatches != null)
+			this.antecedentCombiMatches = new HashSet<>(aNode.antecedentCombiMatches);
+		if (aNode.consequentCombiMatches != null)
+			this.consequentCombiMatches = new HashSet<>(aNode.consequentCombiMatches);
+		if (aNode.antecedentMatchesPerRule != null)
+			this.antecedentMatchesPerRule = new HashMap<>(aNode.antecedentMatchesPerRule);
+		if (aNode.consequentMatchesPerRule != null)
+			this.consequentMatchesPerRule = new HashMap<>(aNode.consequentMatchesPerRule);
+		this.cachedAntecedentCombiMatches = new HashMap<>(aNode.cachedAntecedentCombiMatches);
+		this.cachedConsequentCombiMatches = new HashMap<>(aNode.cachedConsequentCombiMatches);
 	}
 
 	public BaseRule getRule() {
@@ -136,11 +190,95 @@ public class MatchNode {
 		return this.store;
 	}
 
+	public Map<BaseRule, Map<TriplePattern, Set<CombiMatch>>> getAntecedentMatchesPerRule() {
+		return this.antecedentMatchesPerRule;
+	}
+
+	public void setAntecedentMatchesPerRule(
+			Map<BaseRule, Map<TriplePattern, Set<CombiMatch>>> someAntecedentMatchesPerRule) {
+		this.antecedentMatchesPerRule = someAntecedentMatchesPerRule;
+		this.cachedAntecedentCombiMatches.clear();
+	}
+
+	public Map<BaseRule, Map<TriplePattern, Set<CombiMatch>>> getConsequentMatchesPerRule() {
+		return this.consequentMatchesPerRule;
+	}
+
+	public void setConsequentMatchesPerRule(
+			Map<BaseRule, Map<TriplePattern, Set<CombiMatch>>> someConsequentMatchesPerRule) {
+		this.consequentMatchesPerRule = someConsequentMatchesPerRule;
+		this.cachedConsequentCombiMatches.clear();
+	}
+
+	public Set<CombiMatch> getCachedAntecedentCombiMatches(EnumSet<MatchFlag> aConfig) {
+		return this.cachedAntecedentCombiMatches.get(aConfig);
+	}
+
+	public void cacheAntecedentCombiMatches(EnumSet<MatchFlag> aConfig, Set<CombiMatch> someCombiMatches) {
+		this.cachedAntecedentCombiMatches.put(EnumSet.copyOf(aConfig), someCombiMatches);
+	}
+
+	public Set<CombiMatch> getCachedConsequentCombiMatches(EnumSet<MatchFlag> aConfig) {
+		return this.cachedConsequentCombiMatches.get(aConfig);
+	}
+
+	public void cacheConsequentCombiMatches(EnumSet<MatchFlag> aConfig, Set<CombiMatch> someCombiMatches) {
+		this.cachedConsequentCombiMatches.put(EnumSet.copyOf(aConfig), someCombiMatches);
+	}
+
+	/**
+	 * Update the already found matches of this node with the given candidate rule
+	 * that was added to the store. Only the sides of this node that actually match
+	 * the candidate rule lose their cached combi matches.
+	 * 
+	 * @param aCandidateRule The rule that was added to the store.
+	 */
+	public void addCandidate(BaseRule aCandidateRule) {
+		if (this.antecedentMatchesPerRule != null) {
+			var matches = BaseRule.getMatchesPerTriple(this.rule.getAntecedent(), aCandidateRule, true);
+			if (!matches.isEmpty()) {
+				this.antecedentMatchesPerRule.put(aCandidateRule, matches);
+				this.cachedAntecedentCombiMatches.clear();
+			}
+		}
+
+		if (this.consequentMatchesPerRule != null) {
+			var matches = BaseRule.getMatchesPerTriple(this.rule.getConsequent(), aCandidateRule, false);
+			if (!matches.isEmpty()) {
+				this.consequentMatchesPerRule.put(aCandidateRule, matches);
+				this.cachedConsequentCombiMatches.clear();
+			}
+		}
+	}
+
+	/**
+	 * Remove all information about the given candidate rule that was removed from
+	 * the store. Only the sides of this node that matched the candidate rule lose
+	 * their cached combi matches.
+	 * 
+	 * @param aCandidateRule The rule that was removed from the store.
+	 */
+	public void removeCandidate(BaseRule aCandidateRule) {
+		this.antecedentNeighbors.remove(aCandidateRule);
+		this.consequentNeighbors.remove(aCandidateRule);
+
+		if (this.antecedentMatchesPerRule != null && this.antecedentMatchesPerRule.remove(aCandidateRule) != null)
+			this.cachedAntecedentCombiMatches.clear();
+
+		if (this.consequentMatchesPerRule != null && this.consequentMatchesPerRule.remove(aCandidateRule) != null)
+			this.cachedConsequentCombiMatches.clear();
+	}
+
 	public void reset() {
-		this.antecedentCombiMatches.clear();
+		if (this.antecedentCombiMatches != null)
+			this.antecedentCombiMatches.clear();
 		this.antecedentNeighbors.clear();
-		this.consequentCombiMatches.clear();
+		if (this.consequentCombiMatches != null)
+			this.consequentCombiMatches.clear();
 		this.consequentNeighbors.clear();
-
+		this.antecedentMatchesPerRule = null;
+		this.consequentMatchesPerRule = null;
+		this.cachedAntecedentCombiMatches.clear();
+		this.cachedConsequentCombiMatches.clear();
 	}
 }
@@ -0,0 +1,144 @@
+package eu.knowledge.engine.reasoner.rulestore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.vocabulary.RDF;
+
+import eu.knowledge.engine.reasoner.BaseRule;
+import eu.knowledge.engine.reasoner.api.TriplePattern;
+
+/**
+ * An inverted index of the triple patterns of either the antecedents or the
+ * consequents of rules. It is used to quickly find the rules that can possibly
+ * match a graph pattern, so that the (expensive) matching process only needs to
+ * consider those rules.
+ *
+ * Triple patterns are indexed by their concrete predicate and, for
+ * {@code rdf:type} triple patterns, by their concrete object. Triple patterns
+ * with a variable predicate end up in a wildcard bucket, because they can match
+ * any triple pattern.
+ */
+public class RuleIndex {
+
+	private static final Node RDF_TYPE = RDF.type.asNode();
+
+	/**
+	 * Whether this index contains the antecedents (or consequents) of the rules.
+	 */
+	private final boolean antecedent;
+
+	/**
+	 * All rules with a non-empty antecedent/consequent.
+	 */
+	private final Set<BaseRule> allRules = new HashSet<>();
+
+	/**
+	 * The rules per concrete predicate.
+	 */
+	private final Map<Node, Set<BaseRule>> rulesPerPredicate = new HashMap<>();
+
+	/**
+	 * The rules per concrete object of an {@code rdf:type} triple pattern.
+	 */
+	private final Map<Node, Set<BaseRule>> rulesPerType = new HashMap<>();
+
+	/**
+	 * The rules with an {@code rdf:type} triple pattern with a variable object.
+	 */
+	private final Set<BaseRule> wildcardTypeRules = new HashSet<>();
+
+	/**
+	 * The rules with a triple pattern with a variable predicate.
+	 */
+	private final Set<BaseRule> wildcardPredicateRules = new HashSet<>();
+
+	/**
+	 * @param anAntecedent Whether to index the antecedents (or consequents) of the
+	 *                     rules.
+	 */
+	public RuleIndex(boolean anAntecedent) {
+		this.antecedent = anAntecedent;
+	}
+
+	public void add(BaseRule aRule) {
+		Set<TriplePattern> pattern = this.getPattern(aRule);
+		if (pattern.isEmpty())
+			return;
+
+		this.allRules.add(aRule);
+		for (TriplePattern tp : pattern) {
+			for (Set<BaseRule> bucket : this.getBuckets(tp, true))
+				bucket.add(aRule);
+		}
+	}
+
+	public void remove(BaseRule aRule) {
+		if (!this.allRules.remove(aRule))
+			return;
+
+		for (TriplePattern tp : this.getPattern(aRule)) {
+			for (Set<BaseRule> bucket : this.getBuckets(tp, false))
+				bucket.remove(aRule);
+		}
+	}
+
+	/**
+	 * Find the rules whose antecedent/consequent can possibly match one or more
+	 * triple patterns of {@code aPattern}. Note that this is an overestimation:
+	 * the actual matching process determines whether they really match.
+	 *
+	 * @param aPattern The graph pattern to find candidate rules for.
+	 * @return The candidate rules.
+	 */
+	public Set<BaseRule> getCandidates(Set<TriplePattern> aPattern) {
+		Set<BaseRule> candidates = new HashSet<>();
+		for (TriplePattern tp : aPattern) {
+			Node p = tp.getPredicate();
+			if (!p.isURI())
+				return new HashSet<>(this.allRules);
+
+			candidates.addAll(this.wildcardPredicateRules);
+			if (p.equals(RDF_TYPE) && tp.getObject().isURI()) {
+				candidates.addAll(this.rulesPerType.getOrDefault(tp.getObject(), Set.of()));
+				candidates.addAll(this.wildcardTypeRules);
+			} else {
+				candidates.addAll(this.rulesPerPredicate.getOrDefault(p, Set.of()));
+			}
+		}
+		return candidates;
+	}
+
+	private Set<TriplePattern> getPattern(BaseRule aRule) {
+		return this.antecedent ? aRule.getAntecedent() : aRule.getConsequent();
+	}
+
+	/**
+	 * @return The buckets the given triple pattern belongs to. Missing buckets are
+	 *         only created if {@code create} is {@code true}.
+	 */
+	private List<Set<BaseRule>> getBuckets(TriplePattern aTriplePattern, boolean create) {
+		List<Set<BaseRule>> buckets = new ArrayList<>(2);
+		Node p = aTriplePattern.getPredicate();
+		if (!p.isURI()) {
+			buckets.add(this.wildcardPredicateRules);
+			return buckets;
+		}
+
+		buckets.add(getBucket(this.rulesPerPredicate, p, create));
+		if (p.equals(RDF_TYPE)) {
+			Node o = aTriplePattern.getObject();
+			buckets.add(o.isURI() ? getBucket(this.rulesPerType, o, create) : this.wildcardTypeRules);
+		}
+		return buckets;
+	}
+
+	private static Set<BaseRule> getBucket(Map<Node, Set<BaseRule>> aMap, Node aKey, boolean create) {
+		return create ? aMap.computeIfAbsent(aKey, _ -> new HashSet<>()) : aMap.getOrDefault(aKey, new HashSet<>());
+	}
+}
@@ -27,7 +27,9 @@ import eu.knowledge.engine.reasoner.rulenode.RuleNode;
 
 /**
  * The rule store contains all the rules that are to be considered by the
- * reasoner.
+ * reasoner. A store can be long-lived, because the matches between its rules
+ * are kept up to date when rules are added or removed. A store is not
+ * thread-safe; threads that share a store should synchronize on it.
  * 
  * @author nouwtb
  *
@@ -43,16 +45,85 @@ public class RuleStore {
 	 */
 	private Map<BaseRule, MatchNode> ruleToMatchNode;
 
+	/**
+	 * Indices of the antecedents and consequents of all rules in this store, to
+	 * quickly find the rules that can possibly match a graph pattern.
+	 */
+	private RuleIndex antecedentIndex;
+	private RuleIndex consequentIndex;
+
 	/**
 	 * Instantiate an empty rule store.
 	 */
 	public RuleStore() {
 		ruleToMatchNode = new HashMap<>();
+		antecedentIndex = new RuleIndex(true);
+		consequentIndex = new RuleIndex(false);
+	}
+
+	/**
+	 * Create a copy of this store that contains the same rules and the matches
+	 * that were already found between them. Adding rules to or removing rules
+	 * from the copy does not affect this store, so a copy can be updated
+	 * incrementally while other threads still use this store.
+	 * 
+	 * @return A copy of this store.
+	 */
+	public RuleStore copy() {
+		var copy = new RuleStore();
+		for (MatchNode node : this.ruleToMatchNode.values()) {
+			copy.ruleToMatchNode.put(node.getRule(), new MatchNode(node));
+			copy.antecedentIndex.add(node.getRule());
+			copy.consequentIndex.add(node.getRule());
+		}
+		return copy;
 	}
 
+	/**
+	 * Add a rule to this store. The matches that were already calculated for the
+	 * other rules in this store are updated incrementally, i.e. only the rules
+	 * that match {@code aRule} need to recalculate their combi matches.
+	 * 
+	 * @param aRule The rule to add.
+	 */
 	public void addRule(BaseRule aRule) {
 		MatchNode aMatchNode = new MatchNode(aRule);
 		this.ruleToMatchNode.put(aRule, aMatchNode);
+		this.antecedentIndex.add(aRule);
+		this.consequentIndex.add(aRule);
+
+		for (BaseRule r : this.getAffectedRules(aRule)) {
+			this.ruleToMatchNode.get(r).addCandidate(aRule);
+		}
+	}
+
+	/**
+	 * Remove a rule from this store. Like {@link #addRule(BaseRule)}, only the
+	 * rules that matched {@code aRule} need to recalculate their combi matches.
+	 * 
+	 * @param aRule The rule to remove.
+	 * @return {@code true} if this store contained {@code aRule}.
+	 */
+	public boolean removeRule(BaseRule aRule) {
+		if (this.ruleToMatchNode.remove(aRule) == null)
+			return false;
+		this.antecedentIndex.remove(aRule);
+		this.consequentIndex.remove(aRule);
+
+		for (BaseRule r : this.getAffectedRules(aRule)) {
+			this.ruleToMatchNode.get(r).removeCandidate(aRule);
+		}
+		return true;
+	}
+
+	/**
+	 * @return The rules in this store whose antecedent or consequent can possibly
+	 *         match the consequent or antecedent of {@code aRule}, respectively.
+	 */
+	private Set<BaseRule> getAffectedRules(BaseRule aRule) {
+		Set<BaseRule> affected = this.antecedentIndex.getCandidates(aRule.getConsequent());
+		affected.addAll(this.consequentIndex.getCandidates(aRule.getAntecedent()));
+		return affected;
 	}
 
 	/**
@@ -93,11 +164,18 @@ public class RuleStore {
 
 		assert aMatchNode != null;
 
-		// calculate matches
-		Set<CombiMatch> combiMatches = BaseRule.getMatches(aRule, this.getRules(), true, aConfig);
+		// calculate matches (if not already known)
+		Set<CombiMatch> combiMatches = aMatchNode.getCachedAntecedentCombiMatches(aConfig);
+		if (combiMatches == null) {
+			if (aMatchNode.getAntecedentMatchesPerRule() == null)
+				aMatchNode.setAntecedentMatchesPerRule(this.getMatchesPerRule(aRule.getAntecedent(), true));
+			combiMatches = BaseRule.getMatches(aRule, mergeMatchesPerRule(aMatchNode.getAntecedentMatchesPerRule()),
+					true, aConfig);
+			aMatchNode.cacheAntecedentCombiMatches(aConfig, combiMatches);
+		}
 
-		// store combi matches
-		aMatchNode.setAntecedentCombiMatches(combiMatches);
+		// store combi matches (a copy, because the reasoner plan might modify them)
+		aMatchNode.setAntecedentCombiMatches(new HashSet<>(combiMatches));
 
 		// store normal matches
 		Map<BaseRule, Set<Match>> newMapping = convertToMapping(combiMatches);
@@ -123,6 +201,33 @@ public class RuleStore {
 		return mn.getConsequentCombiMatches();
 	}
 
+	/**
+	 * Find the matches per triple pattern of {@code aTargetPattern} for every
+	 * rule in this store. Only the rules that can possibly match (according to
+	 * the index) are actually matched.
+	 */
+	private Map<BaseRule, Map<TriplePattern, Set<CombiMatch>>> getMatchesPerRule(Set<TriplePattern> aTargetPattern,
+			boolean useCandidateConsequent) {
+		var matchesPerRule = new HashMap<BaseRule, Map<TriplePattern, Set<CombiMatch>>>();
+		Map<TriplePattern, Set<CombiMatch>> matches;
+		RuleIndex index = useCandidateConsequent ? this.consequentIndex : this.antecedentIndex;
+		for (BaseRule candidate : index.getCandidates(aTargetPattern)) {
+			matches = BaseRule.getMatchesPerTriple(aTargetPattern, candidate, useCandidateConsequent);
+			if (!matches.isEmpty())
+				matchesPerRule.put(candidate, matches);
+		}
+		return matchesPerRule;
+	}
+
+	private static Map<TriplePattern, Set<CombiMatch>> mergeMatchesPerRule(
+			Map<BaseRule, Map<TriplePattern, Set<CombiMatch>>> someMatchesPerRule) {
+		var matchesPerTriple = new HashMap<TriplePattern, Set<CombiMatch>>();
+		for (Map<TriplePattern, Set<CombiMatch>> matches : someMatchesPerRule.values()) {
+			BaseRule.addMatchesPerTriple(matchesPerTriple, matches);
+		}
+		return matchesPerTriple;
+	}
+
 	private Map<BaseRule, Set<Match>> convertToMapping(Set<CombiMatch> someMatches) {
 		var mapping = new HashMap<BaseRule, Set<Match>>();
 
@@ -152,7 +257,8 @@ public class RuleStore {
 	 * rules in {@code store} whose antecedent matches this rule's consequent. Note
 	 * that it also adds the same information to the neighbor.<br />
 	 * 
-	 * This method is cached to improve performance.
+	 * This method is cached to improve performance. The cache is kept up to date
+	 * when rules are added to or removed from this store.
 	 * 
 	 * @return A mapping from a neighbor rulenode and the way its antecedent matches
 	 *         this rule's consequent.
@@ -162,11 +268,18 @@ public class RuleStore {
 
 		assert aMatchNode != null;
 
-		// calculate matches
-		Set<CombiMatch> combiMatches = BaseRule.getMatches(aRule, this.getRules(), false, aConfig);
+		// calculate matches (if not already known)
+		Set<CombiMatch> combiMatches = aMatchNode.getCachedConsequentCombiMatches(aConfig);
+		if (combiMatches == null) {
+			if (aMatchNode.getConsequentMatchesPerRule() == null)
+				aMatchNode.setConsequentMatchesPerRule(this.getMatchesPerRule(aRule.getConsequent(), false));
+			combiMatches = BaseRule.getMatches(aRule, mergeMatchesPerRule(aMatchNode.getConsequentMatchesPerRule()),
+					false, aConfig);
+			aMatchNode.cacheConsequentCombiMatches(aConfig, combiMatches);
+		}
 
-		// store combi matches
-		aMatchNode.setConsequentCombiMatches(combiMatches);
+		// store combi matches (a copy, because the reasoner plan might modify them)
+		aMatchNode.setConsequentCombiMatches(new HashSet<>(combiMatches));
 
 		// store normal matches
 		Map<BaseRule, Set<Match>> newMapping = convertToMapping(combiMatches);
@@ -181,7 +294,7 @@ public class RuleStore {
 
 	/**
 	 * Resets all the rules in this store. I.e. removes the caching related to who's
-	 * the neighbor of who.
+	 * the neighbor of who and how they match.
 	 */
 	public void reset() {
 		for (MatchNode r : this.ruleToMatchNode.values()) {
@@ -201,7 +314,7 @@ public class RuleStore {
 		LOG.info(getGraphVizCode(aPlan, urlOnly));
 	}
 
-	public String getGraphVizCode(ReasonerPlan aPlan, boolean urlOnly) {
+	public synchronized String getGraphVizCode(ReasonerPlan aPlan, boolean urlOnly) {
 
 		String color = "red";
 		String width = "1.5";
@@ -0,0 +1,135 @@
+package eu.knowledge.engine.reasoner.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * A thread-safe cache that holds at most a maximum number of entries. When it
+ * is full, the least recently used entry is evicted, so the entries that are
+ * used often stay in the cache even if many other entries pass through it.
+ *
+ * To limit contention, the cache is split into segments that each have their
+ * own lock and evict their own least recently used entry. So the evicted entry
+ * is the least recently used one of its segment, not necessarily of the whole
+ * cache.
+ */
+public final class LruCache<K, V> {
+
+	private static final int MAX_SEGMENTS = 16;
+
+	/**
+	 * The minimum number of entries per segment. Smaller caches have fewer
+	 * segments, so their eviction stays close to least recently used.
+	 */
+	private static final int MIN_SEGMENT_SIZE = 64;
+
+	private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+		private static final long serialVersionUID = 1L;
+		private final int maxSize;
+
+		private Segment(int aMaxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = aMaxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			return this.size() > this.maxSize;
+		}
+	}
+
+	private final Segment<K, V>[] segments;
+
+	/**
+	 * @param aMaxSize The maximum number of entries in this cache.
+	 */
+	@SuppressWarnings("unchecked")
+	public LruCache(int aMaxSize) {
+		if (aMaxSize <= 0)
+			throw new IllegalArgumentException("The maximum size should be positive.");
+
+		// a power of two, so the segment of a key can be found with a mask.
+		int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, aMaxSize / MIN_SEGMENT_SIZE)));
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++)
+			this.segments[i] = new Segment<>(aMaxSize / count);
+	}
+
+	private Segment<K, V> segment(Object aKey) {
+		int h = aKey.hashCode();
+		return this.segments[(h ^ (h >>> 16)) & (this.segments.length - 1)];
+	}
+
+	/**
+	 * @return The value of the given key, or {@code null} if it is not in this
+	 *         cache.
+	 */
+	public V get(K aKey) {
+		Segment<K, V> segment = this.segment(aKey);
+		synchronized (segment) {
+			return segment.get(aKey);
+		}
+	}
+
+	public void put(K aKey, V aValue) {
+		Segment<K, V> segment = this.segment(aKey);
+		synchronized (segment) {
+			segment.put(aKey, aValue);
+		}
+	}
+
+	/**
+	 * @return The value that was already in this cache for the given key, or
+	 *         {@code null} if the given value was added.
+	 */
+	public V putIfAbsent(K aKey, V aValue) {
+		Segment<K, V> segment = this.segment(aKey);
+		synchronized (segment) {
+			return segment.putIfAbsent(aKey, aValue);
+		}
+	}
+
+	/**
+	 * Atomically compute the value of the given key from its current value (or
+	 * {@code null}), like {@link Map#compute(Object, BiFunction)}. The function is
+	 * called while holding a lock, so it should be fast.
+	 * 
+	 * @return The new value of the given key, or {@code null} if it was removed.
+	 */
+	public V compute(K aKey, BiFunction<? super K, ? super V, ? extends V> aFunction) {
+		Segment<K, V> segment = this.segment(aKey);
+		synchronized (segment) {
+			return segment.compute(aKey, aFunction);
+		}
+	}
+
+	/**
+	 * @return The value that was removed for the given key, or {@code null} if it
+	 *         was not in this cache.
+	 */
+	public V remove(K aKey) {
+		Segment<K, V> segment = this.segment(aKey);
+		synchronized (segment) {
+			return segment.remove(aKey);
+		}
+	}
+
+	public void clear() {
+		for (Segment<K, V> segment : this.segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment<K, V> segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+}
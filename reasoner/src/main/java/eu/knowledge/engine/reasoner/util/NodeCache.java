@@ -0,0 +1,129 @@
+package eu.knowledge.engine.reasoner.util;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.graph.PrefixMappingZero;
+import org.apache.jena.sparql.serializer.SerializationContext;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.sparql.util.FmtUtils;
+
+/**
+ * A cache for parsing binding values into Jena {@link Node}s and formatting
+ * them back into strings, which is shared by everything that translates
+ * binding sets. Binding sets tend to contain the same IRIs and literals over
+ * and over, so caching these conversions saves parsing and formatting them
+ * every time.
+ *
+ * Only IRIs and literals are cached. Blank nodes are formatted relative to a
+ * serialization context, so their string depends on the other nodes that are
+ * formatted with the same context. Very long values are not cached either,
+ * because they are unlikely to repeat.
+ */
+public final class NodeCache {
+
+	/**
+	 * The maximum number of entries per conversion. When it is exceeded, the
+	 * least recently used entries are evicted, so values that are no longer used
+	 * do not pile up while the frequently used ones stay cached.
+	 */
+	private static final int MAX_SIZE = 10_000;
+
+	/**
+	 * Values longer than this number of characters are not cached.
+	 */
+	private static final int MAX_LENGTH = 512;
+
+	private static final LruCache<String, Node> parsed = new LruCache<>(MAX_SIZE);
+	private static final LruCache<Node, String> formattedPlain = new LruCache<>(MAX_SIZE);
+	private static final LruCache<Node, String> formattedTyped = new LruCache<>(MAX_SIZE);
+
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+
+	/**
+	 * The number of cache hits and misses since the start (or the last
+	 * {@link NodeCache#clear()}) and the current number of cached values.
+	 */
+	public record Stats(long hits, long misses, int size) {
+		public double hitRate() {
+			long total = this.hits + this.misses;
+			return total == 0 ? 0 : (double) this.hits / total;
+		}
+	}
+
+	private NodeCache() {
+	}
+
+	/**
+	 * Parse the given binding value, like {@link SSE#parseNode(String)}.
+	 */
+	public static Node parse(String value) {
+		if (value.length() > MAX_LENGTH)
+			return SSE.parseNode(value);
+
+		Node n = parsed.get(value);
+		if (n != null) {
+			hits.increment();
+			return n;
+		}
+
+		misses.increment();
+		n = SSE.parseNode(value);
+		if (n.isURI() || n.isLiteral())
+			parsed.put(value, n);
+		return n;
+	}
+
+	/**
+	 * Format the given node without prefixes, like
+	 * {@link FmtUtils#stringForNode(Node, org.apache.jena.shared.PrefixMapping)}
+	 * with a {@link PrefixMappingZero}. Numbers and booleans are written in
+	 * their short form, e.g. {@code 42}.
+	 */
+	public static String format(Node n) {
+		return format(n, formattedPlain, node -> FmtUtils.stringForNode(node, new PrefixMappingZero()));
+	}
+
+	/**
+	 * Format the given node without prefixes and always include the datatype of
+	 * typed literals, e.g. {@code "42"^^<http://www.w3.org/2001/XMLSchema#integer>}.
+	 */
+	public static String formatTyped(Node n) {
+		return format(n, formattedTyped, node -> {
+			SerializationContext context = new SerializationContext();
+			context.setUsePlainLiterals(false);
+			return FmtUtils.stringForNode(node, context);
+		});
+	}
+
+	private static String format(Node n, LruCache<Node, String> cache, Function<Node, String> formatter) {
+		if (!n.isURI() && !n.isLiteral())
+			return formatter.apply(n);
+
+		String s = cache.get(n);
+		if (s != null) {
+			hits.increment();
+			return s;
+		}
+
+		misses.increment();
+		s = formatter.apply(n);
+		if (s.length() <= MAX_LENGTH)
+			cache.put(n, s);
+		return s;
+	}
+
+	public static Stats getStats() {
+		return new Stats(hits.sum(), misses.sum(), parsed.size() + formattedPlain.size() + formattedTyped.size());
+	}
+
+	public static void clear() {
+		parsed.clear();
+		formattedPlain.clear();
+		formattedTyped.clear();
+		hits.reset();
+		misses.reset();
+	}
+}
@@ -0,0 +1,67 @@
+package eu.knowledge.engine.reasoner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import eu.knowledge.engine.reasoner.util.LruCache;
+
+public class LruCacheTest {
+
+	@Test
+	public void testEvictLeastRecentlyUsed() {
+		var cache = new LruCache<String, Integer>(3);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		cache.put("c", 3);
+
+		// using a keeps it in the cache when d is added.
+		assertEquals(1, cache.get("a"));
+		cache.put("d", 4);
+
+		assertEquals(3, cache.size());
+		assertEquals(1, cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals(4, cache.get("d"));
+
+		assertEquals(3, cache.putIfAbsent("c", 5));
+		assertEquals(3, cache.get("c"));
+
+		assertEquals(3, cache.remove("c"));
+		assertNull(cache.remove("c"));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testCompute() {
+		var cache = new LruCache<String, Integer>(2);
+		assertEquals(1, cache.compute("a", (_, v) -> v == null ? 1 : v + 1));
+		assertEquals(2, cache.compute("a", (_, v) -> v == null ? 1 : v + 1));
+		cache.put("b", 3);
+
+		// computing a new key evicts the least recently used one.
+		assertEquals(4, cache.compute("c", (_, v) -> 4));
+		assertNull(cache.get("a"));
+		assertEquals(2, cache.size());
+
+		// returning null removes the key.
+		assertNull(cache.compute("c", (_, v) -> null));
+		assertNull(cache.get("c"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testBounded() {
+		var cache = new LruCache<Integer, Integer>(1000);
+		for (int i = 0; i < 10_000; i++)
+			cache.put(i, i);
+		assertTrue(cache.size() <= 1000);
+
+		// the most recent entries are still there.
+		assertEquals(9_999, cache.get(9_999));
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+}
@@ -0,0 +1,77 @@
+package eu.knowledge.engine.reasoner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.sparql.sse.SSE;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eu.knowledge.engine.reasoner.util.NodeCache;
+
+public class NodeCacheTest {
+
+	@BeforeEach
+	public void clearCache() {
+		NodeCache.clear();
+	}
+
+	@Test
+	public void testParse() {
+		Node iri = NodeCache.parse("<http://example.org/sensor1>");
+		assertEquals(NodeFactory.createURI("http://example.org/sensor1"), iri);
+		assertSame(iri, NodeCache.parse("<http://example.org/sensor1>"));
+
+		Node literal = NodeCache.parse("\"22.5\"^^<http://www.w3.org/2001/XMLSchema#decimal>");
+		assertEquals(SSE.parseNode("22.5"), literal);
+		assertSame(literal, NodeCache.parse("\"22.5\"^^<http://www.w3.org/2001/XMLSchema#decimal>"));
+
+		assertEquals(2, NodeCache.getStats().hits());
+		assertEquals(2, NodeCache.getStats().misses());
+		assertEquals(0.5, NodeCache.getStats().hitRate());
+	}
+
+	@Test
+	public void testFormat() {
+		Node n = SSE.parseNode("42");
+		assertEquals("42", NodeCache.format(n));
+		assertEquals("\"42\"^^<http://www.w3.org/2001/XMLSchema#integer>", NodeCache.formatTyped(n));
+
+		// both formats are cached separately
+		assertEquals("42", NodeCache.format(n));
+		assertEquals("\"42\"^^<http://www.w3.org/2001/XMLSchema#integer>", NodeCache.formatTyped(n));
+		assertEquals(2, NodeCache.getStats().hits());
+		assertEquals(2, NodeCache.getStats().size());
+
+		assertEquals("<http://example.org/sensor1>", NodeCache.format(NodeFactory.createURI("http://example.org/sensor1")));
+		assertEquals("\"woonkamer\"@nl", NodeCache.format(SSE.parseNode("\"woonkamer\"@nl")));
+	}
+
+	@Test
+	public void testUncachedValues() {
+		// blank nodes and variables are not cached
+		NodeCache.parse("_:b0");
+		NodeCache.parse("?a");
+		NodeCache.format(NodeFactory.createBlankNode());
+		assertEquals(0, NodeCache.getStats().size());
+
+		// and neither are very long values
+		String longValue = "\"" + "a".repeat(1000) + "\"";
+		assertEquals(longValue, NodeCache.format(NodeCache.parse(longValue)));
+		assertEquals(0, NodeCache.getStats().size());
+		assertTrue(NodeCache.getStats().hits() == 0);
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() {
+		Node hot = NodeCache.parse("<http://example.org/hot>");
+		for (int i = 0; i < 20_000; i++) {
+			NodeCache.parse("<http://example.org/sensor" + i + ">");
+			assertSame(hot, NodeCache.parse("<http://example.org/hot>"));
+		}
+		assertTrue(NodeCache.getStats().size() <= 10_000, "The cache should be bounded.");
+	}
+}
@@ -0,0 +1,358 @@
+package eu.knowledge.engine.reasoner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.jena.sparql.core.Var;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.knowledge.engine.reasoner.api.Binding;
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.reasoner.api.TriplePattern;
+import eu.knowledge.engine.reasoner.rulestore.RuleStore;
+import eu.knowledge.engine.reasoner.util.DataBindingSetHandler;
+import eu.knowledge.engine.reasoner.util.Table;
+
+public class TaskSchedulerTest {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TaskSchedulerTest.class);
+
+	@Test
+	public void testSlowHandlerDoesNotStallOtherBranches()
+			throws InterruptedException, ExecutionException, TimeoutException {
+		RuleStore store = new RuleStore();
+
+		// a fast knowledge base with temperatures in celsius
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?a <hasValInC> ?b"))),
+				new DataBindingSetHandler(new Table(new String[] {
+				//@formatter:off
+						"a", "b"
+						//@formatter:on
+				}, new String[] {
+				//@formatter:off
+						"<sensor1>,22",
+						"<sensor2>,21",
+						//@formatter:on
+				}))));
+
+		// a converter that depends on the fast knowledge base
+		CountDownLatch converted = new CountDownLatch(1);
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?x <hasValInC> ?y"))),
+				new HashSet<>(Arrays.asList(new TriplePattern("?x <hasValInF> ?z"))), new TransformBindingSetHandler() {
+					@Override
+					public CompletableFuture<BindingSet> handle(BindingSet bs) {
+						BindingSet result = new BindingSet();
+						for (Binding b : bs) {
+							int celsius = Integer.parseInt(b.get("y").getLiteralLexicalForm());
+							Binding r = new Binding();
+							r.put(Var.alloc("x"), b.get("x"));
+							r.put("z", Integer.toString(celsius * 9 / 5 + 32));
+							result.add(r);
+						}
+						converted.countDown();
+						return CompletableFuture.completedFuture(result);
+					}
+				}));
+
+		// a slow knowledge base with the types of the sensors
+		CompletableFuture<BindingSet> slowFuture = new CompletableFuture<>();
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?s <type> <Sensor>"))),
+				new TransformBindingSetHandler() {
+					@Override
+					public CompletableFuture<BindingSet> handle(BindingSet bs) {
+						return slowFuture;
+					}
+				}));
+
+		Set<TriplePattern> objective = new HashSet<>();
+		objective.add(new TriplePattern("?p <type> <Sensor>"));
+		objective.add(new TriplePattern("?p <hasValInF> ?q"));
+		ProactiveRule startRule = new ProactiveRule(objective, new HashSet<>());
+		store.addRule(startRule);
+
+		ReasonerPlan plan = new ReasonerPlan(store, startRule);
+		CompletableFuture<Void> future = new TaskScheduler(plan, ForkJoinPool.commonPool()).execute(new BindingSet());
+
+		// the converter should run while the slow knowledge base is still busy
+		assertTrue(converted.await(5, TimeUnit.SECONDS));
+		assertFalse(future.isDone());
+		assertFalse(plan.isDone());
+
+		slowFuture.complete(new BindingSet(new Binding("s", "<sensor1>")));
+		future.get(5, TimeUnit.SECONDS);
+
+		BindingSet result = plan.getResults();
+		LOG.info("{}", result);
+
+		Binding expected = new Binding("p", "<sensor1>");
+		expected.put("q", "71");
+		assertEquals(new BindingSet(expected), result);
+	}
+
+	@Test
+	public void testBlockingHandlerDoesNotBlockOtherNodes()
+			throws InterruptedException, ExecutionException, TimeoutException {
+		RuleStore store = new RuleStore();
+
+		// a fast knowledge base with temperatures in celsius
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?a <hasValInC> ?b"))),
+				new DataBindingSetHandler(new Table(new String[] {
+				//@formatter:off
+						"a", "b"
+						//@formatter:on
+				}, new String[] {
+				//@formatter:off
+						"<sensor1>,22",
+						//@formatter:on
+				}))));
+
+		// a converter whose handler blocks until the slow knowledge base finished
+		CountDownLatch converting = new CountDownLatch(1);
+		CountDownLatch slowPropagated = new CountDownLatch(1);
+		AtomicBoolean notBlocked = new AtomicBoolean(false);
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?x <hasValInC> ?y"))),
+				new HashSet<>(Arrays.asList(new TriplePattern("?x <hasValInF> ?z"))), new TransformBindingSetHandler() {
+					@Override
+					public CompletableFuture<BindingSet> handle(BindingSet bs) {
+						converting.countDown();
+						try {
+							notBlocked.set(slowPropagated.await(5, TimeUnit.SECONDS));
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						BindingSet result = new BindingSet();
+						for (Binding b : bs) {
+							int celsius = Integer.parseInt(b.get("y").getLiteralLexicalForm());
+							Binding r = new Binding();
+							r.put(Var.alloc("x"), b.get("x"));
+							r.put("z", Integer.toString(celsius * 9 / 5 + 32));
+							result.add(r);
+						}
+						return CompletableFuture.completedFuture(result);
+					}
+				}));
+
+		// a slow knowledge base with the types of the sensors
+		CompletableFuture<BindingSet> slowFuture = new CompletableFuture<>();
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?s <type> <Sensor>"))),
+				new TransformBindingSetHandler() {
+					@Override
+					public CompletableFuture<BindingSet> handle(BindingSet bs) {
+						return slowFuture;
+					}
+				}));
+
+		Set<TriplePattern> objective = new HashSet<>();
+		objective.add(new TriplePattern("?p <type> <Sensor>"));
+		objective.add(new TriplePattern("?p <hasValInF> ?q"));
+		ProactiveRule startRule = new ProactiveRule(objective, new HashSet<>());
+		store.addRule(startRule);
+
+		ReasonerPlan plan = new ReasonerPlan(store, startRule);
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			TaskScheduler scheduler = new TaskScheduler(plan, executor);
+			scheduler.setPropagationListener(() -> {
+				if (slowFuture.isDone())
+					slowPropagated.countDown();
+			});
+			CompletableFuture<Void> future = scheduler.execute(new BindingSet());
+
+			// the result of the slow knowledge base is propagated while the converter
+			// is still being called
+			assertTrue(converting.await(5, TimeUnit.SECONDS));
+			slowFuture.complete(new BindingSet(new Binding("s", "<sensor1>")));
+			future.get(10, TimeUnit.SECONDS);
+			assertTrue(notBlocked.get());
+
+			Binding expected = new Binding("p", "<sensor1>");
+			expected.put("q", "71");
+			assertEquals(new BindingSet(expected), plan.getResults());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFailingHandlerDoesNotFailPlan() throws InterruptedException, ExecutionException, TimeoutException {
+		RuleStore store = new RuleStore();
+
+		// a working and a failing knowledge base with the same graph pattern
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?a <type> <Sensor>"))),
+				new DataBindingSetHandler(new Table(new String[] {
+				//@formatter:off
+						"a"
+						//@formatter:on
+				}, new String[] {
+				//@formatter:off
+						"<sensor1>",
+						//@formatter:on
+				}))));
+
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?s <type> <Sensor>"))),
+				new TransformBindingSetHandler() {
+					@Override
+					public CompletableFuture<BindingSet> handle(BindingSet bs) {
+						return CompletableFuture.failedFuture(new IllegalStateException("Handler failed."));
+					}
+				}));
+
+		ProactiveRule startRule = new ProactiveRule(
+				new HashSet<>(Arrays.asList(new TriplePattern("?p <type> <Sensor>"))), new HashSet<>());
+		store.addRule(startRule);
+
+		ReasonerPlan plan = new ReasonerPlan(store, startRule);
+		new TaskScheduler(plan, ForkJoinPool.commonPool()).execute(new BindingSet()).get(5, TimeUnit.SECONDS);
+
+		// the failing knowledge base is ignored
+		assertTrue(plan.isDone());
+		assertEquals(new BindingSet(new Binding("p", "<sensor1>")), plan.getResults());
+	}
+
+	@Test
+	public void testStopWithPartialResults() throws InterruptedException, ExecutionException, TimeoutException {
+		RuleStore store = new RuleStore();
+
+		// a fast and a slow knowledge base with the same graph pattern
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?a <type> <Sensor>"))),
+				new DataBindingSetHandler(new Table(new String[] {
+				//@formatter:off
+						"a"
+						//@formatter:on
+				}, new String[] {
+				//@formatter:off
+						"<sensor1>",
+						//@formatter:on
+				}))));
+
+		CompletableFuture<BindingSet> slowFuture = new CompletableFuture<>();
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?s <type> <Sensor>"))),
+				new TransformBindingSetHandler() {
+					@Override
+					public CompletableFuture<BindingSet> handle(BindingSet bs) {
+						return slowFuture;
+					}
+				}));
+
+		ProactiveRule startRule = new ProactiveRule(
+				new HashSet<>(Arrays.asList(new TriplePattern("?p <type> <Sensor>"))), new HashSet<>());
+		store.addRule(startRule);
+
+		ReasonerPlan plan = new ReasonerPlan(store, startRule);
+		TaskScheduler scheduler = new TaskScheduler(plan, ForkJoinPool.commonPool());
+		scheduler.setPropagationListener(() -> {
+			if (!plan.getPartialResults().isEmpty())
+				scheduler.stop();
+		});
+		CompletableFuture<Void> future = scheduler.execute(new BindingSet());
+
+		// stops without waiting for the slow knowledge base
+		future.get(5, TimeUnit.SECONDS);
+		assertFalse(plan.isDone());
+		assertFalse(scheduler.stop());
+		assertEquals(new BindingSet(new Binding("p", "<sensor1>")), plan.getPartialResults());
+
+		// results that arrive after stopping are ignored
+		slowFuture.complete(new BindingSet(new Binding("s", "<sensor2>")));
+		assertEquals(new BindingSet(new Binding("p", "<sensor1>")), plan.getPartialResults());
+	}
+
+	@Test
+	public void testCallbacksRunWithoutLock() throws InterruptedException, ExecutionException, TimeoutException {
+		RuleStore store = new RuleStore();
+		store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?a <type> <Sensor>"))),
+				new DataBindingSetHandler(new Table(new String[] {
+				//@formatter:off
+						"a"
+						//@formatter:on
+				}, new String[] {
+				//@formatter:off
+						"<sensor1>",
+						//@formatter:on
+				}))));
+
+		ProactiveRule startRule = new ProactiveRule(
+				new HashSet<>(Arrays.asList(new TriplePattern("?p <type> <Sensor>"))), new HashSet<>());
+		store.addRule(startRule);
+
+		ReasonerPlan plan = new ReasonerPlan(store, startRule);
+		TaskScheduler scheduler = new TaskScheduler(plan, ForkJoinPool.commonPool());
+		List<Boolean> heldLock = new CopyOnWriteArrayList<>();
+		scheduler.setPropagationListener(() -> {
+			if (!plan.getPartialResults().isEmpty()) {
+				scheduler.defer(() -> heldLock.add(Thread.holdsLock(scheduler)));
+				scheduler.stop();
+			}
+		});
+
+		// a callback that calls the scheduler from another thread does not deadlock
+		CompletableFuture<Void> future = scheduler.execute(new BindingSet()).thenRun(() -> {
+			heldLock.add(Thread.holdsLock(scheduler));
+			CompletableFuture.runAsync(() -> scheduler.stop()).join();
+		});
+
+		future.get(5, TimeUnit.SECONDS);
+		assertEquals(List.of(false, false), heldLock);
+	}
+
+	@Test
+	public void testMaxConcurrency() throws InterruptedException, ExecutionException, TimeoutException {
+		RuleStore store = new RuleStore();
+
+		// three slow knowledge bases with the same graph pattern
+		List<CompletableFuture<BindingSet>> calls = new CopyOnWriteArrayList<>();
+		CountDownLatch allCalled = new CountDownLatch(3);
+		for (int i = 1; i <= 3; i++) {
+			final String sensor = "<sensor" + i + ">";
+			store.addRule(new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?s <type> <Sensor>"))),
+					new TransformBindingSetHandler() {
+						@Override
+						public CompletableFuture<BindingSet> handle(BindingSet bs) {
+							CompletableFuture<BindingSet> call = new CompletableFuture<>();
+							calls.add(call);
+							allCalled.countDown();
+							return call.thenApply(_ -> new BindingSet(new Binding("s", sensor)));
+						}
+					}));
+		}
+
+		ProactiveRule startRule = new ProactiveRule(
+				new HashSet<>(Arrays.asList(new TriplePattern("?p <type> <Sensor>"))), new HashSet<>());
+		store.addRule(startRule);
+
+		ReasonerPlan plan = new ReasonerPlan(store, startRule);
+		TaskScheduler scheduler = new TaskScheduler(plan, ForkJoinPool.commonPool());
+		scheduler.setMaxConcurrency(2);
+		CompletableFuture<Void> future = scheduler.execute(new BindingSet());
+
+		// only two knowledge bases are contacted until one of them finishes
+		assertEquals(2, calls.size());
+		assertFalse(future.isDone());
+		calls.get(0).complete(null);
+		assertTrue(allCalled.await(5, TimeUnit.SECONDS));
+
+		calls.forEach(call -> call.complete(null));
+		future.get(5, TimeUnit.SECONDS);
+		assertTrue(plan.isDone());
+		assertEquals(3, plan.getResults().size());
+	}
+
+}
@@ -8,6 +8,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.graph.PrefixMappingZero;
 import org.apache.jena.sparql.sse.SSE;
 import org.apache.jena.sparql.util.FmtUtils;
@@ -122,6 +123,116 @@ public class BindingTest {
 		// between IRIs and Literals?
 	}
 
+	@Test
+	public void testCombine() {
+		TriplePattern tp1 = new TriplePattern("?s <type> ?t");
+		TriplePattern tp2 = new TriplePattern("?s <hasVal> ?v");
+		TriplePattern tp3 = new TriplePattern("?s <hasUnit> ?u");
+
+		TripleVarBindingSet gbs1 = new TripleVarBindingSet(new HashSet<>(Arrays.asList(tp1, tp2)));
+		for (int i = 0; i < 50; i++) {
+			TripleVarBinding tvb = new TripleVarBinding();
+			tvb.put(new TripleNode(tp1, "?s", 0), "<sensor" + (i % 10) + ">");
+			tvb.put(new TripleNode(tp1, "?t", 2), "<Type" + i + ">");
+			tvb.put(new TripleNode(tp2, "?v", 2), Integer.toString(i % 3));
+			gbs1.add(tvb);
+		}
+		// a binding without a value for the shared variable ?s
+		TripleVarBinding partial = new TripleVarBinding();
+		partial.put(new TripleNode(tp2, "?v", 2), "1");
+		gbs1.add(partial);
+
+		TripleVarBindingSet gbs2 = new TripleVarBindingSet(new HashSet<>(Arrays.asList(tp2, tp3)));
+		for (int i = 0; i < 20; i++) {
+			TripleVarBinding tvb = new TripleVarBinding();
+			tvb.put(new TripleNode(tp3, "?s", 0), "<sensor" + i + ">");
+			tvb.put(new TripleNode(tp3, "?u", 2), "<Unit" + i + ">");
+			// the same value with a different lexical form
+			tvb.put(new TripleNode(tp2, "?v", 2), "\"0" + (i % 3) + "\"^^<http://www.w3.org/2001/XMLSchema#integer>");
+			gbs2.add(tvb);
+		}
+
+		TripleVarBindingSet expected = new TripleVarBindingSet(gbs1.getGraphPattern());
+		for (TripleVarBinding tvb1 : gbs1.getBindings()) {
+			for (TripleVarBinding tvb2 : gbs2.getBindings()) {
+				if (!tvb1.isConflicting(tvb2))
+					expected.add(tvb1.merge(tvb2));
+			}
+		}
+
+		assertEquals(expected.getBindings(), gbs1.combine(gbs2).getBindings());
+		assertEquals(expected.getBindings().size(), gbs2.combine(gbs1).getBindings().size());
+	}
+
+	@Test
+	public void testKeepCompatible() {
+		TriplePattern tp1 = new TriplePattern("?s <type> ?t");
+		TriplePattern tp2 = new TriplePattern("?s <hasVal> ?v");
+
+		TripleVarBindingSet gbs = new TripleVarBindingSet(new HashSet<>(Arrays.asList(tp1, tp2)));
+		for (int i = 0; i < 30; i++) {
+			TripleVarBinding tvb = new TripleVarBinding();
+			tvb.put(new TripleNode(tp1, "?s", 0), "<sensor" + (i % 10) + ">");
+			tvb.put(new TripleNode(tp2, "?s", 0), "<sensor" + (i % 10) + ">");
+			tvb.put(new TripleNode(tp2, "?v", 2), Integer.toString(i));
+			gbs.add(tvb);
+		}
+
+		TripleVarBindingSet filter = new TripleVarBindingSet(new HashSet<>(Arrays.asList(tp1)));
+		TripleVarBinding f1 = new TripleVarBinding();
+		f1.put(new TripleNode(tp1, "?s", 0), "<sensor1>");
+		filter.add(f1);
+		TripleVarBinding f2 = new TripleVarBinding();
+		f2.put(new TripleNode(tp1, "?s", 0), "<sensor2>");
+		f2.put(new TripleNode(tp1, "?t", 2), "<Sensor>");
+		filter.add(f2);
+
+		TripleVarBindingSet compatible = gbs.keepCompatible(filter);
+		assertEquals(6, compatible.getBindings().size());
+		for (TripleVarBinding tvb : compatible.getBindings()) {
+			assertTrue(!tvb.isConflicting(f1) || !tvb.isConflicting(f2));
+		}
+
+		// an empty binding is compatible with everything
+		filter.add(new TripleVarBinding());
+		assertEquals(gbs.getBindings(), gbs.keepCompatible(filter).getBindings());
+		assertEquals(gbs.getBindings(),
+				gbs.keepCompatible(new TripleVarBindingSet(filter.getGraphPattern())).getBindings());
+	}
+
+	@Test
+	public void testSharedTripleVars() {
+		TriplePattern tp1 = new TriplePattern("?s <type> <Sensor>");
+		TriplePattern tp2 = new TriplePattern("?s <hasVal> ?v");
+		Set<TriplePattern> gp = new HashSet<>(Arrays.asList(tp1, tp2));
+
+		Binding b1 = new Binding("s", "<sensor1>");
+		b1.put("v", "1");
+		BindingSet bs = new BindingSet(b1, new Binding("s", "<sensor2>"));
+		TripleVarBindingSet gbs = bs.toTripleVarBindingSet(gp);
+		assertEquals(1, gbs.getFullBindingSet().getBindings().size());
+		assertEquals(1, gbs.getPartialBindingSet().getBindings().size());
+
+		TripleVarBinding full = gbs.getFullBindingSet().getBindings().iterator().next();
+		TripleVarBinding expected = new TripleVarBinding();
+		expected.put(new TripleNode(tp2, "?v", 2), "1");
+		expected.put(new TripleNode(tp1, "?s", 0), "<sensor1>");
+		expected.put(new TripleNode(tp2, "?s", 0), "<sensor1>");
+		assertEquals(expected, full);
+		assertEquals(expected.hashCode(), full.hashCode());
+
+		// modifying a binding should not affect the bindings it shares its triple
+		// variables with
+		TripleVarBinding copy = new TripleVarBinding(full);
+		copy.put(new TripleNode(tp2, "?v", 2), "2");
+		copy.put(new TripleNode(new TriplePattern("?v <unit> ?u"), "?u", 2), "<celsius>");
+		assertEquals(expected, full);
+		assertEquals(4, copy.size());
+		assertEquals(SSE.parseNode("2"), copy.getVarValue(Var.alloc("v")));
+		assertEquals(SSE.parseNode("1"), full.getVarValue(Var.alloc("v")));
+		assertTrue(copy.isConflicting(full));
+	}
+
 	@Test
 	public void testParseAndFormatBinding() {
 		var b = new Binding("a", "<sensor2>");
@@ -516,6 +516,38 @@ public class MatchTest {
 		assertTrue(!nBs.isEmpty());
 	}
 
+	@Test
+	public void testTranslateWithConstants() {
+		TriplePattern t1 = new TriplePattern("?s <type> ?t");
+		TriplePattern t2 = new TriplePattern("?s <hasVal> ?v");
+		Set<TriplePattern> obj = new HashSet<>(Arrays.asList(t1, t2));
+
+		TriplePattern tp1 = new TriplePattern("?b <type> <Sensor>");
+		TriplePattern tp2 = new TriplePattern("?b <hasVal> ?d");
+		Set<TriplePattern> rhs = new HashSet<>(Arrays.asList(tp1, tp2));
+
+		Rule r = new Rule(new HashSet<>(), rhs);
+		Set<Match> matches = r.consequentMatches(obj, EnumSet.of(MatchFlag.ONLY_BIGGEST));
+		assertEquals(1, matches.size());
+
+		// the second binding conflicts with the constant and is left out.
+		BindingSet bs = Util.toBindingSet("s=<n1>,t=<Sensor>,v=<v1>|s=<n2>,t=<Actuator>,v=<v2>|s=<n3>,v=<v3>");
+		var tvbs = new TripleVarBindingSet(obj, bs);
+		var translated = tvbs.translate(rhs, matches).values().iterator().next().toBindingSet();
+
+		LOG.info("{}", translated);
+		assertEquals(Util.toBindingSet("b=<n1>,d=<v1>|b=<n3>,d=<v3>"), translated);
+
+		// and the other way around, the constant is bound to the variable.
+		Rule inverse = new Rule(new HashSet<>(), obj);
+		Set<Match> inverseMatches = inverse.consequentMatches(rhs, EnumSet.of(MatchFlag.ONLY_BIGGEST));
+		var inverseTranslated = new TripleVarBindingSet(rhs, translated).translate(obj, inverseMatches).values()
+				.iterator().next().toBindingSet();
+
+		LOG.info("{}", inverseTranslated);
+		assertEquals(Util.toBindingSet("s=<n1>,t=<Sensor>,v=<v1>|s=<n3>,t=<Sensor>,v=<v3>"), inverseTranslated);
+	}
+
 	@Test
 	public void testMatchWithReflexiveTriple() {
 		// {TripleNode [tp=?x r ?x, node=?x]=TripleNode [tp=?s r a, node=a]}
@@ -1,10 +1,14 @@
 package eu.knowledge.engine.reasoner.api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
@@ -98,4 +102,82 @@ public class ReasoningPlanTest {
 
 	}
 
+	@Test
+	public void testCopy() throws IOException, InterruptedException, ExecutionException {
+
+		RuleStore store = new RuleStore();
+
+		List<Rule> someRules = BaseRule.read(TEST_RULES);
+
+		Rule first = someRules.get(0);
+		first.backwardForwardBindingSetHandler = new DataBindingSetHandler(new Table(new String[] {
+				// @formatter:off
+				"a", "b", "c"
+				// @formatter:on
+		}, new String[] {
+				// @formatter:off
+				"<a1>,<b1>,<c1>", "<a2>,<b2>,<c2>",
+				// @formatter:on
+		}));
+
+		Rule second = someRules.get(1);
+		second.backwardForwardBindingSetHandler = new DataBindingSetHandler(new Table(new String[] {
+				// @formatter:off
+				"x", "y", "z"
+				// @formatter:on
+		}, new String[] {
+				// @formatter:off
+				"<x1>,<y1>,<z1>", "<x2>,<y2>,<z2>", "<x3>,<y3>,<z3>",
+				// @formatter:on
+		}));
+
+		store.addRules(new HashSet<>(someRules));
+
+		Set<TriplePattern> antecedent = new HashSet<>();
+		antecedent.add(new TriplePattern("?x <pred1> ?y"));
+		antecedent.add(new TriplePattern("?y <pred2> ?z"));
+		ProactiveRule rule = new ProactiveRule(antecedent, new HashSet<>());
+		store.addRule(rule);
+
+		ReasonerPlan template = new ReasonerPlan(store, rule);
+
+		// replace the second rule with a rule with a different handler.
+		Rule otherSecond = new Rule(second.getName(), second.getAntecedent(), second.getConsequent(),
+				new DataBindingSetHandler(new Table(new String[] {
+						// @formatter:off
+						"x", "y", "z"
+						// @formatter:on
+				}, new String[] {
+						// @formatter:off
+						"<x1>,<y1>,<z1>",
+						// @formatter:on
+				})));
+
+		ReasonerPlan firstCopy = template.copy(new HashMap<>());
+		ReasonerPlan secondCopy = template.copy(Map.of(second, otherSecond));
+
+		assertEquals(template.getStartNode().getAllNeighbours().size(),
+				firstCopy.getStartNode().getAllNeighbours().size());
+		assertNull(secondCopy.getRuleNodeForRule(second));
+		assertSame(otherSecond, secondCopy.getRuleNodeForRule(otherSecond).getRule());
+
+		BindingSet aBindingSet = new BindingSet();
+		aBindingSet.add(new Binding("x", "<a1>"));
+		aBindingSet.add(new Binding("x", "<x3>"));
+
+		TaskBoard tb;
+		while ((tb = firstCopy.execute(aBindingSet)).hasTasks()) {
+			tb.executeScheduledTasks().get();
+		}
+		assertEquals(2, firstCopy.getResults().size());
+
+		while ((tb = secondCopy.execute(aBindingSet)).hasTasks()) {
+			tb.executeScheduledTasks().get();
+		}
+		assertEquals(1, secondCopy.getResults().size());
+
+		// executing a copy should not affect the template.
+		assertNull(template.getStartNode().getFilterBindingSetOutput());
+	}
+
 }
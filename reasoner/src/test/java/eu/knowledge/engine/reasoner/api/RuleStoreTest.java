@@ -4,10 +4,14 @@
 package eu.knowledge.engine.reasoner.api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -21,6 +25,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import eu.knowledge.engine.reasoner.BaseRule;
+import eu.knowledge.engine.reasoner.BaseRule.CombiMatch;
+import eu.knowledge.engine.reasoner.BaseRule.MatchFlag;
 import eu.knowledge.engine.reasoner.ProactiveRule;
 import eu.knowledge.engine.reasoner.Rule;
 import eu.knowledge.engine.reasoner.TransformBindingSetHandler;
@@ -186,4 +192,106 @@ class RuleStoreTest {
 
 		store.printGraphVizCode(null);
 	}
+
+	@Test
+	void testIncremental() {
+		BaseRule targets = new Rule(new HashSet<>(), new HashSet<>(
+				Arrays.asList(new TriplePattern("?id rdf:type <Target>"), new TriplePattern("?id <hasName> ?name"))));
+		BaseRule countries = new Rule(new HashSet<>(), new HashSet<>(
+				Arrays.asList(new TriplePattern("?id rdf:type <Target>"), new TriplePattern("?id <hasCountry> ?c"))));
+		BaseRule names = new Rule(new HashSet<>(),
+				new HashSet<>(Arrays.asList(new TriplePattern("?x <hasName> ?n"))));
+		BaseRule unrelated = new Rule(new HashSet<>(),
+				new HashSet<>(Arrays.asList(new TriplePattern("?s <hasColor> ?color"))));
+		BaseRule ask = new ProactiveRule(new HashSet<>(Arrays.asList(new TriplePattern("?id rdf:type <Target>"),
+				new TriplePattern("?id <hasName> ?name"), new TriplePattern("?id <hasCountry> ?c"))), new HashSet<>());
+
+		RuleStore store = new RuleStore();
+		store.addRules(new HashSet<>(Arrays.asList(targets, countries, ask)));
+
+		assertEquals(new HashSet<>(Arrays.asList(targets, countries)), store.getAntecedentNeighbors(ask).keySet());
+		Set<CombiMatch> before = store.getAntecedentCombiMatches(ask);
+
+		// an unrelated rule keeps the already calculated combi matches
+		store.addRule(unrelated);
+		store.getAntecedentNeighbors(ask);
+		assertEquals(before, store.getAntecedentCombiMatches(ask));
+
+		// a matching rule is added to the combi matches
+		store.addRule(names);
+		assertEquals(new HashSet<>(Arrays.asList(targets, countries, names)),
+				store.getAntecedentNeighbors(ask).keySet());
+		assertEquals(fresh(ask, targets, countries, names, unrelated), store.getAntecedentCombiMatches(ask));
+		assertEquals(Set.of(ask), store.getConsequentNeighbors(names).keySet());
+
+		// and removed again
+		assertTrue(store.removeRule(names));
+		assertFalse(store.removeRule(names));
+		assertEquals(new HashSet<>(Arrays.asList(targets, countries)), store.getAntecedentNeighbors(ask).keySet());
+		assertEquals(fresh(ask, targets, countries, unrelated), store.getAntecedentCombiMatches(ask));
+		assertEquals(before, store.getAntecedentCombiMatches(ask));
+	}
+
+	@Test
+	void testCopy() {
+		BaseRule targets = new Rule(new HashSet<>(), new HashSet<>(
+				Arrays.asList(new TriplePattern("?id rdf:type <Target>"), new TriplePattern("?id <hasName> ?name"))));
+		BaseRule names = new Rule(new HashSet<>(),
+				new HashSet<>(Arrays.asList(new TriplePattern("?x <hasName> ?n"))));
+		BaseRule ask = new ProactiveRule(new HashSet<>(Arrays.asList(new TriplePattern("?id rdf:type <Target>"),
+				new TriplePattern("?id <hasName> ?name"))), new HashSet<>());
+
+		RuleStore store = new RuleStore();
+		store.addRules(new HashSet<>(Arrays.asList(targets, ask)));
+		assertEquals(Set.of(targets), store.getAntecedentNeighbors(ask).keySet());
+		Set<CombiMatch> before = store.getAntecedentCombiMatches(ask);
+
+		// changing the copy does not change the original store
+		RuleStore copy = store.copy();
+		copy.addRule(names);
+		assertTrue(copy.removeRule(targets));
+		assertEquals(Set.of(names), copy.getAntecedentNeighbors(ask).keySet());
+		assertEquals(fresh(ask, names), copy.getAntecedentCombiMatches(ask));
+
+		assertEquals(new HashSet<>(Arrays.asList(targets, ask)), store.getRules());
+		assertEquals(Set.of(targets), store.getAntecedentNeighbors(ask).keySet());
+		assertEquals(before, store.getAntecedentCombiMatches(ask));
+	}
+
+	@Test
+	void testIndex() {
+		List<BaseRule> rules = List.of(
+				new Rule(new HashSet<>(), new HashSet<>(Arrays.asList(new TriplePattern("?s rdf:type <A>")))),
+				new Rule(new HashSet<>(), new HashSet<>(Arrays.asList(new TriplePattern("?s rdf:type <B>")))),
+				new Rule(new HashSet<>(), new HashSet<>(Arrays.asList(new TriplePattern("?s rdf:type ?t")))),
+				new Rule(new HashSet<>(), new HashSet<>(Arrays.asList(new TriplePattern("?s ?p ?o")))),
+				new Rule(new HashSet<>(), new HashSet<>(Arrays.asList(new TriplePattern("?s <hasName> ?n")))),
+				new Rule(new HashSet<>(Arrays.asList(new TriplePattern("?s rdf:type <A>"))),
+						new HashSet<>(Arrays.asList(new TriplePattern("?s rdf:type <B>")))),
+				new ProactiveRule(new HashSet<>(Arrays.asList(new TriplePattern("?s rdf:type <B>"),
+						new TriplePattern("?s <hasName> ?n"))), new HashSet<>()),
+				new ProactiveRule(new HashSet<>(Arrays.asList(new TriplePattern("?s ?p <A>"))), new HashSet<>()),
+				new ProactiveRule(new HashSet<>(), new HashSet<>(Arrays.asList(new TriplePattern("?s rdf:type ?t")))));
+
+		RuleStore store = new RuleStore();
+		store.addRules(new HashSet<>(rules));
+
+		// the index should not prune any rule that actually matches
+		for (BaseRule r : rules) {
+			store.getAntecedentNeighbors(r);
+			assertEquals(BaseRule.getMatches(r, new HashSet<>(rules), true, EnumSet.noneOf(MatchFlag.class)),
+					store.getAntecedentCombiMatches(r));
+			store.getConsequentNeighbors(r);
+			assertEquals(BaseRule.getMatches(r, new HashSet<>(rules), false, EnumSet.noneOf(MatchFlag.class)),
+					store.getConsequentCombiMatches(r));
+		}
+	}
+
+	private static Set<CombiMatch> fresh(BaseRule aTarget, BaseRule... someOtherRules) {
+		RuleStore store = new RuleStore();
+		store.addRule(aTarget);
+		store.addRules(new HashSet<>(Arrays.asList(someOtherRules)));
+		store.getAntecedentNeighbors(aTarget);
+		return store.getAntecedentCombiMatches(aTarget);
+	}
 }
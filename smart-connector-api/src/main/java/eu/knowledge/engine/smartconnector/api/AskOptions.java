@@ -0,0 +1,79 @@
+package eu.knowledge.engine.smartconnector.api;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Options for executing an {@link AskKnowledgeInteraction} that allow the
+ * caller to receive a (partial) result before all {@link KnowledgeBase}s have
+ * answered. See
+ * {@link SmartConnector#ask(AskKnowledgeInteraction, RecipientSelector, BindingSet, AskOptions)}.
+ *
+ * When the limit or the deadline is reached, the ask is finished with the
+ * bindings that are available at that moment, the exchanges with the
+ * {@link KnowledgeBase}s that did not yet answer are cancelled and
+ * {@link AskResult#isPartial()} returns {@code true}.
+ */
+public class AskOptions {
+
+	/**
+	 * The maximum number of bindings, or {@code 0} if there is no maximum.
+	 */
+	private final int limit;
+
+	/**
+	 * The maximum duration of the ask, or {@code null} if it can take until all
+	 * knowledge bases answered or timed out (see
+	 * {@link SmartConnectorConfig#CONF_KEY_KE_KB_WAIT_TIMEOUT}).
+	 */
+	private final Duration deadline;
+
+	/**
+	 * Receives the new bindings whenever they become available, or {@code null}.
+	 */
+	private final Consumer<BindingSet> partialResultHandler;
+
+	/**
+	 * @param aLimit                The maximum number of bindings to wait for, or
+	 *                              {@code 0} if all bindings should be waited
+	 *                              for.
+	 * @param aDeadline             The maximum duration of the ask, or
+	 *                              {@code null} if there is none.
+	 * @param aPartialResultHandler A handler that receives the new bindings
+	 *                              whenever they become available, or
+	 *                              {@code null} if there is none. It is called
+	 *                              while the ask is being executed, so it should
+	 *                              return quickly.
+	 */
+	public AskOptions(int aLimit, Duration aDeadline, Consumer<BindingSet> aPartialResultHandler) {
+		if (aLimit < 0)
+			throw new IllegalArgumentException("The limit should be 0 or more, not " + aLimit + ".");
+		if (aDeadline != null && (aDeadline.isNegative() || aDeadline.isZero()))
+			throw new IllegalArgumentException("The deadline should be positive, not " + aDeadline + ".");
+
+		this.limit = aLimit;
+		this.deadline = aDeadline;
+		this.partialResultHandler = aPartialResultHandler;
+	}
+
+	public AskOptions(int aLimit, Duration aDeadline) {
+		this(aLimit, aDeadline, null);
+	}
+
+	public int getLimit() {
+		return this.limit;
+	}
+
+	public Duration getDeadline() {
+		return this.deadline;
+	}
+
+	public Consumer<BindingSet> getPartialResultHandler() {
+		return this.partialResultHandler;
+	}
+
+	@Override
+	public String toString() {
+		return "AskOptions [limit=" + this.limit + ", deadline=" + this.deadline + "]";
+	}
+}
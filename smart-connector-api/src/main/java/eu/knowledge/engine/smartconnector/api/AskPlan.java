@@ -22,6 +22,22 @@ public interface AskPlan {
 	 */
 	public CompletableFuture<AskResult> execute(BindingSet bindingSet);
 
+	/**
+	 * Execute the plan with the given bindingset, but finish early when the limit
+	 * or deadline of the given options is reached.
+	 * 
+	 * The default implementation ignores the options and executes the complete
+	 * plan with {@link #execute(BindingSet)}.
+	 * 
+	 * @param bindingSet
+	 * @param someOptions The limit, deadline and partial result handler.
+	 * @return the (partial) result of the plan with additional information about
+	 *         the execution of the plan.
+	 */
+	public default CompletableFuture<AskResult> execute(BindingSet bindingSet, AskOptions someOptions) {
+		return this.execute(bindingSet);
+	}
+
 	/**
 	 * Get detailed information about the plan including other KBs involved and
 	 * mappings, etc.
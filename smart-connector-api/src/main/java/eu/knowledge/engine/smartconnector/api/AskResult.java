@@ -32,6 +32,12 @@ public class AskResult {
 
 	private final Set<AskExchangeInfo> exchangeInfos;
 
+	/**
+	 * Whether the ask finished before all knowledge bases answered. See
+	 * {@link AskOptions}.
+	 */
+	private final boolean partial;
+
 	/**
 	 * Create a {@link AskResult}.
 	 * 
@@ -42,10 +48,16 @@ public class AskResult {
 	 *                     {@link GraphPattern}.
 	 */
 	public AskResult(BindingSet someBindings, Set<AskExchangeInfo> askExchangeInfos, ReasonerPlan aRootNode, Set<KnowledgeGap> kGaps) {
+		this(someBindings, askExchangeInfos, aRootNode, kGaps, false);
+	}
+
+	public AskResult(BindingSet someBindings, Set<AskExchangeInfo> askExchangeInfos, ReasonerPlan aRootNode,
+			Set<KnowledgeGap> kGaps, boolean isPartial) {
 		this.bindings = someBindings;
 		this.exchangeInfos = askExchangeInfos;
 		this.reasonerPlan = aRootNode;
 		this.knowledgeGaps = kGaps;
+		this.partial = isPartial;
 	}
 
 	public AskResult(BindingSet someBindings, Set<AskExchangeInfo> askExchangeInfos) {
@@ -107,8 +119,18 @@ public class AskResult {
 		return this.knowledgeGaps;
 	}
 
+	/**
+	 * @return Whether the ask finished because the limit or deadline of its
+	 *         {@link AskOptions} was reached, instead of because all
+	 *         {@link KnowledgeBase}s answered. If so, the bindings are incomplete
+	 *         and no knowledge gaps are computed.
+	 */
+	public boolean isPartial() {
+		return this.partial;
+	}
+
 	@Override
 	public String toString() {
-		return "AskResult [bindings=" + bindings + ", exchangeInfoPerKnowledgeBase=" + exchangeInfos + ", knowledgeGaps=" + knowledgeGaps + "]";
+		return "AskResult [bindings=" + bindings + ", exchangeInfoPerKnowledgeBase=" + exchangeInfos + ", knowledgeGaps=" + knowledgeGaps + ", partial=" + partial + "]";
 	}
 }
@@ -0,0 +1,167 @@
+package eu.knowledge.engine.smartconnector.api;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import eu.knowledge.engine.reasoner.util.LruCache;
+
+/**
+ * An {@link AnswerHandler} that caches the answers of another
+ * {@link AnswerHandler} for a limited time. A knowledge base often receives the
+ * same question from many other knowledge bases in a short time, and an
+ * expensive handler (for example one that queries a database) then only needs
+ * to answer it once. Identical questions that arrive while the handler is still
+ * answering share that single call of the handler.
+ *
+ * To enable the cache for an {@link AnswerKnowledgeInteraction}, register it
+ * with a {@link CachingAnswerHandler} that wraps the actual handler:
+ *
+ * <pre>
+ * var cachingHandler = new CachingAnswerHandler(handler, Duration.ofSeconds(1), 1000);
+ * smartConnector.register(answerKI, cachingHandler);
+ * </pre>
+ *
+ * Questions are identical if they are asked to the same
+ * {@link AnswerKnowledgeInteraction} with the same set of incoming bindings
+ * (the order of the bindings does not matter). So only use this cache if the
+ * answer does not depend on the knowledge base that asks. When the cache is
+ * full, the least recently used answers are evicted. Failed answers are not
+ * cached. If the data of the knowledge base changes, it can
+ * {@link #invalidate()} the cache.
+ */
+public class CachingAnswerHandler implements AnswerHandler {
+
+	private final AnswerHandler handler;
+	private final long timeToLiveNanos;
+	private final LongSupplier nanoTime;
+
+	private final LruCache<Question, Answer> answers;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * The knowledge interaction that is asked and its incoming bindings. Knowledge
+	 * interactions are compared by identity.
+	 */
+	private record Question(AnswerKnowledgeInteraction knowledgeInteraction, Set<Binding> bindings) {
+	}
+
+	/**
+	 * An answer that is cached until it expires. It expires one time-to-live after
+	 * it arrived, or after it was requested if it did not arrive yet.
+	 */
+	private static class Answer {
+		private final CompletableFuture<BindingSet> future = new CompletableFuture<>();
+		private volatile long expiresAtNanos;
+
+		private Answer(long anExpiresAtNanos) {
+			this.expiresAtNanos = anExpiresAtNanos;
+		}
+
+		private boolean isExpired(long nowNanos) {
+			return nowNanos - this.expiresAtNanos >= 0;
+		}
+	}
+
+	/**
+	 * The number of questions that were answered from the cache (hits) or by the
+	 * handler (misses), and the number of answers in the cache.
+	 */
+	public record Stats(long hits, long misses, int size) {
+		public double hitRate() {
+			long total = this.hits + this.misses;
+			return total == 0 ? 0 : (double) this.hits / total;
+		}
+	}
+
+	/**
+	 * @param aHandler    The handler whose answers are cached.
+	 * @param aTimeToLive How long an answer is cached.
+	 * @param aMaxSize    The maximum number of cached answers. When it is
+	 *                    exceeded, the least recently used answers are removed.
+	 */
+	public CachingAnswerHandler(AnswerHandler aHandler, Duration aTimeToLive, int aMaxSize) {
+		this(aHandler, aTimeToLive, aMaxSize, System::nanoTime);
+	}
+
+	/**
+	 * @param aNanoTime The clock that determines when answers expire, like
+	 *                  {@link System#nanoTime()}.
+	 */
+	CachingAnswerHandler(AnswerHandler aHandler, Duration aTimeToLive, int aMaxSize, LongSupplier aNanoTime) {
+		if (aHandler == null)
+			throw new IllegalArgumentException("The handler should be non-null.");
+		if (aTimeToLive.isNegative() || aTimeToLive.isZero())
+			throw new IllegalArgumentException("The time to live should be positive.");
+		if (aMaxSize <= 0)
+			throw new IllegalArgumentException("The maximum size should be positive.");
+
+		this.handler = aHandler;
+		this.timeToLiveNanos = aTimeToLive.toNanos();
+		this.nanoTime = aNanoTime;
+		this.answers = new LruCache<>(aMaxSize);
+	}
+
+	@Override
+	public CompletableFuture<BindingSet> answerAsync(AnswerKnowledgeInteraction anAKI,
+			AnswerExchangeInfo anAnswerExchangeInfo) {
+		Question question = new Question(anAKI, Set.copyOf(anAnswerExchangeInfo.getIncomingBindings()));
+		long now = this.nanoTime.getAsLong();
+
+		Answer newAnswer = new Answer(now + this.timeToLiveNanos);
+		Answer answer = this.answers.compute(question, (_, a) -> a != null && !a.isExpired(now) ? a : newAnswer);
+		if (answer != newAnswer) {
+			this.hits.increment();
+			// a copy, so the caller cannot complete the shared future.
+			return answer.future.copy();
+		}
+
+		this.misses.increment();
+		CompletableFuture<BindingSet> future;
+		try {
+			future = this.handler.answerAsync(anAKI, anAnswerExchangeInfo);
+		} catch (RuntimeException e) {
+			future = CompletableFuture.failedFuture(e);
+		}
+
+		future.whenComplete((bs, e) -> {
+			if (bs != null && e == null) {
+				answer.expiresAtNanos = this.nanoTime.getAsLong() + this.timeToLiveNanos;
+				answer.future.complete(bs);
+			} else {
+				this.answers.compute(question, (_, a) -> a == answer ? null : a);
+				if (e != null)
+					answer.future.completeExceptionally(e);
+				else
+					answer.future.complete(bs);
+			}
+		});
+		return answer.future.copy();
+	}
+
+	@Override
+	public BindingSet answer(AnswerKnowledgeInteraction anAKI, AnswerExchangeInfo anAnswerExchangeInfo) {
+		return this.answerAsync(anAKI, anAnswerExchangeInfo).join();
+	}
+
+	@Override
+	public boolean isNonBlocking() {
+		return this.handler.isNonBlocking();
+	}
+
+	/**
+	 * Remove all cached answers, for example because the data of the knowledge
+	 * base changed. Questions that are being answered while invalidating still
+	 * receive their answer, but it is not cached.
+	 */
+	public void invalidate() {
+		this.answers.clear();
+	}
+
+	public Stats getStats() {
+		return new Stats(this.hits.sum(), this.misses.sum(), this.answers.size());
+	}
+}
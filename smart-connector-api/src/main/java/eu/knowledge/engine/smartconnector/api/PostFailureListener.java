@@ -0,0 +1,26 @@
+package eu.knowledge.engine.smartconnector.api;
+
+import java.net.URI;
+
+/**
+ * A {@link PostFailureListener} is notified of the failures of a post of which
+ * the results are not collected (see
+ * {@link SmartConnector#postAndForget(PostKnowledgeInteraction, RecipientSelector, BindingSet, PostFailureListener)}).
+ * Since nobody waits for the reactions of such a post, this is the only way to
+ * learn about its failures. It is called asynchronously, so it should return
+ * quickly.
+ */
+@FunctionalInterface
+public interface PostFailureListener {
+
+	/**
+	 * Called when a post message could not be sent to a react knowledge
+	 * interaction, or when the react knowledge interaction failed to react to it.
+	 *
+	 * @param aKnowledgeBase        The knowledge base of the react knowledge
+	 *                              interaction.
+	 * @param aKnowledgeInteraction The react knowledge interaction.
+	 * @param aFailedMessage        A description of the failure.
+	 */
+	void postFailed(URI aKnowledgeBase, URI aKnowledgeInteraction, String aFailedMessage);
+}
@@ -21,6 +21,32 @@ public interface PostPlan {
 	 */
 	public CompletableFuture<PostResult> execute(BindingSet someArguments);
 
+	/**
+	 * Execute the plan with the given arguments without collecting the results
+	 * (see
+	 * {@link SmartConnector#postAndForget(PostKnowledgeInteraction, RecipientSelector, BindingSet, PostFailureListener)}).
+	 * 
+	 * The default implementation executes the complete plan with
+	 * {@link #execute(BindingSet)} and notifies the listener of the failed
+	 * exchanges afterwards.
+	 * 
+	 * @param someArguments
+	 * @param aListener     The listener that is notified of failures.
+	 * @return A future that completes when all post messages have been handed
+	 *         over.
+	 */
+	public default CompletableFuture<Void> executeAndForget(BindingSet someArguments, PostFailureListener aListener) {
+		return this.execute(someArguments).thenAccept(result -> {
+			if (result == null)
+				return;
+			for (PostExchangeInfo info : result.getExchangeInfoPerKnowledgeBase()) {
+				if (info.getStatus() == ExchangeInfo.Status.FAILED)
+					aListener.postFailed(info.getKnowledgeBaseId(), info.getKnowledgeInteractionId(),
+							info.getFailedMessage());
+			}
+		});
+	}
+
 	/**
 	 * Get detailed information about the plan, including KBs involved and their
 	 * mappings.
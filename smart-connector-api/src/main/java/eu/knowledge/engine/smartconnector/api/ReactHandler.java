@@ -64,4 +64,23 @@ public interface ReactHandler {
 	 *         null.
 	 */
 	BindingSet react(ReactKnowledgeInteraction anRKI, ReactExchangeInfo aReactExchangeInfo);
+
+	/**
+	 * Whether this handler reacts quickly without blocking, for example because it
+	 * only reads data that is already in memory or because its
+	 * {@code reactAsync} method hands the work off to a thread of its own. Messages
+	 * for a non-blocking handler from a knowledge base in the same runtime are
+	 * handled on the thread of the sender instead of being queued for a thread
+	 * of the runtime, which avoids a thread switch. The default is
+	 * {@code false}; only override it if the handler never blocks.
+	 * 
+	 * A non-blocking handler must never ask or post itself, because it runs on
+	 * the thread of the knowledge base that sent the message, which then waits for
+	 * it.
+	 * 
+	 * @return {@code true} if this handler never blocks.
+	 */
+	public default boolean isNonBlocking() {
+		return false;
+	}
 }
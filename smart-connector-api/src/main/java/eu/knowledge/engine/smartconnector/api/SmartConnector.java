@@ -160,6 +160,31 @@ public interface SmartConnector {
 	CompletableFuture<AskResult> ask(AskKnowledgeInteraction anAKI, RecipientSelector aSelector,
 			BindingSet aBindingSet);
 
+	/**
+	 * Performs an
+	 * {@link #ask(AskKnowledgeInteraction, RecipientSelector, BindingSet)} that
+	 * does not necessarily wait for all {@link KnowledgeBase}s to answer. The
+	 * {@link AskOptions} allow the caller to limit the number of bindings and the
+	 * duration of the ask, and to receive the bindings as soon as they become
+	 * available. If the ask finishes because the limit or the deadline is reached,
+	 * {@link AskResult#isPartial()} returns {@code true}.
+	 *
+	 * @param anAKI       See
+	 *                    {@link #ask(AskKnowledgeInteraction, RecipientSelector, BindingSet)}.
+	 * @param aSelector   See
+	 *                    {@link #ask(AskKnowledgeInteraction, RecipientSelector, BindingSet)}.
+	 * @param aBindingSet See
+	 *                    {@link #ask(AskKnowledgeInteraction, RecipientSelector, BindingSet)}.
+	 * @param someOptions The limit, deadline and partial result handler of this
+	 *                    ask.
+	 * @return A {@link CompletableFuture} that will return a (partial)
+	 *         {@link AskResult} in the future.
+	 */
+	public default CompletableFuture<AskResult> ask(AskKnowledgeInteraction anAKI, RecipientSelector aSelector,
+			BindingSet aBindingSet, AskOptions someOptions) {
+		return this.planAsk(anAKI, aSelector).execute(aBindingSet, someOptions);
+	}
+
 	/**
 	 * Performs an
 	 * {@link #ask(AskKnowledgeInteraction, RecipientSelector, BindingSet)} with a
@@ -258,6 +283,55 @@ public interface SmartConnector {
 	 */
 	CompletableFuture<PostResult> post(PostKnowledgeInteraction ki, BindingSet argument);
 
+	/**
+	 * Performs a
+	 * {@link #post(PostKnowledgeInteraction, RecipientSelector, BindingSet)} of
+	 * which the results are not collected. The post messages are handed over to
+	 * the other knowledge bases without waiting for their reactions, so no
+	 * {@link PostResult} and {@link PostExchangeInfo}s are available and rules
+	 * that depend on the results of the reactions are not applied. This is
+	 * useful for knowledge bases that publish many events and are not interested
+	 * in the reactions, because it requires far fewer resources per post.
+	 *
+	 * Because the reactions are not waited for, the
+	 * {@link SmartConnectorConfig#CONF_KEY_KE_POST_ORDERED} and
+	 * {@link SmartConnectorConfig#CONF_KEY_KE_POST_MAX_CONCURRENCY} settings do
+	 * not apply: the post messages are sent to all react knowledge interactions at
+	 * once and can reach them in a different order than they were posted.
+	 *
+	 * Failures are reported asynchronously to the given listener of this post.
+	 * Failed reactions are correlated with the post message they reply to, but
+	 * only the ones that arrive within
+	 * {@link SmartConnectorConfig#CONF_KEY_KE_KB_WAIT_TIMEOUT} are reported.
+	 *
+	 * @param aPKI          See
+	 *                      {@link #post(PostKnowledgeInteraction, RecipientSelector, BindingSet)}.
+	 * @param aSelector     See
+	 *                      {@link #post(PostKnowledgeInteraction, RecipientSelector, BindingSet)}.
+	 * @param someArguments See
+	 *                      {@link #post(PostKnowledgeInteraction, RecipientSelector, BindingSet)}.
+	 * @param aListener     The listener that is notified of failures.
+	 * @return A {@link CompletableFuture} that completes when all post messages
+	 *         have been handed over.
+	 */
+	public default CompletableFuture<Void> postAndForget(PostKnowledgeInteraction aPKI, RecipientSelector aSelector,
+			BindingSet someArguments, PostFailureListener aListener) {
+		return this.planPost(aPKI, aSelector).executeAndForget(someArguments, aListener);
+	}
+
+	/**
+	 * Performs a
+	 * {@link #postAndForget(PostKnowledgeInteraction, RecipientSelector, BindingSet, PostFailureListener)}
+	 * with a wildcard {@link RecipientSelector}.
+	 *
+	 * @see #postAndForget(PostKnowledgeInteraction, RecipientSelector, BindingSet,
+	 *      PostFailureListener)
+	 */
+	public default CompletableFuture<Void> postAndForget(PostKnowledgeInteraction aPKI, BindingSet someArguments,
+			PostFailureListener aListener) {
+		return this.postAndForget(aPKI, new RecipientSelector(), someArguments, aListener);
+	}
+
 	/**
 	 * Sets the domain knowledge of this smart connector. This domain knowledge will
 	 * be taken into account when the reasoner orchestrates the knowledge
@@ -29,6 +29,35 @@ public class SmartConnectorConfig {
 	 */
 	public static final String CONF_KEY_KE_HTTP_TIMEOUT = "ke.http.timeout";
 
+	/**
+	 * Key to configure how many messages the SCs in this KER send at the same time
+	 * to a single other KER. Additional messages are queued. Only used in
+	 * distributed mode.
+	 */
+	public static final String CONF_KEY_KE_HTTP_MAX_CONCURRENT_REQUESTS = "ke.http.max.concurrent.requests";
+
+	/**
+	 * Key to configure how many messages can be queued for a single other KER,
+	 * before sending additional messages to it fails. Only used in distributed
+	 * mode.
+	 */
+	public static final String CONF_KEY_KE_HTTP_OUTBOUND_QUEUE_SIZE = "ke.http.outbound.queue.size";
+
+	/**
+	 * Key to configure how many messages that are queued for another KER can be
+	 * sent together in a single request. Set it to 1 to send every message in its
+	 * own request. Only used in distributed mode.
+	 */
+	public static final String CONF_KEY_KE_HTTP_BATCH_SIZE = "ke.http.batch.size";
+
+	/**
+	 * Key to configure whether messages to other KERs that support it are sent in
+	 * a compact binary format instead of JSON. When disabled, this KER also does
+	 * not advertise that it can receive this format. Only used in distributed
+	 * mode.
+	 */
+	public static final String CONF_KEY_KE_HTTP_BINARY_MESSAGES = "ke.http.binary.messages";
+
 	/**
 	 * Key to configure the how many seconds the MessageRouter should wait for
 	 * ANSWER/REACT Message when sending a ASK/POST Message? 0 means wait forever
@@ -97,6 +126,35 @@ public class SmartConnectorConfig {
 	 */
 	public static final String CONF_KEY_KE_REASONER_LEVEL = "ke.reasoner.level";
 
+	/**
+	 * Key to configure whether the smart connectors in this KER should reuse
+	 * reasoner plans when the same knowledge interaction is asked or posted
+	 * repeatedly. A cached plan is discarded whenever the other knowledge bases
+	 * change, so disabling this is only useful for debugging purposes.
+	 */
+	public static final String CONF_KEY_KE_REASONER_PLAN_CACHE_ENABLED = "ke.reasoner.plan.cache.enabled";
+
+	/**
+	 * Key to configure how many react knowledge interactions a single post
+	 * contacts at the same time. The other react knowledge interactions are
+	 * contacted as soon as one of them reacts. Setting it to {@code 0} means
+	 * unlimited. Does not apply to
+	 * {@link SmartConnector#postAndForget(PostKnowledgeInteraction, RecipientSelector, BindingSet, PostFailureListener)},
+	 * which does not wait for reactions.
+	 */
+	public static final String CONF_KEY_KE_POST_MAX_CONCURRENCY = "ke.post.max.concurrency";
+
+	/**
+	 * Key to configure whether the posts of a knowledge interaction should reach
+	 * each react knowledge interaction in the order in which they were posted. If
+	 * enabled, a post message is only sent to a react knowledge interaction when
+	 * it reacted to the previous post message of the same knowledge interaction.
+	 * Does not apply to
+	 * {@link SmartConnector#postAndForget(PostKnowledgeInteraction, RecipientSelector, BindingSet, PostFailureListener)},
+	 * which does not wait for reactions.
+	 */
+	public static final String CONF_KEY_KE_POST_ORDERED = "ke.post.ordered";
+
 	/**
 	 * Path to a file that contains the default domain knowledge that will be
 	 * included in every smart connector created in this KE Runtime. This domain
@@ -115,6 +173,14 @@ public class SmartConnectorConfig {
 	 */
 	public static final String CONF_KEY_KE_THREADPOOL_SIZE = "ke.threadpool.size";
 
+	/**
+	 * Key to configure how many handle requests a knowledge base that uses the REST
+	 * API can process at the same time. Additional handle requests are queued
+	 * until the knowledge base responds to one of the handle requests it is
+	 * processing.
+	 */
+	public static final String CONF_KEY_KE_REST_HANDLE_REQUESTS_IN_FLIGHT = "ke.rest.handle.requests.in.flight";
+
 	/**
 	 * Convert the configuration reasoner levels to matching strategies used in the
 	 * reasoner code.
@@ -0,0 +1,157 @@
+package eu.knowledge.engine.rest.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.knowledge.engine.rest.RestServerHelper;
+import eu.knowledge.engine.test_utils.AsyncTester;
+import eu.knowledge.engine.test_utils.HttpTester;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestHandleBatch {
+	private static final int NR_OF_POSTS = 5;
+	private final RestServerHelper rsh = new RestServerHelper();
+	private static int PORT = 8280;
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestHandleBatch.class);
+
+	@BeforeAll
+	public void setUpServer() throws InterruptedException {
+		rsh.start(PORT);
+	}
+
+	@Test
+	public void testHandleBatch() throws IOException, InterruptedException {
+		URL url = new URL("http://localhost:" + PORT + "/rest/sc");
+
+		String kb1Id = "http://example.org/kb1";
+		String kb2Id = "http://example.org/kb2";
+		String postKiId = "http://example.org/kb1/interaction/postki";
+
+		new HttpTester(url, "POST",
+				"{\"knowledgeBaseId\": \"" + kb2Id
+						+ "\", \"knowledgeBaseName\": \"KB2\", \"knowledgeBaseDescription\": \"KB2\"}",
+				Map.of("Content-Type", "application/json", "Accept", "*/*")).expectStatus(200);
+
+		new HttpTester(new URL(url.toString() + "/ki"), "POST", """
+					{
+					  "knowledgeInteractionType": "ReactKnowledgeInteraction",
+					  "knowledgeInteractionName": "reactki",
+					  "argumentGraphPattern": "?a rdf:type ex:Something .",
+					  "prefixes": {
+					    "rdf": "http://www.w3.org/1999/02/22-rdf-syntax-ns#",
+					    "ex": "http://example.org/"
+					  }
+					}
+				""", Map.of("Knowledge-Base-Id", kb2Id, "Content-Type", "application/json", "Accept", "*/*"))
+				.expectStatus(200);
+
+		new HttpTester(url, "POST",
+				"{\"knowledgeBaseId\": \"" + kb1Id
+						+ "\", \"knowledgeBaseName\": \"KB1\", \"knowledgeBaseDescription\": \"KB1\"}",
+				Map.of("Content-Type", "application/json", "Accept", "*/*")).expectStatus(200);
+
+		new HttpTester(new URL(url.toString() + "/ki"), "POST", """
+					{
+					  "knowledgeInteractionType": "PostKnowledgeInteraction",
+					  "knowledgeInteractionName": "postki",
+					  "argumentGraphPattern": "?a rdf:type ex:Something .",
+					  "prefixes": {
+					    "rdf": "http://www.w3.org/1999/02/22-rdf-syntax-ns#",
+					    "ex": "http://example.org/"
+					  }
+					}
+				""", Map.of("Knowledge-Base-Id", kb1Id, "Content-Type", "application/json", "Accept", "*/*"))
+				.expectStatus(200);
+
+		// an invalid maxBatch is refused
+		new HttpTester(new URL(url.toString() + "/handle/batch?maxBatch=0"), "GET", null,
+				Map.of("Knowledge-Base-Id", kb2Id, "Content-Type", "application/json", "Accept", "*/*"))
+				.expectStatus(400);
+
+		// the handle requests of these posts are queued until the reacting KB asks
+		// for them
+		List<AsyncTester> postingScs = new ArrayList<>();
+		for (int i = 0; i < NR_OF_POSTS; i++) {
+			int nr = i;
+			var postingSc = new AsyncTester(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						var test = new HttpTester(new URL(url.toString() + "/post"), "POST",
+								"[{\"a\": \"<http://www.example.org/s" + nr + ">\"}]",
+								Map.of("Content-Type", "application/json", "Accept", "*/*", "Knowledge-Base-Id", kb1Id,
+										"Knowledge-Interaction-Id", postKiId));
+						test.expectStatus(200);
+					} catch (MalformedURLException e) {
+						fail();
+					}
+				}
+			});
+			postingSc.start();
+			postingScs.add(postingSc);
+		}
+
+		int handled = 0;
+		while (handled < NR_OF_POSTS) {
+			var test = new HttpTester(new URL(url.toString() + "/handle/batch?maxBatch=" + NR_OF_POSTS), "GET",
+					null, Map.of("Knowledge-Base-Id", kb2Id, "Content-Type", "application/json", "Accept", "*/*"));
+			test.expectStatus(200);
+
+			JsonArray handleRequests = Json.createReader(new StringReader(test.getBody())).readArray();
+			LOG.info("Received a batch of {} handle requests.", handleRequests.size());
+			assertTrue(handleRequests.size() >= 1 && handleRequests.size() <= NR_OF_POSTS);
+
+			JsonArrayBuilder responses = Json.createArrayBuilder();
+			for (JsonValue handleRequest : handleRequests) {
+				JsonObject jo = handleRequest.asJsonObject();
+				assertEquals(1, jo.getJsonArray("bindingSet").size());
+				responses.add(Json.createObjectBuilder().add("handleRequestId", jo.getInt("handleRequestId"))
+						.add("bindingSet", JsonValue.EMPTY_JSON_ARRAY));
+			}
+
+			new HttpTester(new URL(url.toString() + "/handle/batch"), "POST", responses.build().toString(),
+					Map.of("Knowledge-Base-Id", kb2Id, "Content-Type", "application/json", "Accept", "*/*"))
+					.expectStatus(200);
+			handled += handleRequests.size();
+		}
+		assertEquals(NR_OF_POSTS, handled);
+
+		for (AsyncTester postingSc : postingScs) {
+			postingSc.joinAndRethrow();
+		}
+
+		// unknown handle request ids are reported
+		new HttpTester(new URL(url.toString() + "/handle/batch"), "POST",
+				"[{\"handleRequestId\": 12345, \"bindingSet\": []}]",
+				Map.of("Knowledge-Base-Id", kb2Id, "Content-Type", "application/json", "Accept", "*/*"))
+				.expectStatus(400);
+	}
+
+	@AfterAll
+	public void cleanUp() {
+		TestUtil.unregisterAllKBs("http://localhost:" + PORT + "/rest");
+		rsh.cleanUp();
+	}
+}
@@ -0,0 +1,183 @@
+package eu.knowledge.engine.rest.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.knowledge.engine.rest.RestServerHelper;
+import eu.knowledge.engine.test_utils.AsyncTester;
+import eu.knowledge.engine.test_utils.HttpTester;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestHandleConcurrent {
+	private static final int NR_OF_POSTS = 6;
+	private static final int NR_OF_WORKERS = 2;
+	private final RestServerHelper rsh = new RestServerHelper();
+	private static int PORT = 8280;
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestHandleConcurrent.class);
+
+	@BeforeAll
+	public void setUpServer() throws InterruptedException {
+		rsh.start(PORT);
+	}
+
+	@Test
+	public void testParallelLongPolling() throws IOException, InterruptedException {
+		URL url = new URL("http://localhost:" + PORT + "/rest/sc");
+
+		String kb1Id = "http://example.org/kb1";
+		String kb2Id = "http://example.org/kb2";
+		String postKiId = "http://example.org/kb1/interaction/postki";
+		String reactKiId = "http://example.org/kb2/interaction/reactki";
+
+		new HttpTester(url, "POST",
+				"{\"knowledgeBaseId\": \"" + kb2Id
+						+ "\", \"knowledgeBaseName\": \"KB2\", \"knowledgeBaseDescription\": \"KB2\"}",
+				Map.of("Content-Type", "application/json", "Accept", "*/*")).expectStatus(200);
+
+		new HttpTester(new URL(url.toString() + "/ki"), "POST", """
+					{
+					  "knowledgeInteractionType": "ReactKnowledgeInteraction",
+					  "knowledgeInteractionName": "reactki",
+					  "argumentGraphPattern": "?a rdf:type ex:Something .",
+					  "prefixes": {
+					    "rdf": "http://www.w3.org/1999/02/22-rdf-syntax-ns#",
+					    "ex": "http://example.org/"
+					  }
+					}
+				""", Map.of("Knowledge-Base-Id", kb2Id, "Content-Type", "application/json", "Accept", "*/*"))
+				.expectStatus(200);
+
+		new HttpTester(url, "POST",
+				"{\"knowledgeBaseId\": \"" + kb1Id
+						+ "\", \"knowledgeBaseName\": \"KB1\", \"knowledgeBaseDescription\": \"KB1\"}",
+				Map.of("Content-Type", "application/json", "Accept", "*/*")).expectStatus(200);
+
+		new HttpTester(new URL(url.toString() + "/ki"), "POST", """
+					{
+					  "knowledgeInteractionType": "PostKnowledgeInteraction",
+					  "knowledgeInteractionName": "postki",
+					  "argumentGraphPattern": "?a rdf:type ex:Something .",
+					  "prefixes": {
+					    "rdf": "http://www.w3.org/1999/02/22-rdf-syntax-ns#",
+					    "ex": "http://example.org/"
+					  }
+					}
+				""", Map.of("Knowledge-Base-Id", kb1Id, "Content-Type", "application/json", "Accept", "*/*"))
+				.expectStatus(200);
+
+		// every worker only responds to its first handle request when all workers
+		// received one, so the workers have to process them in parallel.
+		CyclicBarrier allWorkersBusy = new CyclicBarrier(NR_OF_WORKERS);
+		AtomicInteger nrOfPolls = new AtomicInteger(0);
+
+		List<AsyncTester> workers = new ArrayList<>();
+		for (int i = 0; i < NR_OF_WORKERS; i++) {
+			var worker = new AsyncTester(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						boolean first = true;
+						while (nrOfPolls.getAndIncrement() < NR_OF_POSTS) {
+							var test = new HttpTester(new URL(url.toString() + "/handle"), "GET", null, Map
+									.of("Knowledge-Base-Id", kb2Id, "Content-Type", "application/json", "Accept", "*/*"));
+							test.expectStatus(200);
+
+							JsonObject jo = Json.createReader(new StringReader(test.getBody())).readObject();
+							LOG.info("Received handle request {}.", jo.getInt("handleRequestId"));
+							assertEquals(reactKiId, jo.getString("knowledgeInteractionId"));
+
+							if (first) {
+								allWorkersBusy.await(10, TimeUnit.SECONDS);
+								first = false;
+							}
+
+							String body = Json.createObjectBuilder().add("handleRequestId", jo.getInt("handleRequestId"))
+									.add("bindingSet", Json.createArrayBuilder()).build().toString();
+							new HttpTester(new URL(url.toString() + "/handle"), "POST", body,
+									Map.of("Knowledge-Base-Id", kb2Id, "Knowledge-Interaction-Id", reactKiId,
+											"Content-Type", "application/json", "Accept", "*/*"))
+									.expectStatus(200);
+						}
+					} catch (MalformedURLException | InterruptedException | BrokenBarrierException
+							| TimeoutException e) {
+						LOG.error("Handling the requests should succeed.", e);
+						fail();
+					}
+				}
+			});
+			worker.start();
+			workers.add(worker);
+		}
+
+		List<AsyncTester> postingScs = new ArrayList<>();
+		for (int i = 0; i < NR_OF_POSTS; i++) {
+			int nr = i;
+			var postingSc = new AsyncTester(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						new HttpTester(new URL(url.toString() + "/post"), "POST",
+								"[{\"a\": \"<http://www.example.org/s" + nr + ">\"}]",
+								Map.of("Content-Type", "application/json", "Accept", "*/*", "Knowledge-Base-Id", kb1Id,
+										"Knowledge-Interaction-Id", postKiId))
+								.expectStatus(200);
+					} catch (MalformedURLException e) {
+						fail();
+					}
+				}
+			});
+			postingSc.start();
+			postingScs.add(postingSc);
+		}
+
+		for (AsyncTester postingSc : postingScs) {
+			postingSc.joinAndRethrow();
+		}
+		for (AsyncTester worker : workers) {
+			worker.joinAndRethrow();
+		}
+
+		var test = new HttpTester(new URL(url.toString() + "/handle/metrics"), "GET", null,
+				Map.of("Knowledge-Base-Id", kb2Id, "Accept", "*/*"));
+		test.expectStatus(200);
+		JsonObject metrics = Json.createReader(new StringReader(test.getBody())).readObject();
+		LOG.info("Handle metrics: {}", metrics);
+		assertEquals(NR_OF_POSTS, metrics.getInt("receivedHandleRequests"));
+		assertEquals(NR_OF_POSTS, metrics.getInt("completedHandleRequests"));
+		assertEquals(0, metrics.getInt("failedHandleRequests"));
+		assertEquals(0, metrics.getInt("queuedHandleRequests"));
+		assertEquals(0, metrics.getInt("inFlightHandleRequests"));
+
+		new HttpTester(new URL(url.toString() + "/handle/metrics"), "GET", null,
+				Map.of("Knowledge-Base-Id", "http://example.org/unknown", "Accept", "*/*")).expectStatus(404);
+	}
+
+	@AfterAll
+	public void cleanUp() {
+		TestUtil.unregisterAllKBs("http://localhost:" + PORT + "/rest");
+		rsh.cleanUp();
+	}
+}
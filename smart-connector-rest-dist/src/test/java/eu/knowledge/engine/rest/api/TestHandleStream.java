@@ -0,0 +1,156 @@
+package eu.knowledge.engine.rest.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.knowledge.engine.rest.RestServerHelper;
+import eu.knowledge.engine.test_utils.AsyncTester;
+import eu.knowledge.engine.test_utils.HttpTester;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestHandleStream {
+	private static final int NR_OF_POSTS = 3;
+	private final RestServerHelper rsh = new RestServerHelper();
+	private static int PORT = 8280;
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestHandleStream.class);
+
+	@BeforeAll
+	public void setUpServer() throws InterruptedException {
+		rsh.start(PORT);
+	}
+
+	@Test
+	public void testHandleStream() throws IOException, InterruptedException {
+		URL url = new URL("http://localhost:" + PORT + "/rest/sc");
+
+		String kb1Id = "http://example.org/kb1";
+		String kb2Id = "http://example.org/kb2";
+		String postKiId = "http://example.org/kb1/interaction/postki";
+		String reactKiId = "http://example.org/kb2/interaction/reactki";
+
+		new HttpTester(url, "POST",
+				"{\"knowledgeBaseId\": \"" + kb2Id
+						+ "\", \"knowledgeBaseName\": \"KB2\", \"knowledgeBaseDescription\": \"KB2\"}",
+				Map.of("Content-Type", "application/json", "Accept", "*/*")).expectStatus(200);
+
+		new HttpTester(new URL(url.toString() + "/ki"), "POST", """
+					{
+					  "knowledgeInteractionType": "ReactKnowledgeInteraction",
+					  "knowledgeInteractionName": "reactki",
+					  "argumentGraphPattern": "?a rdf:type ex:Something .",
+					  "prefixes": {
+					    "rdf": "http://www.w3.org/1999/02/22-rdf-syntax-ns#",
+					    "ex": "http://example.org/"
+					  }
+					}
+				""", Map.of("Knowledge-Base-Id", kb2Id, "Content-Type", "application/json", "Accept", "*/*"))
+				.expectStatus(200);
+
+		new HttpTester(url, "POST",
+				"{\"knowledgeBaseId\": \"" + kb1Id
+						+ "\", \"knowledgeBaseName\": \"KB1\", \"knowledgeBaseDescription\": \"KB1\"}",
+				Map.of("Content-Type", "application/json", "Accept", "*/*")).expectStatus(200);
+
+		new HttpTester(new URL(url.toString() + "/ki"), "POST", """
+					{
+					  "knowledgeInteractionType": "PostKnowledgeInteraction",
+					  "knowledgeInteractionName": "postki",
+					  "argumentGraphPattern": "?a rdf:type ex:Something .",
+					  "prefixes": {
+					    "rdf": "http://www.w3.org/1999/02/22-rdf-syntax-ns#",
+					    "ex": "http://example.org/"
+					  }
+					}
+				""", Map.of("Knowledge-Base-Id", kb1Id, "Content-Type", "application/json", "Accept", "*/*"))
+				.expectStatus(200);
+
+		HttpURLConnection conn = (HttpURLConnection) new URL(url.toString() + "/handle/stream").openConnection();
+		conn.setRequestProperty("Knowledge-Base-Id", kb2Id);
+		conn.setRequestProperty("Accept", "text/event-stream");
+		assertEquals(200, conn.getResponseCode());
+
+		CountDownLatch streamOpened = new CountDownLatch(1);
+		CountDownLatch allHandled = new CountDownLatch(NR_OF_POSTS);
+
+		// react to the handle requests as they arrive via the stream
+		var reactingSc = new AsyncTester(new Runnable() {
+			@Override
+			public void run() {
+				try (BufferedReader reader = new BufferedReader(
+						new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
+					String line;
+					while (allHandled.getCount() > 0 && (line = reader.readLine()) != null) {
+						if (line.startsWith(":")) {
+							streamOpened.countDown();
+						} else if (line.startsWith("data: ")) {
+							JsonObject jo = Json.createReader(new StringReader(line.substring("data: ".length())))
+									.readObject();
+							LOG.info("Received handle request {} via the stream.", jo.getInt("handleRequestId"));
+							assertEquals(reactKiId, jo.getString("knowledgeInteractionId"));
+
+							String body = Json.createObjectBuilder().add("handleRequestId", jo.getInt("handleRequestId"))
+									.add("bindingSet", Json.createArrayBuilder()).build().toString();
+							new HttpTester(new URL(url.toString() + "/handle"), "POST", body,
+									Map.of("Knowledge-Base-Id", kb2Id, "Knowledge-Interaction-Id", reactKiId,
+											"Content-Type", "application/json", "Accept", "*/*"))
+									.expectStatus(200);
+							allHandled.countDown();
+						}
+					}
+				} catch (IOException e) {
+					LOG.error("Reading the stream should succeed.", e);
+					fail();
+				}
+			}
+		});
+		reactingSc.start();
+		assertTrue(streamOpened.await(10, TimeUnit.SECONDS));
+
+		// only one connection per knowledge base is allowed
+		new HttpTester(new URL(url.toString() + "/handle/stream"), "GET", null,
+				Map.of("Knowledge-Base-Id", kb2Id, "Accept", "*/*")).expectStatus(409);
+		new HttpTester(new URL(url.toString() + "/handle"), "GET", null,
+				Map.of("Knowledge-Base-Id", kb2Id, "Content-Type", "application/json", "Accept", "*/*"))
+				.expectStatus(409);
+
+		for (int i = 0; i < NR_OF_POSTS; i++) {
+			new HttpTester(new URL(url.toString() + "/post"), "POST",
+					"[{\"a\": \"<http://www.example.org/s" + i + ">\"}]", Map.of("Content-Type", "application/json",
+							"Accept", "*/*", "Knowledge-Base-Id", kb1Id, "Knowledge-Interaction-Id", postKiId))
+					.expectStatus(200);
+		}
+
+		assertTrue(allHandled.await(10, TimeUnit.SECONDS));
+		reactingSc.joinAndRethrow();
+		conn.disconnect();
+	}
+
+	@AfterAll
+	public void cleanUp() throws MalformedURLException {
+		TestUtil.unregisterAllKBs("http://localhost:" + PORT + "/rest");
+		rsh.cleanUp();
+	}
+}
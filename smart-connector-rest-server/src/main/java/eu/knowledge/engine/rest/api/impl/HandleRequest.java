@@ -25,6 +25,11 @@ public class HandleRequest {
 	private KnowledgeInteraction knowledgeInteraction;
 	private final URI requestingKnowledgeBaseId;
 
+	/**
+	 * The time this handle request was created, in milliseconds since the epoch.
+	 */
+	private final long creationTime = System.currentTimeMillis();
+
 	private KnowledgeInteractionType knowledgeInteractionType;
 
 	public HandleRequest(int aHandleRequestId, KnowledgeInteraction aKI, KnowledgeInteractionType type,
@@ -74,6 +79,10 @@ public class HandleRequest {
 		return requestingKnowledgeBaseId;
 	}
 
+	public long getCreationTime() {
+		return creationTime;
+	}
+
 	public void validateBindings(BindingSet bindings) {
 		GraphPattern graphPattern = null;
 		switch (this.knowledgeInteractionType) {
@@ -3,8 +3,11 @@ package eu.knowledge.engine.rest.api.impl;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import org.glassfish.jersey.server.ChunkedOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,10 +23,12 @@ import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.container.AsyncResponse;
 import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.container.TimeoutHandler;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.ResponseBuilder;
 import jakarta.ws.rs.core.Response.Status;
@@ -38,6 +43,18 @@ public class ReactiveApiServiceImpl {
 
 	public static final int LONGPOLL_TIMEOUT = 29;
 
+	/**
+	 * The maximum number of handle requests returned by a batched long polling
+	 * request if the client does not specify it.
+	 */
+	public static final int DEFAULT_MAX_BATCH = 50;
+
+	/**
+	 * The period in seconds in which the event streams receive a heartbeat,
+	 * which keeps the connection open and detects disconnected clients.
+	 */
+	public static final int EVENT_STREAM_HEARTBEAT = 10;
+
 	private static final Logger LOG = LoggerFactory.getLogger(ReactiveApiServiceImpl.class);
 
 	private RestKnowledgeBaseManager manager = RestKnowledgeBaseManager.newInstance();
@@ -52,6 +69,41 @@ public class ReactiveApiServiceImpl {
 			throws NotFoundException, IOException {
 
 		LOG.debug("scHandleGet() called by KB: {}", knowledgeBaseId);
+		this.waitForHandleRequests(knowledgeBaseId, 0, asyncResponse);
+	}
+
+	@GET
+	@Path("/handle/batch")
+	@Consumes({ "application/json; charset=UTF-8" })
+	@Produces({ "application/json; charset=UTF-8", "text/plain; charset=UTF-8" })
+	public void scHandleBatchGet(
+			@Parameter(description = "The Knowledge Base Id for which to execute the ask.", required = true) @HeaderParam("Knowledge-Base-Id") @NotNull String knowledgeBaseId,
+			@Parameter(description = "The maximum number of handle requests to receive at once.") @QueryParam("maxBatch") Integer maxBatch,
+			@Suspended final AsyncResponse asyncResponse, @Context SecurityContext securityContext)
+			throws NotFoundException, IOException {
+
+		LOG.debug("scHandleBatchGet() called by KB {} with maxBatch {}", knowledgeBaseId, maxBatch);
+
+		if (maxBatch == null) {
+			maxBatch = DEFAULT_MAX_BATCH;
+		} else if (maxBatch < 1) {
+			var response = new ResponseMessage();
+			response.setMessageType("error");
+			response.setMessage("The maxBatch parameter should be at least 1, not " + maxBatch + ".");
+			asyncResponse.resume(Response.status(Status.BAD_REQUEST).entity(response).build());
+			return;
+		}
+
+		this.waitForHandleRequests(knowledgeBaseId, maxBatch, asyncResponse);
+	}
+
+	/**
+	 * Let the knowledge base wait for handle requests via the given asyncResponse.
+	 * 
+	 * @param maxBatch The maximum number of handle requests to return as an array,
+	 *                 or {@code 0} if a single handle request should be returned.
+	 */
+	private void waitForHandleRequests(String knowledgeBaseId, int maxBatch, final AsyncResponse asyncResponse) {
 		asyncResponse.setTimeout(LONGPOLL_TIMEOUT, TimeUnit.SECONDS);
 		try {
 			// validate kb id
@@ -80,20 +132,20 @@ public class ReactiveApiServiceImpl {
 							response.setMessage(message);
 							aBuilder.entity(response);
 						}
-						kb.resetAsyncResponse();
-						ar.resume(aBuilder.build());
+						if (kb.removeAsyncResponse(ar))
+							ar.resume(aBuilder.build());
 					}
 				};
 
 				asyncResponse.setTimeoutHandler(handler);
 
-				if (!kb.hasAsyncResponse()) {
-					kb.waitForHandleRequest(asyncResponse);
-				} else {
+				// a knowledge base can have multiple long polling requests, but not in
+				// addition to an event stream.
+				if (!kb.waitForHandleRequests(asyncResponse, maxBatch)) {
 					var response = new ResponseMessage();
 					response.setMessageType("error");
 					response.setMessage(
-							"Only one connection per Knowledge-Base-Id is allowed and we already have one.");
+							"This Knowledge-Base-Id already receives its handle requests via an event stream.");
 					asyncResponse.resume(Response.status(Status.CONFLICT).entity(response).build());
 					return;
 				}
@@ -113,6 +165,69 @@ public class ReactiveApiServiceImpl {
 		}
 	}
 
+	@GET
+	@Path("/handle/stream")
+	@Produces({ "text/event-stream", "application/json; charset=UTF-8" })
+	public Response scHandleStreamGet(
+			@Parameter(description = "The Knowledge Base Id for which to receive handle requests.", required = true) @HeaderParam("Knowledge-Base-Id") @NotNull String knowledgeBaseId,
+			@Context SecurityContext securityContext) throws NotFoundException {
+
+		LOG.debug("scHandleStreamGet() called by KB: {}", knowledgeBaseId);
+
+		try {
+			new URI(knowledgeBaseId);
+		} catch (URISyntaxException e) {
+			var response = new ResponseMessage();
+			response.setMessageType("error");
+			response.setMessage("Smart Connector not found, because its ID must be a valid URI.");
+			return Response.status(Status.BAD_REQUEST).type(MediaType.APPLICATION_JSON_TYPE).entity(response).build();
+		}
+
+		if (!this.manager.hasKB(knowledgeBaseId)) {
+			var response = new ResponseMessage();
+			response.setMessageType("error");
+			response.setMessage("A Knowledge Base for the given Knowledge-Base-Id cannot be found.");
+			return Response.status(Status.NOT_FOUND).type(MediaType.APPLICATION_JSON_TYPE).entity(response).build();
+		}
+
+		ChunkedOutput<String> stream = this.manager.getKB(knowledgeBaseId).openEventStream();
+		if (stream == null) {
+			var response = new ResponseMessage();
+			response.setMessageType("error");
+			response.setMessage(
+					"This Knowledge-Base-Id already receives its handle requests via an event stream or long polling.");
+			return Response.status(Status.CONFLICT).type(MediaType.APPLICATION_JSON_TYPE).entity(response).build();
+		}
+
+		return Response.ok(stream, "text/event-stream").header("Cache-Control", "no-cache").build();
+	}
+
+	@GET
+	@Path("/handle/metrics")
+	@Produces({ "application/json; charset=UTF-8", "text/plain; charset=UTF-8" })
+	public Response scHandleMetricsGet(
+			@Parameter(description = "The Knowledge Base Id for which to retrieve the handle request metrics.", required = true) @HeaderParam("Knowledge-Base-Id") @NotNull String knowledgeBaseId,
+			@Context SecurityContext securityContext) throws NotFoundException {
+
+		try {
+			new URI(knowledgeBaseId);
+		} catch (URISyntaxException e) {
+			var response = new ResponseMessage();
+			response.setMessageType("error");
+			response.setMessage("Smart Connector not found, because its ID must be a valid URI.");
+			return Response.status(Status.BAD_REQUEST).entity(response).build();
+		}
+
+		if (!this.manager.hasKB(knowledgeBaseId)) {
+			var response = new ResponseMessage();
+			response.setMessageType("error");
+			response.setMessage("A Knowledge Base for the given Knowledge-Base-Id cannot be found.");
+			return Response.status(Status.NOT_FOUND).entity(response).build();
+		}
+
+		return Response.ok(this.manager.getKB(knowledgeBaseId).getHandleMetrics()).build();
+	}
+
 	private boolean kbHasAnswerOrReactKnowledgeInteraction(RestKnowledgeBase kb) {
 
 		boolean hasAnswerOrReact = false;
@@ -207,4 +322,66 @@ public class ReactiveApiServiceImpl {
 		}
 	}
 
+	@POST
+	@Path("/handle/batch")
+	@Consumes({ "application/json; charset=UTF-8" })
+	@Produces({ "application/json; charset=UTF-8", "text/plain; charset=UTF-8" })
+	public Response scHandleBatchPost(
+			@Parameter(description = "The Knowledge Base Id for which to execute the ask.", required = true) @HeaderParam("Knowledge-Base-Id") @NotNull String knowledgeBaseId,
+			@Parameter(description = "") @Valid @NotNull List<eu.knowledge.engine.rest.model.HandleResponse> responseBody,
+			@Context SecurityContext securityContext) throws NotFoundException {
+
+		LOG.info("scHandleBatchPost() called with {} handle responses for {}", responseBody.size(), knowledgeBaseId);
+		LOG.debug("scHandleBatchPost() received this response body: {}", responseBody);
+
+		try {
+			new URI(knowledgeBaseId);
+		} catch (URISyntaxException e) {
+			var response = new ResponseMessage();
+			response.setMessageType("error");
+			response.setMessage(
+					"Smart Connector not found, because its ID must be a valid URI and not " + knowledgeBaseId);
+			return Response.status(Status.BAD_REQUEST).entity(response).build();
+		}
+
+		if (!manager.hasKB(knowledgeBaseId)) {
+			var response = new ResponseMessage();
+			response.setMessageType("error");
+			response.setMessage("A Knowledge Base for the given Knowledge-Base-Id cannot be found.");
+			return Response.status(Status.NOT_FOUND).entity(response).build();
+		}
+
+		RestKnowledgeBase kb = manager.getKB(knowledgeBaseId);
+
+		// process every handle response, even if some of them are invalid, because
+		// the handle requests of the valid ones should not wait for the client to
+		// resend them.
+		List<String> errors = new ArrayList<>();
+		for (var handleResponse : responseBody) {
+			if (handleResponse == null || handleResponse.getHandleRequestId() == null) {
+				errors.add("The handleRequestId property is mandatory, but not provided.");
+			} else if (!kb.hasHandleRequestId(handleResponse.getHandleRequestId())) {
+				errors.add("Handle request id " + handleResponse.getHandleRequestId()
+						+ " not found. Are you sure it is still being processed?");
+			} else {
+				try {
+					kb.finishHandleRequest(handleResponse);
+				} catch (IllegalArgumentException e) {
+					errors.add("Handle request id " + handleResponse.getHandleRequestId() + ": " + e.getMessage());
+				}
+			}
+		}
+
+		if (errors.isEmpty()) {
+			return Response.ok().build();
+		} else {
+			var response = new ResponseMessage();
+			response.setMessageType("error");
+			response.setMessage(errors.size() + " of the " + responseBody.size()
+					+ " handle responses could not be processed (the others have been processed): "
+					+ String.join(" ", errors));
+			return Response.status(Status.BAD_REQUEST).entity(response).build();
+		}
+	}
+
 }
@@ -1,24 +1,26 @@
 package eu.knowledge.engine.rest.api.impl;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import org.apache.jena.rdf.model.Resource;
@@ -27,12 +29,17 @@ import org.apache.jena.shared.PrefixMapping;
 import org.apache.jena.sparql.graph.PrefixMappingMem;
 import org.apache.jena.sparql.graph.PrefixMappingZero;
 import org.eclipse.microprofile.config.ConfigProvider;
+import org.glassfish.jersey.server.ChunkedOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import eu.knowledge.engine.reasoner.BaseRule;
 import eu.knowledge.engine.reasoner.Rule;
 import eu.knowledge.engine.reasoner.util.JenaRules;
+import eu.knowledge.engine.rest.model.HandleMetrics;
 import eu.knowledge.engine.rest.model.KnowledgeInteractionBase;
 import eu.knowledge.engine.rest.model.KnowledgeInteractionWithId;
 import eu.knowledge.engine.rest.model.ResponseMessage;
@@ -69,19 +76,62 @@ public class RestKnowledgeBase implements KnowledgeBase {
 
 	private AtomicInteger handleRequestId;
 
-	private final Object asyncResponseLock = new Object();
+	/**
+	 * The long polling requests that are waiting for handle requests. A knowledge
+	 * base can have multiple long polling requests at the same time, for example
+	 * when it handles its requests with multiple workers.
+	 */
+	private final Deque<Poll> polls = new ConcurrentLinkedDeque<>();
+
+	/**
+	 * A long polling request that waits for at most {@code maxBatch} handle
+	 * requests, or for a single handle request instead of an array if
+	 * {@code maxBatch} is 0.
+	 */
+	private record Poll(AsyncResponse asyncResponse, int maxBatch) {
+	}
+
+	/**
+	 * The stream of server-sent events via which handle requests are pushed to the
+	 * knowledge base instead of via long polling, or null if there is none.
+	 */
+	private final AtomicReference<ChunkedOutput<String>> eventStream = new AtomicReference<>();
+
+	/**
+	 * Held while a long polling request or an event stream is registered, so a
+	 * knowledge base never waits for handle requests via both at the same time.
+	 * Removing them does not require this lock.
+	 */
+	private final Object connectionLock = new Object();
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	/**
+	 * The number of times the handle requests should be dispatched to the
+	 * connections of the knowledge base. Only the thread that increments it from
+	 * zero dispatches, any other thread only makes sure the dispatching thread
+	 * dispatches again. This way, only a single thread dispatches at a time
+	 * without requiring a lock.
+	 */
+	private final AtomicInteger dispatchCount = new AtomicInteger(0);
 
 	/**
-	 * Can be null, if no connection with the client is available.
+	 * The maximum number of handle requests that are being processed by the
+	 * knowledge base at the same time. Additional handle requests are queued until
+	 * the knowledge base responds.
 	 */
-	private AsyncResponse asyncResponse;
+	private final int maxHandleRequestsInFlight;
+
+	private final AtomicLong receivedHandleRequests = new AtomicLong(0);
+	private final AtomicLong completedHandleRequests = new AtomicLong(0);
+	private final AtomicLong failedHandleRequests = new AtomicLong(0);
 
 	/**
 	 * The Smart connector of this KB asks us to handle a certain request
 	 * (Ask,Post). These should be send to the asyncContext, but if it is not
 	 * available, it will be placed on a queue.
 	 */
-	private Queue<HandleRequest> toBeProcessedHandleRequests;
+	private final Queue<HandleRequest> toBeProcessedHandleRequests;
 
 	/**
 	 * The client has received the handle request and it is currently being
@@ -90,7 +140,12 @@ public class RestKnowledgeBase implements KnowledgeBase {
 	 */
 	private final Map<Integer, HandleRequest> beingProcessedHandleRequests;
 	private SmartConnector sc;
-	private Map<URI, KnowledgeInteraction> knowledgeInteractions;
+	private final Map<URI, KnowledgeInteraction> knowledgeInteractions;
+
+	/**
+	 * The ids of the knowledge interactions in {@link #knowledgeInteractions}.
+	 */
+	private final Map<KnowledgeInteraction, URI> knowledgeInteractionIds;
 
 	private static int QUEUE_SIZE = 50;
 
@@ -183,32 +238,16 @@ public class RestKnowledgeBase implements KnowledgeBase {
 		this.knowledgeBaseId = scModel.getKnowledgeBaseId();
 		this.knowledgeBaseName = scModel.getKnowledgeBaseName();
 		this.knowledgeBaseDescription = scModel.getKnowledgeBaseDescription();
-		this.knowledgeInteractions = new HashMap<>();
+		this.knowledgeInteractions = new ConcurrentHashMap<>();
+		this.knowledgeInteractionIds = new ConcurrentHashMap<>();
 		this.toBeProcessedHandleRequests = new ArrayBlockingQueue<>(QUEUE_SIZE);
 
-		// use a mapping with a maximum capacity and removing the oldest one if new
-		// entries come in when the max capacity is reached. When a KB accepts many
-		// handle requests, but fails to respond to many of them, this causes a memory
-		// leak. With the following code we basically say that a KB is only allowed to
-		// have 100 parallel handle requests outstanding.
-		this.beingProcessedHandleRequests = Collections.synchronizedMap(new LinkedHashMap<Integer, HandleRequest>() {
-			private static final long serialVersionUID = 1L;
-			private static final int MAX_ENTRIES = 100;
-
-			@Override
-			protected boolean removeEldestEntry(Map.Entry<Integer, HandleRequest> eldest) {
-				if (size() > MAX_ENTRIES) {
-					eldest.getValue().getFuture()
-							.completeExceptionally(new KnowledgeEngineException(new Exception("Knowledge base "
-									+ RestKnowledgeBase.this.knowledgeBaseId + " should have max " + MAX_ENTRIES
-									+ " outstanding handle requests. Cancelling oldest handle request "
-									+ eldest.getValue().getHandleRequestId() + ".")));
-					return true;
-				} else {
-					return false;
-				}
-			}
-		});
+		// A KB is only allowed to have a limited number of handle requests
+		// outstanding. When a KB accepts many handle requests, but fails to respond
+		// to many of them, they expire (see expireHandleRequests()).
+		this.beingProcessedHandleRequests = new ConcurrentHashMap<>();
+		this.maxHandleRequestsInFlight = ConfigProvider.getConfig()
+				.getValue(SmartConnectorConfig.CONF_KEY_KE_REST_HANDLE_REQUESTS_IN_FLIGHT, Integer.class);
 
 		this.handleRequestId = new AtomicInteger(0);
 		this.onReady = onReady;
@@ -235,83 +274,342 @@ public class RestKnowledgeBase implements KnowledgeBase {
 		Runtime.getRuntime().addShutdownHook(this.shutdownHook);
 	}
 
+	/**
+	 * Enqueues the given handle request and dispatches it to a connection of the
+	 * knowledge base if one is available and the knowledge base is not processing
+	 * too many handle requests.
+	 */
 	protected void tryProcessHandleRequestElseEnqueue(HandleRequest handleRequest) {
-		boolean sentToKnowledgeBase = false;
-		synchronized (this.asyncResponseLock) {
-			if (this.asyncResponse != null) {
-				this.beingProcessedHandleRequests.put(handleRequest.getHandleRequestId(), handleRequest);
-				// immediately process
-				// retrieve corresponding KnowledgeInteractionId
-				if (this.knowledgeInteractions.containsValue(handleRequest.getKnowledgeInteraction())) {
-
-					String knowledgeInteractionId = null;
-					for (var entry : this.knowledgeInteractions.entrySet()) {
-						if (entry.getValue().equals(handleRequest.getKnowledgeInteraction())) {
-							knowledgeInteractionId = entry.getKey().toString();
-						}
-					}
-					assert knowledgeInteractionId != null;
-
-					eu.knowledge.engine.rest.model.HandleRequest handleRequestModel = new eu.knowledge.engine.rest.model.HandleRequest()
-							.bindingSet(handleRequest.getBindingSet())
-							.handleRequestId(handleRequest.getHandleRequestId())
-							.knowledgeInteractionId(knowledgeInteractionId);
-
-					if (handleRequest.getRequestingKnowledgeBaseId() != null) {
-						handleRequestModel
-								.requestingKnowledgeBaseId(handleRequest.getRequestingKnowledgeBaseId().toString());
-					}
-
-					sentToKnowledgeBase = this.asyncResponse
-							.resume(Response.status(200).entity(handleRequestModel).build());
-					// Even if unsuccesful, we want to reset the asyncResponse object, as it
-					// is somehow faulty. So we will wait for a new request.
-					this.resetAsyncResponse();
-				}
+		this.receivedHandleRequests.incrementAndGet();
+		this.enqueueHandleRequest(handleRequest);
+		this.dispatchHandleRequests();
+	}
+
+	/**
+	 * Dispatch the queued handle requests to the waiting long polling requests or
+	 * the event stream, for as long as they are available and the knowledge base
+	 * has room for more handle requests. Should be called whenever one of these
+	 * changes.
+	 */
+	private void dispatchHandleRequests() {
+		if (this.dispatchCount.getAndIncrement() != 0)
+			return;
+
+		int count = 1;
+		do {
+			try {
+				this.dispatchQueuedHandleRequests();
+			} catch (RuntimeException e) {
+				LOG.error("Dispatching the handle requests of KB {} should not fail.", this.knowledgeBaseId, e);
+			}
+			count = this.dispatchCount.addAndGet(-count);
+		} while (count != 0);
+	}
+
+	private void dispatchQueuedHandleRequests() {
+		int room;
+		while ((room = this.maxHandleRequestsInFlight - this.beingProcessedHandleRequests.size()) > 0
+				&& !this.toBeProcessedHandleRequests.isEmpty()) {
+
+			ChunkedOutput<String> stream = this.eventStream.get();
+			Poll poll = null;
+			if (stream == null) {
+				poll = this.polls.poll();
+				if (poll == null)
+					return;
 			}
+
+			int max = Math.min(room, poll != null && poll.maxBatch() > 0 ? poll.maxBatch() : 1);
+			List<HandleRequest> handleRequests = new ArrayList<>(max);
+			HandleRequest hr;
+			while (handleRequests.size() < max && (hr = this.toBeProcessedHandleRequests.poll()) != null) {
+				handleRequests.add(hr);
+			}
+
+			if (handleRequests.isEmpty()) {
+				if (poll != null)
+					this.polls.addFirst(poll);
+				return;
+			}
+
+			List<HandleRequest> notSent;
+			if (stream != null)
+				notSent = this.sendToEventStream(stream, handleRequests);
+			else
+				notSent = this.sendHandleRequests(poll, handleRequests);
+
+			// the connection is no longer available, so send them via another one.
+			notSent.forEach(this::enqueueHandleRequest);
 		}
+	}
+
+	/**
+	 * Send the given handle requests to the knowledge base via the given long
+	 * polling request in a single response.
+	 * 
+	 * @param aPoll              The long polling request.
+	 * @param someHandleRequests The handle requests to send. Should contain a
+	 *                           single handle request if the long polling request
+	 *                           does not accept batches.
+	 * @return The handle requests that were not sent and should be enqueued
+	 *         again.
+	 */
+	private List<HandleRequest> sendHandleRequests(Poll aPoll, List<HandleRequest> someHandleRequests) {
+		assert aPoll.maxBatch() > 0 || someHandleRequests.size() == 1;
+
+		List<HandleRequest> toBeSent = new ArrayList<>(someHandleRequests.size());
+		List<eu.knowledge.engine.rest.model.HandleRequest> handleRequestModels = new ArrayList<>(
+				someHandleRequests.size());
+		for (HandleRequest handleRequest : someHandleRequests) {
+			var handleRequestModel = this.toHandleRequestModel(handleRequest);
+			if (handleRequestModel != null) {
+				toBeSent.add(handleRequest);
+				handleRequestModels.add(handleRequestModel);
+			}
+		}
+
+		if (toBeSent.isEmpty()) {
+			// the long polling request keeps waiting
+			this.polls.addFirst(aPoll);
+			return List.of();
+		}
+
+		toBeSent.forEach(hr -> this.beingProcessedHandleRequests.put(hr.getHandleRequestId(), hr));
+
+		// a batch is always sent as an array, even if it contains a single handle
+		// request.
+		Object entity = aPoll.maxBatch() > 0 ? handleRequestModels : handleRequestModels.get(0);
+		boolean sentToKnowledgeBase = aPoll.asyncResponse().resume(Response.status(200).entity(entity).build());
 
 		if (!sentToKnowledgeBase) {
-			// Offer a new item to the queue
-			var enqueued = this.toBeProcessedHandleRequests.offer(handleRequest);
-			if (!enqueued) {
-				// If unsuccessfull, remove the oldest item and complete it exceptionally.
-				HandleRequest oldest = this.toBeProcessedHandleRequests.remove();
+			toBeSent.forEach(hr -> this.beingProcessedHandleRequests.remove(hr.getHandleRequestId()));
+			return toBeSent;
+		}
+		return List.of();
+	}
+
+	/**
+	 * @return The model of the given handle request that is sent to the knowledge
+	 *         base, or {@code null} if its knowledge interaction is no longer
+	 *         registered, in which case the handle request fails.
+	 */
+	private eu.knowledge.engine.rest.model.HandleRequest toHandleRequestModel(HandleRequest handleRequest) {
+		// retrieve corresponding KnowledgeInteractionId
+		URI knowledgeInteractionId = this.knowledgeInteractionIds.get(handleRequest.getKnowledgeInteraction());
+
+		if (knowledgeInteractionId == null) {
+			this.failedHandleRequests.incrementAndGet();
+			handleRequest.getFuture().completeExceptionally(new KnowledgeEngineException(new Exception(
+					"The knowledge interaction of handle request " + handleRequest.getHandleRequestId()
+							+ " is no longer registered.")));
+			return null;
+		}
+
+		eu.knowledge.engine.rest.model.HandleRequest handleRequestModel = new eu.knowledge.engine.rest.model.HandleRequest()
+				.bindingSet(handleRequest.getBindingSet()).handleRequestId(handleRequest.getHandleRequestId())
+				.knowledgeInteractionId(knowledgeInteractionId.toString());
+
+		if (handleRequest.getRequestingKnowledgeBaseId() != null) {
+			handleRequestModel.requestingKnowledgeBaseId(handleRequest.getRequestingKnowledgeBaseId().toString());
+		}
+		return handleRequestModel;
+	}
+
+	private void enqueueHandleRequest(HandleRequest handleRequest) {
+		// Offer a new item to the queue
+		var enqueued = this.toBeProcessedHandleRequests.offer(handleRequest);
+		if (!enqueued) {
+			// If unsuccessfull, remove the oldest item and complete it exceptionally.
+			HandleRequest oldest = this.toBeProcessedHandleRequests.poll();
+			if (oldest != null) {
+				this.failedHandleRequests.incrementAndGet();
 				oldest.getFuture().completeExceptionally(new KnowledgeEngineException(
 						new Exception("Handle request queue is full. This oldest request has been cancelled.")));
+			}
 
-				// And then try again forcibly this time.
-				try {
-					this.toBeProcessedHandleRequests.add(handleRequest);
-				} catch (IllegalStateException e) {
-					// If this ALSO failed, we will cancel this new item as well and log.
-					handleRequest.getFuture().completeExceptionally(new KnowledgeEngineException(
-							new Exception("It was not possible to add this request to the knowledge base's queue.")));
-					LOG.warn("Could not add handle request to queue of knowledge base {}, even after removing an item.",
-							this.knowledgeBaseId);
-					LOG.debug("This handle request couldn't be added: {}", handleRequest);
-				}
+			// And then try again.
+			if (!this.toBeProcessedHandleRequests.offer(handleRequest)) {
+				// If this ALSO failed, we will cancel this new item as well and log.
+				this.failedHandleRequests.incrementAndGet();
+				handleRequest.getFuture().completeExceptionally(new KnowledgeEngineException(
+						new Exception("It was not possible to add this request to the knowledge base's queue.")));
+				LOG.warn("Could not add handle request to queue of knowledge base {}, even after removing an item.",
+						this.knowledgeBaseId);
+				LOG.debug("This handle request couldn't be added: {}", handleRequest);
 			}
 		}
 	}
 
-	public boolean hasAsyncResponse() {
-		return this.asyncResponse != null;
+	/**
+	 * Stop waiting for handle requests via the given long polling request, for
+	 * example because it timed out.
+	 * 
+	 * @return Whether the long polling request was still waiting.
+	 */
+	public boolean removeAsyncResponse(AsyncResponse asyncResponse) {
+		return this.polls.removeIf(p -> p.asyncResponse() == asyncResponse);
 	}
 
-	public void resetAsyncResponse() {
-		this.asyncResponse = null;
+	public boolean hasEventStream() {
+		return this.eventStream.get() != null;
 	}
 
-	public void waitForHandleRequest(AsyncResponse asyncResponse) {
+	/**
+	 * Open a stream of server-sent events via which all handle requests of this
+	 * knowledge base are pushed to the client as soon as they are available,
+	 * instead of waiting for the next long polling request. The stream lasts
+	 * until the client disconnects or this knowledge base stops. The responses
+	 * should still be sent via the handle POST endpoints.
+	 * 
+	 * @return The stream, or {@code null} if this knowledge base is already
+	 *         waiting for handle requests via long polling or another stream.
+	 */
+	public ChunkedOutput<String> openEventStream() {
+		var stream = new ChunkedOutput<String>(String.class);
+		synchronized (this.connectionLock) {
+			if (!this.polls.isEmpty() || !this.eventStream.compareAndSet(null, stream))
+				return null;
+		}
+		LOG.debug("Opened event stream of KB {}.", this.knowledgeBaseId);
 
-		this.asyncResponse = asyncResponse;
-		HandleRequest hr = toBeProcessedHandleRequests.poll();
-		if (hr != null) {
-			beingProcessedHandleRequests.put(hr.getHandleRequestId(), hr);
-			// there is a handle request waiting
-			tryProcessHandleRequestElseEnqueue(hr);
+		// comments are ignored by the client, but they make sure the stream starts
+		// immediately.
+		this.sendToEventStream(stream, ": connected\n\n");
+		this.dispatchHandleRequests();
+		return stream;
+	}
+
+	/**
+	 * Send a heartbeat to the event stream (if any), which keeps the connection
+	 * open and detects whether the client disconnected.
+	 */
+	public void sendEventStreamHeartbeat() {
+		var stream = this.eventStream.get();
+		if (stream != null && !this.sendToEventStream(stream, ": heartbeat\n\n")) {
+			// handle requests that could not be sent are queued again
+			this.dispatchHandleRequests();
+		}
+	}
+
+	/**
+	 * Send the given handle requests to the given event stream.
+	 * 
+	 * @return The handle requests that were not sent and should be enqueued
+	 *         again.
+	 */
+	private List<HandleRequest> sendToEventStream(ChunkedOutput<String> aStream,
+			List<HandleRequest> someHandleRequests) {
+		for (int i = 0; i < someHandleRequests.size(); i++) {
+			HandleRequest handleRequest = someHandleRequests.get(i);
+			var handleRequestModel = this.toHandleRequestModel(handleRequest);
+			if (handleRequestModel == null)
+				continue;
+
+			String event;
+			try {
+				event = "event: handle-request\nid: " + handleRequest.getHandleRequestId() + "\ndata: "
+						+ MAPPER.writeValueAsString(handleRequestModel) + "\n\n";
+			} catch (JsonProcessingException e) {
+				LOG.error("Handle request {} should be serializable.", handleRequest.getHandleRequestId(), e);
+				this.failedHandleRequests.incrementAndGet();
+				handleRequest.getFuture().completeExceptionally(e);
+				continue;
+			}
+
+			this.beingProcessedHandleRequests.put(handleRequest.getHandleRequestId(), handleRequest);
+			if (!this.sendToEventStream(aStream, event)) {
+				this.beingProcessedHandleRequests.remove(handleRequest.getHandleRequestId());
+				return someHandleRequests.subList(i, someHandleRequests.size());
+			}
 		}
+		return List.of();
+	}
+
+	private boolean sendToEventStream(ChunkedOutput<String> aStream, String anEvent) {
+		try {
+			aStream.write(anEvent);
+			return true;
+		} catch (IOException e) {
+			LOG.debug("The event stream of KB {} is closed by the client.", this.knowledgeBaseId);
+			this.closeEventStream(aStream);
+			return false;
+		}
+	}
+
+	private void closeEventStream(ChunkedOutput<String> aStream) {
+		this.eventStream.compareAndSet(aStream, null);
+		try {
+			aStream.close();
+		} catch (IOException e) {
+			LOG.debug("Closing the event stream of KB {} failed.", this.knowledgeBaseId, e);
+		}
+	}
+
+	/**
+	 * Wait for handle requests, which are sent to the given asyncResponse as soon
+	 * as they are available. All handle requests that are already queued (up to
+	 * the given maximum) are sent at once, so a busy knowledge base needs fewer
+	 * long polling requests.
+	 * 
+	 * @param asyncResponse The asyncResponse of the long polling request.
+	 * @param aMaxBatch     The maximum number of handle requests to send in a
+	 *                      single response as an array, or {@code 0} if a single
+	 *                      handle request should be sent instead of an array.
+	 * @return {@code false} if this knowledge base already waits for handle
+	 *         requests via an event stream, in which case the long polling request
+	 *         is not registered.
+	 */
+	public boolean waitForHandleRequests(AsyncResponse asyncResponse, int aMaxBatch) {
+		synchronized (this.connectionLock) {
+			if (this.eventStream.get() != null)
+				return false;
+			this.polls.add(new Poll(asyncResponse, aMaxBatch));
+		}
+		this.dispatchHandleRequests();
+		return true;
+	}
+
+	/**
+	 * Fail the handle requests that are older than the time the knowledge engine
+	 * waits for a knowledge base to respond (see
+	 * {@link SmartConnectorConfig#CONF_KEY_KE_KB_WAIT_TIMEOUT}), because their
+	 * response is no longer waited for. This makes room for new handle requests
+	 * when the knowledge base fails to respond to some of them.
+	 */
+	public void expireHandleRequests() {
+		int waitTimeout = ConfigProvider.getConfig().getValue(SmartConnectorConfig.CONF_KEY_KE_KB_WAIT_TIMEOUT,
+				Integer.class);
+		if (waitTimeout == 0)
+			return;
+
+		long expiredBefore = System.currentTimeMillis() - waitTimeout * 1000L;
+		this.beingProcessedHandleRequests.values().removeIf(hr -> this.expire(hr, expiredBefore));
+		this.toBeProcessedHandleRequests.removeIf(hr -> this.expire(hr, expiredBefore));
+		this.dispatchHandleRequests();
+	}
+
+	private boolean expire(HandleRequest aHandleRequest, long anExpiredBefore) {
+		if (aHandleRequest.getCreationTime() >= anExpiredBefore)
+			return false;
+
+		this.failedHandleRequests.incrementAndGet();
+		aHandleRequest.getFuture().completeExceptionally(new KnowledgeEngineException(new Exception("Knowledge base "
+				+ this.knowledgeBaseId + " did not respond to handle request " + aHandleRequest.getHandleRequestId()
+				+ " in time.")));
+		return true;
+	}
+
+	/**
+	 * @return The metrics of the handle requests of this knowledge base.
+	 */
+	public HandleMetrics getHandleMetrics() {
+		return new HandleMetrics().receivedHandleRequests(this.receivedHandleRequests.get())
+				.completedHandleRequests(this.completedHandleRequests.get())
+				.failedHandleRequests(this.failedHandleRequests.get())
+				.queuedHandleRequests(this.toBeProcessedHandleRequests.size())
+				.inFlightHandleRequests(this.beingProcessedHandleRequests.size())
+				.maxInFlightHandleRequests(this.maxHandleRequestsInFlight).waitingConnections(
+						this.polls.size() + (this.hasEventStream() ? 1 : 0));
 	}
 
 	public boolean hasHandleRequestId(int handleRequestId) {
@@ -321,49 +619,68 @@ public class RestKnowledgeBase implements KnowledgeBase {
 	/**
 	 * Called when the REST client sends us some bindings as an answer or reaction.
 	 * 
-	 * @param knowledgeInteractionId
+	 * @param knowledgeInteractionId The knowledge interaction that the handle
+	 *                               request should belong to.
 	 * @param responseBody
+	 * @throws IllegalArgumentException If the handle request does not belong to
+	 *                                  the given knowledge interaction.
 	 */
 	public void finishHandleRequest(String knowledgeInteractionId,
 			eu.knowledge.engine.rest.model.HandleResponse responseBody) {
+		int handleRequestId = responseBody.getHandleRequestId();
+		HandleRequest hr = this.beingProcessedHandleRequests.get(handleRequestId);
+		if (hr != null) {
+			URI kiId = this.knowledgeInteractionIds.get(hr.getKnowledgeInteraction());
+			if (kiId == null || !kiId.toString().equals(knowledgeInteractionId))
+				throw new IllegalArgumentException("Handle request id " + handleRequestId
+						+ " does not belong to knowledge interaction " + knowledgeInteractionId + ".");
+		}
+		this.finishHandleRequest(responseBody);
+	}
+
+	/**
+	 * Called when the REST client sends us some bindings as an answer or reaction.
+	 * The handle request id in the response body determines which knowledge
+	 * interaction it belongs to.
+	 * 
+	 * @param responseBody
+	 */
+	public void finishHandleRequest(eu.knowledge.engine.rest.model.HandleResponse responseBody) {
 
 		int handleRequestId = responseBody.getHandleRequestId();
 
-		HandleRequest hr = null;
-		BindingSet bs = null;
-		String errorMessage = null;
+		BindingSet bs = this.listToBindingSet(responseBody.getBindingSet());
+		String errorMessage = responseBody.getErrorMessage();
 
-		try {
+		// from the reactive side we are done, so we can remove the HandleRequest from
+		// our list.
+		HandleRequest hr = this.beingProcessedHandleRequests.remove(handleRequestId);
+		if (hr == null)
+			throw new IllegalArgumentException("Handle request id " + handleRequestId
+					+ " not found. Are you sure it is still being processed?");
 
-			synchronized (this.beingProcessedHandleRequests) {
-				hr = this.beingProcessedHandleRequests.get(handleRequestId);
-				bs = this.listToBindingSet(responseBody.getBindingSet());
-				errorMessage = responseBody.getErrorMessage();
-
-				if (this.shouldValidateInputOutputBindings() && bs != null) {
-					// Moved the validation to the {@link
-					// eu.knowledge.engine.smartconnector.impl.InteractionProcessorImpl} so that
-					// also the Java API benefits this, but unfortunately we also have to validate
-					// here to be able to return an error to the Knowledge Base using the REST API.
-					hr.validateBindings(bs);
-				}
-
-				// Now that the validation is done, from the reactive side we are done, so
-				// we can remove the HandleRequest from our list.
-				this.beingProcessedHandleRequests.remove(handleRequestId);
+		try {
+			if (this.shouldValidateInputOutputBindings() && bs != null) {
+				// Moved the validation to the {@link
+				// eu.knowledge.engine.smartconnector.impl.InteractionProcessorImpl} so that
+				// also the Java API benefits this, but unfortunately we also have to validate
+				// here to be able to return an error to the Knowledge Base using the REST API.
+				hr.validateBindings(bs);
 			}
-
 		} finally {
 			// we always want to complete the future, also when the binding set is invalid.
-			if (hr != null) {
-				if (errorMessage != null) {
-					String kiType = getOppositeKIType(hr.getKnowledgeInteractionType());
-					hr.getFuture().completeExceptionally(
-							new IllegalStateException("An error occurred while " + kiType + ": " + errorMessage));
-				} else if (bs != null) {
-					hr.getFuture().complete(bs);
-				}
+			if (errorMessage != null) {
+				this.failedHandleRequests.incrementAndGet();
+				String kiType = getOppositeKIType(hr.getKnowledgeInteractionType());
+				hr.getFuture().completeExceptionally(
+						new IllegalStateException("An error occurred while " + kiType + ": " + errorMessage));
+			} else if (bs != null) {
+				this.completedHandleRequests.incrementAndGet();
+				hr.getFuture().complete(bs);
 			}
+
+			// there is room for another handle request
+			this.dispatchHandleRequests();
 		}
 	}
 
@@ -433,7 +750,7 @@ public class RestKnowledgeBase implements KnowledgeBase {
 					ki.getKnowledgeInteractionName(), false, includeMetaKIs, knowledgeGapsEnabled, strategy);
 
 			kiId = this.sc.register(askKI);
-			this.knowledgeInteractions.put(kiId, askKI);
+			this.addKnowledgeInteraction(kiId, askKI);
 		} else if (type.equals("AnswerKnowledgeInteraction")) {
 
 			eu.knowledge.engine.rest.model.AnswerKnowledgeInteraction aki = (eu.knowledge.engine.rest.model.AnswerKnowledgeInteraction) ki;
@@ -446,7 +763,7 @@ public class RestKnowledgeBase implements KnowledgeBase {
 
 			kiId = this.sc.register(answerKI, this.answerHandler);
 
-			this.knowledgeInteractions.put(kiId, answerKI);
+			this.addKnowledgeInteraction(kiId, answerKI);
 		} else if (type.equals("PostKnowledgeInteraction")) {
 
 			eu.knowledge.engine.rest.model.PostKnowledgeInteraction pki = (eu.knowledge.engine.rest.model.PostKnowledgeInteraction) ki;
@@ -470,7 +787,7 @@ public class RestKnowledgeBase implements KnowledgeBase {
 					includeMetaKIs, null /* default strategy */);
 			kiId = this.sc.register(postKI);
 
-			this.knowledgeInteractions.put(kiId, postKI);
+			this.addKnowledgeInteraction(kiId, postKI);
 		} else if (type.equals("ReactKnowledgeInteraction")) {
 
 			eu.knowledge.engine.rest.model.ReactKnowledgeInteraction rki = (eu.knowledge.engine.rest.model.ReactKnowledgeInteraction) ki;
@@ -493,7 +810,7 @@ public class RestKnowledgeBase implements KnowledgeBase {
 			var reactKI = new ReactKnowledgeInteraction(ca, argGP, resGP, ki.getKnowledgeInteractionName());
 			kiId = this.sc.register(reactKI, this.reactHandler);
 
-			this.knowledgeInteractions.put(kiId, reactKI);
+			this.addKnowledgeInteraction(kiId, reactKI);
 		} else {
 			throw new IllegalArgumentException(String.format(
 					"Unexpected value for knowledgeInteractionType: %s. Must be one of: AskKnowledgeInteraction, AnswerKnowledgeInteraction, PostKnowledgeInteraction, ReactKnowledgeInteraction",
@@ -503,6 +820,11 @@ public class RestKnowledgeBase implements KnowledgeBase {
 		return kiId.toString();
 	}
 
+	private void addKnowledgeInteraction(URI kiId, KnowledgeInteraction ki) {
+		this.knowledgeInteractions.put(kiId, ki);
+		this.knowledgeInteractionIds.put(ki, kiId);
+	}
+
 	private Set<Resource> toResources(List<String> strings) {
 		return strings.stream().map((str) -> {
 			return ResourceFactory.createProperty(str);
@@ -590,6 +912,8 @@ public class RestKnowledgeBase implements KnowledgeBase {
 		}
 
 		var ki = this.knowledgeInteractions.remove(kiId);
+		if (ki != null)
+			this.knowledgeInteractionIds.remove(ki);
 
 		if (ki == null) {
 			LOG.warn("Tried to delete an unknown knowledge interaction '{}'. Ignored.", kiId);
@@ -744,23 +1068,30 @@ public class RestKnowledgeBase implements KnowledgeBase {
 		LOG.debug("SC of KB '{}' has stopped.", this.knowledgeBaseId);
 	}
 
-	private void cancelAsyncResponse() {
+	private void cancelAsyncResponses() {
 
 		var response = new ResponseMessage();
 		response.setMessageType("message");
 		response.setMessage(
 				"This long polling request is cancelled by the server because it or the Knowledge Base is stopping. Do not reinitiate this request.");
-		boolean cancelledSucceeded = this.asyncResponse.resume(Response.status(410).entity(response).build());
 
-		if (!cancelledSucceeded) {
-			this.asyncResponse.cancel();
+		Poll poll;
+		while ((poll = this.polls.poll()) != null) {
+			boolean cancelledSucceeded = poll.asyncResponse().resume(Response.status(410).entity(response).build());
+
+			if (!cancelledSucceeded) {
+				poll.asyncResponse().cancel();
+			}
 		}
 	}
 
 	public void stop() {
-		if (this.hasAsyncResponse())
-			this.cancelAsyncResponse();
-		
+		this.cancelAsyncResponses();
+
+		var stream = this.eventStream.get();
+		if (stream != null)
+			this.closeEventStream(stream);
+
 		try {
 			this.sc.stop().get();
 			Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
@@ -35,6 +35,32 @@ public class RestKnowledgeBaseManager {
 		this.leaseExpirationExecutor.scheduleAtFixedRate(() -> {
 			this.removeExpiredSmartConnectors();
 		}, CHECK_LEASES_INITIAL_DELAY, CHECK_LEASES_PERIOD, TimeUnit.SECONDS);
+
+		// Keep the event streams of the knowledge bases open.
+		this.leaseExpirationExecutor.scheduleAtFixedRate(() -> {
+			// an exception would cancel all future runs of this task.
+			this.restKnowledgeBases.values().forEach(kb -> {
+				try {
+					kb.sendEventStreamHeartbeat();
+				} catch (RuntimeException e) {
+					LOG.error("Sending the heartbeat of the event stream of KB {} should not fail.",
+							kb.getKnowledgeBaseId(), e);
+				}
+			});
+		}, ReactiveApiServiceImpl.EVENT_STREAM_HEARTBEAT, ReactiveApiServiceImpl.EVENT_STREAM_HEARTBEAT,
+				TimeUnit.SECONDS);
+
+		// Fail the handle requests to which the knowledge bases no longer respond.
+		this.leaseExpirationExecutor.scheduleAtFixedRate(() -> {
+			// an exception would cancel all future runs of this task.
+			this.restKnowledgeBases.values().forEach(kb -> {
+				try {
+					kb.expireHandleRequests();
+				} catch (RuntimeException e) {
+					LOG.error("Expiring the handle requests of KB {} should not fail.", kb.getKnowledgeBaseId(), e);
+				}
+			});
+		}, 1, 1, TimeUnit.SECONDS);
 	}
 
 	public static RestKnowledgeBaseManager newInstance() {
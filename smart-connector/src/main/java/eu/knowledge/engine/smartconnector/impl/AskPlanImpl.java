@@ -3,6 +3,7 @@ package eu.knowledge.engine.smartconnector.impl;
 import java.util.concurrent.CompletableFuture;
 
 import eu.knowledge.engine.reasoner.ReasonerPlan;
+import eu.knowledge.engine.smartconnector.api.AskOptions;
 import eu.knowledge.engine.smartconnector.api.AskPlan;
 import eu.knowledge.engine.smartconnector.api.AskResult;
 import eu.knowledge.engine.smartconnector.api.BindingSet;
@@ -23,6 +24,17 @@ public class AskPlanImpl implements AskPlan {
 		return this.processor.executeAskInteraction(Util.translateFromApiBindingSet(bindingSet));
 	}
 
+	@Override
+	public CompletableFuture<AskResult> execute(BindingSet bindingSet, AskOptions someOptions) {
+		if (bindingSet == null) {
+			throw new IllegalArgumentException("the binding set should be non-null");
+		}
+		if (someOptions == null) {
+			throw new IllegalArgumentException("the ask options should be non-null");
+		}
+		return this.processor.executeAskInteraction(Util.translateFromApiBindingSet(bindingSet), someOptions);
+	}
+
 	@Override
 	public ReasonerPlan getReasonerPlan() {
 		return (this.processor instanceof ReasonerProcessor ? ((ReasonerProcessor) this.processor).getReasonerPlan()
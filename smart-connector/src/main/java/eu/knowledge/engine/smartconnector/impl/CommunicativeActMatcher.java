@@ -0,0 +1,113 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.reasoner.ReasonerRegistry;
+import org.apache.jena.vocabulary.RDFS;
+
+import eu.knowledge.engine.smartconnector.api.CommunicativeAct;
+import eu.knowledge.engine.smartconnector.api.Vocab;
+
+/**
+ * Determines whether the {@link CommunicativeAct}s of two knowledge
+ * interactions match. Two acts match if the requirement purposes of the one
+ * are a subset of the satisfaction purposes of the other and vice versa, where
+ * a purpose also counts as all of its superclasses in the ontology.
+ *
+ * The superclasses of all classes in the ontology are inferred once. Every
+ * class gets a bit, so the purposes of an act can be represented by a
+ * {@link BitSet} and matching two acts only takes a few bit operations.
+ * Purposes that are not in the ontology have no superclasses and get a bit when
+ * they are first seen.
+ */
+class CommunicativeActMatcher {
+
+	/**
+	 * The maximum number of sets of purposes for which the bits are cached. When
+	 * it is exceeded, the cache is cleared.
+	 */
+	private static final int MAX_CACHE_SIZE = 1000;
+
+	/**
+	 * The superclasses (according to the RDFS semantics) of every class in the
+	 * ontology.
+	 */
+	private final Map<Node, Set<Node>> superClasses;
+
+	private final Map<Node, Integer> bitPerClass = new ConcurrentHashMap<>();
+	private final AtomicInteger nrOfBits = new AtomicInteger();
+
+	private final Map<Set<Resource>, BitSet> bitsPerPurposes = new ConcurrentHashMap<>();
+
+	CommunicativeActMatcher() {
+		Model ontology = ModelFactory.createDefaultModel();
+		ontology.read(CommunicativeActMatcher.class.getResourceAsStream(Vocab.ONTOLOGY_RESOURCE_LOCATION), null,
+				"turtle");
+		assert !ontology.isEmpty();
+
+		InfModel infModel = ModelFactory.createInfModel(ReasonerRegistry.getRDFSSimpleReasoner(), ontology);
+		Map<Node, Set<Node>> someSuperClasses = new HashMap<>();
+		infModel.listStatements(null, RDFS.subClassOf, (RDFNode) null).forEachRemaining(s -> {
+			someSuperClasses.computeIfAbsent(s.getSubject().asNode(), _ -> new HashSet<>())
+					.add(s.getObject().asNode());
+		});
+		this.superClasses = someSuperClasses;
+	}
+
+	/**
+	 * @return Whether the requirement purposes of both acts are satisfied by the
+	 *         satisfaction purposes of the other act.
+	 */
+	boolean matches(CommunicativeAct myAct, CommunicativeAct otherAct) {
+		return isSubset(this.getBits(myAct.getRequirementPurposes()),
+				this.getBits(otherAct.getSatisfactionPurposes()))
+				&& isSubset(this.getBits(otherAct.getRequirementPurposes()),
+						this.getBits(myAct.getSatisfactionPurposes()));
+	}
+
+	private static boolean isSubset(BitSet aSubset, BitSet aSuperset) {
+		for (int i = aSubset.nextSetBit(0); i >= 0; i = aSubset.nextSetBit(i + 1)) {
+			if (!aSuperset.get(i))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return The bits of the given purposes and all their superclasses.
+	 */
+	private BitSet getBits(Set<Resource> somePurposes) {
+		BitSet bits = this.bitsPerPurposes.get(somePurposes);
+		if (bits == null) {
+			bits = new BitSet();
+			for (Resource purpose : somePurposes) {
+				Node purposeNode = purpose.asNode();
+				bits.set(this.getBit(purposeNode));
+				for (Node superClass : this.superClasses.getOrDefault(purposeNode, Set.of()))
+					bits.set(this.getBit(superClass));
+			}
+
+			if (this.bitsPerPurposes.size() >= MAX_CACHE_SIZE)
+				this.bitsPerPurposes.clear();
+			// copy the purposes, because they can be a view on a set that changes.
+			this.bitsPerPurposes.put(Set.copyOf(somePurposes), bits);
+		}
+		return bits;
+	}
+
+	private int getBit(Node aClass) {
+		return this.bitPerClass.computeIfAbsent(aClass, _ -> this.nrOfBits.getAndIncrement());
+	}
+}
@@ -20,6 +20,7 @@ import eu.knowledge.engine.smartconnector.api.ReactKnowledgeInteraction;
 import eu.knowledge.engine.smartconnector.api.RecipientSelector;
 import eu.knowledge.engine.smartconnector.messaging.AnswerMessage;
 import eu.knowledge.engine.smartconnector.messaging.AskMessage;
+import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
 import eu.knowledge.engine.smartconnector.messaging.PostMessage;
 import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
 
@@ -107,6 +108,16 @@ public interface InteractionProcessor {
 	 */
 	CompletableFuture<ReactMessage> processPostFromMessageRouter(PostMessage postMessage);
 
+	/**
+	 * Whether the {@link AnswerHandler} or {@link ReactHandler} that the given
+	 * {@link AskMessage} or {@link PostMessage} is for never blocks, so that the
+	 * message can be processed on the thread of the sender.
+	 *
+	 * @param aMessage The incoming message.
+	 * @return {@code true} if the handler of the message never blocks.
+	 */
+	boolean isNonBlocking(KnowledgeMessage aMessage);
+
 	void setMessageRouter(MessageRouter messageRouter);
 
 	void unsetMessageRouter();
@@ -10,41 +10,16 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-import org.apache.jena.graph.Node;
-import org.apache.jena.graph.NodeFactory;
-import org.apache.jena.query.Query;
-import org.apache.jena.query.QueryExecution;
-import org.apache.jena.query.QueryExecutionFactory;
-import org.apache.jena.query.QueryFactory;
-import org.apache.jena.query.QuerySolution;
-import org.apache.jena.query.ResultSet;
-import org.apache.jena.rdf.model.InfModel;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
-import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.ResourceFactory;
-import org.apache.jena.reasoner.Reasoner;
-import org.apache.jena.reasoner.ReasonerRegistry;
-import org.apache.jena.shared.PrefixMapping;
-import org.apache.jena.sparql.core.Var;
-import org.apache.jena.sparql.engine.binding.BindingFactory;
-import org.apache.jena.sparql.graph.PrefixMappingZero;
-import org.apache.jena.sparql.syntax.ElementData;
-import org.apache.jena.sparql.syntax.ElementGroup;
-import org.apache.jena.sparql.util.FmtUtils;
-import org.apache.jena.vocabulary.RDF;
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.slf4j.Logger;
 
 import eu.knowledge.engine.reasoner.BaseRule;
 import eu.knowledge.engine.reasoner.Rule;
-import eu.knowledge.engine.reasoner.api.Binding;
 import eu.knowledge.engine.reasoner.api.BindingSet;
 import eu.knowledge.engine.reasoner.util.JenaRules;
 import eu.knowledge.engine.smartconnector.api.AnswerExchangeInfo;
@@ -58,9 +33,9 @@ import eu.knowledge.engine.smartconnector.api.ReactExchangeInfo;
 import eu.knowledge.engine.smartconnector.api.ReactKnowledgeInteraction;
 import eu.knowledge.engine.smartconnector.api.RecipientSelector;
 import eu.knowledge.engine.smartconnector.api.SmartConnectorConfig;
-import eu.knowledge.engine.smartconnector.api.Vocab;
 import eu.knowledge.engine.smartconnector.messaging.AnswerMessage;
 import eu.knowledge.engine.smartconnector.messaging.AskMessage;
+import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
 import eu.knowledge.engine.smartconnector.messaging.PostMessage;
 import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
 
@@ -72,9 +47,6 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 	private MessageRouter messageRouter;
 	private final KnowledgeBaseStore myKnowledgeBaseStore;
 
-	private final Model ontology;
-	private final Reasoner reasoner;
-
 	/**
 	 * A set of rules (or facts) that represent the domain knowledge this smart
 	 * connector should take into account while orchestrating data exchange.
@@ -90,8 +62,31 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 	private int reasonerLevel = ConfigProvider.getConfig().getValue(SmartConnectorConfig.CONF_KEY_KE_REASONER_LEVEL,
 			Integer.class);
 
-	private static final Query query = QueryFactory.create(
-			"ASK WHERE { ?req <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> ?someClass . FILTER NOT EXISTS {?sat <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> ?someClass .} VALUES (?req ?sat) {} }");
+	/**
+	 * The reasoner plans of my knowledge interactions that can be reused while the
+	 * other knowledge bases do not change. Is {@code null} when disabled via the
+	 * configuration.
+	 */
+	private final ReasonerPlanCache planCache;
+
+	/**
+	 * The maximum number of knowledge interactions that a post contacts at the
+	 * same time, or 0 if unlimited.
+	 */
+	private final int postMaxConcurrency = ConfigProvider.getConfig()
+			.getValue(SmartConnectorConfig.CONF_KEY_KE_POST_MAX_CONCURRENCY, Integer.class);
+
+	/**
+	 * Keeps the posts of my knowledge interactions in order per react knowledge
+	 * interaction. Is {@code null} when disabled via the configuration.
+	 */
+	private final OrderedPosts orderedPosts;
+
+	/**
+	 * Matches communicative acts. The ontology it uses is the same for all smart
+	 * connectors, so it is shared.
+	 */
+	private static final CommunicativeActMatcher ACT_MATCHER = new CommunicativeActMatcher();
 
 	public InteractionProcessorImpl(LoggerProvider loggerProvider, OtherKnowledgeBaseStore otherKnowledgeBaseStore,
 			KnowledgeBaseStore myKnowledgeBaseStore) {
@@ -102,6 +97,19 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 		this.otherKnowledgeBaseStore = otherKnowledgeBaseStore;
 		this.myKnowledgeBaseStore = myKnowledgeBaseStore;
 
+		if (ConfigProvider.getConfig().getValue(SmartConnectorConfig.CONF_KEY_KE_REASONER_PLAN_CACHE_ENABLED,
+				Boolean.class)) {
+			this.planCache = new ReasonerPlanCache();
+			this.otherKnowledgeBaseStore.addListener(() -> this.planCache.invalidate());
+		} else {
+			this.planCache = null;
+		}
+
+		if (ConfigProvider.getConfig().getValue(SmartConnectorConfig.CONF_KEY_KE_POST_ORDERED, Boolean.class))
+			this.orderedPosts = new OrderedPosts();
+		else
+			this.orderedPosts = null;
+
 		// load default domain knowledge if available
 		Optional<String> pathToDomainKnowledge = ConfigProvider.getConfig()
 				.getOptionalValue(SmartConnectorConfig.CONF_KEY_KE_DOMAIN_KNOWLEDGE_PATH, String.class);
@@ -110,13 +118,6 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 			String pathString = pathToDomainKnowledge.get();
 			readAdditionalDomainKnowledge(pathString);
 		}
-
-		ontology = ModelFactory.createDefaultModel();
-		ontology.read(InteractionProcessorImpl.class.getResourceAsStream(Vocab.ONTOLOGY_RESOURCE_LOCATION), null,
-				"turtle");
-		assert !this.ontology.isEmpty();
-
-		reasoner = ReasonerRegistry.getRDFSSimpleReasoner().bindSchema(this.ontology);
 	}
 
 	@Override
@@ -124,14 +125,15 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 		assert anAKI != null : "the knowledge interaction should be non-null";
 		assert aSelector != null : "the selector should be non-null";
 
-		// retrieve other knowledge bases
-		Set<OtherKnowledgeBase> otherKnowledgeBases = this.otherKnowledgeBaseStore.getOtherKnowledgeBases();
+		// should be retrieved before the other knowledge bases.
+		long planCacheGeneration = this.planCache != null ? this.planCache.getGeneration() : 0;
 
-		// use RecipientSelector to make a subset. We could do this in the easy way, but
-		// in the future we hope that these RecipientSelectors can be merged with the
-		// regular Knowledge Interaction graph pattern. Therefore we use a more
-		// complicated algorithm to create a subset of the other knowledge bases.
-		Set<OtherKnowledgeBase> filteredOtherKnowledgeBases = filterOtherKnowledgeBases(otherKnowledgeBases, aSelector);
+		// retrieve the other knowledge bases selected by the RecipientSelector. In the
+		// future we hope that these RecipientSelectors can be merged with the regular
+		// Knowledge Interaction graph pattern. Therefore the store selects them with a
+		// query on the metadata of the other knowledge bases.
+		Set<OtherKnowledgeBase> filteredOtherKnowledgeBases = this.otherKnowledgeBaseStore
+				.getOtherKnowledgeBases(aSelector);
 
 		Set<KnowledgeInteractionInfo> otherKnowledgeInteractions = new HashSet<>();
 
@@ -151,6 +153,8 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 		ReasonerProcessor processor = new ReasonerProcessor(otherKnowledgeInteractions, messageRouter,
 				this.additionalDomainKnowledge);
 		processor.setMatchStrategy(SmartConnectorConfig.toMatchStrategy(this.reasonerLevel));
+		if (this.planCache != null)
+			processor.setPlanCache(this.planCache, planCacheGeneration);
 
 		// give the caller something to chew on while it waits. This method starts the
 		// interaction process as far as it can until it is blocked because it waits for
@@ -162,60 +166,6 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 		return new AskPlanImpl(processor);
 	}
 
-	private Set<OtherKnowledgeBase> filterOtherKnowledgeBases(Set<OtherKnowledgeBase> otherKnowledgeBases,
-			RecipientSelector aSelector) {
-
-		Set<OtherKnowledgeBase> filtered = new HashSet<>();
-
-		// convert to RDF
-		Model m = ModelFactory.createDefaultModel();
-		for (OtherKnowledgeBase okb : otherKnowledgeBases) {
-			m.add(okb.getRDF());
-		}
-
-		String queryString = createQuery(aSelector.getPattern(),
-				Util.translateFromApiBindingSet(aSelector.getBindingSet()));
-		LOG.trace("Query: {}", queryString);
-		Query q = QueryFactory.create(queryString);
-		QueryExecution qe = QueryExecutionFactory.create(q, m);
-		ResultSet rs = qe.execSelect();
-
-		Set<URI> filteredKBs = new HashSet<>();
-		QuerySolution qs;
-		while (rs.hasNext()) {
-			qs = rs.next();
-			filteredKBs.add(URI.create(qs.get("kb").toString()));
-		}
-
-		filtered = otherKnowledgeBases.stream().filter((kb) -> {
-			return filteredKBs.contains(kb.getId());
-		}).collect(Collectors.toSet());
-
-		qe.close();
-
-		return filtered;
-	}
-
-	private String createQuery(GraphPattern gp, BindingSet bs) {
-		// then query to retrieve the selected KBs.
-		String queryString = "SELECT * WHERE { " + gp.getPattern() + " } VALUES (?kb) { ";
-
-		PrefixMapping prefixMapping = new PrefixMappingZero();
-		if (!bs.isEmpty()) {
-			var kbVar = Var.alloc("kb");
-			for (Binding b : bs) {
-				assert (b.containsKey(kbVar));
-				Node kbId = b.get(kbVar);
-				queryString += "(" + FmtUtils.stringForNode(kbId, prefixMapping) + ")";
-			}
-		} else {
-			queryString += "(UNDEF)";
-		}
-
-		queryString += " }";
-		return queryString;
-	}
-
 	@Override
 	public CompletableFuture<AnswerMessage> processAskFromMessageRouter(AskMessage anAskMsg) {
 		URI answerKnowledgeInteractionId = anAskMsg.getToKnowledgeInteraction();
@@ -237,7 +187,7 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 		AnswerKnowledgeInteraction answerKnowledgeInteraction;
 		answerKnowledgeInteraction = (AnswerKnowledgeInteraction) knowledgeInteractionById.getKnowledgeInteraction();
 
-		CompletableFuture<eu.knowledge.engine.smartconnector.api.BindingSet> future;
+		CompletableFuture<BindingSet> future;
 
 		var handler = this.myKnowledgeBaseStore.getAnswerHandler(answerKnowledgeInteractionId);
 		// TODO This should happen in the single thread for the knowledge base
@@ -248,10 +198,21 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 			LOG.info("Contacting my KB to answer KI <{}>", answerKnowledgeInteractionId);
 		}
 
-		var aei = new AnswerExchangeInfo(Util.translateToApiBindingSet(anAskMsg.getBindings()),
-				anAskMsg.getFromKnowledgeBase(), anAskMsg.getFromKnowledgeInteraction());
-
-		future = handler.answerAsync(answerKnowledgeInteraction, aei);
+		if (handler instanceof InternalAnswerHandler internalHandler) {
+			// the bindings can be handed over without translating them
+			future = new CompletableFuture<>();
+			try {
+				future.complete(internalHandler.answer(answerKnowledgeInteraction, anAskMsg.getBindings(),
+						anAskMsg.getFromKnowledgeBase(), anAskMsg.getFromKnowledgeInteraction()));
+			} catch (Exception e) {
+				LOG.error("Answering should not result in the following exception.", e);
+				future.completeExceptionally(e);
+			}
+		} else {
+			var aei = new AnswerExchangeInfo(Util.translateToApiBindingSet(anAskMsg.getBindings()),
+					anAskMsg.getFromKnowledgeBase(), anAskMsg.getFromKnowledgeInteraction());
+			future = translateFromApi(handler.answerAsync(answerKnowledgeInteraction, aei));
+		}
 
 		return future.handle((b, e) -> {
 			if (b != null && e == null) {
@@ -262,17 +223,15 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 				else
 					LOG.trace(logStatement, b.size(), answerKnowledgeInteractionId);
 
-				BindingSet translatedB = Util.translateFromApiBindingSet(b);
-
 				if (this.shouldValidateInputOutputBindings()) {
 					var validator = new BindingValidator();
-					validator.validateCompleteBindings(answerKnowledgeInteraction.getPattern(), translatedB);
+					validator.validateCompleteBindings(answerKnowledgeInteraction.getPattern(), b);
 					validator.validateIncomingOutgoingAnswer(answerKnowledgeInteraction.getPattern(),
-							anAskMsg.getBindings(), translatedB);
+							anAskMsg.getBindings(), b);
 				}
 				return new AnswerMessage(anAskMsg.getToKnowledgeBase(), answerKnowledgeInteractionId,
 						anAskMsg.getFromKnowledgeBase(), anAskMsg.getFromKnowledgeInteraction(),
-						anAskMsg.getMessageId(), translatedB);
+						anAskMsg.getMessageId(), b);
 			} else {
 				String errorMessage;
 				if (e == null)
@@ -298,14 +257,15 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 		assert aPKI != null : "the knowledge interaction should be non-null";
 		assert aSelector != null : "the selector should be non-null";
 
-		// retrieve other knowledge bases
-		Set<OtherKnowledgeBase> otherKnowledgeBases = this.otherKnowledgeBaseStore.getOtherKnowledgeBases();
+		// should be retrieved before the other knowledge bases.
+		long planCacheGeneration = this.planCache != null ? this.planCache.getGeneration() : 0;
 
-		// use RecipientSelector to make a subset. We could do this in the easy way, but
-		// in the future we hope that these RecipientSelectors can be merged with the
-		// regular Knowledge Interaction graph pattern. Therefore we use a more
-		// complicated algorithm to create a subset of the other knowledge bases.
-		Set<OtherKnowledgeBase> filteredOtherKnowledgeBases = filterOtherKnowledgeBases(otherKnowledgeBases, aSelector);
+		// retrieve the other knowledge bases selected by the RecipientSelector. In the
+		// future we hope that these RecipientSelectors can be merged with the regular
+		// Knowledge Interaction graph pattern. Therefore the store selects them with a
+		// query on the metadata of the other knowledge bases.
+		Set<OtherKnowledgeBase> filteredOtherKnowledgeBases = this.otherKnowledgeBaseStore
+				.getOtherKnowledgeBases(aSelector);
 
 		Set<KnowledgeInteractionInfo> otherKnowledgeInteractions = new HashSet<>();
 
@@ -324,6 +284,10 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 		ReasonerProcessor processor = new ReasonerProcessor(otherKnowledgeInteractions, this.messageRouter,
 				this.additionalDomainKnowledge);
 		processor.setMatchStrategy(SmartConnectorConfig.toMatchStrategy(this.reasonerLevel));
+		if (this.planCache != null)
+			processor.setPlanCache(this.planCache, planCacheGeneration);
+		processor.setPostMaxConcurrency(this.postMaxConcurrency);
+		processor.setOrderedPosts(this.orderedPosts);
 
 		// give the caller something to chew on while it waits. This method starts the
 		// interaction process as far as it can until it is blocked because it waits for
@@ -356,12 +320,9 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 		ReactKnowledgeInteraction reactKnowledgeInteraction;
 		reactKnowledgeInteraction = (ReactKnowledgeInteraction) knowledgeInteractionById.getKnowledgeInteraction();
 
-		CompletableFuture<eu.knowledge.engine.smartconnector.api.BindingSet> future;
+		CompletableFuture<BindingSet> future;
 		var handler = this.myKnowledgeBaseStore.getReactHandler(reactKnowledgeInteractionId);
 
-		var rei = new ReactExchangeInfo(Util.translateToApiBindingSet(aPostMsg.getArgument()),
-				aPostMsg.getFromKnowledgeBase(), aPostMsg.getFromKnowledgeInteraction());
-
 		// TODO This should happen in the single thread for the knowledge base
 		if (reactKnowledgeInteraction.isMeta()) {
 			LOG.trace("Contacting my KB to react to KI <{}>", reactKnowledgeInteractionId);
@@ -369,7 +330,21 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 			LOG.info("Contacting my KB to react to KI <{}>", reactKnowledgeInteractionId);
 		}
 
-		future = handler.reactAsync(reactKnowledgeInteraction, rei);
+		if (handler instanceof InternalReactHandler internalHandler) {
+			// the bindings can be handed over without translating them
+			future = new CompletableFuture<>();
+			try {
+				future.complete(internalHandler.react(reactKnowledgeInteraction, aPostMsg.getArgument(),
+						aPostMsg.getFromKnowledgeBase(), aPostMsg.getFromKnowledgeInteraction()));
+			} catch (Exception e) {
+				LOG.error("Reacting should not result in the following exception.", e);
+				future.completeExceptionally(e);
+			}
+		} else {
+			var rei = new ReactExchangeInfo(Util.translateToApiBindingSet(aPostMsg.getArgument()),
+					aPostMsg.getFromKnowledgeBase(), aPostMsg.getFromKnowledgeInteraction());
+			future = translateFromApi(handler.reactAsync(reactKnowledgeInteraction, rei));
+		}
 
 		return future.handle((b, e) -> {
 			if (b != null && e == null) {
@@ -379,17 +354,15 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 				else
 					LOG.trace(logStatement, b.size(), reactKnowledgeInteractionId);
 
-				BindingSet translatedB = Util.translateFromApiBindingSet(b);
-
 				if (this.shouldValidateInputOutputBindings()) {
 					var validator = new BindingValidator();
-					validator.validateCompleteBindings(reactKnowledgeInteraction.getResult(), translatedB);
+					validator.validateCompleteBindings(reactKnowledgeInteraction.getResult(), b);
 					validator.validateIncomingOutgoingReact(reactKnowledgeInteraction.getArgument(),
-							reactKnowledgeInteraction.getResult(), aPostMsg.getArgument(), translatedB);
+							reactKnowledgeInteraction.getResult(), aPostMsg.getArgument(), b);
 				}
 				return new ReactMessage(aPostMsg.getToKnowledgeBase(), reactKnowledgeInteractionId,
 						aPostMsg.getFromKnowledgeBase(), aPostMsg.getFromKnowledgeInteraction(),
-						aPostMsg.getMessageId(), translatedB);
+						aPostMsg.getMessageId(), b);
 			} else {
 				String errorMessage;
 				if (e == null)
@@ -411,6 +384,41 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 		});
 	}
 
+	/**
+	 * Translate the binding set of the API that the given future completes with
+	 * to a binding set of the reasoner. Unlike
+	 * {@link CompletableFuture#thenApply(java.util.function.Function)}, an
+	 * exception of the given future is passed on as is.
+	 */
+	private static CompletableFuture<BindingSet> translateFromApi(
+			CompletableFuture<eu.knowledge.engine.smartconnector.api.BindingSet> aFuture) {
+		var future = new CompletableFuture<BindingSet>();
+		aFuture.whenComplete((b, e) -> {
+			if (e != null) {
+				future.completeExceptionally(e);
+			} else {
+				try {
+					future.complete(b == null ? null : Util.translateFromApiBindingSet(b));
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public boolean isNonBlocking(KnowledgeMessage aMessage) {
+		if (aMessage instanceof AskMessage) {
+			var handler = this.myKnowledgeBaseStore.getAnswerHandler(aMessage.getToKnowledgeInteraction());
+			return handler != null && handler.isNonBlocking();
+		} else if (aMessage instanceof PostMessage) {
+			var handler = this.myKnowledgeBaseStore.getReactHandler(aMessage.getToKnowledgeInteraction());
+			return handler != null && handler.isNonBlocking();
+		}
+		return false;
+	}
+
 	private boolean shouldValidateInputOutputBindings() {
 		return ConfigProvider.getConfig().getValue(
 				SmartConnectorConfig.CONF_KEY_VALIDATE_OUTGOING_BINDINGS_WRT_INCOMING_BINDINGS, Boolean.class);
@@ -427,9 +435,8 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 	}
 
 	/**
-	 * We need the KnowledgeInteractionInfo objects, because they contain ID
-	 * information that we use to construct unique identifiers for the temporary
-	 * model.
+	 * Remove the knowledge interactions whose communicative act does not match
+	 * the communicative act of my knowledge interaction.
 	 * 
 	 * @param myKI
 	 * @param otherKIs The collection that will be modified by removing all
@@ -440,101 +447,19 @@ public class InteractionProcessorImpl implements InteractionProcessor {
 
 		Instant start = Instant.now();
 
-		boolean doTheyMatch = false;
-
-		Model m = ModelFactory.createDefaultModel();
-
-		// first add my knowledge interaction communicative act
 		CommunicativeAct myAct = myKI.getKnowledgeInteraction().getAct();
-		Resource myActResource = ResourceFactory.createResource(myKI.id + "/act");
-
-		m.add(myActResource, RDF.type, Vocab.COMMUNICATIVE_ACT);
-
-		Resource myRequirementPurpose = ResourceFactory.createResource(myActResource + "/requirement");
-		Resource mySatisfactionPurpose = ResourceFactory.createResource(myActResource + "/satisfaction");
-
-		m.add(myActResource, Vocab.HAS_REQ, myRequirementPurpose);
-		m.add(mySatisfactionPurpose, Vocab.HAS_SAT, mySatisfactionPurpose);
-
-		// give the purposes the correct types
-		for (Resource r : myAct.getRequirementPurposes()) {
-			m.add(myRequirementPurpose, RDF.type, r);
-		}
-		for (Resource r : myAct.getSatisfactionPurposes()) {
-			m.add(mySatisfactionPurpose, RDF.type, r);
-		}
-
-		// then add the other knowledge interaction communicative act
-		for (KnowledgeInteractionInfo otherKI : otherKIs) {
-			CommunicativeAct otherAct = otherKI.getKnowledgeInteraction().getAct();
-			Resource otherActResource = ResourceFactory.createResource(otherKI.id + "/act");
-
-			m.add(otherActResource, RDF.type, Vocab.COMMUNICATIVE_ACT);
-
-			Resource otherRequirementPurpose = ResourceFactory.createResource(otherActResource + "/requirement");
-			Resource otherSatisfactionPurpose = ResourceFactory.createResource(otherActResource + "/satisfaction");
-
-			m.add(otherActResource, Vocab.HAS_REQ, otherRequirementPurpose);
-			m.add(otherSatisfactionPurpose, Vocab.HAS_SAT, otherSatisfactionPurpose);
-
-			// give the purposes the correct types
-			for (Resource r : otherAct.getRequirementPurposes()) {
-				m.add(otherRequirementPurpose, RDF.type, r);
-			}
-			for (Resource r : otherAct.getSatisfactionPurposes()) {
-				m.add(otherSatisfactionPurpose, RDF.type, r);
-			}
-		}
-
-		// then apply the reasoner
-		InfModel infModel = ModelFactory.createInfModel(this.reasoner.bind(m.getGraph()));
+		otherKIs.removeIf(
+				otherKI -> !ACT_MATCHER.matches(myAct, otherKI.getKnowledgeInteraction().getAct()));
 
-		// query the model from both my and the other perspective (both should match)
-		// TODO can we do this with a single query execution? This might be a lot
-		// faster. either we set multiple iris for the same params. Or we change the ASK
-		// to include myReq/otherReq and mySat/otherSat vars.
-
-		// my and other perspective
-		var iter = otherKIs.iterator();
-		while (iter.hasNext()) {
-			KnowledgeInteractionInfo otherKI = iter.next();
-			Resource otherActResource = ResourceFactory.createResource(otherKI.id + "/act");
-			Resource otherRequirementPurpose = ResourceFactory.createResource(otherActResource + "/requirement");
-			Resource otherSatisfactionPurpose = ResourceFactory.createResource(otherActResource + "/satisfaction");
-
-			Var reqVar = Var.alloc("req");
-			Var satVar = Var.alloc("sat");
-			org.apache.jena.sparql.engine.binding.Binding theFirstBinding = BindingFactory.binding(reqVar,
-					NodeFactory.createURI(myRequirementPurpose.toString()), satVar,
-					NodeFactory.createURI(otherSatisfactionPurpose.toString()));
-
-			org.apache.jena.sparql.engine.binding.Binding theSecondBinding = BindingFactory.binding(reqVar,
-					NodeFactory.createURI(otherRequirementPurpose.toString()), satVar,
-					NodeFactory.createURI(mySatisfactionPurpose.toString()));
-
-			Query q = (Query) query.clone();
-			ElementData de = ((ElementData) ((ElementGroup) q.getQueryPattern()).getLast());
-
-			List<org.apache.jena.sparql.engine.binding.Binding> data = de.getRows();
-			data.add(theFirstBinding);
-			data.add(theSecondBinding);
-
-			QueryExecution myQe = QueryExecutionFactory.create(q, infModel);
-			boolean execAskMy = myQe.execAsk();
-			myQe.close();
-
-			doTheyMatch = !execAskMy;
-
-			if (!doTheyMatch) {
-				iter.remove();
-			}
-		}
-		LOG.trace("Communicative Act time ({}): {}ms", doTheyMatch, Duration.between(start, Instant.now()).toMillis());
+		LOG.trace("Communicative Act time ({}): {}ms", otherKIs.size(),
+				Duration.between(start, Instant.now()).toMillis());
 	}
 
 	@Override
 	public void setDomainKnowledge(Set<Rule> someRules) {
 		this.additionalDomainKnowledge = someRules;
+		if (this.planCache != null)
+			this.planCache.clear();
 	}
 
 	@Override
@@ -0,0 +1,37 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import java.net.URI;
+
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.smartconnector.api.AnswerExchangeInfo;
+import eu.knowledge.engine.smartconnector.api.AnswerHandler;
+import eu.knowledge.engine.smartconnector.api.AnswerKnowledgeInteraction;
+
+/**
+ * An {@link AnswerHandler} for the knowledge interactions of the smart
+ * connector itself, like the ones of the {@link MetaKnowledgeBase}. It
+ * receives and returns the {@link BindingSet}s of the reasoner, so the
+ * {@link InteractionProcessor} does not have to translate the bindings to and
+ * from the binding sets of the API. It answers from memory without asking or
+ * posting itself and is therefore non-blocking.
+ */
+@FunctionalInterface
+public interface InternalAnswerHandler extends AnswerHandler {
+
+	BindingSet answer(AnswerKnowledgeInteraction anAKI, BindingSet someIncomingBindings,
+			URI anAskingKnowledgeBaseId, URI anAskingKnowledgeInteractionId);
+
+	@Override
+	default eu.knowledge.engine.smartconnector.api.BindingSet answer(AnswerKnowledgeInteraction anAKI,
+			AnswerExchangeInfo anAnswerExchangeInfo) {
+		return Util.translateToApiBindingSet(
+				this.answer(anAKI, Util.translateFromApiBindingSet(anAnswerExchangeInfo.getIncomingBindings()),
+						anAnswerExchangeInfo.getAskingKnowledgeBaseId(),
+						anAnswerExchangeInfo.getAskingKnowledgeInteractionId()));
+	}
+
+	@Override
+	default boolean isNonBlocking() {
+		return true;
+	}
+}
@@ -0,0 +1,31 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import java.net.URI;
+
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.smartconnector.api.ReactExchangeInfo;
+import eu.knowledge.engine.smartconnector.api.ReactHandler;
+import eu.knowledge.engine.smartconnector.api.ReactKnowledgeInteraction;
+
+/**
+ * A {@link ReactHandler} for the knowledge interactions of the smart connector
+ * itself, like the ones of the {@link MetaKnowledgeBase}. It receives and
+ * returns the {@link BindingSet}s of the reasoner, so the
+ * {@link InteractionProcessor} does not have to translate the bindings to and
+ * from the binding sets of the API.
+ */
+@FunctionalInterface
+public interface InternalReactHandler extends ReactHandler {
+
+	BindingSet react(ReactKnowledgeInteraction anRKI, BindingSet someArgumentBindings, URI aPostingKnowledgeBaseId,
+			URI aPostingKnowledgeInteractionId);
+
+	@Override
+	default eu.knowledge.engine.smartconnector.api.BindingSet react(ReactKnowledgeInteraction anRKI,
+			ReactExchangeInfo aReactExchangeInfo) {
+		return Util.translateToApiBindingSet(
+				this.react(anRKI, Util.translateFromApiBindingSet(aReactExchangeInfo.getArgumentBindings()),
+						aReactExchangeInfo.getPostingKnowledgeBaseId(),
+						aReactExchangeInfo.getPostingKnowledgeInteractionId()));
+	}
+}
@@ -3,6 +3,7 @@ package eu.knowledge.engine.smartconnector.impl;
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 
+import eu.knowledge.engine.smartconnector.api.PostFailureListener;
 import eu.knowledge.engine.smartconnector.api.SmartConnector;
 import eu.knowledge.engine.smartconnector.messaging.AnswerMessage;
 import eu.knowledge.engine.smartconnector.messaging.AskMessage;
@@ -49,6 +50,16 @@ public interface MessageRouter {
 	 */
 	CompletableFuture<ReactMessage> sendPostMessage(PostMessage postMessage) throws IOException;
 
+	/**
+	 * Send a {@link PostMessage} without waiting for the reply. If the message
+	 * cannot be sent or the reply indicates a failure, the given listener is
+	 * notified.
+	 *
+	 * @param postMessage {@link PostMessage} to be sent.
+	 * @param aListener   The listener that is notified of failures.
+	 */
+	void sendPostMessageAndForget(PostMessage postMessage, PostFailureListener aListener);
+
 	/**
 	 * Register the {@link MetaKnowledgeBase} so it can receive incoming messages
 	 * for which a reply needs to be created.
@@ -2,10 +2,6 @@ package eu.knowledge.engine.smartconnector.impl;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
@@ -15,10 +11,13 @@ import java.util.concurrent.TimeoutException;
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.slf4j.Logger;
 
+import eu.knowledge.engine.reasoner.util.LruCache;
+import eu.knowledge.engine.smartconnector.api.PostFailureListener;
 import eu.knowledge.engine.smartconnector.api.SmartConnectorConfig;
 import eu.knowledge.engine.smartconnector.messaging.AnswerMessage;
 import eu.knowledge.engine.smartconnector.messaging.AskMessage;
 import eu.knowledge.engine.smartconnector.messaging.ErrorMessage;
+import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
 import eu.knowledge.engine.smartconnector.messaging.MessageDispatcherEndpoint;
 import eu.knowledge.engine.smartconnector.messaging.PostMessage;
 import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
@@ -35,36 +34,26 @@ public class MessageRouterImpl implements MessageRouter, SmartConnectorEndpoint
 	private static final int MAX_ENTRIES = 5000;
 
 	private final SmartConnectorImpl smartConnector;
-	private final Map<UUID, CompletableFuture<AnswerMessage>> openAskMessages = Collections
-			.synchronizedMap(new LinkedHashMap<UUID, CompletableFuture<AnswerMessage>>() {
-				private static final long serialVersionUID = 1L;
-
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<UUID, CompletableFuture<AnswerMessage>> eldest) {
-					if (size() > MAX_ENTRIES) {
-						eldest.getValue().completeExceptionally(new Exception("There should not be " + MAX_ENTRIES
-								+ " open AskMessages. Oldest message with id " + eldest.getKey() + " removed."));
-						return true;
-					} else {
-						return false;
-					}
-				}
-			});
-	private final Map<UUID, CompletableFuture<ReactMessage>> openPostMessages = Collections
-			.synchronizedMap(new LinkedHashMap<UUID, CompletableFuture<ReactMessage>>() {
-				private static final long serialVersionUID = 1L;
-
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<UUID, CompletableFuture<ReactMessage>> eldest) {
-					if (size() > MAX_ENTRIES) {
-						eldest.getValue().completeExceptionally(new Exception("There should not be " + MAX_ENTRIES
-								+ " open PostMessages. Oldest message with id " + eldest.getKey() + " removed."));
-						return true;
-					} else {
-						return false;
-					}
-				}
-			});
+	private final OpenRequests<AnswerMessage> openAskMessages = new OpenRequests<>("AskMessages", MAX_ENTRIES,
+			TimingWheel.shared());
+	private final OpenRequests<ReactMessage> openPostMessages = new OpenRequests<>("PostMessages", MAX_ENTRIES,
+			TimingWheel.shared());
+
+	/**
+	 * The post messages that were sent without waiting for the reply, with the
+	 * listener that is notified if the reply is a failure. Like the open post
+	 * messages, a reply is no longer expected after the wait timeout and their
+	 * number is capped, but no future is created for them.
+	 */
+	private final LruCache<UUID, ForgottenPost> forgottenPostMessages = new LruCache<>(MAX_ENTRIES);
+
+	/**
+	 * @param listener The listener for the failures of the post.
+	 * @param sentAt   The {@link System#nanoTime()} at which the post message was
+	 *                 sent.
+	 */
+	private record ForgottenPost(PostFailureListener listener, long sentAt) {
+	}
 
 	private MessageDispatcherEndpoint messageDispatcherEndpoint = null;
 
@@ -92,10 +81,12 @@ public class MessageRouterImpl implements MessageRouter, SmartConnectorEndpoint
 		if (messageDispatcher == null) {
 			throw new IOException("Not connected to MessageDispatcher");
 		}
-		CompletableFuture<AnswerMessage> future = new CompletableFuture<>();
+		// first add to open messages, which waits maximally WAIT_TIMEOUT for a return
+		// message.
+		CompletableFuture<AnswerMessage> future = this.openAskMessages.open(askMessage.getMessageId(),
+				this.getWaitTimeout(), TimeUnit.SECONDS);
 
 		future.whenComplete((m, e) -> {
-			this.openAskMessages.remove(askMessage.getMessageId());
 			if (m == null)
 				if (e != null)
 					if (e instanceof TimeoutException)
@@ -112,20 +103,11 @@ public class MessageRouterImpl implements MessageRouter, SmartConnectorEndpoint
 
 		});
 
-		// wait maximally WAIT_TIMEOUT for a return message.
-		int waitInSeconds = this.getWaitTimeout();
-		if (waitInSeconds > 0) {
-			future = future.orTimeout(waitInSeconds, TimeUnit.SECONDS);
-		}
-
-		// first send and if success add to open messages
-		this.openAskMessages.put(askMessage.getMessageId(), future);
-
 		try {
 			messageDispatcher.send(askMessage);
 		} catch (IOException ioe) {
 			// cancel future and remove from open messages
-			this.openAskMessages.remove(askMessage.getMessageId()).cancel(true);
+			this.openAskMessages.cancel(askMessage.getMessageId());
 			// and re throw
 			throw ioe;
 		}
@@ -141,10 +123,12 @@ public class MessageRouterImpl implements MessageRouter, SmartConnectorEndpoint
 		if (messageDispatcher == null) {
 			throw new IOException("Not connected to MessageDispatcher");
 		}
-		CompletableFuture<ReactMessage> future = new CompletableFuture<>();
+		// first add to open messages, which waits maximally WAIT_TIMEOUT for a return
+		// message.
+		CompletableFuture<ReactMessage> future = this.openPostMessages.open(postMessage.getMessageId(),
+				this.getWaitTimeout(), TimeUnit.SECONDS);
 
 		future.whenComplete((m, e) -> {
-			this.openPostMessages.remove(postMessage.getMessageId());
 			if (m == null)
 				if (e != null)
 					if (e instanceof TimeoutException)
@@ -160,20 +144,11 @@ public class MessageRouterImpl implements MessageRouter, SmartConnectorEndpoint
 							"The ReactMessage future should complete either exceptionally or normally. Not with both ReactMessage and Exception null.");
 		});
 
-		// wait maximally WAIT_TIMEOUT for a return message.
-		int waitInSeconds = this.getWaitTimeout();
-		if (waitInSeconds > 0) {
-			future = future.orTimeout(waitInSeconds, TimeUnit.SECONDS);
-		}
-
-		// first send and if success add to open messages
-		this.openPostMessages.put(postMessage.getMessageId(), future);
-
 		try {
 			messageDispatcher.send(postMessage);
 		} catch (IOException ioe) {
 			// cancel future and remove from open messages
-			this.openPostMessages.remove(postMessage.getMessageId()).cancel(true);
+			this.openPostMessages.cancel(postMessage.getMessageId());
 			// and re throw
 			throw ioe;
 		}
@@ -182,6 +157,59 @@ public class MessageRouterImpl implements MessageRouter, SmartConnectorEndpoint
 		return future;
 	}
 
+	@Override
+	public void sendPostMessageAndForget(PostMessage postMessage, PostFailureListener aListener) {
+		this.forgottenPostMessages.put(postMessage.getMessageId(), new ForgottenPost(aListener, System.nanoTime()));
+
+		try {
+			MessageDispatcherEndpoint messageDispatcher = this.messageDispatcherEndpoint;
+			if (messageDispatcher == null) {
+				throw new IOException("Not connected to MessageDispatcher");
+			}
+			messageDispatcher.send(postMessage);
+			LOG.trace("Sent PostMessage without waiting for the ReactMessage: {}", postMessage);
+		} catch (IOException e) {
+			LOG.debug("Could not send PostMessage '{}'.", postMessage.getMessageId(), e);
+			this.forgottenPostMessages.remove(postMessage.getMessageId());
+			this.notifyPostFailed(aListener, postMessage.getToKnowledgeBase(), postMessage.getToKnowledgeInteraction(),
+					"Could not send PostMessage: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Stop expecting the reply to the given post message that was sent without
+	 * waiting for the reply.
+	 * 
+	 * @return The failure listener of the post message, or {@code null} if it was
+	 *         not sent without waiting or its reply took longer than the wait
+	 *         timeout.
+	 */
+	private PostFailureListener removeForgottenPost(UUID aMessageId) {
+		ForgottenPost post = this.forgottenPostMessages.remove(aMessageId);
+		if (post == null)
+			return null;
+
+		int timeout = this.getWaitTimeout();
+		if (timeout > 0 && System.nanoTime() - post.sentAt() > TimeUnit.SECONDS.toNanos(timeout))
+			return null;
+		return post.listener();
+	}
+
+	private void notifyPostFailed(PostFailureListener aListener, URI aKnowledgeBase, URI aKnowledgeInteraction,
+			String aFailedMessage) {
+		try {
+			aListener.postFailed(aKnowledgeBase, aKnowledgeInteraction, aFailedMessage);
+		} catch (RuntimeException e) {
+			LOG.error("A PostFailureListener should not throw exceptions.", e);
+		}
+	}
+
+	@Override
+	public boolean canHandleInline(KnowledgeMessage message) {
+		InteractionProcessor processor = this.interactionProcessor;
+		return processor != null && processor.isNonBlocking(message);
+	}
+
 	/**
 	 * Handle a new incoming {@link AskMessage} to which we need to reply
 	 */
@@ -270,7 +298,15 @@ public class MessageRouterImpl implements MessageRouter, SmartConnectorEndpoint
 	@Override
 	public void handleReactMessage(ReactMessage reactMessage) {
 		CompletableFuture<ReactMessage> future = this.openPostMessages.get(reactMessage.getReplyToPostMessage());
-		if (future == null) {
+		PostFailureListener listener = future == null
+				? this.removeForgottenPost(reactMessage.getReplyToPostMessage())
+				: null;
+		if (listener != null) {
+			LOG.trace("Received ReactMessage to a PostMessage that was sent without waiting: {}", reactMessage);
+			if (reactMessage.getFailedMessage() != null)
+				this.notifyPostFailed(listener, reactMessage.getFromKnowledgeBase(),
+						reactMessage.getFromKnowledgeInteraction(), reactMessage.getFailedMessage());
+		} else if (future == null) {
 			this.LOG.warn("I received a reply for a PostMessage with ID " + reactMessage.getReplyToPostMessage()
 					+ ", but I don't remember sending a message with that ID. It might have take more than {}s to respond.",
 					this.getWaitTimeout());
@@ -284,8 +320,24 @@ public class MessageRouterImpl implements MessageRouter, SmartConnectorEndpoint
 
 	@Override
 	public void handleErrorMessage(ErrorMessage message) {
-		// TODO Still needs to be implemented!
-		throw new UnsupportedOperationException("Handling of ErrorMessages not yet implemented!");
+		// an error message is a reply to either an AskMessage or a PostMessage.
+		CompletableFuture<?> future = this.openAskMessages.get(message.getReplyToMessage());
+		if (future == null)
+			future = this.openPostMessages.get(message.getReplyToMessage());
+
+		PostFailureListener listener = future == null ? this.removeForgottenPost(message.getReplyToMessage())
+				: null;
+		if (listener != null) {
+			LOG.trace("Received ErrorMessage to a PostMessage that was sent without waiting: {}", message);
+			this.notifyPostFailed(listener, message.getFromKnowledgeBase(), message.getFromKnowledgeInteraction(),
+					message.getErrorMessage());
+		} else if (future == null) {
+			this.LOG.warn("I received an error for a message with ID " + message.getReplyToMessage()
+					+ ", but I don't remember sending a message with that ID: {}", message.getErrorMessage());
+		} else {
+			LOG.trace("Received ErrorMessage: {}", message);
+			future.completeExceptionally(new IOException(message.getErrorMessage()));
+		}
 	}
 
 	@Override
@@ -329,19 +381,27 @@ public class MessageRouterImpl implements MessageRouter, SmartConnectorEndpoint
 		this.smartConnector.communicationInterrupted();
 	}
 
-	public void stop() {
-		int i = 0;
+	/**
+	 * @return Statistics about the {@link AskMessage}s that were sent and are
+	 *         still waiting for a reply.
+	 */
+	public OpenRequests.Stats getAskMessageStats() {
+		return this.openAskMessages.getStats();
+	}
 
-		for (CompletableFuture<AnswerMessage> future : new HashSet<>(this.openAskMessages.values())) {
-			if (future.cancel(true))
-				i++;
-		}
+	/**
+	 * @return Statistics about the {@link PostMessage}s that were sent and are
+	 *         still waiting for a reply.
+	 */
+	public OpenRequests.Stats getPostMessageStats() {
+		return this.openPostMessages.getStats();
+	}
 
-		for (CompletableFuture<ReactMessage> future : new HashSet<>(this.openPostMessages.values())) {
-			if (future.cancel(true))
-				i++;
-		}
-		LOG.trace("MessageRouterImpl stopped. Cancelled {} message(s).", i);
+	public void stop() {
+		int i = this.openAskMessages.cancelAll() + this.openPostMessages.cancelAll();
+		this.forgottenPostMessages.clear();
+		LOG.trace("MessageRouterImpl stopped. Cancelled {} message(s). Asks: {}, posts: {}", i,
+				this.getAskMessageStats(), this.getPostMessageStats());
 	}
 
 }
@@ -90,12 +90,9 @@ public class MetaKnowledgeBaseImpl implements MetaKnowledgeBase, KnowledgeBaseSt
 
 		this.metaAnswerKI = new AnswerKnowledgeInteraction(new CommunicativeAct(), this.metaGraphPattern, null, true,
 				true, MatchStrategy.ENTRY_LEVEL);
-		this.knowledgeBaseStore
-				.register(
-						this.metaAnswerKI, (_,
-								anAnswerExchangeInfo) -> Util.translateToApiBindingSet(this.fillMetaBindings(
-										Util.translateFromApiBindingSet(anAnswerExchangeInfo.getIncomingBindings()))),
-						true);
+		this.knowledgeBaseStore.register(this.metaAnswerKI,
+				(InternalAnswerHandler) (_, someIncomingBindings, _, _) -> this.fillMetaBindings(someIncomingBindings),
+				true);
 
 		this.metaAskKI = new AskKnowledgeInteraction(new CommunicativeAct(), this.metaGraphPattern, null, true, true,
 				false, MatchStrategy.ENTRY_LEVEL);
@@ -123,63 +120,57 @@ public class MetaKnowledgeBaseImpl implements MetaKnowledgeBase, KnowledgeBaseSt
 				new CommunicativeAct(new HashSet<>(Arrays.asList(Vocab.NEW_KNOWLEDGE_PURPOSE)),
 						new HashSet<>(Arrays.asList(Vocab.INFORM_PURPOSE))),
 				this.metaGraphPattern, null, null, true, true, MatchStrategy.ENTRY_LEVEL);
-		this.knowledgeBaseStore.register(this.metaReactNewKI, (_, aReactExchangeInfo) -> {
-			var postingKi = aReactExchangeInfo.getPostingKnowledgeInteractionId();
-			var itShouldBeThis = this.knowledgeBaseStore.getMetaId(aReactExchangeInfo.getPostingKnowledgeBaseId(),
+		this.knowledgeBaseStore.register(this.metaReactNewKI, (InternalReactHandler) (_, someArgumentBindings,
+				aPostingKbId, postingKi) -> {
+			var itShouldBeThis = this.knowledgeBaseStore.getMetaId(aPostingKbId,
 					KnowledgeInteractionInfo.Type.POST, Vocab.NEW_KNOWLEDGE_PURPOSE);
 			if (!postingKi.equals(itShouldBeThis)) {
 				this.LOG.error("Received meta bindings from non-meta (or incorrect meta) KI {}", postingKi);
-				this.LOG.debug("Received meta bindings: {}", aReactExchangeInfo.getArgumentBindings());
+				this.LOG.debug("Received meta bindings: {}", someArgumentBindings);
 				throw new KnowledgeEngineRuntimeException(
 						"Received meta bindings from non-meta (or incorrect meta) KI.");
 			}
-			var newKb = this.constructOtherKnowledgeBaseFromBindingSet(
-					Util.translateFromApiBindingSet(aReactExchangeInfo.getArgumentBindings()),
-					aReactExchangeInfo.getPostingKnowledgeBaseId());
+			var newKb = this.constructOtherKnowledgeBaseFromBindingSet(someArgumentBindings, aPostingKbId);
 			this.otherKnowledgeBaseStore.addKnowledgeBase(newKb);
-			return Util.translateToApiBindingSet(new BindingSet());
+			return new BindingSet();
 		}, true);
 
 		this.metaReactChangedKI = new ReactKnowledgeInteraction(
 				new CommunicativeAct(new HashSet<>(Arrays.asList(Vocab.CHANGED_KNOWLEDGE_PURPOSE)),
 						new HashSet<>(Arrays.asList(Vocab.INFORM_PURPOSE))),
 				this.metaGraphPattern, null, null, true, true, MatchStrategy.ENTRY_LEVEL);
-		this.knowledgeBaseStore.register(this.metaReactChangedKI, (_, aReactExchangeInfo) -> {
-			var postingKi = aReactExchangeInfo.getPostingKnowledgeInteractionId();
-			var itShouldBeThis = this.knowledgeBaseStore.getMetaId(aReactExchangeInfo.getPostingKnowledgeBaseId(),
+		this.knowledgeBaseStore.register(this.metaReactChangedKI, (InternalReactHandler) (_, someArgumentBindings,
+				aPostingKbId, postingKi) -> {
+			var itShouldBeThis = this.knowledgeBaseStore.getMetaId(aPostingKbId,
 					KnowledgeInteractionInfo.Type.POST, Vocab.CHANGED_KNOWLEDGE_PURPOSE);
 			if (!postingKi.equals(itShouldBeThis)) {
 				this.LOG.error("Received meta bindings from non-meta (or incorrect meta) KI {}", postingKi);
-				this.LOG.debug("Received meta bindings: {}", aReactExchangeInfo.getArgumentBindings());
+				this.LOG.debug("Received meta bindings: {}", someArgumentBindings);
 				throw new KnowledgeEngineRuntimeException(
 						"Received meta bindings from non-meta (or incorrect meta) KI.");
 			}
-			var changedKb = this.constructOtherKnowledgeBaseFromBindingSet(
-					Util.translateFromApiBindingSet(aReactExchangeInfo.getArgumentBindings()),
-					aReactExchangeInfo.getPostingKnowledgeBaseId());
+			var changedKb = this.constructOtherKnowledgeBaseFromBindingSet(someArgumentBindings, aPostingKbId);
 			this.otherKnowledgeBaseStore.updateKnowledgeBase(changedKb);
-			return Util.translateToApiBindingSet(new BindingSet());
+			return new BindingSet();
 		}, true);
 
 		this.metaReactRemovedKI = new ReactKnowledgeInteraction(
 				new CommunicativeAct(new HashSet<>(Arrays.asList(Vocab.REMOVED_KNOWLEDGE_PURPOSE)),
 						new HashSet<>(Arrays.asList(Vocab.INFORM_PURPOSE))),
 				this.metaGraphPattern, null, null, true, true, MatchStrategy.ENTRY_LEVEL);
-		this.knowledgeBaseStore.register(this.metaReactRemovedKI, (_, aReactExchangeInfo) -> {
-			var postingKi = aReactExchangeInfo.getPostingKnowledgeInteractionId();
-			var itShouldBeThis = this.knowledgeBaseStore.getMetaId(aReactExchangeInfo.getPostingKnowledgeBaseId(),
+		this.knowledgeBaseStore.register(this.metaReactRemovedKI, (InternalReactHandler) (_, someArgumentBindings,
+				aPostingKbId, postingKi) -> {
+			var itShouldBeThis = this.knowledgeBaseStore.getMetaId(aPostingKbId,
 					KnowledgeInteractionInfo.Type.POST, Vocab.REMOVED_KNOWLEDGE_PURPOSE);
 			if (!postingKi.equals(itShouldBeThis)) {
 				this.LOG.error("Received meta bindings from non-meta (or incorrect meta) KI {}", postingKi);
-				this.LOG.debug("Received meta bindings: {}", aReactExchangeInfo.getArgumentBindings());
+				this.LOG.debug("Received meta bindings: {}", someArgumentBindings);
 				throw new KnowledgeEngineRuntimeException(
 						"Received meta bindings from non-meta (or incorrect meta) KI.");
 			}
-			var removedKb = this.constructOtherKnowledgeBaseFromBindingSet(
-					Util.translateFromApiBindingSet(aReactExchangeInfo.getArgumentBindings()),
-					aReactExchangeInfo.getPostingKnowledgeBaseId());
+			var removedKb = this.constructOtherKnowledgeBaseFromBindingSet(someArgumentBindings, aPostingKbId);
 			this.otherKnowledgeBaseStore.removeKnowledgeBase(removedKb);
-			return Util.translateToApiBindingSet(new BindingSet());
+			return new BindingSet();
 		}, true);
 	}
 
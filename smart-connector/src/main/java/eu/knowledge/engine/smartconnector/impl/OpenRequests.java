@@ -0,0 +1,155 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of the messages that were sent and for which a reply is still
+ * expected, so the reply can be correlated with the future of the message.
+ * Many messages can be opened and replied to concurrently without contending
+ * on a single lock. The timeouts of the messages are handled by a shared
+ * {@link TimingWheel}.
+ *
+ * In principle the number of open messages should not have a maximum, but to
+ * prevent memory leaks the oldest message is evicted when the maximum is
+ * exceeded.
+ *
+ * @param <T> The type of the reply.
+ */
+public class OpenRequests<T> {
+
+	private final String name;
+	private final int maxSize;
+	private final TimingWheel timingWheel;
+
+	private final Map<UUID, Request<T>> requests = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final LongAdder opened = new LongAdder();
+	private final LongAdder replied = new LongAdder();
+	private final LongAdder timedOut = new LongAdder();
+	private final LongAdder evicted = new LongAdder();
+
+	private record Request<T>(CompletableFuture<T> future, long sequenceNr) {
+	}
+
+	/**
+	 * The number of messages that are currently open and the number of messages
+	 * that were opened, replied to, timed out or evicted in total.
+	 */
+	public record Stats(int open, long opened, long replied, long timedOut, long evicted) {
+	}
+
+	/**
+	 * @param aName        The name of the open messages, used in error messages.
+	 * @param aMaxSize     The maximum number of open messages.
+	 * @param aTimingWheel The timing wheel that handles the timeouts.
+	 */
+	OpenRequests(String aName, int aMaxSize, TimingWheel aTimingWheel) {
+		this.name = aName;
+		this.maxSize = aMaxSize;
+		this.timingWheel = aTimingWheel;
+	}
+
+	/**
+	 * Open a message with the given id. The returned future completes
+	 * exceptionally with a {@link TimeoutException} if no reply arrives in time.
+	 * Once the future completes, the message is no longer open.
+	 *
+	 * @param anId     The id of the message.
+	 * @param aTimeout The maximum time to wait for a reply, or 0 to wait
+	 *                 indefinitely.
+	 * @param aUnit    The unit of the timeout.
+	 * @return A future that should be completed with the reply.
+	 */
+	CompletableFuture<T> open(UUID anId, long aTimeout, TimeUnit aUnit) {
+		var future = new CompletableFuture<T>();
+		var request = new Request<T>(future, this.sequence.getAndIncrement());
+		this.requests.put(anId, request);
+		this.opened.increment();
+
+		TimingWheel.Timeout timeout = null;
+		if (aTimeout > 0)
+			timeout = this.timingWheel.schedule(() -> future.completeExceptionally(new TimeoutException()), aTimeout,
+					aUnit);
+
+		final TimingWheel.Timeout finalTimeout = timeout;
+		future.whenComplete((r, e) -> {
+			if (finalTimeout != null)
+				finalTimeout.cancel();
+			if (this.requests.remove(anId, request)) {
+				if (r != null)
+					this.replied.increment();
+				else if (e instanceof TimeoutException)
+					this.timedOut.increment();
+			}
+		});
+
+		if (this.requests.size() > this.maxSize)
+			this.evictOldest();
+
+		return future;
+	}
+
+	/**
+	 * @return The future of the open message with the given id, or {@code null}
+	 *         if there is no such message.
+	 */
+	CompletableFuture<T> get(UUID anId) {
+		Request<T> request = this.requests.get(anId);
+		return request == null ? null : request.future();
+	}
+
+	/**
+	 * Cancel the open message with the given id, if any.
+	 */
+	void cancel(UUID anId) {
+		Request<T> request = this.requests.remove(anId);
+		if (request != null)
+			request.future().cancel(true);
+	}
+
+	/**
+	 * Cancel all open messages.
+	 *
+	 * @return The number of messages that were cancelled.
+	 */
+	int cancelAll() {
+		int i = 0;
+		for (Request<T> request : new ArrayList<>(this.requests.values())) {
+			if (request.future().cancel(true))
+				i++;
+		}
+		return i;
+	}
+
+	public Stats getStats() {
+		return new Stats(this.requests.size(), this.opened.sum(), this.replied.sum(), this.timedOut.sum(),
+				this.evicted.sum());
+	}
+
+	/**
+	 * Evict the oldest open message. This requires a scan of all open messages,
+	 * but should only happen when replies go missing without timing out.
+	 */
+	private void evictOldest() {
+		Map.Entry<UUID, Request<T>> oldest = null;
+		for (var entry : this.requests.entrySet()) {
+			if (oldest == null || entry.getValue().sequenceNr() < oldest.getValue().sequenceNr())
+				oldest = entry;
+		}
+
+		if (oldest != null && this.requests.remove(oldest.getKey(), oldest.getValue())) {
+			this.evicted.increment();
+			oldest.getValue().future().completeExceptionally(new Exception("There should not be " + this.maxSize
+					+ " open " + this.name + ". Oldest message with id " + oldest.getKey() + " removed."));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import eu.knowledge.engine.smartconnector.messaging.PostMessage;
+import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
+
+/**
+ * Keeps the post messages from one of my knowledge interactions to a react
+ * knowledge interaction in order. A post message is only sent when the
+ * reaction to the previous post message to the same react knowledge
+ * interaction arrived (or failed), so the other knowledge base reacts to them
+ * in the order in which they were posted. Post messages to different react
+ * knowledge interactions are still sent concurrently.
+ */
+class OrderedPosts {
+
+	/**
+	 * Sends a post message and returns a future for its reaction.
+	 */
+	@FunctionalInterface
+	interface Sender {
+		CompletableFuture<ReactMessage> send(PostMessage aMessage) throws IOException;
+	}
+
+	private record Key(URI fromKnowledgeInteraction, URI toKnowledgeInteraction) {
+	}
+
+	/**
+	 * The reaction to the last post message per pair of knowledge interactions.
+	 * Removed when the reaction arrives and no other post message was sent in the
+	 * meantime.
+	 */
+	private final Map<Key, CompletableFuture<ReactMessage>> lastReactions = new ConcurrentHashMap<>();
+
+	/**
+	 * Send the given post message as soon as the reaction to the previous post
+	 * message to the same react knowledge interaction arrived.
+	 *
+	 * @param aMessage The post message to send.
+	 * @param aSender  Sends the post message.
+	 * @return A future for the reaction. Completes exceptionally if sending the
+	 *         post message failed.
+	 */
+	CompletableFuture<ReactMessage> send(PostMessage aMessage, Sender aSender) {
+		var key = new Key(aMessage.getFromKnowledgeInteraction(), aMessage.getToKnowledgeInteraction());
+		var reaction = new CompletableFuture<ReactMessage>();
+
+		CompletableFuture<ReactMessage> previous = this.lastReactions.put(key, reaction);
+		if (previous == null)
+			sendNow(aMessage, aSender, reaction);
+		else
+			previous.whenComplete((_, _) -> sendNow(aMessage, aSender, reaction));
+
+		reaction.whenComplete((_, _) -> this.lastReactions.remove(key, reaction));
+		return reaction;
+	}
+
+	private static void sendNow(PostMessage aMessage, Sender aSender, CompletableFuture<ReactMessage> aReaction) {
+		try {
+			aSender.send(aMessage).whenComplete((r, e) -> {
+				if (e != null)
+					aReaction.completeExceptionally(e);
+				else
+					aReaction.complete(r);
+			});
+		} catch (IOException | RuntimeException e) {
+			aReaction.completeExceptionally(e);
+		}
+	}
+}
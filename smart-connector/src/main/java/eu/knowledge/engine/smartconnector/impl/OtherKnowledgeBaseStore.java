@@ -5,6 +5,7 @@ import java.util.concurrent.CompletableFuture;
 
 import eu.knowledge.engine.smartconnector.api.KnowledgeBase;
 import eu.knowledge.engine.smartconnector.api.KnowledgeInteraction;
+import eu.knowledge.engine.smartconnector.api.RecipientSelector;
 import eu.knowledge.engine.smartconnector.runtime.KnowledgeDirectoryProxy;
 
 /**
@@ -29,6 +30,14 @@ public interface OtherKnowledgeBaseStore {
 	 */
 	Set<OtherKnowledgeBase> getOtherKnowledgeBases();
 
+	/**
+	 * @param aSelector The selector that determines which knowledge bases are
+	 *                  valid recipients.
+	 * @return The current {@link OtherKnowledgeBase}s that are selected by the
+	 *         given {@link RecipientSelector}.
+	 */
+	Set<OtherKnowledgeBase> getOtherKnowledgeBases(RecipientSelector aSelector);
+
 	/**
 	 * Update an already existing knowledge base with changed data.
 	 *
@@ -50,6 +59,10 @@ public interface OtherKnowledgeBaseStore {
 	 */
 	void removeKnowledgeBase(OtherKnowledgeBase kb);
 
+	void addListener(OtherKnowledgeBaseStoreListener listener);
+
+	void removeListener(OtherKnowledgeBaseStoreListener listener);
+
 	/**
 	 * Shut down the OtherKnowledgeBaseStore
 	 */
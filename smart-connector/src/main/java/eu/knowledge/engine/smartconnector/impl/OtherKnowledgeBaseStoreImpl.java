@@ -1,19 +1,51 @@
 package eu.knowledge.engine.smartconnector.impl;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.shared.Lock;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.vocabulary.RDF;
 import org.slf4j.Logger;
 
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.reasoner.util.LruCache;
+import eu.knowledge.engine.smartconnector.api.GraphPattern;
+import eu.knowledge.engine.smartconnector.api.RecipientSelector;
+import eu.knowledge.engine.smartconnector.api.Vocab;
 import eu.knowledge.engine.smartconnector.runtime.KeRuntime;
 import eu.knowledge.engine.smartconnector.runtime.KnowledgeDirectoryProxyListener;
 
 public class OtherKnowledgeBaseStoreImpl implements OtherKnowledgeBaseStore, KnowledgeDirectoryProxyListener {
+
+	private static final Var KB_VAR = Var.alloc("kb");
+
+	/**
+	 * The maximum number of parsed selector queries that are kept.
+	 */
+	private static final int MAX_SELECTOR_QUERIES = 100;
+
 	private final MetaKnowledgeBase metaKnowledgeBase;
 	private final SmartConnectorImpl sc;
 
@@ -21,6 +53,33 @@ public class OtherKnowledgeBaseStoreImpl implements OtherKnowledgeBaseStore, Kno
 
 	private final Map<URI, OtherKnowledgeBase> otherKnowledgeBases;
 
+	private final List<OtherKnowledgeBaseStoreListener> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * The RDF of all other knowledge bases, which is queried to determine the
+	 * knowledge bases selected by a {@link RecipientSelector}. It is updated
+	 * together with {@link #otherKnowledgeBases} while holding its write lock,
+	 * instead of being rebuilt for every interaction.
+	 */
+	private final Model metadata = ModelFactory.createDefaultModel();
+
+	/**
+	 * The parsed query per graph pattern of a {@link RecipientSelector}. Most
+	 * selectors use the default pattern, but the patterns are chosen by the
+	 * knowledge base, so the least recently used ones are evicted.
+	 */
+	private final LruCache<String, SelectorQuery> selectorQueries = new LruCache<>(MAX_SELECTOR_QUERIES);
+
+	/**
+	 * @param query                   The query that selects the knowledge bases
+	 *                                (in the {@code ?kb} variable).
+	 * @param selectsAllKnowledgeBases Whether the pattern is {@code ?kb rdf:type
+	 *                                kb:KnowledgeBase}, which every other
+	 *                                knowledge base satisfies.
+	 */
+	private record SelectorQuery(Query query, boolean selectsAllKnowledgeBases) {
+	}
+
 	public OtherKnowledgeBaseStoreImpl(SmartConnectorImpl sc, MetaKnowledgeBase metaKnowledgeBase) {
 		this.sc = sc;
 		this.LOG = this.sc.getLogger(this.getClass());
@@ -39,6 +98,88 @@ public class OtherKnowledgeBaseStoreImpl implements OtherKnowledgeBaseStore, Kno
 		return Collections.unmodifiableSet(new HashSet<>(this.otherKnowledgeBases.values()));
 	}
 
+	@Override
+	public Set<OtherKnowledgeBase> getOtherKnowledgeBases(RecipientSelector aSelector) {
+		String pattern = aSelector.getPattern().getPattern();
+		SelectorQuery selectorQuery = this.selectorQueries.get(pattern);
+		if (selectorQuery == null) {
+			selectorQuery = createSelectorQuery(aSelector.getPattern());
+			this.selectorQueries.put(pattern, selectorQuery);
+		}
+		BindingSet bindings = Util.translateFromApiBindingSet(aSelector.getBindingSet());
+
+		// the wildcard selector selects all knowledge bases, and a selector with
+		// specific knowledge bases only those that are available.
+		if (selectorQuery.selectsAllKnowledgeBases()) {
+			if (bindings.isEmpty())
+				return this.getOtherKnowledgeBases();
+
+			Set<OtherKnowledgeBase> selected = this.getOtherKnowledgeBasesById(bindings);
+			if (selected != null)
+				return selected;
+		}
+
+		// otherwise query the metadata of the other knowledge bases.
+		Query q = selectorQuery.query().cloneQuery();
+		if (!bindings.isEmpty()) {
+			List<Binding> values = new ArrayList<>();
+			for (var b : bindings) {
+				assert b.containsKey(KB_VAR);
+				values.add(BindingFactory.binding(KB_VAR, b.get(KB_VAR)));
+			}
+			q.setValuesDataBlock(List.of(KB_VAR), values);
+		}
+
+		Set<OtherKnowledgeBase> selected = new HashSet<>();
+		this.metadata.enterCriticalSection(Lock.READ);
+		try (QueryExecution qe = QueryExecutionFactory.create(q, this.metadata)) {
+			ResultSet rs = qe.execSelect();
+			while (rs.hasNext()) {
+				RDFNode kb = rs.next().get(KB_VAR.getVarName());
+				OtherKnowledgeBase okb = kb != null && kb.isURIResource()
+						? this.otherKnowledgeBases.get(URI.create(kb.asResource().getURI()))
+						: null;
+				if (okb != null)
+					selected.add(okb);
+			}
+		} finally {
+			this.metadata.leaveCriticalSection();
+		}
+		return selected;
+	}
+
+	/**
+	 * @return The other knowledge bases with the ids in the {@code ?kb} variable of
+	 *         the given bindings, or {@code null} if one of the bindings does not
+	 *         contain a knowledge base id.
+	 */
+	private Set<OtherKnowledgeBase> getOtherKnowledgeBasesById(BindingSet someBindings) {
+		Set<OtherKnowledgeBase> selected = new HashSet<>();
+		for (var b : someBindings) {
+			Node kb = b.get(KB_VAR);
+			if (kb == null || !kb.isURI())
+				return null;
+
+			OtherKnowledgeBase okb = this.otherKnowledgeBases.get(URI.create(kb.getURI()));
+			if (okb != null)
+				selected.add(okb);
+		}
+		return selected;
+	}
+
+	private static SelectorQuery createSelectorQuery(GraphPattern aPattern) {
+		Query q = QueryFactory.create("SELECT * WHERE { " + aPattern.getPattern() + " }");
+
+		boolean selectsAll = false;
+		List<TriplePath> tps = aPattern.getGraphPattern().getPattern().getList();
+		if (tps.size() == 1 && tps.get(0).isTriple()) {
+			Triple t = tps.get(0).asTriple();
+			selectsAll = t.getSubject().equals(KB_VAR) && t.getPredicate().equals(RDF.type.asNode())
+					&& t.getObject().equals(Vocab.KNOWLEDGE_BASE.asNode());
+		}
+		return new SelectorQuery(q, selectsAll);
+	}
+
 	@Override
 	public CompletableFuture<Void> populate() {
 		// retrieve ids from knowledge directory
@@ -51,9 +192,12 @@ public class OtherKnowledgeBaseStoreImpl implements OtherKnowledgeBaseStore, Kno
 		noLongerAvailableIds.removeAll(newIds);
 
 		for (URI id : noLongerAvailableIds) {
-			this.otherKnowledgeBases.remove(id);
+			this.removeOtherKnowledgeBase(id);
 		}
 
+		if (!noLongerAvailableIds.isEmpty())
+			this.notifyListeners();
+
 		// update the information with new or already existing other knowledge bases.
 		for (URI id : newIds) {
 
@@ -66,7 +210,8 @@ public class OtherKnowledgeBaseStoreImpl implements OtherKnowledgeBaseStore, Kno
 							assert otherKnowledgeBase != null : "The other knowledge base should be non-null.";
 
 							try {
-								this.otherKnowledgeBases.put(otherKnowledgeBase.getId(), otherKnowledgeBase);
+								this.putOtherKnowledgeBase(otherKnowledgeBase);
+								this.notifyListeners();
 							} catch (Throwable t) {
 								this.LOG.error("Adding an other knowledgebase should succeed.", t);
 							}
@@ -95,7 +240,8 @@ public class OtherKnowledgeBaseStoreImpl implements OtherKnowledgeBaseStore, Kno
 		}
 
 		try {
-			this.otherKnowledgeBases.put(kb.getId(), kb);
+			this.putOtherKnowledgeBase(kb);
+			this.notifyListeners();
 		} catch (Throwable t) {
 			this.LOG.error("Adding an other knowledgebase should succeed.", t);
 		}
@@ -109,7 +255,8 @@ public class OtherKnowledgeBaseStoreImpl implements OtherKnowledgeBaseStore, Kno
 		}
 
 		try {
-			this.otherKnowledgeBases.put(kb.getId(), kb);
+			this.putOtherKnowledgeBase(kb);
+			this.notifyListeners();
 		} catch (Throwable t) {
 			this.LOG.error("Updating an other knowledgebase should succeed.", t);
 		}
@@ -123,12 +270,50 @@ public class OtherKnowledgeBaseStoreImpl implements OtherKnowledgeBaseStore, Kno
 		}
 
 		try {
-			this.otherKnowledgeBases.remove(kb.getId());
+			this.removeOtherKnowledgeBase(kb.getId());
+			this.notifyListeners();
 		} catch (Throwable t) {
 			this.LOG.error("Removing an other knowledgebase should succeed.", t);
 		}
 	}
 
+	private void putOtherKnowledgeBase(OtherKnowledgeBase kb) {
+		this.metadata.enterCriticalSection(Lock.WRITE);
+		try {
+			OtherKnowledgeBase previous = this.otherKnowledgeBases.put(kb.getId(), kb);
+			if (previous != null)
+				this.metadata.remove(previous.getRDF());
+			this.metadata.add(kb.getRDF());
+		} finally {
+			this.metadata.leaveCriticalSection();
+		}
+	}
+
+	private void removeOtherKnowledgeBase(URI id) {
+		this.metadata.enterCriticalSection(Lock.WRITE);
+		try {
+			OtherKnowledgeBase previous = this.otherKnowledgeBases.remove(id);
+			if (previous != null)
+				this.metadata.remove(previous.getRDF());
+		} finally {
+			this.metadata.leaveCriticalSection();
+		}
+	}
+
+	@Override
+	public void addListener(OtherKnowledgeBaseStoreListener listener) {
+		this.listeners.add(listener);
+	}
+
+	@Override
+	public void removeListener(OtherKnowledgeBaseStoreListener listener) {
+		this.listeners.remove(listener);
+	}
+
+	private void notifyListeners() {
+		this.listeners.forEach(l -> l.otherKnowledgeBasesChanged());
+	}
+
 	@Override
 	public void knowledgeBaseIdSetChanged() {
 		LOG.info("List of Smart Connectors changed, repopulating the OtherKnowledgeBaseStore");
@@ -0,0 +1,11 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+/**
+ * Listener for when the knowledge bases in the {@link OtherKnowledgeBaseStore}
+ * (or their knowledge interactions) change.
+ */
+public interface OtherKnowledgeBaseStoreListener {
+
+	void otherKnowledgeBasesChanged();
+
+}
@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 
 import eu.knowledge.engine.reasoner.ReasonerPlan;
 import eu.knowledge.engine.smartconnector.api.BindingSet;
+import eu.knowledge.engine.smartconnector.api.PostFailureListener;
 import eu.knowledge.engine.smartconnector.api.PostPlan;
 import eu.knowledge.engine.smartconnector.api.PostResult;
 
@@ -36,6 +37,22 @@ public class PostPlanImpl implements PostPlan {
 		});
 	}
 
+	@Override
+	public CompletableFuture<Void> executeAndForget(BindingSet someArguments, PostFailureListener aListener) {
+		if (someArguments == null) {
+			throw new IllegalArgumentException("the binding set should be non-null");
+		}
+		if (aListener == null) {
+			throw new IllegalArgumentException("the listener should be non-null");
+		}
+		return this.processor
+				.executePostInteractionAndForget(Util.translateFromApiBindingSet(someArguments), aListener)
+				.exceptionally(e -> {
+					LOG.error("An exception has occured while executing Post Plan", e);
+					return null;
+				});
+	}
+
 	@Override
 	public ReasonerPlan getReasonerPlan() {
 		return (this.processor instanceof ReasonerProcessor ? ((ReasonerProcessor) this.processor).getReasonerPlan()
@@ -0,0 +1,176 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import eu.knowledge.engine.reasoner.BaseRule;
+import eu.knowledge.engine.reasoner.ProactiveRule;
+import eu.knowledge.engine.reasoner.ReasonerPlan;
+import eu.knowledge.engine.reasoner.Rule;
+import eu.knowledge.engine.reasoner.rulestore.RuleStore;
+import eu.knowledge.engine.reasoner.util.LruCache;
+import eu.knowledge.engine.smartconnector.api.KnowledgeInteraction;
+import eu.knowledge.engine.smartconnector.api.MatchStrategy;
+
+/**
+ * Caches the {@link ReasonerPlan}s of the knowledge interactions of a single
+ * smart connector. Creating a reasoner plan requires the (expensive) matching
+ * process to run, while the outcome only changes when one of the knowledge
+ * interactions involved changes. The cached plans are never executed
+ * themselves, but serve as a template for a cheap per-execution copy (see
+ * {@link ReasonerPlan#copy(Map)}).
+ *
+ * The cache should be invalidated whenever the other knowledge bases change.
+ * Every invalidation starts a new generation and plans that were created from
+ * the knowledge interactions of an older generation are not added to the cache.
+ * The latest plan per knowledge interaction survives an invalidation, so its
+ * {@link RuleStore} can be copied and updated incrementally with the
+ * knowledge interactions that joined or left, instead of matching all of them
+ * again.
+ */
+public class ReasonerPlanCache {
+
+	/**
+	 * The maximum number of plans in this cache. When it is exceeded, the least
+	 * recently used plan is evicted to prevent plans of knowledge interactions
+	 * that no longer exist from piling up.
+	 */
+	private static final int MAX_SIZE = 1000;
+
+	/**
+	 * Identifies a reasoner plan. My knowledge interaction is included (instead
+	 * of only its id), because a knowledge interaction can be re-registered under
+	 * the same id with a different graph pattern.
+	 */
+	public record Key(URI knowledgeInteractionId, KnowledgeInteraction knowledgeInteraction,
+			MatchStrategy matchStrategy, Set<URI> otherKnowledgeInteractionIds, Set<Rule> domainKnowledge,
+			long generation) {
+
+		public RuleStoreKey ruleStoreKey() {
+			return new RuleStoreKey(this.knowledgeInteractionId, this.knowledgeInteraction, this.matchStrategy,
+					this.domainKnowledge);
+		}
+	}
+
+	/**
+	 * Identifies the rule store of the plans of a single knowledge interaction,
+	 * i.e. a {@link Key} without the other knowledge interactions.
+	 */
+	public record RuleStoreKey(URI knowledgeInteractionId, KnowledgeInteraction knowledgeInteraction,
+			MatchStrategy matchStrategy, Set<Rule> domainKnowledge) {
+	}
+
+	/**
+	 * A cached (template) reasoner plan together with the rules it was created
+	 * from, so that these rules can be replaced when the plan is copied. The
+	 * other knowledge interactions the rules were created from are kept to find
+	 * the ones that changed when the rule store of the plan is reused.
+	 */
+	public record Entry(ReasonerPlan plan, ProactiveRule startRule, BaseRule captureRule,
+			Map<URI, BaseRule> knowledgeInteractionRules,
+			Map<URI, KnowledgeInteractionInfo> knowledgeInteractions) {
+
+		/**
+		 * Create a fresh copy of the cached plan that uses the given rules instead of
+		 * the rules the plan was created from.
+		 *
+		 * @param aStartRule                    The start rule of the copy.
+		 * @param aCaptureRule                  The rule that captures the result of
+		 *                                      a post, or {@code null} if there is
+		 *                                      none.
+		 * @param someKnowledgeInteractionRules The rule per other knowledge
+		 *                                      interaction id.
+		 * @return A reasoner plan that is ready to be executed.
+		 */
+		public ReasonerPlan instantiate(ProactiveRule aStartRule, BaseRule aCaptureRule,
+				Map<URI, BaseRule> someKnowledgeInteractionRules) {
+			Map<BaseRule, BaseRule> replacements = new HashMap<>();
+			replacements.put(this.startRule, aStartRule);
+			if (this.captureRule != null) {
+				assert aCaptureRule != null;
+				replacements.put(this.captureRule, aCaptureRule);
+			}
+			for (Map.Entry<URI, BaseRule> entry : this.knowledgeInteractionRules.entrySet()) {
+				BaseRule replacement = someKnowledgeInteractionRules.get(entry.getKey());
+				assert replacement != null;
+				replacements.put(entry.getValue(), replacement);
+			}
+			return this.plan.copy(replacements);
+		}
+	}
+
+	private final LruCache<Key, Entry> plans = new LruCache<>(MAX_SIZE);
+
+	private final LruCache<RuleStoreKey, Entry> latestPlans = new LruCache<>(MAX_SIZE);
+
+	private final AtomicLong generation = new AtomicLong(0);
+
+	/**
+	 * @return The current generation of this cache. Should be retrieved
+	 *         <strong>before</strong> retrieving the other knowledge bases from
+	 *         which a plan is created.
+	 */
+	public long getGeneration() {
+		return this.generation.get();
+	}
+
+	/**
+	 * @param aKey The key of the plan.
+	 * @return The cached plan for the given key, or {@code null} if there is
+	 *         none.
+	 */
+	public Entry get(Key aKey) {
+		return this.plans.get(aKey);
+	}
+
+	/**
+	 * @param aKey The key of the rule store.
+	 * @return The plan that was most recently added for the given key (of any
+	 *         generation), or {@code null} if there is none.
+	 */
+	public Entry getLatest(RuleStoreKey aKey) {
+		return this.latestPlans.get(aKey);
+	}
+
+	/**
+	 * Add a plan to this cache. If another plan was added for the same key in the
+	 * meantime, that plan is kept. Plans of an older generation are ignored,
+	 * because the cache was invalidated while they were being created. In both
+	 * cases the plan becomes the latest plan of its rule store key.
+	 *
+	 * @param aKey    The key of the plan.
+	 * @param anEntry The plan.
+	 */
+	public void put(Key aKey, Entry anEntry) {
+		this.latestPlans.put(aKey.ruleStoreKey(), anEntry);
+
+		if (aKey.generation() != this.generation.get())
+			return;
+		this.plans.putIfAbsent(aKey, anEntry);
+	}
+
+	/**
+	 * Remove all plans from this cache and start a new generation. The latest
+	 * plans are kept, because their rule stores can be updated incrementally.
+	 */
+	public void invalidate() {
+		this.generation.incrementAndGet();
+		this.plans.clear();
+	}
+
+	/**
+	 * Remove all plans from this cache, including the latest plans, and start a
+	 * new generation.
+	 */
+	public void clear() {
+		this.invalidate();
+		this.latestPlans.clear();
+	}
+
+	public int size() {
+		return this.plans.size();
+	}
+}
@@ -1,17 +1,23 @@
 package eu.knowledge.engine.smartconnector.impl;
 
 import java.io.IOException;
+import java.net.URI;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -20,13 +26,17 @@ import org.slf4j.helpers.MessageFormatter;
 
 import eu.knowledge.engine.reasoner.AntSide;
 import eu.knowledge.engine.reasoner.BaseRule;
+import eu.knowledge.engine.reasoner.BaseRule.MatchFlag;
 import eu.knowledge.engine.reasoner.BindingSetHandler;
+import eu.knowledge.engine.reasoner.ConsSide;
 import eu.knowledge.engine.reasoner.ProactiveRule;
 import eu.knowledge.engine.reasoner.ReasonerPlan;
 import eu.knowledge.engine.reasoner.Rule;
 import eu.knowledge.engine.reasoner.SinkBindingSetHandler;
 import eu.knowledge.engine.reasoner.TaskBoard;
+import eu.knowledge.engine.reasoner.TaskScheduler;
 import eu.knowledge.engine.reasoner.TransformBindingSetHandler;
+import eu.knowledge.engine.reasoner.api.Binding;
 import eu.knowledge.engine.reasoner.api.BindingSet;
 import eu.knowledge.engine.reasoner.api.TripleNode;
 import eu.knowledge.engine.reasoner.api.TriplePattern;
@@ -35,6 +45,7 @@ import eu.knowledge.engine.reasoner.rulestore.RuleStore;
 import eu.knowledge.engine.smartconnector.api.AnswerKnowledgeInteraction;
 import eu.knowledge.engine.smartconnector.api.AskExchangeInfo;
 import eu.knowledge.engine.smartconnector.api.AskKnowledgeInteraction;
+import eu.knowledge.engine.smartconnector.api.AskOptions;
 import eu.knowledge.engine.smartconnector.api.AskResult;
 import eu.knowledge.engine.smartconnector.api.ExchangeInfo.Initiator;
 import eu.knowledge.engine.smartconnector.api.ExchangeInfo.Status;
@@ -43,6 +54,7 @@ import eu.knowledge.engine.smartconnector.api.KnowledgeGap;
 import eu.knowledge.engine.smartconnector.api.KnowledgeInteraction;
 import eu.knowledge.engine.smartconnector.api.MatchStrategy;
 import eu.knowledge.engine.smartconnector.api.PostExchangeInfo;
+import eu.knowledge.engine.smartconnector.api.PostFailureListener;
 import eu.knowledge.engine.smartconnector.api.PostKnowledgeInteraction;
 import eu.knowledge.engine.smartconnector.api.PostResult;
 import eu.knowledge.engine.smartconnector.api.ReactKnowledgeInteraction;
@@ -52,6 +64,7 @@ import eu.knowledge.engine.smartconnector.messaging.AskMessage;
 import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
 import eu.knowledge.engine.smartconnector.messaging.PostMessage;
 import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
+import eu.knowledge.engine.smartconnector.runtime.KeRuntime;
 
 /**
  * The Knowledge Engine reasoner processor class. It uses the independent
@@ -67,7 +80,6 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 
 	private static final Logger LOG = LoggerFactory.getLogger(ReasonerProcessor.class);
 
-	private RuleStore store;
 	private MyKnowledgeInteractionInfo myKnowledgeInteraction;
 	private final Set<AskExchangeInfo> askExchangeInfos;
 	private final Set<PostExchangeInfo> postExchangeInfos;
@@ -77,6 +89,37 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 
 	private MatchStrategy matchStrategy = MatchStrategy.NORMAL_LEVEL;
 
+	/**
+	 * The rule that represents each of the other knowledge interactions, so we
+	 * can replace the rules of a cached reasoner plan. These rules are only added
+	 * to a {@link RuleStore} when a new reasoner plan needs to be created (see
+	 * {@link #createRuleStore(ProactiveRule)}).
+	 */
+	private final Map<URI, BaseRule> knowledgeInteractionRules = new LinkedHashMap<>();
+
+	/**
+	 * The (optional) cache from which reasoner plans are reused.
+	 */
+	private ReasonerPlanCache planCache;
+	private long planCacheGeneration;
+
+	/**
+	 * The maximum number of knowledge interactions that a post contacts at the
+	 * same time, or 0 if unlimited.
+	 */
+	private int postMaxConcurrency = 0;
+
+	/**
+	 * Keeps the post messages to the same react knowledge interaction in order, or
+	 * {@code null} if they are not ordered.
+	 */
+	private OrderedPosts orderedPosts;
+
+	/**
+	 * The rule that captures the result of a post (if any).
+	 */
+	private Rule captureRule;
+
 	/**
 	 * These two bindingset handler are a bit dodgy. We need them to make the post
 	 * interactions work correctly in the reasoner.
@@ -89,18 +132,24 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 	 */
 	private CompletableFuture<BindingSet> finalBindingSetFuture;
 
+	/**
+	 * Whether the result of the finalBindingSetFuture is incomplete, because the
+	 * ask finished early due to its {@link AskOptions}.
+	 */
+	private boolean partialResult;
+
+	/**
+	 * The ask messages that did not yet receive an answer. They are cancelled when
+	 * an ask finishes early.
+	 */
+	private final Set<CompletableFuture<AnswerMessage>> outstandingAskMessages = ConcurrentHashMap.newKeySet();
+
 	public ReasonerProcessor(Set<KnowledgeInteractionInfo> knowledgeInteractions, MessageRouter messageRouter,
 			Set<Rule> someDomainKnowledge) {
 		super(knowledgeInteractions, messageRouter);
 
 		this.additionalDomainKnowledge = someDomainKnowledge;
 
-		store = new RuleStore();
-
-		for (BaseRule r : this.additionalDomainKnowledge) {
-			store.addRule(r);
-		}
-
 		this.askExchangeInfos = Collections.newSetFromMap(new ConcurrentHashMap<AskExchangeInfo, Boolean>());
 		this.postExchangeInfos = Collections.newSetFromMap(new ConcurrentHashMap<PostExchangeInfo, Boolean>());
 
@@ -113,8 +162,8 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 				GraphPattern gp = aki.getPattern();
 				Rule aRule = new Rule(ruleName, new HashSet<>(Util.translateGraphPatternTo(gp)),
 						new AnswerBindingSetHandler(kii));
-				store.addRule(aRule);
-				LOG.trace("Adding ANSWER to store: {}", aRule);
+				this.knowledgeInteractionRules.put(kii.getId(), aRule);
+				LOG.trace("Adding ANSWER rule: {}", aRule);
 			} else if (kii.getType().equals(Type.REACT)) {
 				ReactKnowledgeInteraction rki = (ReactKnowledgeInteraction) ki;
 				GraphPattern argGp = rki.getArgument();
@@ -130,8 +179,8 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 					aRule = new Rule(ruleName, Util.translateGraphPatternTo(argGp), resPattern,
 							new ReactBindingSetHandler(kii));
 				}
-				store.addRule(aRule);
-				LOG.trace("Adding REACT to store: {}", aRule);
+				this.knowledgeInteractionRules.put(kii.getId(), aRule);
+				LOG.trace("Adding REACT rule: {}", aRule);
 			}
 		}
 	}
@@ -149,15 +198,13 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 
 			ProactiveRule aRule = new ProactiveRule(ruleName, Util.translateGraphPatternTo(aki.getPattern()),
 					new HashSet<>());
-			this.store.addRule(aRule);
 			MatchStrategy aStrategy;
 			if (aAKI.getKnowledgeInteraction().getMatchStrategy() == null)
 				aStrategy = this.matchStrategy;
 			else
 				aStrategy = aki.getMatchStrategy();
 
-			LOG.trace("Creating reasoner plan with strategy: {}", aStrategy);
-			this.reasonerPlan = new ReasonerPlan(this.store, aRule, aStrategy.toConfig(true));
+			this.reasonerPlan = this.createReasonerPlan(aRule, aStrategy, true);
 		} else {
 			LOG.warn("Type should be Ask, not {}", this.myKnowledgeInteraction.getType());
 			this.finalBindingSetFuture.complete(new BindingSet());
@@ -182,8 +229,19 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 	 */
 	@Override
 	public CompletableFuture<AskResult> executeAskInteraction(BindingSet someBindings) {
+		return this.executeAskInteraction(someBindings, new AskOptions(0, null));
+	}
+
+	/**
+	 * See {@link #executeAskInteraction(BindingSet)}. If the ask finishes early
+	 * because of the limit or deadline in the given options, no knowledge gaps are
+	 * computed, because the result is incomplete.
+	 */
+	@Override
+	public CompletableFuture<AskResult> executeAskInteraction(BindingSet someBindings, AskOptions someOptions) {
 
 		this.finalBindingSetFuture = new CompletableFuture<BindingSet>();
+		this.partialResult = false;
 //		this.reasonerPlan.optimize();
 		
 		if (this.myKnowledgeInteraction.isMeta())
@@ -191,11 +249,12 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 		else
 			LOG.debug("Ask: {}", this.reasonerPlan);
 		
-		continueReasoningBackward(someBindings);
+		continueReasoningBackward(someBindings, someOptions);
 
 		return this.finalBindingSetFuture.thenApply((bs) -> {
 			if (myKnowledgeInteraction.getKnowledgeInteraction().knowledgeGapsEnabled()) {
-				this.knowledgeGaps = bs.isEmpty() ? getKnowledgeGaps(this.reasonerPlan.getStartNode())
+				this.knowledgeGaps = bs.isEmpty() && !this.partialResult
+						? getKnowledgeGaps(this.reasonerPlan.getStartNode())
 						: new HashSet<KnowledgeGap>();
 			}
 
@@ -218,31 +277,105 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 						succeededKIs.size() + failedKIs.size(), failedKIs.size(), failedKIs);
 
 			return new AskResult(Util.translateToApiBindingSet(bs), this.askExchangeInfos, this.reasonerPlan,
-					this.knowledgeGaps);
+					this.knowledgeGaps, this.partialResult);
 		});
 	}
 
-	private void continueReasoningBackward(BindingSet incomingBS) {
+	private void continueReasoningBackward(BindingSet incomingBS, AskOptions someOptions) {
 
-		boolean isComplete;
-		TaskBoard taskboard;
 		final String msg = "Executing (scheduled) tasks for the reasoner should not result in problems.";
-		taskboard = this.reasonerPlan.execute(incomingBS);
-		isComplete = !taskboard.hasTasks();
-		taskboard.executeScheduledTasks().thenAccept(_ -> {
-			LOG.trace("All ask tasks finished.");
-			if (isComplete) {
-				BindingSet bs = this.reasonerPlan.getResults();
-				this.finalBindingSetFuture.complete(bs);
-			} else
-				continueReasoningBackward(incomingBS);
+		TaskScheduler scheduler = new TaskScheduler(this.reasonerPlan, KeRuntime.executorService());
+
+		// the bindings that reached the start node so far, in order of arrival.
+		// Only accessed while holding the lock of the scheduler.
+		final Set<Binding> partialBindings = new LinkedHashSet<>();
+		final int limit = someOptions.getLimit();
+		final boolean early = limit > 0 || someOptions.getDeadline() != null;
+		if (early || someOptions.getPartialResultHandler() != null)
+			scheduler.setPropagationListener(
+					() -> this.collectPartialResults(scheduler, partialBindings, someOptions));
+
+		ScheduledFuture<?> deadline = null;
+		if (someOptions.getDeadline() != null)
+			deadline = KeRuntime.executorService().schedule(() -> {
+				if (scheduler.stop())
+					LOG.debug("Deadline of {} passed for ask of KI <{}>.", someOptions.getDeadline(),
+							this.myKnowledgeInteraction.getId());
+			}, someOptions.getDeadline().toMillis(), TimeUnit.MILLISECONDS);
+		final ScheduledFuture<?> finalDeadline = deadline;
+
+		// the future of the scheduler completes after its lock is released, so the
+		// outstanding messages are cancelled and the final future is completed
+		// without holding it.
+		scheduler.execute(incomingBS).thenAccept(_ -> {
+			if (finalDeadline != null)
+				finalDeadline.cancel(false);
+
+			BindingSet bs;
+			boolean done;
+			synchronized (scheduler) {
+				done = this.reasonerPlan.isDone();
+				bs = done ? this.reasonerPlan.getResults() : new BindingSet(partialBindings);
+			}
+
+			if (done) {
+				LOG.trace("All ask tasks finished.");
+			} else {
+				LOG.trace("Ask finished early with {} tasks outstanding.", this.outstandingAskMessages.size());
+				// cancelling results in failed exchange infos for these messages.
+				for (CompletableFuture<AnswerMessage> future : new ArrayList<>(this.outstandingAskMessages))
+					future.cancel(false);
+				this.partialResult = true;
+			}
+
+			if (limit > 0 && bs.size() > limit) {
+				bs = new BindingSet(bs.stream().limit(limit).collect(Collectors.toList()));
+				this.partialResult = true;
+			}
+			this.finalBindingSetFuture.complete(bs);
 		}).exceptionally((Throwable t) -> {
 			LOG.error(msg, t);
+			if (finalDeadline != null)
+				finalDeadline.cancel(false);
+			this.finalBindingSetFuture.completeExceptionally(t);
 			return null;
 		});
 
 	}
 
+	/**
+	 * Collect the bindings that reached the start node of the reasoner plan, pass
+	 * the new ones to the partial result handler and stop the scheduler if the
+	 * limit is reached. Called by the scheduler after every propagation, while
+	 * holding its lock. The partial result handler is called after the lock is
+	 * released, because it is user code that might block.
+	 */
+	private void collectPartialResults(TaskScheduler aScheduler, Set<Binding> somePartialBindings,
+			AskOptions someOptions) {
+		int limit = someOptions.getLimit();
+		BindingSet newBindings = new BindingSet();
+		for (Binding b : this.reasonerPlan.getPartialResults()) {
+			if (limit > 0 && somePartialBindings.size() >= limit)
+				break;
+			if (somePartialBindings.add(b))
+				newBindings.add(b);
+		}
+
+		if (!newBindings.isEmpty() && someOptions.getPartialResultHandler() != null) {
+			aScheduler.defer(() -> {
+				try {
+					someOptions.getPartialResultHandler().accept(Util.translateToApiBindingSet(newBindings));
+				} catch (RuntimeException e) {
+					LOG.error("The partial result handler of KI <{}> should not throw exceptions.",
+							this.myKnowledgeInteraction.getId(), e);
+				}
+			});
+		}
+
+		if (limit > 0 && somePartialBindings.size() >= limit && aScheduler.stop())
+			LOG.debug("Limit of {} bindings reached for ask of KI <{}>.", limit, this.myKnowledgeInteraction.getId());
+	}
+
 	@Override
 	public void planPostInteraction(MyKnowledgeInteractionInfo aPKI) {
 		this.myKnowledgeInteraction = aPKI;
@@ -258,14 +391,13 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 			if (pki.getResult() != null) {
 				this.captureResultBindingSetHandler = new CaptureBindingSetHandler();
 
-				store.addRule(new Rule(ruleName, Util.translateGraphPatternTo(pki.getResult()),
-						this.captureResultBindingSetHandler));
+				this.captureRule = new Rule(ruleName, Util.translateGraphPatternTo(pki.getResult()),
+						this.captureResultBindingSetHandler);
 			}
 
 			Set<TriplePattern> translatedGraphPattern = Util.translateGraphPatternTo(pki.getArgument());
 
 			ProactiveRule aRule = new ProactiveRule(ruleName, new HashSet<>(), new HashSet<>(translatedGraphPattern));
-			store.addRule(aRule);
 
 			MatchStrategy aStrategy;
 			if (pki.getMatchStrategy() == null)
@@ -273,8 +405,7 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 			else
 				aStrategy = pki.getMatchStrategy();
 
-			LOG.trace("Creating reasoner plan with strategy: {}", aStrategy);
-			this.reasonerPlan = new ReasonerPlan(this.store, aRule, aStrategy.toConfig(false));
+			this.reasonerPlan = this.createReasonerPlan(aRule, aStrategy, false);
 
 		} else {
 			LOG.warn("Type should be Post, not {}", this.myKnowledgeInteraction.getType());
@@ -282,6 +413,166 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 		}
 	}
 
+	/**
+	 * Create the reasoner plan for the given start rule. If a plan cache is
+	 * available and already contains a plan for the current knowledge
+	 * interactions, a copy of that plan is used instead of creating a new plan,
+	 * because the latter requires the (expensive) matching process to run.
+	 * 
+	 * @param aStartRule The proactive rule that represents my knowledge
+	 *                   interaction.
+	 * @param aStrategy  The match strategy to use.
+	 * @param isBackward Whether the plan is used for backward (ask) or forward
+	 *                   (post) reasoning.
+	 * @return A reasoner plan that is ready to be executed.
+	 */
+	private ReasonerPlan createReasonerPlan(ProactiveRule aStartRule, MatchStrategy aStrategy, boolean isBackward) {
+
+		if (this.planCache == null) {
+			LOG.trace("Creating reasoner plan with strategy: {}", aStrategy);
+			return new ReasonerPlan(this.createRuleStore(aStartRule), aStartRule, aStrategy.toConfig(isBackward));
+		}
+
+		Set<URI> otherKnowledgeInteractionIds = this.otherKnowledgeInteractions.stream().map(kii -> kii.getId())
+				.collect(Collectors.toSet());
+		var key = new ReasonerPlanCache.Key(this.myKnowledgeInteraction.getId(),
+				this.myKnowledgeInteraction.getKnowledgeInteraction(), aStrategy, otherKnowledgeInteractionIds,
+				this.additionalDomainKnowledge, this.planCacheGeneration);
+
+		Map<URI, KnowledgeInteractionInfo> knowledgeInteractionsById = new HashMap<>();
+		for (KnowledgeInteractionInfo kii : this.otherKnowledgeInteractions)
+			knowledgeInteractionsById.put(kii.getId(), kii);
+
+		ReasonerPlanCache.Entry entry = this.planCache.get(key);
+		if (entry == null) {
+			LOG.trace("Creating reasoner plan with strategy: {}", aStrategy);
+			entry = this.createReasonerPlanFromLatest(key, aStrategy.toConfig(isBackward), knowledgeInteractionsById);
+			if (entry == null) {
+				// the plan in the cache is never executed itself, we always execute a copy.
+				entry = new ReasonerPlanCache.Entry(
+						new ReasonerPlan(this.createRuleStore(aStartRule), aStartRule, aStrategy.toConfig(isBackward)),
+						aStartRule,
+						this.captureRule, new HashMap<>(this.knowledgeInteractionRules), knowledgeInteractionsById);
+				this.planCache.put(key, entry);
+			}
+		} else {
+			LOG.trace("Reusing cached reasoner plan with strategy: {}", aStrategy);
+		}
+
+		return entry.instantiate(aStartRule, this.captureRule, this.knowledgeInteractionRules);
+	}
+
+	/**
+	 * Create a rule store with all rules of this processor. Adding the rules to a
+	 * store calculates their matches, so this is only done when no (cached)
+	 * reasoner plan can be reused.
+	 * 
+	 * @param aStartRule The proactive rule that represents my knowledge
+	 *                   interaction.
+	 * @return A rule store with the domain knowledge, the rules of the other
+	 *         knowledge interactions, the capture rule (if any) and the given
+	 *         start rule.
+	 */
+	private RuleStore createRuleStore(ProactiveRule aStartRule) {
+		RuleStore aStore = new RuleStore();
+		for (BaseRule r : this.additionalDomainKnowledge)
+			aStore.addRule(r);
+		for (BaseRule r : this.knowledgeInteractionRules.values())
+			aStore.addRule(r);
+		if (this.captureRule != null)
+			aStore.addRule(this.captureRule);
+		aStore.addRule(aStartRule);
+		return aStore;
+	}
+
+	/**
+	 * Create a new reasoner plan from the rule store of the latest cached plan of
+	 * my knowledge interaction. Only the rules of the knowledge interactions that
+	 * joined, left or changed since then are added to or removed from a copy of
+	 * that store, so only their matches need to be calculated. The store of the
+	 * latest plan itself is never changed, because other processors might still
+	 * use it.
+	 * 
+	 * @param aKey                      The key of the new plan.
+	 * @param aConfig                   The match configuration of the new plan.
+	 * @param someKnowledgeInteractions The other knowledge interactions by id.
+	 * @return The cache entry of the new plan, or {@code null} if there is no rule
+	 *         store to reuse.
+	 */
+	private ReasonerPlanCache.Entry createReasonerPlanFromLatest(ReasonerPlanCache.Key aKey,
+			EnumSet<MatchFlag> aConfig, Map<URI, KnowledgeInteractionInfo> someKnowledgeInteractions) {
+		ReasonerPlanCache.Entry latest = this.planCache.getLatest(aKey.ruleStoreKey());
+		if (latest == null)
+			return null;
+
+		RuleStore newStore = latest.plan().getStore().copy();
+		Map<URI, BaseRule> rules = new HashMap<>(latest.knowledgeInteractionRules());
+		Map<URI, KnowledgeInteractionInfo> knowledgeInteractions = new HashMap<>(latest.knowledgeInteractions());
+
+		// remove the knowledge interactions that left or changed
+		var iter = knowledgeInteractions.entrySet().iterator();
+		while (iter.hasNext()) {
+			Map.Entry<URI, KnowledgeInteractionInfo> entry = iter.next();
+			if (someKnowledgeInteractions.get(entry.getKey()) != entry.getValue()) {
+				BaseRule removed = rules.remove(entry.getKey());
+				if (removed != null)
+					newStore.removeRule(removed);
+				iter.remove();
+			}
+		}
+
+		// add the knowledge interactions that joined or changed
+		for (Map.Entry<URI, KnowledgeInteractionInfo> entry : someKnowledgeInteractions.entrySet()) {
+			if (!knowledgeInteractions.containsKey(entry.getKey())) {
+				BaseRule added = this.knowledgeInteractionRules.get(entry.getKey());
+				if (added != null) {
+					newStore.addRule(added);
+					rules.put(entry.getKey(), added);
+				}
+				knowledgeInteractions.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		LOG.trace("Reusing rule store of the latest reasoner plan with {} rules.", newStore.getRules().size());
+		var entry = new ReasonerPlanCache.Entry(new ReasonerPlan(newStore, latest.startRule(), aConfig),
+				latest.startRule(), latest.captureRule(), rules, knowledgeInteractions);
+		this.planCache.put(aKey, entry);
+		return entry;
+	}
+
+	/**
+	 * Reuse reasoner plans from the given cache instead of always creating new
+	 * ones. Should be called before planning an interaction.
+	 * 
+	 * @param aPlanCache  The cache to use.
+	 * @param aGeneration The generation of the cache at the moment the other
+	 *                    knowledge interactions of this processor were
+	 *                    retrieved.
+	 */
+	public void setPlanCache(ReasonerPlanCache aPlanCache, long aGeneration) {
+		this.planCache = aPlanCache;
+		this.planCacheGeneration = aGeneration;
+	}
+
+	/**
+	 * Limit the number of knowledge interactions that a post contacts at the same
+	 * time. Results of reactions are still processed as soon as they arrive.
+	 *
+	 * @param aMaxConcurrency The maximum number of knowledge interactions, or 0 if
+	 *                        unlimited.
+	 */
+	public void setPostMaxConcurrency(int aMaxConcurrency) {
+		this.postMaxConcurrency = aMaxConcurrency;
+	}
+
+	/**
+	 * Send the post messages via the given {@link OrderedPosts}, so a react
+	 * knowledge interaction reacts to them in the order in which they were posted.
+	 */
+	public void setOrderedPosts(OrderedPosts someOrderedPosts) {
+		this.orderedPosts = someOrderedPosts;
+	}
+
 	@Override
 	public CompletableFuture<PostResult> executePostInteraction(BindingSet someBindings) {
 
@@ -319,28 +610,111 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 		});
 	}
 
+	/**
+	 * Execute the post without collecting the results. The post messages are sent
+	 * without waiting for the reactions and without building exchange infos, so
+	 * the rules that depend on the results of the reactions are not applied. For
+	 * the same reason, they are neither ordered nor limited by the maximum
+	 * concurrency of posts.
+	 */
+	@Override
+	public CompletableFuture<Void> executePostInteractionAndForget(BindingSet someBindings,
+			PostFailureListener aListener) {
+		LOG.trace("Post and forget: {}", this.reasonerPlan);
+
+		// usually the react knowledge interactions match the post directly, so a
+		// single propagation determines their bindings and no rules need to be
+		// applied.
+		if (this.onlyReactsToPost()) {
+			TaskBoard taskBoard = this.reasonerPlan.execute(someBindings);
+			for (RuleNode task : taskBoard.getTasks())
+				this.sendPostMessageAndForget(task, aListener);
+			return CompletableFuture.completedFuture(null);
+		}
+
+		// otherwise apply the rules of a copy of the plan in which the react rules
+		// forget their post messages.
+		Map<BaseRule, BaseRule> replacements = new HashMap<>();
+		for (BaseRule rule : this.knowledgeInteractionRules.values()) {
+			Rule r = (Rule) rule;
+			if (r.getBindingSetHandler() instanceof ReactBindingSetHandler rbsh)
+				replacements.put(r, new Rule(r.getName(), r.getAntecedent(), r.getConsequent(),
+						new ReactBindingSetHandler(rbsh.getKnowledgeInteractionInfo(), aListener)));
+			else if (r.getSinkBindingSetHandler() instanceof ReactVoidBindingSetHandler rvbsh)
+				replacements.put(r, new Rule(r.getName(), r.getAntecedent(),
+						new ReactVoidBindingSetHandler(rvbsh.getKnowledgeInteractionInfo(), aListener)));
+		}
+		return new TaskScheduler(this.reasonerPlan.copy(replacements), KeRuntime.executorService())
+				.execute(someBindings);
+	}
+
+	/**
+	 * @return Whether all rule nodes that the start node of the post plan
+	 *         propagates to are react knowledge interactions that only depend on
+	 *         the start node.
+	 */
+	private boolean onlyReactsToPost() {
+		RuleNode startNode = this.reasonerPlan.getStartNode();
+		for (RuleNode neighbour : ((ConsSide) startNode).getConsequentNeighbours().keySet()) {
+			if (neighbour.getRule() == this.captureRule)
+				continue;
+			if (this.getReactKnowledgeInteraction(neighbour) == null
+					|| !((AntSide) neighbour).getAntecedentNeighbours().keySet().equals(Set.of(startNode)))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return The react knowledge interaction of the rule of the given node, or
+	 *         {@code null} if it is not the rule of a react knowledge interaction.
+	 */
+	private KnowledgeInteractionInfo getReactKnowledgeInteraction(RuleNode aNode) {
+		if (aNode.getRule() instanceof Rule r) {
+			if (r.getBindingSetHandler() instanceof ReactBindingSetHandler rbsh)
+				return rbsh.getKnowledgeInteractionInfo();
+			if (r.getSinkBindingSetHandler() instanceof ReactVoidBindingSetHandler rvbsh)
+				return rvbsh.getKnowledgeInteractionInfo();
+		}
+		return null;
+	}
+
+	/**
+	 * Send the bindings of the given react rule node without waiting for the
+	 * reaction.
+	 */
+	private void sendPostMessageAndForget(RuleNode aNode, PostFailureListener aListener) {
+		KnowledgeInteractionInfo kii = this.getReactKnowledgeInteraction(aNode);
+		if (kii == null)
+			return;
+
+		var bindings = aNode.getResultBindingSetInput().getFullBindingSet();
+		if (bindings.isEmpty())
+			return;
+
+		PostMessage postMessage = new PostMessage(this.myKnowledgeInteraction.getKnowledgeBaseId(),
+				this.myKnowledgeInteraction.getId(), kii.getKnowledgeBaseId(), kii.getId(), bindings.toBindingSet());
+		LOG.trace("Contacting KI <{}> without waiting while executing <{}>", postMessage.getToKnowledgeInteraction(),
+				postMessage.getFromKnowledgeInteraction());
+		this.messageRouter.sendPostMessageAndForget(postMessage, aListener);
+	}
+
 	private void continueReasoningForward(BindingSet incomingBS, CaptureBindingSetHandler aBindingSetHandler) {
 
 		String msg = "Executing (scheduled) tasks for the reasoner should not result in errors.";
-		boolean isComplete;
-		TaskBoard taskboard;
-		taskboard = this.reasonerPlan.execute(incomingBS);
-		isComplete = !taskboard.hasTasks();
-		taskboard.executeScheduledTasks().thenAccept(_ -> {
+		TaskScheduler scheduler = new TaskScheduler(this.reasonerPlan, KeRuntime.executorService());
+		scheduler.setMaxConcurrency(this.postMaxConcurrency);
+		scheduler.execute(incomingBS).thenAccept(_ -> {
 			LOG.trace("All post tasks finished.");
-			if (isComplete) {
-				BindingSet resultBS = new BindingSet();
-				if (aBindingSetHandler != null && aBindingSetHandler.getBindingSet() != null) {
-					resultBS = aBindingSetHandler.getBindingSet();
-				}
-
-				this.finalBindingSetFuture.complete(resultBS);
-			} else {
-				continueReasoningForward(incomingBS, aBindingSetHandler);
+			BindingSet resultBS = new BindingSet();
+			if (aBindingSetHandler != null && aBindingSetHandler.getBindingSet() != null) {
+				resultBS = aBindingSetHandler.getBindingSet();
 			}
 
+			this.finalBindingSetFuture.complete(resultBS);
 		}).exceptionally((Throwable t) -> {
 			LOG.error(msg, t);
+			this.finalBindingSetFuture.completeExceptionally(t);
 			return null;
 		});
 
@@ -441,6 +815,9 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 				CompletableFuture<AnswerMessage> sendAskMessage = ReasonerProcessor.this.messageRouter
 						.sendAskMessage(askMessage);
 				Instant aPreviousSend = Instant.now();
+				ReasonerProcessor.this.outstandingAskMessages.add(sendAskMessage);
+				sendAskMessage.whenComplete(
+						(_, _) -> ReasonerProcessor.this.outstandingAskMessages.remove(sendAskMessage));
 
 				bsFuture = sendAskMessage.exceptionally((Throwable t) -> {
 
@@ -512,8 +889,19 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 
 		private KnowledgeInteractionInfo kii;
 
+		/**
+		 * The listener for failures of the post if the reaction is not waited for,
+		 * otherwise {@code null}.
+		 */
+		private final PostFailureListener postFailureListener;
+
 		public ReactBindingSetHandler(KnowledgeInteractionInfo aKii) {
+			this(aKii, null);
+		}
+
+		public ReactBindingSetHandler(KnowledgeInteractionInfo aKii, PostFailureListener aListener) {
 			this.kii = aKii;
+			this.postFailureListener = aListener;
 		}
 
 		public KnowledgeInteractionInfo getKnowledgeInteractionInfo() {
@@ -537,8 +925,15 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 				else
 					LOG.trace(logMessage, postMessage.getToKnowledgeInteraction(),
 							postMessage.getFromKnowledgeInteraction());
-				CompletableFuture<ReactMessage> sendPostMessage = ReasonerProcessor.this.messageRouter
-						.sendPostMessage(postMessage);
+
+				if (this.postFailureListener != null) {
+					// nobody waits for the reaction, so there is no result.
+					ReasonerProcessor.this.messageRouter.sendPostMessageAndForget(postMessage,
+							this.postFailureListener);
+					return CompletableFuture.completedFuture(new BindingSet());
+				}
+
+				CompletableFuture<ReactMessage> sendPostMessage = ReasonerProcessor.this.sendPostMessage(postMessage);
 				Instant aPreviousSend = Instant.now();
 				bsFuture = sendPostMessage.exceptionally((Throwable t) -> {
 					String failedMessage = MessageFormatter
@@ -586,8 +981,19 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 
 		private KnowledgeInteractionInfo kii;
 
+		/**
+		 * The listener for failures of the post if the reaction is not waited for,
+		 * otherwise {@code null}.
+		 */
+		private final PostFailureListener postFailureListener;
+
 		public ReactVoidBindingSetHandler(KnowledgeInteractionInfo aKii) {
+			this(aKii, null);
+		}
+
+		public ReactVoidBindingSetHandler(KnowledgeInteractionInfo aKii, PostFailureListener aListener) {
 			this.kii = aKii;
+			this.postFailureListener = aListener;
 		}
 
 		public KnowledgeInteractionInfo getKnowledgeInteractionInfo() {
@@ -612,8 +1018,13 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 					LOG.trace(logMessage, postMessage.getToKnowledgeInteraction(),
 							postMessage.getFromKnowledgeInteraction());
 
-				CompletableFuture<ReactMessage> sendPostMessage = ReasonerProcessor.this.messageRouter
-						.sendPostMessage(postMessage);
+				if (this.postFailureListener != null) {
+					ReasonerProcessor.this.messageRouter.sendPostMessageAndForget(postMessage,
+							this.postFailureListener);
+					return CompletableFuture.completedFuture((Void) null);
+				}
+
+				CompletableFuture<ReactMessage> sendPostMessage = ReasonerProcessor.this.sendPostMessage(postMessage);
 				Instant aPreviousSend = Instant.now();
 				bsFuture = sendPostMessage.exceptionally((Throwable t) -> {
 					String failedMessage = MessageFormatter
@@ -649,6 +1060,16 @@ public class ReasonerProcessor extends SingleInteractionProcessor {
 
 	}
 
+	/**
+	 * Send the post message directly or, if posts are ordered, after the reaction
+	 * to the previous post message to the same knowledge interaction arrived.
+	 */
+	private CompletableFuture<ReactMessage> sendPostMessage(PostMessage aPostMessage) throws IOException {
+		if (this.orderedPosts == null)
+			return this.messageRouter.sendPostMessage(aPostMessage);
+		return this.orderedPosts.send(aPostMessage, this.messageRouter::sendPostMessage);
+	}
+
 	public ReasonerPlan getReasonerPlan() {
 		return this.reasonerPlan;
 	}
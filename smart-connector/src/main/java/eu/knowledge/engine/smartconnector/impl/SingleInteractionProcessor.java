@@ -3,10 +3,12 @@ package eu.knowledge.engine.smartconnector.impl;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
+import eu.knowledge.engine.smartconnector.api.AskOptions;
 import eu.knowledge.engine.smartconnector.api.AskResult;
 import eu.knowledge.engine.reasoner.api.BindingSet;
 import eu.knowledge.engine.smartconnector.api.GraphPattern;
 import eu.knowledge.engine.smartconnector.api.KnowledgeInteraction;
+import eu.knowledge.engine.smartconnector.api.PostFailureListener;
 import eu.knowledge.engine.smartconnector.api.PostResult;
 
 /**
@@ -49,6 +51,16 @@ public abstract class SingleInteractionProcessor {
 	 */
 	abstract CompletableFuture<AskResult> executeAskInteraction(BindingSet someBindings);
 
+	/**
+	 * Execute the plan (if applicable) and return an AskResult, but finish early
+	 * when the limit or deadline of the given options is reached.
+	 * 
+	 * @param someBindings
+	 * @param someOptions
+	 * @return
+	 */
+	abstract CompletableFuture<AskResult> executeAskInteraction(BindingSet someBindings, AskOptions someOptions);
+
 	/**
 	 * Make a plan (if applicable) for executing the given PostKnowledgeInteraction
 	 * 
@@ -64,6 +76,18 @@ public abstract class SingleInteractionProcessor {
 	 */
 	abstract CompletableFuture<PostResult> executePostInteraction(BindingSet someBindings);
 
+	/**
+	 * Execute the plan (if applicable) without collecting the results. Failures
+	 * are reported to the given listener.
+	 * 
+	 * @param someBindings
+	 * @param aListener
+	 * @return A future that completes when all post messages have been handed
+	 *         over.
+	 */
+	abstract CompletableFuture<Void> executePostInteractionAndForget(BindingSet someBindings,
+			PostFailureListener aListener);
+
 	// close?
 
 }
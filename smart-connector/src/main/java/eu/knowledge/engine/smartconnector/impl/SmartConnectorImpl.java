@@ -11,9 +11,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import eu.knowledge.engine.reasoner.Rule;
+import eu.knowledge.engine.reasoner.util.NodeCache;
 import eu.knowledge.engine.smartconnector.api.AnswerHandler;
 import eu.knowledge.engine.smartconnector.api.AnswerKnowledgeInteraction;
 import eu.knowledge.engine.smartconnector.api.AskKnowledgeInteraction;
+import eu.knowledge.engine.smartconnector.api.AskOptions;
 import eu.knowledge.engine.smartconnector.api.AskPlan;
 import eu.knowledge.engine.smartconnector.api.AskResult;
 import eu.knowledge.engine.smartconnector.api.BindingSet;
@@ -306,6 +308,16 @@ public class SmartConnectorImpl implements RuntimeSmartConnector, LoggerProvider
 		});
 	}
 
+	@Override
+	public CompletableFuture<AskResult> ask(AskKnowledgeInteraction anAKI, RecipientSelector aSelector,
+			BindingSet aBindingSet, AskOptions someOptions) {
+
+		return this.planAsk(anAKI, aSelector).execute(aBindingSet, someOptions).exceptionally((Throwable t) -> {
+			LOG.error("Processing an Ask should not result in errors.", t);
+			return null;
+		});
+	}
+
 	/**
 	 * Performs an
 	 * {@link #ask(AskKnowledgeInteraction, RecipientSelector, BindingSet)} with a
@@ -469,6 +481,8 @@ public class SmartConnectorImpl implements RuntimeSmartConnector, LoggerProvider
 			// stop message router and cancel waiting for response to messages.
 			this.messageRouter.stop();
 			this.otherKnowledgeBaseStore.stop();
+			// the node cache is shared by all smart connectors of this JVM.
+			LOG.debug("Smart connector stopped. Node cache: {}", NodeCache.getStats());
 			KeRuntime.localSmartConnectorRegistry().unregister(this);
 			this.myKnowledgeBase.smartConnectorStopped(this);
 		});
@@ -0,0 +1,150 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.knowledge.engine.smartconnector.runtime.KeRuntime;
+
+/**
+ * A hashed timing wheel that runs the timeouts of many open requests from a
+ * single periodic task, instead of using a timer per request. Scheduling and
+ * cancelling a timeout is cheap and does not take a lock. A timeout is run
+ * in the first tick after its deadline, so it can be up to one tick late.
+ *
+ * The wheel has a fixed number of slots and every tick the timeouts in the
+ * next slot are checked. Timeouts that are further away than a full turn of
+ * the wheel keep track of the number of remaining turns. Only the ticking
+ * thread touches the slots; new timeouts are handed over to it via a
+ * concurrent queue and cancelled timeouts are dropped when their slot is
+ * checked.
+ */
+class TimingWheel {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TimingWheel.class);
+
+	private static final long TICK_MILLIS = 100;
+	private static final int NR_OF_SLOTS = 512;
+
+	private static TimingWheel shared;
+
+	private final long tickNanos;
+	private final int mask;
+	private final long startNanos;
+	private final ArrayDeque<Timeout>[] slots;
+	private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The next tick to check. Only accessed by the ticking thread.
+	 */
+	private long tick = 0;
+
+	/**
+	 * A task that runs when its deadline passes, unless it is cancelled first.
+	 */
+	static class Timeout {
+		private final Runnable task;
+		private final long deadlineNanos;
+		private volatile boolean cancelled = false;
+		private long remainingTurns;
+
+		private Timeout(Runnable aTask, long aDeadlineNanos) {
+			this.task = aTask;
+			this.deadlineNanos = aDeadlineNanos;
+		}
+
+		public void cancel() {
+			this.cancelled = true;
+		}
+
+		public boolean isCancelled() {
+			return this.cancelled;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	TimingWheel(long aTickMillis, int aNrOfSlots) {
+		assert Integer.bitCount(aNrOfSlots) == 1 : "the number of slots should be a power of two";
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(aTickMillis);
+		this.mask = aNrOfSlots - 1;
+		this.startNanos = System.nanoTime();
+		this.slots = new ArrayDeque[aNrOfSlots];
+		for (int i = 0; i < aNrOfSlots; i++)
+			this.slots[i] = new ArrayDeque<>();
+	}
+
+	/**
+	 * @return The timing wheel that is shared by all smart connectors in this
+	 *         runtime. It ticks on the thread pool of the runtime.
+	 */
+	static synchronized TimingWheel shared() {
+		if (shared == null) {
+			shared = new TimingWheel(TICK_MILLIS, NR_OF_SLOTS);
+			final TimingWheel wheel = shared;
+			KeRuntime.executorService().scheduleAtFixedRate(() -> wheel.advanceTo(System.nanoTime()), TICK_MILLIS,
+					TICK_MILLIS, TimeUnit.MILLISECONDS);
+		}
+		return shared;
+	}
+
+	/**
+	 * Run the given task after the given delay, unless the returned
+	 * {@link Timeout} is cancelled before that.
+	 */
+	Timeout schedule(Runnable aTask, long aDelay, TimeUnit aUnit) {
+		var timeout = new Timeout(aTask, System.nanoTime() + aUnit.toNanos(aDelay));
+		this.scheduled.add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Check all ticks up to the given time and run the timeouts whose deadline
+	 * has passed. Should only be called by a single thread at a time.
+	 */
+	void advanceTo(long nowNanos) {
+		long lastTick = (nowNanos - this.startNanos) / this.tickNanos;
+		while (this.tick <= lastTick) {
+			this.transferScheduled();
+			this.expire(this.slots[(int) (this.tick & this.mask)]);
+			this.tick++;
+		}
+	}
+
+	private void transferScheduled() {
+		Timeout timeout;
+		while ((timeout = this.scheduled.poll()) != null) {
+			if (timeout.isCancelled())
+				continue;
+
+			// round up, so a timeout never runs before its deadline.
+			long deadlineTick = Math.max(this.tick,
+					Math.ceilDiv(timeout.deadlineNanos - this.startNanos, this.tickNanos));
+			timeout.remainingTurns = (deadlineTick - this.tick) / this.slots.length;
+			this.slots[(int) (deadlineTick & this.mask)].add(timeout);
+		}
+	}
+
+	private void expire(ArrayDeque<Timeout> slot) {
+		Iterator<Timeout> iter = slot.iterator();
+		while (iter.hasNext()) {
+			Timeout timeout = iter.next();
+			if (timeout.isCancelled()) {
+				iter.remove();
+			} else if (timeout.remainingTurns > 0) {
+				timeout.remainingTurns--;
+			} else {
+				iter.remove();
+				try {
+					timeout.task.run();
+				} catch (Throwable t) {
+					LOG.error("Running a timeout should not result in problems.", t);
+				}
+			}
+		}
+	}
+}
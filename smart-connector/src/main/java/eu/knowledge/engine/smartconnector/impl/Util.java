@@ -1,6 +1,7 @@
 package eu.knowledge.engine.smartconnector.impl;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -24,6 +25,7 @@ import org.slf4j.LoggerFactory;
 import eu.knowledge.engine.reasoner.api.Binding;
 import eu.knowledge.engine.reasoner.api.BindingSet;
 import eu.knowledge.engine.reasoner.api.TriplePattern;
+import eu.knowledge.engine.reasoner.util.NodeCache;
 import eu.knowledge.engine.smartconnector.api.GraphPattern;
 
 public class Util {
@@ -121,13 +123,17 @@ public class Util {
 		eu.knowledge.engine.smartconnector.api.BindingSet newBS = new eu.knowledge.engine.smartconnector.api.BindingSet();
 		eu.knowledge.engine.smartconnector.api.Binding newB;
 
+		// blank nodes are labelled relative to the context, so they are formatted
+		// per binding set instead of via the shared cache.
 		SerializationContext context = new SerializationContext();
 		context.setUsePlainLiterals(false);
 
 		for (Binding b : bs) {
 			newB = new eu.knowledge.engine.smartconnector.api.Binding();
 			for (Map.Entry<Var, Node> entry : b.entrySet()) {
-				newB.put(entry.getKey().getName(), FmtUtils.stringForNode(entry.getValue(), context));
+				Node n = entry.getValue();
+				newB.put(entry.getKey().getName(),
+						n.isBlank() ? FmtUtils.stringForNode(n, context) : NodeCache.formatTyped(n));
 			}
 			newBS.add(newB);
 		}
@@ -145,12 +151,20 @@ public class Util {
 			eu.knowledge.engine.smartconnector.api.BindingSet someBindings) {
 
 		BindingSet newBindingSet = new BindingSet();
+
+		// bindings often repeat the same values, so the nodes come from the shared
+		// cache instead of being parsed every time.
+		Map<String, Var> vars = new HashMap<>();
 		Binding newBinding;
 		for (eu.knowledge.engine.smartconnector.api.Binding b : someBindings) {
 
 			newBinding = new Binding();
 			for (String var : b.getVariables()) {
-				newBinding.put(var, b.get(var));
+				Node n = NodeCache.parse(b.get(var));
+				if (!n.isConcrete())
+					throw new IllegalArgumentException(
+							"Binding values should be concrete nodes (either RDF literals or RDF URIs).");
+				newBinding.put(vars.computeIfAbsent(var, Var::alloc), n);
 			}
 			newBindingSet.add(newBinding);
 		}
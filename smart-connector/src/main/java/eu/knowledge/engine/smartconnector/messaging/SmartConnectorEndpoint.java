@@ -20,4 +20,12 @@ public interface SmartConnectorEndpoint {
 
 	void unsetMessageDispatcher();
 
+	/**
+	 * Whether the given message can be handled on the thread of the sender,
+	 * because the handler it is delivered to never blocks.
+	 */
+	default boolean canHandleInline(KnowledgeMessage message) {
+		return false;
+	}
+
 }
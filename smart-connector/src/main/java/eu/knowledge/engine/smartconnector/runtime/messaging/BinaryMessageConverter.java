@@ -0,0 +1,531 @@
+package eu.knowledge.engine.smartconnector.runtime.messaging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.graph.PrefixMappingZero;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.sparql.util.FmtUtils;
+
+import eu.knowledge.engine.reasoner.api.Binding;
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.smartconnector.messaging.AnswerMessage;
+import eu.knowledge.engine.smartconnector.messaging.AskMessage;
+import eu.knowledge.engine.smartconnector.messaging.ErrorMessage;
+import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
+import eu.knowledge.engine.smartconnector.messaging.PostMessage;
+import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
+
+/**
+ * Translates {@link KnowledgeMessage}s to a compact binary format and back,
+ * which is used between KERs that both support it (see
+ * {@link #CAPABILITY}) instead of the JSON of {@link MessageConverter}.
+ *
+ * The format consists of a magic number, a version and flags, followed by the
+ * (optionally compressed) body. The body contains a table of all strings and a
+ * table of all RDF nodes used in the messages, followed by the messages
+ * themselves. A binding set is encoded as its variables followed by its rows,
+ * where every row refers to a node in the node table for every variable. This
+ * way, every distinct IRI or literal is only encoded and decoded once, and it
+ * does not have to be parsed when decoding.
+ *
+ * The messages are received from other KERs, so the decoder does not trust the
+ * sizes in the format: a body of more than {@link #MAX_BODY_SIZE} bytes
+ * (after decompression) is rejected, and every count must fit in the bytes
+ * that remain.
+ */
+public class BinaryMessageConverter {
+
+	/**
+	 * The capability in the {@code KnowledgeEngineRuntimeDetails} of a KER that
+	 * can receive messages in this format.
+	 */
+	public static final String CAPABILITY = "binary-messages-v1";
+
+	/**
+	 * The media type of messages in this format.
+	 */
+	public static final String MEDIA_TYPE = "application/vnd.knowledge-engine.messages";
+
+	private static final int MAGIC = 0x4B454D53; // "KEMS"
+	private static final int VERSION = 1;
+	private static final int FLAG_DEFLATED = 1;
+
+	/**
+	 * Bodies larger than this number of bytes are compressed.
+	 */
+	private static final int DEFLATE_THRESHOLD = 8 * 1024;
+
+	/**
+	 * The maximum number of bytes of a (decompressed) body that is decoded.
+	 */
+	private static final long MAX_BODY_SIZE = 64L * 1024 * 1024;
+
+	/**
+	 * Arrays are not allocated with more than this initial capacity, so a large
+	 * count only costs memory when the elements are actually read.
+	 */
+	private static final int MAX_INITIAL_CAPACITY = 1024;
+
+	private static final byte ASK = 1;
+	private static final byte ANSWER = 2;
+	private static final byte POST = 3;
+	private static final byte REACT = 4;
+	private static final byte ERROR = 5;
+
+	private static final byte NODE_IRI = 1;
+	private static final byte NODE_BLANK = 2;
+	private static final byte NODE_LANG_LITERAL = 3;
+	private static final byte NODE_TYPED_LITERAL = 4;
+	private static final byte NODE_OTHER = 5;
+
+	public static byte[] toBinary(List<KnowledgeMessage> messages) throws IOException {
+		var encoder = new Encoder();
+		ByteArrayOutputStream messagesBytes = new ByteArrayOutputStream();
+		DataOutputStream messagesOut = new DataOutputStream(messagesBytes);
+		writeVarInt(messagesOut, messages.size());
+		for (KnowledgeMessage message : messages) {
+			encoder.writeMessage(messagesOut, message);
+		}
+		messagesOut.flush();
+
+		ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(messagesBytes.size() + 1024);
+		DataOutputStream bodyOut = new DataOutputStream(bodyBytes);
+		encoder.writeTables(bodyOut);
+		messagesBytes.writeTo(bodyOut);
+		bodyOut.flush();
+
+		ByteArrayOutputStream result = new ByteArrayOutputStream(bodyBytes.size() + 16);
+		DataOutputStream out = new DataOutputStream(result);
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		if (bodyBytes.size() > DEFLATE_THRESHOLD) {
+			out.writeByte(FLAG_DEFLATED);
+			out.flush();
+			try (OutputStream deflated = new DeflaterOutputStream(result)) {
+				bodyBytes.writeTo(deflated);
+			}
+		} else {
+			out.writeByte(0);
+			bodyBytes.writeTo(out);
+			out.flush();
+		}
+		return result.toByteArray();
+	}
+
+	public static List<KnowledgeMessage> fromBinary(byte[] bytes) throws IOException, URISyntaxException {
+		return fromBinary(new ByteArrayInputStream(bytes));
+	}
+
+	/**
+	 * @throws IOException If the stream does not contain valid binary messages,
+	 *                     or if they are too large.
+	 */
+	public static List<KnowledgeMessage> fromBinary(InputStream stream) throws IOException, URISyntaxException {
+		DataInputStream header = new DataInputStream(stream);
+		if (header.readInt() != MAGIC)
+			throw new IOException("Not a binary knowledge engine message.");
+		int version = header.readUnsignedByte();
+		if (version != VERSION)
+			throw new IOException("Unsupported version " + version + " of binary knowledge engine messages.");
+		int flags = header.readUnsignedByte();
+
+		InputStream body = header;
+		if ((flags & FLAG_DEFLATED) != 0)
+			body = new InflaterInputStream(header);
+
+		var bounded = new BoundedInputStream(body, MAX_BODY_SIZE);
+		DataInputStream in = new DataInputStream(bounded);
+		var decoder = new Decoder(bounded);
+		try {
+			decoder.readTables(in);
+			// a message has a type, an id and four strings.
+			int nrOfMessages = decoder.readCount(in, 21);
+			List<KnowledgeMessage> messages = new ArrayList<>(Math.min(nrOfMessages, MAX_INITIAL_CAPACITY));
+			for (int i = 0; i < nrOfMessages; i++) {
+				messages.add(decoder.readMessage(in));
+			}
+			return messages;
+		} catch (RuntimeException e) {
+			// for example a node that cannot be parsed.
+			throw new IOException("Invalid binary knowledge engine message: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Collects the strings and nodes of the messages while writing them, so they
+	 * can be written in front of the messages.
+	 */
+	private static class Encoder {
+		private final Map<String, Integer> strings = new LinkedHashMap<>();
+		private final Map<Node, Integer> nodes = new LinkedHashMap<>();
+
+		private int string(String s) {
+			return this.strings.computeIfAbsent(s, _ -> this.strings.size());
+		}
+
+		/**
+		 * @return the index of the given optional string plus one, or zero if it is
+		 *         {@code null}.
+		 */
+		private int optionalString(String s) {
+			return s == null ? 0 : this.string(s) + 1;
+		}
+
+		private int node(Node n) {
+			Integer index = this.nodes.get(n);
+			if (index == null) {
+				index = this.nodes.size();
+				this.nodes.put(n, index);
+				// make sure the strings of the node are in the string table
+				if (n.isURI()) {
+					this.string(n.getURI());
+				} else if (n.isBlank()) {
+					this.string(n.getBlankNodeLabel());
+				} else if (isLangLiteral(n)) {
+					this.string(n.getLiteralLexicalForm());
+					this.string(n.getLiteralLanguage());
+				} else if (isTypedLiteral(n)) {
+					this.string(n.getLiteralLexicalForm());
+					this.string(n.getLiteralDatatypeURI());
+				} else {
+					this.string(FmtUtils.stringForNode(n, new PrefixMappingZero()));
+				}
+			}
+			return index;
+		}
+
+		private void writeMessage(DataOutputStream out, KnowledgeMessage message) throws IOException {
+			byte type;
+			if (message instanceof AskMessage) {
+				type = ASK;
+			} else if (message instanceof AnswerMessage) {
+				type = ANSWER;
+			} else if (message instanceof PostMessage) {
+				type = POST;
+			} else if (message instanceof ReactMessage) {
+				type = REACT;
+			} else if (message instanceof ErrorMessage) {
+				type = ERROR;
+			} else {
+				throw new IllegalArgumentException("Unknown message type " + message.getClass().getSimpleName());
+			}
+
+			out.writeByte(type);
+			writeUuid(out, message.getMessageId());
+			writeVarInt(out, this.string(message.getFromKnowledgeBase().toString()));
+			writeVarInt(out, this.string(message.getFromKnowledgeInteraction().toString()));
+			writeVarInt(out, this.string(message.getToKnowledgeBase().toString()));
+			writeVarInt(out, this.string(message.getToKnowledgeInteraction().toString()));
+
+			switch (type) {
+			case ASK:
+				this.writeBindingSet(out, ((AskMessage) message).getBindings());
+				break;
+			case ANSWER:
+				writeUuid(out, ((AnswerMessage) message).getReplyToAskMessage());
+				writeVarInt(out, this.optionalString(message.getFailedMessage()));
+				this.writeBindingSet(out, ((AnswerMessage) message).getBindings());
+				break;
+			case POST:
+				this.writeBindingSet(out, ((PostMessage) message).getArgument());
+				break;
+			case REACT:
+				writeUuid(out, ((ReactMessage) message).getReplyToPostMessage());
+				writeVarInt(out, this.optionalString(message.getFailedMessage()));
+				this.writeBindingSet(out, ((ReactMessage) message).getResult());
+				break;
+			case ERROR:
+				writeUuid(out, ((ErrorMessage) message).getReplyToMessage());
+				writeVarInt(out, this.optionalString(((ErrorMessage) message).getErrorMessage()));
+				break;
+			}
+		}
+
+		private void writeBindingSet(DataOutputStream out, BindingSet bindingSet) throws IOException {
+			Set<Var> vars = new LinkedHashSet<>();
+			for (Binding b : bindingSet) {
+				vars.addAll(b.keySet());
+			}
+
+			writeVarInt(out, vars.size());
+			for (Var v : vars) {
+				writeVarInt(out, this.string(v.getName()));
+			}
+
+			writeVarInt(out, bindingSet.size());
+			for (Binding b : bindingSet) {
+				for (Var v : vars) {
+					Node n = b.get(v);
+					writeVarInt(out, n == null ? 0 : this.node(n) + 1);
+				}
+			}
+		}
+
+		private void writeTables(DataOutputStream out) throws IOException {
+			writeVarInt(out, this.strings.size());
+			for (String s : this.strings.keySet()) {
+				byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+				writeVarInt(out, bytes.length);
+				out.write(bytes);
+			}
+
+			writeVarInt(out, this.nodes.size());
+			for (Node n : this.nodes.keySet()) {
+				if (n.isURI()) {
+					out.writeByte(NODE_IRI);
+					writeVarInt(out, this.strings.get(n.getURI()));
+				} else if (n.isBlank()) {
+					out.writeByte(NODE_BLANK);
+					writeVarInt(out, this.strings.get(n.getBlankNodeLabel()));
+				} else if (isLangLiteral(n)) {
+					out.writeByte(NODE_LANG_LITERAL);
+					writeVarInt(out, this.strings.get(n.getLiteralLexicalForm()));
+					writeVarInt(out, this.strings.get(n.getLiteralLanguage()));
+				} else if (isTypedLiteral(n)) {
+					out.writeByte(NODE_TYPED_LITERAL);
+					writeVarInt(out, this.strings.get(n.getLiteralLexicalForm()));
+					writeVarInt(out, this.strings.get(n.getLiteralDatatypeURI()));
+				} else {
+					out.writeByte(NODE_OTHER);
+					writeVarInt(out, this.strings.get(FmtUtils.stringForNode(n, new PrefixMappingZero())));
+				}
+			}
+		}
+	}
+
+	private static class Decoder {
+		private final BoundedInputStream stream;
+		private String[] strings;
+		private Node[] nodes;
+
+		private Decoder(BoundedInputStream aStream) {
+			this.stream = aStream;
+		}
+
+		/**
+		 * Read the number of elements that follow, each of which takes at least the
+		 * given number of bytes.
+		 */
+		private int readCount(DataInputStream in, int minBytesPerElement) throws IOException {
+			int count = readVarInt(in);
+			if (count < 0 || (long) count * minBytesPerElement > this.stream.remaining())
+				throw new IOException("Invalid count " + count + ".");
+			return count;
+		}
+
+		private String string(int index) throws IOException {
+			if (index < 0 || index >= this.strings.length)
+				throw new IOException("Invalid string index " + index + ".");
+			return this.strings[index];
+		}
+
+		private String optionalString(int index) throws IOException {
+			return index == 0 ? null : this.string(index - 1);
+		}
+
+		private void readTables(DataInputStream in) throws IOException {
+			// a string has a length.
+			int nrOfStrings = this.readCount(in, 1);
+			List<String> strings = new ArrayList<>(Math.min(nrOfStrings, MAX_INITIAL_CAPACITY));
+			for (int i = 0; i < nrOfStrings; i++) {
+				int length = this.readCount(in, 1);
+				// unlike a new array of the given length, this only grows as bytes arrive.
+				byte[] bytes = in.readNBytes(length);
+				if (bytes.length != length)
+					throw new EOFException();
+				strings.add(new String(bytes, StandardCharsets.UTF_8));
+			}
+			this.strings = strings.toArray(String[]::new);
+
+			// a node has a kind and a string.
+			int nrOfNodes = this.readCount(in, 2);
+			List<Node> nodes = new ArrayList<>(Math.min(nrOfNodes, MAX_INITIAL_CAPACITY));
+			TypeMapper typeMapper = TypeMapper.getInstance();
+			for (int i = 0; i < nrOfNodes; i++) {
+				byte kind = in.readByte();
+				nodes.add(switch (kind) {
+				case NODE_IRI -> NodeFactory.createURI(this.string(readVarInt(in)));
+				case NODE_BLANK -> NodeFactory.createBlankNode(this.string(readVarInt(in)));
+				case NODE_LANG_LITERAL ->
+					NodeFactory.createLiteralLang(this.string(readVarInt(in)), this.string(readVarInt(in)));
+				case NODE_TYPED_LITERAL -> NodeFactory.createLiteralDT(this.string(readVarInt(in)),
+						typeMapper.getSafeTypeByName(this.string(readVarInt(in))));
+				case NODE_OTHER -> SSE.parseNode(this.string(readVarInt(in)));
+				default -> throw new IOException("Invalid node kind " + kind + ".");
+				});
+			}
+			this.nodes = nodes.toArray(Node[]::new);
+		}
+
+		private KnowledgeMessage readMessage(DataInputStream in) throws IOException, URISyntaxException {
+			byte type = in.readByte();
+			UUID messageId = readUuid(in);
+			URI fromKnowledgeBase = new URI(this.string(readVarInt(in)));
+			URI fromKnowledgeInteraction = new URI(this.string(readVarInt(in)));
+			URI toKnowledgeBase = new URI(this.string(readVarInt(in)));
+			URI toKnowledgeInteraction = new URI(this.string(readVarInt(in)));
+
+			switch (type) {
+			case ASK:
+				return new AskMessage(messageId, fromKnowledgeBase, fromKnowledgeInteraction, toKnowledgeBase,
+						toKnowledgeInteraction, this.readBindingSet(in));
+			case ANSWER: {
+				UUID replyTo = readUuid(in);
+				String failedMessage = this.optionalString(readVarInt(in));
+				return new AnswerMessage(messageId, fromKnowledgeBase, fromKnowledgeInteraction, toKnowledgeBase,
+						toKnowledgeInteraction, replyTo, this.readBindingSet(in), failedMessage);
+			}
+			case POST:
+				return new PostMessage(messageId, fromKnowledgeBase, fromKnowledgeInteraction, toKnowledgeBase,
+						toKnowledgeInteraction, this.readBindingSet(in));
+			case REACT: {
+				UUID replyTo = readUuid(in);
+				String failedMessage = this.optionalString(readVarInt(in));
+				return new ReactMessage(messageId, fromKnowledgeBase, fromKnowledgeInteraction, toKnowledgeBase,
+						toKnowledgeInteraction, replyTo, this.readBindingSet(in), failedMessage);
+			}
+			case ERROR: {
+				UUID replyTo = readUuid(in);
+				String errorMessage = this.optionalString(readVarInt(in));
+				return new ErrorMessage(messageId, fromKnowledgeBase, fromKnowledgeInteraction, toKnowledgeBase,
+						toKnowledgeInteraction, replyTo, errorMessage);
+			}
+			default:
+				throw new IOException("Invalid message type " + type + ".");
+			}
+		}
+
+		private BindingSet readBindingSet(DataInputStream in) throws IOException {
+			// a variable has a string.
+			int nrOfVars = this.readCount(in, 1);
+			List<Var> varList = new ArrayList<>(Math.min(nrOfVars, MAX_INITIAL_CAPACITY));
+			for (int i = 0; i < nrOfVars; i++) {
+				varList.add(Var.alloc(this.string(readVarInt(in))));
+			}
+			Var[] vars = varList.toArray(Var[]::new);
+
+			// a binding has a node index for every variable, and without variables
+			// there is at most one (empty) binding.
+			int nrOfBindings = this.readCount(in, vars.length);
+			if (vars.length == 0 && nrOfBindings > 1)
+				throw new IOException("Invalid number of empty bindings " + nrOfBindings + ".");
+			BindingSet bindingSet = new BindingSet();
+			for (int i = 0; i < nrOfBindings; i++) {
+				Binding b = new Binding();
+				for (Var v : vars) {
+					int index = readVarInt(in);
+					if (index != 0) {
+						if (index < 0 || index > this.nodes.length)
+							throw new IOException("Invalid node index " + (index - 1) + ".");
+						b.put(v, this.nodes[index - 1]);
+					}
+				}
+				bindingSet.add(b);
+			}
+			return bindingSet;
+		}
+	}
+
+	/**
+	 * Reads at most a maximum number of bytes from another stream, so the
+	 * decoder knows how many bytes can remain.
+	 */
+	private static class BoundedInputStream extends FilterInputStream {
+		private long remaining;
+
+		private BoundedInputStream(InputStream in, long aMaxSize) {
+			super(in);
+			this.remaining = aMaxSize;
+		}
+
+		private long remaining() {
+			return this.remaining;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1)
+				this.consumed(1);
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, (int) Math.min(len, this.remaining + 1));
+			if (n > 0)
+				this.consumed(n);
+			return n;
+		}
+
+		private void consumed(int n) throws IOException {
+			this.remaining -= n;
+			if (this.remaining < 0)
+				throw new IOException("The binary messages are larger than " + MAX_BODY_SIZE + " bytes.");
+		}
+	}
+
+	private static boolean isLangLiteral(Node n) {
+		return n.isLiteral() && !n.getLiteralLanguage().isEmpty() && n.getLiteralTextDirection() == null;
+	}
+
+	private static boolean isTypedLiteral(Node n) {
+		return n.isLiteral() && n.getLiteralLanguage().isEmpty();
+	}
+
+	private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+		out.writeLong(uuid.getMostSignificantBits());
+		out.writeLong(uuid.getLeastSignificantBits());
+	}
+
+	private static UUID readUuid(DataInputStream in) throws IOException {
+		return new UUID(in.readLong(), in.readLong());
+	}
+
+	/**
+	 * Write a non-negative integer in as few bytes as possible, 7 bits per byte.
+	 */
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Invalid variable length integer.");
+	}
+}
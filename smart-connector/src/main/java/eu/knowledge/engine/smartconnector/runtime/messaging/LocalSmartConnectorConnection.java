@@ -36,27 +36,39 @@ public class LocalSmartConnectorConnection implements MessageDispatcherEndpoint
 		return this.endpoint.getKnowledgeBaseId();
 	}
 
+	/**
+	 * Deliver a message to the local Smart Connector. The message object itself is
+	 * handed over, so it is not copied or translated. Messages for a handler that
+	 * never blocks are handled on the current thread, all others on a thread of
+	 * the runtime.
+	 */
 	public void deliverToLocalSmartConnector(KnowledgeMessage message) throws IOException {
 		assert message.getToKnowledgeBase().equals(this.endpoint.getKnowledgeBaseId()) : "";
-		KeRuntime.executorService().execute(() -> {
-			try {
-				if (message instanceof AnswerMessage) {
-					endpoint.handleAnswerMessage((AnswerMessage) message);
-				} else if (message instanceof AskMessage) {
-					endpoint.handleAskMessage((AskMessage) message);
-				} else if (message instanceof PostMessage) {
-					endpoint.handlePostMessage((PostMessage) message);
-				} else if (message instanceof ReactMessage) {
-					endpoint.handleReactMessage((ReactMessage) message);
-				} else if (message instanceof ErrorMessage) {
-					endpoint.handleErrorMessage((ErrorMessage) message);
-				} else {
-					assert false;
-				}
-			} catch (Throwable t) {
-				LOG.error("Error occured while processing message by Smart Connector.", t);
+		if (this.endpoint.canHandleInline(message)) {
+			this.deliver(message);
+		} else {
+			KeRuntime.executorService().execute(() -> this.deliver(message));
+		}
+	}
+
+	private void deliver(KnowledgeMessage message) {
+		try {
+			if (message instanceof AnswerMessage) {
+				endpoint.handleAnswerMessage((AnswerMessage) message);
+			} else if (message instanceof AskMessage) {
+				endpoint.handleAskMessage((AskMessage) message);
+			} else if (message instanceof PostMessage) {
+				endpoint.handlePostMessage((PostMessage) message);
+			} else if (message instanceof ReactMessage) {
+				endpoint.handleReactMessage((ReactMessage) message);
+			} else if (message instanceof ErrorMessage) {
+				endpoint.handleErrorMessage((ErrorMessage) message);
+			} else {
+				assert false;
 			}
-		});
+		} catch (Throwable t) {
+			LOG.error("Error occured while processing message by Smart Connector.", t);
+		}
 	}
 
 	public void start() {
@@ -9,13 +9,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
 
-import org.apache.jena.shared.PrefixMapping;
 import org.apache.jena.sparql.core.Var;
-import org.apache.jena.sparql.graph.PrefixMappingZero;
-import org.apache.jena.sparql.util.FmtUtils;
 
 import eu.knowledge.engine.reasoner.api.Binding;
 import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.reasoner.util.NodeCache;
 import eu.knowledge.engine.smartconnector.messaging.AnswerMessage;
 import eu.knowledge.engine.smartconnector.messaging.AskMessage;
 import eu.knowledge.engine.smartconnector.messaging.ErrorMessage;
@@ -176,11 +174,10 @@ public class MessageConverter {
 
 	private static List<Map<String, String>> toJson(BindingSet bindingSet) {
 		var result = new ArrayList<Map<String, String>>();
-		PrefixMapping prefixMap = new PrefixMappingZero();
 		for (Binding binding : bindingSet) {
 			HashMap<String, String> map = new HashMap<String, String>();
 			for (Var key : binding.keySet()) {
-				map.put(key.getName(), FmtUtils.stringForNode(binding.get(key), prefixMap));
+				map.put(key.getName(), NodeCache.format(binding.get(key)));
 			}
 			result.add(map);
 		}
@@ -12,13 +12,18 @@ import java.util.stream.Collectors;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.glassfish.jersey.servlet.ServletContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import eu.knowledge.engine.smartconnector.api.SmartConnector;
+import eu.knowledge.engine.smartconnector.api.SmartConnectorConfig;
 import eu.knowledge.engine.smartconnector.edc.ParticipantProperties;
+import eu.knowledge.engine.smartconnector.messaging.AskMessage;
+import eu.knowledge.engine.smartconnector.messaging.ErrorMessage;
 import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
+import eu.knowledge.engine.smartconnector.messaging.PostMessage;
 import eu.knowledge.engine.smartconnector.runtime.KeRuntime;
 import eu.knowledge.engine.smartconnector.runtime.KnowledgeDirectoryProxy;
 import eu.knowledge.engine.smartconnector.runtime.KnowledgeDirectoryProxyListener;
@@ -277,6 +282,8 @@ public class MessageDispatcher implements KnowledgeDirectoryProxy {
 		kers.setRuntimeId(getKnowledgeDirectoryConnectionManager().getMyKnowledgeDirectoryId());
 		kers.setSmartConnectorIds(localSmartConnectorConnectionsManager.getLocalSmartConnectorIds().stream()
 				.map(URI::toString).collect(Collectors.toList()));
+		if (ConfigProvider.getConfig().getValue(SmartConnectorConfig.CONF_KEY_KE_HTTP_BINARY_MESSAGES, Boolean.class))
+			kers.setCapabilities(List.of(BinaryMessageConverter.CAPABILITY));
 		return kers;
 	}
 
@@ -340,6 +347,35 @@ public class MessageDispatcher implements KnowledgeDirectoryProxy {
 		undeliverableMail.removeAll(toBeRemoved);
 	}
 
+	/**
+	 * Called by a {@link RemoteKerConnection} when a message could not be sent to
+	 * the remote KER after it was accepted. The local smart connector that sent an
+	 * {@link AskMessage} or {@link PostMessage} receives an {@link ErrorMessage},
+	 * so it does not have to wait for a reply that never comes. Other messages are
+	 * replies, whose failure is only logged.
+	 *
+	 * @param message The message that could not be sent.
+	 * @param reason  Why the message could not be sent.
+	 */
+	void notifySendFailed(KnowledgeMessage message, String reason) {
+		if (message instanceof AskMessage || message instanceof PostMessage) {
+			var errorMessage = new ErrorMessage(message.getToKnowledgeBase(), message.getToKnowledgeInteraction(),
+					message.getFromKnowledgeBase(), message.getFromKnowledgeInteraction(), message.getMessageId(),
+					reason);
+			LocalSmartConnectorConnection localSender = localSmartConnectorConnectionsManager
+					.getLocalSmartConnectorConnection(message.getFromKnowledgeBase());
+			if (localSender != null) {
+				try {
+					localSender.deliverToLocalSmartConnector(errorMessage);
+					return;
+				} catch (IOException e) {
+					LOG.debug("", e);
+				}
+			}
+		}
+		LOG.warn("Could not send message {} to {}: {}", message.getMessageId(), message.getToKnowledgeBase(), reason);
+	}
+
 	void notifySmartConnectorsChanged() {
 		LOG.info("Notifying " + knowledgeDirectoryProxyListeners.size() + " listeners about the "
 				+ getKnowledgeBaseIds().size() + " knowledge bases in the KE");
@@ -3,6 +3,7 @@ package eu.knowledge.engine.smartconnector.runtime.messaging;
 import static eu.knowledge.engine.smartconnector.runtime.messaging.Utils.stripUserInfoFromURI;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.Authenticator;
 import java.net.PasswordAuthentication;
 import java.net.URI;
@@ -17,7 +18,17 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.slf4j.Logger;
@@ -35,7 +46,9 @@ import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
 import eu.knowledge.engine.smartconnector.messaging.PostMessage;
 import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
 import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.api.RFC3339DateFormat;
+import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.FailedMessage;
 import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.KnowledgeEngineRuntimeDetails;
+import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.MessageBatchResult;
 import eu.knowledge.engine.smartconnector.runtime.messaging.kd.model.KnowledgeEngineRuntimeConnectionDetails;
 import eu.knowledge.engine.smartconnector.edc.TransferProcess;
 
@@ -43,6 +56,14 @@ import eu.knowledge.engine.smartconnector.edc.TransferProcess;
  * This class is responsible for sending messages to a single remote Knowledge
  * Engine Runtime (KER) and keeping the {@link KnowledgeEngineRuntimeDetails}
  * up-to-date (both ways).
+ * 
+ * Messages are sent asynchronously, so a slow remote KER does not block the
+ * thread of the sender. They are queued in a bounded outbound queue and at most
+ * {@link SmartConnectorConfig#CONF_KEY_KE_HTTP_MAX_CONCURRENT_REQUESTS}
+ * requests are sent at the same time, over HTTP/2 if the remote KER supports
+ * it. Messages that queue up while these requests are in flight are sent
+ * together in a single request to the batch endpoint of the remote KER, except
+ * via EDC.
  */
 public class RemoteKerConnection {
 
@@ -56,10 +77,54 @@ public class RemoteKerConnection {
 	private final HttpClient httpClient;
 	private final ObjectMapper objectMapper;
 
-	private LocalDateTime tryAgainAfter = null;
+	private volatile LocalDateTime tryAgainAfter = null;
 	private int errorCounter = 0;
 	private LocalDateTime logStillIgnoringAfter = null;
 
+	/**
+	 * The messages that wait to be sent to the remote KER.
+	 */
+	private final Queue<KnowledgeMessage> outboundMessages;
+
+	/**
+	 * The number of requests that are currently being sent to the remote KER.
+	 */
+	private final AtomicInteger requestsInFlight = new AtomicInteger(0);
+	private final int maxRequestsInFlight;
+
+	/**
+	 * The maximum number of messages sent in a single request.
+	 */
+	private final int maxBatchSize;
+
+	/**
+	 * The number of minutes after which an endpoint that the remote KER did not
+	 * accept is tried again, because the remote KER might have been upgraded.
+	 */
+	private static final int RETRY_UNSUPPORTED_ENDPOINT_MINUTES = 10;
+
+	/**
+	 * Until when the batch endpoint is not used, because the remote KER did not
+	 * accept it. Remote KERs of older versions do not support batches of messages.
+	 * Batches are never sent via the data plane of EDC, because its endpoints are
+	 * not (yet) known to support them.
+	 */
+	private volatile LocalDateTime batchesUnsupportedUntil = null;
+
+	/**
+	 * Whether messages to the remote KER are sent in the binary format of
+	 * {@link BinaryMessageConverter}. Only if this KER is configured to do so and
+	 * the remote KER advertises that it supports it.
+	 */
+	private final boolean binaryMessagesEnabled;
+	private volatile boolean binarySupported = false;
+
+	/**
+	 * Until when the binary endpoint is not used, because the remote KER did not
+	 * accept it although it advertises the capability.
+	 */
+	private volatile LocalDateTime binaryUnsupportedUntil = null;
+
 	private TransferProcess transferProcess;
 
 	/**
@@ -97,7 +162,18 @@ public class RemoteKerConnection {
 
 		int httpTimeout = getHttpTimeout();
 
-		this.httpClient = builder.connectTimeout(Duration.ofSeconds(httpTimeout)).build();
+		// HTTP/2 allows the concurrent messages to share a single connection.
+		this.httpClient = builder.version(HttpClient.Version.HTTP_2).connectTimeout(Duration.ofSeconds(httpTimeout))
+				.build();
+
+		this.outboundMessages = new ArrayBlockingQueue<>(ConfigProvider.getConfig()
+				.getValue(SmartConnectorConfig.CONF_KEY_KE_HTTP_OUTBOUND_QUEUE_SIZE, Integer.class));
+		this.maxRequestsInFlight = ConfigProvider.getConfig()
+				.getValue(SmartConnectorConfig.CONF_KEY_KE_HTTP_MAX_CONCURRENT_REQUESTS, Integer.class);
+		this.maxBatchSize = Math.max(1,
+				ConfigProvider.getConfig().getValue(SmartConnectorConfig.CONF_KEY_KE_HTTP_BATCH_SIZE, Integer.class));
+		this.binaryMessagesEnabled = ConfigProvider.getConfig()
+				.getValue(SmartConnectorConfig.CONF_KEY_KE_HTTP_BINARY_MESSAGES, Boolean.class);
 
 		objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
 				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).findAndRegisterModules()
@@ -112,13 +188,13 @@ public class RemoteKerConnection {
 		return this.remoteKerUri;
 	}
 
-	private void noError() {
+	private synchronized void noError() {
 		this.errorCounter = 0;
 		this.tryAgainAfter = null;
 		this.logStillIgnoringAfter = null;
 	}
 
-	private int errorOccurred() {
+	private synchronized int errorOccurred() {
 		this.errorCounter++;
 		int waitTime = getWaitTime(this.errorCounter);
 		this.tryAgainAfter = LocalDateTime.now().plusMinutes(waitTime);
@@ -145,6 +221,7 @@ public class RemoteKerConnection {
 						+ runtimeDetails.getSmartConnectorIds());
 				// TODO validate
 				this.remoteKerDetails = runtimeDetails;
+				this.updateSupportedEndpoints(runtimeDetails);
 				noError();
 			} else {
 				this.remoteKerDetails = null;
@@ -229,9 +306,37 @@ public class RemoteKerConnection {
 	public void updateKerDetails(KnowledgeEngineRuntimeDetails kerDetails) {
 		// TODO implement checks?
 		this.remoteKerDetails = kerDetails;
+		this.updateSupportedEndpoints(kerDetails);
 		dispatcher.notifySmartConnectorsChanged();
 	}
 
+	private void updateSupportedEndpoints(KnowledgeEngineRuntimeDetails kerDetails) {
+		// the binary format is not (yet) used via the data plane of EDC
+		boolean supported = this.binaryMessagesEnabled && !this.isEdcConnection() && kerDetails != null
+				&& kerDetails.getCapabilities() != null
+				&& kerDetails.getCapabilities().contains(BinaryMessageConverter.CAPABILITY);
+		if (supported != this.binarySupported)
+			LOG.debug("Sending messages to KER {} in {} format.", this.remoteKerUri, supported ? "binary" : "JSON");
+		this.binarySupported = supported;
+
+		// the details of the remote KER changed, for example because it restarted
+		// with a newer version, so try the endpoints that it did not accept again.
+		this.binaryUnsupportedUntil = null;
+		this.batchesUnsupportedUntil = null;
+	}
+
+	private boolean useBinary() {
+		return this.binarySupported && isPast(this.binaryUnsupportedUntil);
+	}
+
+	private boolean useBatches() {
+		return !this.isEdcConnection() && isPast(this.batchesUnsupportedUntil);
+	}
+
+	private static boolean isPast(LocalDateTime aTime) {
+		return aTime == null || LocalDateTime.now().isAfter(aTime);
+	}
+
 	public void start() {
 		this.updateRemoteKerDataFromPeer();
 	}
@@ -264,6 +369,8 @@ public class RemoteKerConnection {
 		} else
 			logStillIgnoring();
 
+		this.failOutboundMessages("The connection to KER " + this.remoteKerUri + " is stopped.");
+
 		// if someone calls this stop method, all smart connectors should be removed
 		// from the other knowledge base store. We do this by removing the ker details
 		// and calling this method.
@@ -274,13 +381,22 @@ public class RemoteKerConnection {
 	/**
 	 * To prevent many "Still ignoring" messages, we only log them once a minute.
 	 */
-	private void logStillIgnoring() {
+	private synchronized void logStillIgnoring() {
 		if (logStillIgnoringAfter == null || logStillIgnoringAfter.isBefore(LocalDateTime.now())) {
 			LOG.warn("Still ignoring KER {}.", this.remoteKerUri);
 			logStillIgnoringAfter = LocalDateTime.now().plusMinutes(1);
 		}
 	}
 
+	/**
+	 * Queue the given message to be sent to the remote KER. This method does not
+	 * wait for the message to be sent. If sending it fails later on, the
+	 * {@link MessageDispatcher} is notified (see
+	 * {@link MessageDispatcher#notifySendFailed(KnowledgeMessage, String)}).
+	 * 
+	 * @throws IOException If the remote KER is currently unavailable or too many
+	 *                     messages are waiting to be sent to it.
+	 */
 	public void sendToRemoteSmartConnector(KnowledgeMessage message) throws IOException {
 		assert (getRemoteKerDetails() == null ? true
 				: getRemoteKerDetails().getSmartConnectorIds().contains(message.getToKnowledgeBase().toString()));
@@ -290,38 +406,243 @@ public class RemoteKerConnection {
 			throw new IOException("KER " + this.remoteKerUri + " is currently unavailable. Trying again later.");
 		}
 
+		if (!this.outboundMessages.offer(message)) {
+			throw new IOException("Too many messages are waiting to be sent to KER " + this.remoteKerUri + ".");
+		}
+		this.sendOutboundMessages();
+	}
+
+	/**
+	 * Start sending the queued messages, for as long as fewer than the maximum
+	 * number of requests are in flight. All messages that are queued at that
+	 * moment (up to the maximum batch size) are sent in a single request.
+	 */
+	private void sendOutboundMessages() {
+		while (!this.outboundMessages.isEmpty()) {
+			int inFlight = this.requestsInFlight.get();
+			if (inFlight >= this.maxRequestsInFlight)
+				return;
+			if (!this.requestsInFlight.compareAndSet(inFlight, inFlight + 1))
+				continue;
+
+			List<KnowledgeMessage> messages = new ArrayList<>();
+			KnowledgeMessage message;
+			while (messages.size() < this.maxBatchSize && (message = this.outboundMessages.poll()) != null) {
+				messages.add(message);
+			}
+
+			if (messages.isEmpty()) {
+				// another thread took them in the meantime
+				this.requestsInFlight.decrementAndGet();
+				continue;
+			}
+
+			CompletableFuture<Void> sent = this.sendAsync(messages);
+			if (sent.isDone()) {
+				this.requestsInFlight.decrementAndGet();
+			} else {
+				sent.whenComplete((_, _) -> {
+					this.requestsInFlight.decrementAndGet();
+					this.sendOutboundMessages();
+				});
+			}
+		}
+	}
+
+	private CompletableFuture<Void> sendAsync(List<KnowledgeMessage> messages) {
+		if (!this.isAvailable()) {
+			messages.forEach(m -> this.sendFailed(m, "KER " + this.remoteKerUri + " is currently unavailable."));
+			return CompletableFuture.completedFuture(null);
+		}
+
+		if (this.useBinary()) {
+			byte[] body;
+			try {
+				body = BinaryMessageConverter.toBinary(messages);
+			} catch (IOException | IllegalArgumentException e) {
+				this.sendErrorOccurred(messages, e);
+				return CompletableFuture.completedFuture(null);
+			}
+			return this.sendAsync("/messaging/binary", BinaryMessageConverter.MEDIA_TYPE,
+					BodyPublishers.ofByteArray(body), messages, true).thenCompose(binaryReceived -> {
+						if (binaryReceived)
+							return CompletableFuture.completedFuture(null);
+
+						LOG.info("KER {} does not support binary messages, sending them as JSON for {} minutes.",
+								this.remoteKerUri, RETRY_UNSUPPORTED_ENDPOINT_MINUTES);
+						this.binaryUnsupportedUntil = LocalDateTime.now()
+								.plusMinutes(RETRY_UNSUPPORTED_ENDPOINT_MINUTES);
+						return this.sendAsync(messages);
+					});
+		} else if (!this.useBatches()) {
+			return CompletableFuture.allOf(messages.stream()
+					.map(m -> this.sendAsync(getPathForMessageType(m), List.of(m)))
+					.toArray(CompletableFuture[]::new));
+		} else {
+			// also a single message is sent to the batch endpoint, because the remote
+			// KER reads that endpoint as a stream instead of as one large object.
+			return this.sendAsync("/messaging/batch", messages)
+					.thenCompose(batchReceived -> {
+						if (batchReceived)
+							return CompletableFuture.completedFuture(null);
+
+						// the remote KER does not know the batch endpoint, so send them one by one.
+						LOG.info("KER {} does not support batches of messages, sending them one by one for {} minutes.",
+								this.remoteKerUri, RETRY_UNSUPPORTED_ENDPOINT_MINUTES);
+						this.batchesUnsupportedUntil = LocalDateTime.now()
+								.plusMinutes(RETRY_UNSUPPORTED_ENDPOINT_MINUTES);
+						return this.sendAsync(messages);
+					});
+		}
+	}
+
+	/**
+	 * Send the given messages as JSON to the given path of the remote KER. They
+	 * are sent in the format of the batch endpoint if that is the given path,
+	 * otherwise the single message is sent in the format of its own endpoint.
+	 * 
+	 * @param path     The path of the messaging endpoint.
+	 * @param messages The messages that are sent.
+	 * @return A future that completes when the request is finished. It completes
+	 *         with {@code false} if the remote KER does not know the given path,
+	 *         otherwise with {@code true}, also if sending failed.
+	 */
+	private CompletableFuture<Boolean> sendAsync(String path, List<KnowledgeMessage> messages) {
+		// the JSON is written in chunks, so a large binding set is neither
+		// converted to a String nor copied into a single large array.
+		boolean batch = path.equals("/messaging/batch");
+		var body = new ChunkedOutputStream();
 		try {
-			String jsonMessage = objectMapper.writeValueAsString(MessageConverter.toJson(message));
-			
-			HttpRequest.Builder requestBuilder = HttpRequest
-					.newBuilder(new URI(this.remoteKerUri + getPathForMessageType(message)))
-					.headers("Content-Type", "application/json");
+			if (batch)
+				StreamingMessageConverter.toJson(messages, body);
+			else
+				StreamingMessageConverter.toJson(messages.get(0), body);
+		} catch (IOException | IllegalArgumentException e) {
+			this.sendErrorOccurred(messages, e);
+			return CompletableFuture.completedFuture(true);
+		}
+		return this.sendAsync(path, "application/json", BodyPublishers.ofByteArrays(body.getChunks()), messages,
+				batch);
+	}
+
+	/**
+	 * Send the given body to the given path of the remote KER.
+	 * 
+	 * @param path             The path of the messaging endpoint.
+	 * @param contentType      The media type of the body.
+	 * @param body             The encoded messages.
+	 * @param messages         The messages that are sent.
+	 * @param optionalEndpoint Whether the remote KER might not know the given
+	 *                         path, because it is of an older version.
+	 * @return A future that completes when the request is finished. It completes
+	 *         with {@code false} if the path is an optional endpoint that the
+	 *         remote KER does not know (404) or whose body it does not accept
+	 *         (415), otherwise with {@code true}, also if sending failed.
+	 */
+	private CompletableFuture<Boolean> sendAsync(String path, String contentType, HttpRequest.BodyPublisher body,
+			List<KnowledgeMessage> messages, boolean optionalEndpoint) {
+		HttpRequest request;
+		try {
+			HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(new URI(this.remoteKerUri + path))
+					.headers("Content-Type", contentType).timeout(Duration.ofSeconds(getHttpTimeout()));
 			if (this.isEdcConnection())
 				requestBuilder = requestBuilder.setHeader("Authorization", this.transferProcess.authToken());
-			
-			HttpRequest request = requestBuilder.POST(BodyPublishers.ofString(jsonMessage)).build();
-			HttpResponse<String> response = this.httpClient.send(request, BodyHandlers.ofString());
-			// NOTE: 200 when using EDC, 202 otherwise
-			if (response.statusCode() == 200 || response.statusCode() == 202)  {
+
+			request = requestBuilder.POST(body).build();
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			this.sendErrorOccurred(messages, e);
+			return CompletableFuture.completedFuture(true);
+		}
+
+		return this.httpClient.sendAsync(request, BodyHandlers.ofString()).handle((response, t) -> {
+			if (t != null) {
+				this.sendErrorOccurred(messages, t instanceof CompletionException ? t.getCause() : t);
+			} else if (response.statusCode() == 200 || response.statusCode() == 202) {
+				// NOTE: 200 when using EDC, 202 otherwise
+				this.noError();
+				LOG.trace("Successfully sent {} message(s) to {}", messages.size(), this.remoteKerUri);
+				this.failUndeliveredMessages(messages, response.body());
+			} else if ((response.statusCode() == 404 || response.statusCode() == 415) && optionalEndpoint) {
+				return false;
+			} else if (response.statusCode() == 400) {
+				// the remote KER is fine, it just did not accept these messages.
 				this.noError();
-				LOG.trace("Successfully sent message {} to {}", message.getMessageId(), this.remoteKerUri);
+				messages.forEach(m -> this.sendFailed(m,
+						"Message not accepted by remote host, status code 400, body " + response.body()));
 			} else {
 				this.remoteKerDetails = null;
 				int time = this.errorOccurred();
-				LOG.warn("Ignoring KER {} for {} minutes. Failed to send message {} to {}, got response {}: {}",
-						this.remoteKerUri, time, message.getMessageId(), this.remoteKerUri, response.statusCode(),
+				LOG.warn("Ignoring KER {} for {} minutes. Failed to send {} message(s) to {}, got response {}: {}",
+						this.remoteKerUri, time, messages.size(), this.remoteKerUri, response.statusCode(),
 						response.body());
 				this.dispatcher.notifySmartConnectorsChanged();
-				throw new IOException("Message not accepted by remote host, status code " + response.statusCode()
-						+ ", body " + response.body());
+				messages.forEach(m -> this.sendFailed(m, "Message not accepted by remote host, status code "
+						+ response.statusCode() + ", body " + response.body()));
 			}
-		} catch (URISyntaxException | InterruptedException | IOException | IllegalArgumentException e) {
-			this.remoteKerDetails = null;
-			int time = this.errorOccurred();
-			LOG.warn("Ignoring KER {} for {} minutes. Error '{}' occurred.", this.remoteKerUri, time,
+			return true;
+		});
+	}
+
+	/**
+	 * A remote KER that received a batch of messages lists the messages that it
+	 * could not deliver in the body of its response. Only these messages failed,
+	 * the others were delivered. If the remote KER could not read the batch
+	 * completely, it also lists the messages that it delivered, and the messages
+	 * that are not listed at all failed.
+	 */
+	private void failUndeliveredMessages(List<KnowledgeMessage> messages, String body) {
+		if (body == null || body.isBlank())
+			return;
+
+		MessageBatchResult result;
+		try {
+			result = objectMapper.readValue(body, MessageBatchResult.class);
+		} catch (IOException e) {
+			LOG.debug("Could not read the result of a batch of messages sent to {}: {}", this.remoteKerUri,
 					e.getMessage());
-			this.dispatcher.notifySmartConnectorsChanged();
-			throw new IOException(e);
+			return;
+		}
+
+		Map<String, String> failedReasons = new HashMap<>();
+		if (result.getFailedMessages() != null) {
+			for (FailedMessage failed : result.getFailedMessages())
+				failedReasons.put(failed.getMessageId(), "Message not delivered by remote host: " + failed.getReason());
+		}
+		if (result.getError() != null) {
+			Set<String> delivered = result.getDeliveredMessages() != null ? new HashSet<>(result.getDeliveredMessages())
+					: Set.of();
+			for (KnowledgeMessage message : messages) {
+				String id = message.getMessageId().toString();
+				if (!delivered.contains(id))
+					failedReasons.putIfAbsent(id, "Message not read by remote host: " + result.getError());
+			}
+		}
+
+		for (KnowledgeMessage message : messages) {
+			String reason = failedReasons.get(message.getMessageId().toString());
+			if (reason != null)
+				this.sendFailed(message, reason);
+		}
+	}
+
+	private void sendErrorOccurred(List<KnowledgeMessage> messages, Throwable t) {
+		this.remoteKerDetails = null;
+		int time = this.errorOccurred();
+		LOG.warn("Ignoring KER {} for {} minutes. Error '{}' occurred.", this.remoteKerUri, time, t.getMessage());
+		this.dispatcher.notifySmartConnectorsChanged();
+		messages.forEach(
+				m -> this.sendFailed(m, "Sending message to KER " + this.remoteKerUri + " failed: " + t.getMessage()));
+	}
+
+	private void sendFailed(KnowledgeMessage message, String reason) {
+		LOG.debug("Could not send message {} to {}: {}", message.getMessageId(), this.remoteKerUri, reason);
+		this.dispatcher.notifySendFailed(message, reason);
+	}
+
+	private void failOutboundMessages(String reason) {
+		KnowledgeMessage message;
+		while ((message = this.outboundMessages.poll()) != null) {
+			this.sendFailed(message, reason);
 		}
 	}
 
@@ -398,4 +719,48 @@ public class RemoteKerConnection {
 	private boolean isEdcConnection() {
 		return this.transferProcess != null;
 	}
+
+	/**
+	 * Collects the bytes written to it in chunks of limited size.
+	 */
+	private static class ChunkedOutputStream extends OutputStream {
+		private static final int CHUNK_SIZE = 16 * 1024;
+
+		private final List<byte[]> chunks = new ArrayList<>();
+		private byte[] current = new byte[CHUNK_SIZE];
+		private int position = 0;
+
+		@Override
+		public void write(int b) {
+			if (this.position == this.current.length)
+				this.nextChunk();
+			this.current[this.position++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			while (len > 0) {
+				if (this.position == this.current.length)
+					this.nextChunk();
+				int n = Math.min(len, this.current.length - this.position);
+				System.arraycopy(b, off, this.current, this.position, n);
+				this.position += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		private void nextChunk() {
+			this.chunks.add(this.current);
+			this.current = new byte[CHUNK_SIZE];
+			this.position = 0;
+		}
+
+		public List<byte[]> getChunks() {
+			List<byte[]> result = new ArrayList<>(this.chunks);
+			if (this.position > 0)
+				result.add(Arrays.copyOf(this.current, this.position));
+			return result;
+		}
+	}
 }
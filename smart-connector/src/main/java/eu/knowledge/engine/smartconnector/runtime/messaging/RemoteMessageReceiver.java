@@ -1,7 +1,10 @@
 package eu.knowledge.engine.smartconnector.runtime.messaging;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
 
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
@@ -15,6 +18,8 @@ import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.api.NotFou
 import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.AnswerMessage;
 import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.AskMessage;
 import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.ErrorMessage;
+import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.FailedMessage;
+import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.MessageBatchResult;
 import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.PostMessage;
 import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.ReactMessage;
 
@@ -101,4 +106,83 @@ public class RemoteMessageReceiver extends MessagingApiService {
 		}
 	}
 
+	@Override
+	public Response messagingBatchPost(String authorizationToken, InputStream body, SecurityContext securityContext)
+			throws NotFoundException {
+		// every message is delivered as soon as it is read from the stream.
+		List<FailedMessage> failedMessages = new ArrayList<>();
+		List<String> deliveredMessages = new ArrayList<>();
+		int nrOfMessages;
+		try {
+			nrOfMessages = StreamingMessageConverter.fromJson(body, message -> {
+				if (deliver(message, failedMessages))
+					deliveredMessages.add(message.getMessageId().toString());
+			});
+		} catch (IOException | URISyntaxException | IllegalArgumentException e) {
+			if (deliveredMessages.isEmpty() && failedMessages.isEmpty())
+				return createErrorResponse(e);
+
+			// the messages that were read before cannot be undone, so the sender
+			// should only fail the messages that are not listed.
+			LOG.warn("Error while reading a batch after {} messages", deliveredMessages.size() + failedMessages.size(),
+					e);
+			return Response.status(202).header("Content-Type", "application/json")
+					.entity(new MessageBatchResult().failedMessages(failedMessages)
+							.deliveredMessages(deliveredMessages).error(e.getMessage()))
+					.build();
+		}
+		LOG.trace("Received a batch of {} messages", nrOfMessages);
+		return createBatchResponse(failedMessages);
+	}
+
+	@Override
+	public Response messagingBinaryPost(String authorizationToken, InputStream body, SecurityContext securityContext)
+			throws NotFoundException {
+		List<KnowledgeMessage> messages;
+		try {
+			messages = BinaryMessageConverter.fromBinary(body);
+		} catch (IOException | URISyntaxException | RuntimeException e) {
+			// the body is not trusted, so any failure to decode it is a bad request.
+			return createErrorResponse(e);
+		}
+		LOG.trace("Received a binary batch of {} messages", messages.size());
+		return handleMessages(messages);
+	}
+
+	private Response handleMessages(List<KnowledgeMessage> messages) {
+		// deliver all messages, even if some of them cannot be delivered.
+		List<FailedMessage> failedMessages = new ArrayList<>();
+		for (KnowledgeMessage message : messages) {
+			deliver(message, failedMessages);
+		}
+		return createBatchResponse(failedMessages);
+	}
+
+	/**
+	 * @return Whether the message was delivered. If not, it is added to the given
+	 *         failed messages.
+	 */
+	private boolean deliver(KnowledgeMessage message, List<FailedMessage> failedMessages) {
+		try {
+			messageDispatcher.deliverToLocalSmartConnector(message);
+			return true;
+		} catch (IOException e) {
+			LOG.warn("Error while handling incoming message", e);
+			failedMessages.add(new FailedMessage().messageId(message.getMessageId().toString()).reason(e.getMessage()));
+			return false;
+		}
+	}
+
+	/**
+	 * The other messages of the batch were delivered, so the batch is accepted
+	 * and only the messages that could not be delivered are reported.
+	 */
+	private Response createBatchResponse(List<FailedMessage> failedMessages) {
+		if (failedMessages.isEmpty())
+			return Response.status(202).build();
+		else
+			return Response.status(202).header("Content-Type", "application/json")
+					.entity(new MessageBatchResult().failedMessages(failedMessages)).build();
+	}
+
 }
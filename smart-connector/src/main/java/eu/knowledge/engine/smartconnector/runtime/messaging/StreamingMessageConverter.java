@@ -0,0 +1,256 @@
+package eu.knowledge.engine.smartconnector.runtime.messaging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import eu.knowledge.engine.reasoner.api.Binding;
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.reasoner.util.NodeCache;
+import eu.knowledge.engine.smartconnector.messaging.AnswerMessage;
+import eu.knowledge.engine.smartconnector.messaging.AskMessage;
+import eu.knowledge.engine.smartconnector.messaging.ErrorMessage;
+import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
+import eu.knowledge.engine.smartconnector.messaging.PostMessage;
+import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
+
+/**
+ * Writes and reads the JSON of the inter-KER messaging API (see
+ * {@link MessageConverter}) as a stream. Binding sets are written directly
+ * from and read directly into the {@link BindingSet}s of the reasoner, without
+ * building the generated model classes and a JSON string in between, so a large
+ * binding set is not held in memory multiple times.
+ */
+public class StreamingMessageConverter {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private static final String ASK_MESSAGES = "askMessages";
+	private static final String ANSWER_MESSAGES = "answerMessages";
+	private static final String POST_MESSAGES = "postMessages";
+	private static final String REACT_MESSAGES = "reactMessages";
+	private static final String ERROR_MESSAGES = "errorMessages";
+
+	/**
+	 * Receives the messages that are read from a stream.
+	 */
+	@FunctionalInterface
+	public interface MessageHandler {
+		void handle(KnowledgeMessage message);
+	}
+
+	/**
+	 * Write a single message in the JSON format of its messaging endpoint.
+	 */
+	public static void toJson(KnowledgeMessage message, OutputStream out) throws IOException {
+		try (JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+			writeMessage(gen, message);
+		}
+	}
+
+	/**
+	 * Write the given messages in the JSON format of the batch endpoint.
+	 */
+	public static void toJson(List<KnowledgeMessage> messages, OutputStream out) throws IOException {
+		try (JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+			gen.writeStartObject();
+			writeMessages(gen, ASK_MESSAGES, AskMessage.class, messages);
+			writeMessages(gen, ANSWER_MESSAGES, AnswerMessage.class, messages);
+			writeMessages(gen, POST_MESSAGES, PostMessage.class, messages);
+			writeMessages(gen, REACT_MESSAGES, ReactMessage.class, messages);
+			writeMessages(gen, ERROR_MESSAGES, ErrorMessage.class, messages);
+			gen.writeEndObject();
+		}
+	}
+
+	/**
+	 * Read messages in the JSON format of the batch endpoint. Every message is
+	 * handed to the given handler as soon as it is read, so the batch as a whole
+	 * is never held in memory. If reading fails halfway, the messages that were
+	 * read before have already been handed to the handler.
+	 * 
+	 * @return The number of messages that were read.
+	 */
+	public static int fromJson(InputStream in, MessageHandler handler) throws IOException, URISyntaxException {
+		int nrOfMessages = 0;
+		try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+			expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.currentName();
+				JsonToken token = parser.nextToken();
+				Class<? extends KnowledgeMessage> type = switch (field) {
+				case ASK_MESSAGES -> AskMessage.class;
+				case ANSWER_MESSAGES -> AnswerMessage.class;
+				case POST_MESSAGES -> PostMessage.class;
+				case REACT_MESSAGES -> ReactMessage.class;
+				case ERROR_MESSAGES -> ErrorMessage.class;
+				default -> null;
+				};
+
+				if (type == null || token == JsonToken.VALUE_NULL) {
+					parser.skipChildren();
+					continue;
+				}
+
+				expect(parser, token, JsonToken.START_ARRAY);
+				while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+					expect(parser, token, JsonToken.START_OBJECT);
+					handler.handle(readMessage(parser, type));
+					nrOfMessages++;
+				}
+			}
+		}
+		return nrOfMessages;
+	}
+
+	private static void writeMessages(JsonGenerator gen, String field, Class<? extends KnowledgeMessage> type,
+			List<KnowledgeMessage> messages) throws IOException {
+		boolean started = false;
+		for (KnowledgeMessage message : messages) {
+			if (type.isInstance(message)) {
+				if (!started) {
+					gen.writeArrayFieldStart(field);
+					started = true;
+				}
+				writeMessage(gen, message);
+			}
+		}
+		if (started)
+			gen.writeEndArray();
+	}
+
+	private static void writeMessage(JsonGenerator gen, KnowledgeMessage message) throws IOException {
+		gen.writeStartObject();
+		gen.writeStringField("messageId", message.getMessageId().toString());
+		gen.writeStringField("fromKnowledgeBase", message.getFromKnowledgeBase().toString());
+		gen.writeStringField("fromKnowledgeInteraction", message.getFromKnowledgeInteraction().toString());
+		gen.writeStringField("toKnowledgeBase", message.getToKnowledgeBase().toString());
+		gen.writeStringField("toKnowledgeInteraction", message.getToKnowledgeInteraction().toString());
+
+		if (message instanceof ErrorMessage error) {
+			gen.writeStringField("replyToMessage", error.getReplyToMessage().toString());
+			writeOptionalString(gen, "errorMessage", error.getErrorMessage());
+		} else {
+			gen.writeNumberField("messageNumber", 0); // TODO Change when message numbers are implemented
+			writeOptionalString(gen, "failedMessage", message.getFailedMessage());
+			if (message instanceof AskMessage ask) {
+				writeBindingSet(gen, "bindingSet", ask.getBindings());
+			} else if (message instanceof AnswerMessage answer) {
+				gen.writeStringField("replyToAskMessage", answer.getReplyToAskMessage().toString());
+				writeBindingSet(gen, "bindingSet", answer.getBindings());
+			} else if (message instanceof PostMessage post) {
+				writeBindingSet(gen, "argument", post.getArgument());
+			} else if (message instanceof ReactMessage react) {
+				gen.writeStringField("replyToPostMessage", react.getReplyToPostMessage().toString());
+				writeBindingSet(gen, "result", react.getResult());
+			} else {
+				throw new IllegalArgumentException("Unknown message type " + message.getClass().getSimpleName());
+			}
+		}
+		gen.writeEndObject();
+	}
+
+	private static void writeOptionalString(JsonGenerator gen, String field, String value) throws IOException {
+		if (value != null)
+			gen.writeStringField(field, value);
+	}
+
+	private static void writeBindingSet(JsonGenerator gen, String field, BindingSet bindingSet) throws IOException {
+		gen.writeArrayFieldStart(field);
+		for (Binding binding : bindingSet) {
+			gen.writeStartObject();
+			for (var entry : binding.entrySet()) {
+				gen.writeStringField(entry.getKey().getName(), NodeCache.format(entry.getValue()));
+			}
+			gen.writeEndObject();
+		}
+		gen.writeEndArray();
+	}
+
+	private static KnowledgeMessage readMessage(JsonParser parser, Class<? extends KnowledgeMessage> type)
+			throws IOException, URISyntaxException {
+		String messageId = null, fromKnowledgeBase = null, fromKnowledgeInteraction = null, toKnowledgeBase = null,
+				toKnowledgeInteraction = null, replyTo = null, failedMessage = null;
+		BindingSet bindingSet = null;
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.currentName();
+			JsonToken token = parser.nextToken();
+			if (token == JsonToken.VALUE_NULL)
+				continue;
+
+			switch (field) {
+			case "messageId" -> messageId = parser.getText();
+			case "fromKnowledgeBase" -> fromKnowledgeBase = parser.getText();
+			case "fromKnowledgeInteraction" -> fromKnowledgeInteraction = parser.getText();
+			case "toKnowledgeBase" -> toKnowledgeBase = parser.getText();
+			case "toKnowledgeInteraction" -> toKnowledgeInteraction = parser.getText();
+			case "replyToAskMessage", "replyToPostMessage", "replyToMessage" -> replyTo = parser.getText();
+			case "failedMessage", "errorMessage" -> failedMessage = parser.getText();
+			case "bindingSet", "argument", "result" -> bindingSet = readBindingSet(parser);
+			default -> parser.skipChildren();
+			}
+		}
+
+		if (messageId == null || fromKnowledgeBase == null || fromKnowledgeInteraction == null
+				|| toKnowledgeBase == null || toKnowledgeInteraction == null)
+			throw new IllegalArgumentException("Message misses required fields.");
+
+		UUID id = UUID.fromString(messageId);
+		URI fromKb = new URI(fromKnowledgeBase), fromKi = new URI(fromKnowledgeInteraction),
+				toKb = new URI(toKnowledgeBase), toKi = new URI(toKnowledgeInteraction);
+
+		if (type == AskMessage.class) {
+			return new AskMessage(id, fromKb, fromKi, toKb, toKi, required(bindingSet));
+		} else if (type == AnswerMessage.class) {
+			return new AnswerMessage(id, fromKb, fromKi, toKb, toKi, UUID.fromString(required(replyTo)),
+					required(bindingSet), failedMessage);
+		} else if (type == PostMessage.class) {
+			return new PostMessage(id, fromKb, fromKi, toKb, toKi, required(bindingSet));
+		} else if (type == ReactMessage.class) {
+			return new ReactMessage(id, fromKb, fromKi, toKb, toKi, UUID.fromString(required(replyTo)),
+					required(bindingSet), failedMessage);
+		} else {
+			return new ErrorMessage(id, fromKb, fromKi, toKb, toKi, UUID.fromString(required(replyTo)),
+					failedMessage);
+		}
+	}
+
+	private static <T> T required(T value) {
+		if (value == null)
+			throw new IllegalArgumentException("Message misses required fields.");
+		return value;
+	}
+
+	private static BindingSet readBindingSet(JsonParser parser) throws IOException {
+		expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+		BindingSet bindingSet = new BindingSet();
+		JsonToken token;
+		while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+			expect(parser, token, JsonToken.START_OBJECT);
+			Binding binding = new Binding();
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String variable = parser.currentName();
+				expect(parser, parser.nextToken(), JsonToken.VALUE_STRING);
+				binding.put(variable, parser.getText());
+			}
+			bindingSet.add(binding);
+		}
+		return bindingSet;
+	}
+
+	private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+		if (actual != expected)
+			throw new JsonParseException(parser, "Expected " + expected + " but found " + actual + ".");
+	}
+}
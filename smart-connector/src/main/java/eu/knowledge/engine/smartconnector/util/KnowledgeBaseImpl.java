@@ -30,12 +30,14 @@ import eu.knowledge.engine.reasoner.Rule;
 import eu.knowledge.engine.smartconnector.api.AnswerHandler;
 import eu.knowledge.engine.smartconnector.api.AnswerKnowledgeInteraction;
 import eu.knowledge.engine.smartconnector.api.AskKnowledgeInteraction;
+import eu.knowledge.engine.smartconnector.api.AskOptions;
 import eu.knowledge.engine.smartconnector.api.AskPlan;
 import eu.knowledge.engine.smartconnector.api.AskResult;
 import eu.knowledge.engine.smartconnector.api.BindingSet;
 import eu.knowledge.engine.smartconnector.api.GraphPattern;
 import eu.knowledge.engine.smartconnector.api.KnowledgeBase;
 import eu.knowledge.engine.smartconnector.api.KnowledgeInteraction;
+import eu.knowledge.engine.smartconnector.api.PostFailureListener;
 import eu.knowledge.engine.smartconnector.api.PostKnowledgeInteraction;
 import eu.knowledge.engine.smartconnector.api.PostPlan;
 import eu.knowledge.engine.smartconnector.api.PostResult;
@@ -304,6 +306,11 @@ public class KnowledgeBaseImpl implements KnowledgeBase {
 		return this.getSC().ask(ki, bindings);
 	}
 
+	public CompletableFuture<AskResult> ask(AskKnowledgeInteraction anAKI, RecipientSelector aSelector,
+			BindingSet aBindingSet, AskOptions someOptions) {
+		return this.getSC().ask(anAKI, aSelector, aBindingSet, someOptions);
+	}
+
 	public CompletableFuture<PostResult> post(PostKnowledgeInteraction aPKI, RecipientSelector aSelector,
 			BindingSet someArguments) {
 		return this.getSC().post(aPKI, aSelector, someArguments);
@@ -313,6 +320,16 @@ public class KnowledgeBaseImpl implements KnowledgeBase {
 		return this.getSC().post(ki, argument);
 	}
 
+	public CompletableFuture<Void> postAndForget(PostKnowledgeInteraction aPKI, RecipientSelector aSelector,
+			BindingSet someArguments, PostFailureListener aListener) {
+		return this.getSC().postAndForget(aPKI, aSelector, someArguments, aListener);
+	}
+
+	public CompletableFuture<Void> postAndForget(PostKnowledgeInteraction ki, BindingSet argument,
+			PostFailureListener aListener) {
+		return this.getSC().postAndForget(ki, argument, aListener);
+	}
+
 	public Set<AskKnowledgeInteraction> getAskKnowledgeInteractions() {
 		Set<AskKnowledgeInteraction> all = new HashSet<>();
 		all.addAll(currentAskKIs);
@@ -0,0 +1,191 @@
+package eu.knowledge.engine.smartconnector.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.graph.PrefixMappingMem;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.knowledge.engine.smartconnector.util.KnowledgeBaseImpl;
+import eu.knowledge.engine.smartconnector.util.KnowledgeNetwork;
+
+public class TestAskAnswerCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestAskAnswerCache.class);
+	private static final URI ASKING_KB = URI.create("https://www.example.org/kb");
+	private static final URI ASKING_KI = URI.create("https://www.example.org/kb/ask");
+
+	private static KnowledgeNetwork kn;
+
+	@Test
+	public void testAskAnswerCache() throws InterruptedException, ExecutionException {
+		PrefixMappingMem prefixes = new PrefixMappingMem();
+		prefixes.setNsPrefixes(PrefixMapping.Standard);
+		prefixes.setNsPrefix("ex", "https://www.example.org/example/");
+
+		kn = new KnowledgeNetwork();
+		var kb1 = new KnowledgeBaseImpl("kb1");
+		kn.addKB(kb1);
+		var kb2 = new KnowledgeBaseImpl("kb2");
+		kn.addKB(kb2);
+
+		GraphPattern gp = new GraphPattern(prefixes, "?a ex:hasValue ?b .");
+		AnswerKnowledgeInteraction aKI = new AnswerKnowledgeInteraction(new CommunicativeAct(), gp);
+		var answered = new AtomicInteger();
+		var cachingHandler = new CachingAnswerHandler((anAKI, anAnswerExchangeInfo) -> {
+			answered.incrementAndGet();
+			return bindingSet("<https://www.example.org/example/sensor1>");
+		}, Duration.ofMinutes(1), 10);
+		kb1.register(aKI, cachingHandler);
+
+		AskKnowledgeInteraction askKI = new AskKnowledgeInteraction(new CommunicativeAct(), gp);
+		kb2.register(askKI);
+		kn.sync();
+
+		AskResult first = kb2.ask(askKI, new BindingSet()).get();
+		AskResult second = kb2.ask(askKI, new BindingSet()).get();
+		assertEquals(first.getBindings(), second.getBindings());
+		assertEquals(1, second.getBindings().size());
+		assertEquals(1, answered.get(), "The second ask should have been answered from the cache.");
+
+		kb2.ask(askKI, bindingSet("<https://www.example.org/example/sensor1>")).get();
+		assertEquals(2, answered.get(), "Other incoming bindings should not be answered from the cache.");
+
+		cachingHandler.invalidate();
+		kb2.ask(askKI, new BindingSet()).get();
+		assertEquals(3, answered.get(), "An invalidated cache should ask the handler again.");
+
+		CachingAnswerHandler.Stats stats = cachingHandler.getStats();
+		LOG.info("Cache stats: {}", stats);
+		assertEquals(1, stats.hits());
+		assertEquals(3, stats.misses());
+		assertEquals(0.25, stats.hitRate());
+	}
+
+	@Test
+	public void testConcurrentAsksShareAnswer() {
+		var answer = new CompletableFuture<BindingSet>();
+		var answered = new AtomicInteger();
+		var cachingHandler = new CachingAnswerHandler(new AnswerHandler() {
+			@Override
+			public BindingSet answer(AnswerKnowledgeInteraction anAKI, AnswerExchangeInfo anAnswerExchangeInfo) {
+				return this.answerAsync(anAKI, anAnswerExchangeInfo).join();
+			}
+
+			@Override
+			public CompletableFuture<BindingSet> answerAsync(AnswerKnowledgeInteraction anAKI,
+					AnswerExchangeInfo anAnswerExchangeInfo) {
+				answered.incrementAndGet();
+				return answer;
+			}
+		}, Duration.ofMinutes(1), 10);
+
+		// the same bindings in a different order are the same question.
+		var first = cachingHandler.answerAsync(null, exchangeInfo(bindingSet("<ex:a>", "<ex:b>")));
+		var second = cachingHandler.answerAsync(null, exchangeInfo(bindingSet("<ex:b>", "<ex:a>")));
+		assertFalse(first.isDone());
+		assertFalse(second.isDone());
+		assertEquals(1, answered.get());
+
+		BindingSet result = bindingSet("<ex:c>");
+		answer.complete(result);
+		assertEquals(result, first.join());
+		assertEquals(result, second.join());
+		assertEquals(new CachingAnswerHandler.Stats(1, 1, 1), cachingHandler.getStats());
+	}
+
+	@Test
+	public void testFailuresAreNotCached() {
+		var answered = new AtomicInteger();
+		var cachingHandler = new CachingAnswerHandler((anAKI, anAnswerExchangeInfo) -> {
+			if (answered.incrementAndGet() == 1)
+				throw new IllegalStateException("The database is not available.");
+			return new BindingSet();
+		}, Duration.ofMinutes(1), 10);
+
+		assertThrows(CompletionException.class, () -> cachingHandler.answer(null, exchangeInfo(new BindingSet())));
+		assertTrue(cachingHandler.answer(null, exchangeInfo(new BindingSet())).isEmpty());
+		assertEquals(2, answered.get());
+	}
+
+	@Test
+	public void testKnowledgeInteractionsDoNotShareAnswers() {
+		var answered = new AtomicInteger();
+		var cachingHandler = new CachingAnswerHandler((anAKI, anAnswerExchangeInfo) -> {
+			answered.incrementAndGet();
+			return new BindingSet();
+		}, Duration.ofMinutes(1), 10);
+
+		GraphPattern gp = new GraphPattern("?a <https://www.example.org/example/hasValue> ?b .");
+		var first = new AnswerKnowledgeInteraction(new CommunicativeAct(), gp);
+		var second = new AnswerKnowledgeInteraction(new CommunicativeAct(), gp);
+
+		cachingHandler.answer(first, exchangeInfo(new BindingSet()));
+		cachingHandler.answer(second, exchangeInfo(new BindingSet()));
+		assertEquals(2, answered.get(), "Another knowledge interaction should not be answered from the cache.");
+
+		cachingHandler.answer(first, exchangeInfo(new BindingSet()));
+		assertEquals(2, answered.get());
+	}
+
+	@Test
+	public void testExpiry() {
+		var answered = new AtomicInteger();
+		var now = new AtomicLong();
+		var cachingHandler = new CachingAnswerHandler((anAKI, anAnswerExchangeInfo) -> {
+			answered.incrementAndGet();
+			return new BindingSet();
+		}, Duration.ofMillis(50), 1, now::get);
+
+		cachingHandler.answer(null, exchangeInfo(new BindingSet()));
+		now.addAndGet(Duration.ofMillis(49).toNanos());
+		cachingHandler.answer(null, exchangeInfo(new BindingSet()));
+		assertEquals(1, answered.get());
+
+		now.addAndGet(Duration.ofMillis(1).toNanos());
+		cachingHandler.answer(null, exchangeInfo(new BindingSet()));
+		assertEquals(2, answered.get(), "An expired answer should not be used.");
+
+		// exceeding the maximum size evicts the least recently used answer.
+		cachingHandler.answer(null, exchangeInfo(bindingSet("<ex:a>")));
+		assertEquals(1, cachingHandler.getStats().size());
+		cachingHandler.answer(null, exchangeInfo(new BindingSet()));
+		assertEquals(4, answered.get(), "An evicted answer should not be used.");
+	}
+
+	private static AnswerExchangeInfo exchangeInfo(BindingSet someIncomingBindings) {
+		return new AnswerExchangeInfo(someIncomingBindings, ASKING_KB, ASKING_KI);
+	}
+
+	private static BindingSet bindingSet(String... someValues) {
+		BindingSet bindingSet = new BindingSet();
+		for (String value : someValues) {
+			Binding binding = new Binding();
+			binding.put("a", value);
+			binding.put("b", "\"22\"^^<http://www.w3.org/2001/XMLSchema#integer>");
+			bindingSet.add(binding);
+		}
+		return bindingSet;
+	}
+
+	@AfterAll
+	public static void cleanup() throws InterruptedException, ExecutionException {
+		LOG.info("Clean up: {}", TestAskAnswerCache.class.getSimpleName());
+		if (kn != null)
+			kn.stop().get();
+	}
+}
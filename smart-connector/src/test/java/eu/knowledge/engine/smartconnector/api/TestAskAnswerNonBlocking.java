@@ -0,0 +1,117 @@
+package eu.knowledge.engine.smartconnector.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.graph.PrefixMappingMem;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.knowledge.engine.reasoner.TaskScheduler;
+import eu.knowledge.engine.smartconnector.util.KnowledgeBaseImpl;
+import eu.knowledge.engine.smartconnector.util.KnowledgeNetwork;
+
+/**
+ * An answer handler that is marked non-blocking is called on the thread that
+ * sends the ask, while other answer handlers are called on a thread of the
+ * runtime. The asking thread does not hold the lock of its task scheduler while
+ * it calls the handler, so other answers can be processed in the meantime.
+ */
+public class TestAskAnswerNonBlocking {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestAskAnswerNonBlocking.class);
+
+	private static KnowledgeNetwork kn;
+
+	private volatile Thread nonBlockingThread;
+	private volatile Thread blockingThread;
+	private volatile boolean heldSchedulerLock;
+
+	@Test
+	public void testNonBlockingHandlerIsCalledInline() throws InterruptedException, ExecutionException {
+		PrefixMappingMem prefixes = new PrefixMappingMem();
+		prefixes.setNsPrefixes(PrefixMapping.Standard);
+		prefixes.setNsPrefix("ex", "https://www.example.org/example/");
+
+		kn = new KnowledgeNetwork();
+		var kb1 = new KnowledgeBaseImpl("kb1");
+		kn.addKB(kb1);
+		var kb2 = new KnowledgeBaseImpl("kb2");
+		kn.addKB(kb2);
+		var kb3 = new KnowledgeBaseImpl("kb3");
+		kn.addKB(kb3);
+
+		GraphPattern gp = new GraphPattern(prefixes, "?a ex:b ?c .");
+		CommunicativeAct act = new CommunicativeAct(new HashSet<>(Arrays.asList(Vocab.INFORM_PURPOSE)),
+				new HashSet<>(Arrays.asList(Vocab.RETRIEVE_KNOWLEDGE_PURPOSE)));
+
+		AnswerKnowledgeInteraction aKI1 = new AnswerKnowledgeInteraction(act, gp);
+		kb1.register(aKI1, new AnswerHandler() {
+			@Override
+			public BindingSet answer(AnswerKnowledgeInteraction anAKI, AnswerExchangeInfo anAnswerExchangeInfo) {
+				nonBlockingThread = Thread.currentThread();
+				heldSchedulerLock = holdsSchedulerLock();
+				return createBindingSet("<https://www.example.org/example/a1>");
+			}
+
+			@Override
+			public boolean isNonBlocking() {
+				return true;
+			}
+		});
+
+		AnswerKnowledgeInteraction aKI2 = new AnswerKnowledgeInteraction(act, gp);
+		kb2.register(aKI2, (anAKI, anAnswerExchangeInfo) -> {
+			blockingThread = Thread.currentThread();
+			return createBindingSet("<https://www.example.org/example/a2>");
+		});
+
+		AskKnowledgeInteraction askKI = new AskKnowledgeInteraction(act, gp);
+		kb3.register(askKI);
+		kn.sync();
+
+		AskResult result = kb3.ask(askKI, new BindingSet()).get();
+		LOG.info("Bindings: {}", result.getBindings());
+
+		assertEquals(2, result.getBindings().size());
+		assertSame(Thread.currentThread(), this.nonBlockingThread);
+		assertNotSame(Thread.currentThread(), this.blockingThread);
+		assertFalse(this.heldSchedulerLock, "A non-blocking handler should not be called while holding a lock.");
+	}
+
+	private static boolean holdsSchedulerLock() {
+		ThreadInfo info = ManagementFactory.getThreadMXBean()
+				.getThreadInfo(new long[] { Thread.currentThread().threadId() }, true, false)[0];
+		for (MonitorInfo monitor : info.getLockedMonitors())
+			if (monitor.getClassName().equals(TaskScheduler.class.getName()))
+				return true;
+		return false;
+	}
+
+	private static BindingSet createBindingSet(String a) {
+		BindingSet bindingSet = new BindingSet();
+		Binding binding = new Binding();
+		binding.put("a", a);
+		binding.put("c", "<https://www.example.org/example/c>");
+		bindingSet.add(binding);
+		return bindingSet;
+	}
+
+	@AfterAll
+	public static void cleanup() throws InterruptedException, ExecutionException {
+		LOG.info("Clean up: {}", TestAskAnswerNonBlocking.class.getSimpleName());
+		kn.stop().get();
+	}
+}
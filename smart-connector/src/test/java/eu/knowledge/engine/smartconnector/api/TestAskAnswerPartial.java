@@ -0,0 +1,145 @@
+package eu.knowledge.engine.smartconnector.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.graph.PrefixMappingMem;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.knowledge.engine.smartconnector.api.ExchangeInfo.Status;
+import eu.knowledge.engine.smartconnector.util.KnowledgeBaseImpl;
+import eu.knowledge.engine.smartconnector.util.KnowledgeNetwork;
+
+/**
+ * Asks a question to a fast and a slow knowledge base and checks that the ask
+ * finishes with the answer of the fast knowledge base when the limit or deadline
+ * is reached.
+ */
+public class TestAskAnswerPartial {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestAskAnswerPartial.class);
+
+	private static KnowledgeBaseImpl fastKb;
+	private static KnowledgeBaseImpl slowKb;
+	private static KnowledgeBaseImpl askingKb;
+	private static AskKnowledgeInteraction askKI;
+
+	/**
+	 * Keeps the slow knowledge base from answering until the tests are finished.
+	 */
+	private static final CountDownLatch slowLatch = new CountDownLatch(1);
+
+	private static KnowledgeNetwork kn;
+
+	@BeforeAll
+	public static void setup() {
+		PrefixMappingMem prefixes = new PrefixMappingMem();
+		prefixes.setNsPrefixes(PrefixMapping.Standard);
+		prefixes.setNsPrefix("ex", "https://www.example.org/example/");
+
+		kn = new KnowledgeNetwork();
+		fastKb = new KnowledgeBaseImpl("fastKb");
+		kn.addKB(fastKb);
+		slowKb = new KnowledgeBaseImpl("slowKb");
+		kn.addKB(slowKb);
+		askingKb = new KnowledgeBaseImpl("askingKb");
+		kn.addKB(askingKb);
+
+		GraphPattern gp = new GraphPattern(prefixes, "?a ex:b ?c.");
+		CommunicativeAct act = new CommunicativeAct(new HashSet<>(Arrays.asList(Vocab.INFORM_PURPOSE)),
+				new HashSet<>(Arrays.asList(Vocab.RETRIEVE_KNOWLEDGE_PURPOSE)));
+
+		fastKb.register(new AnswerKnowledgeInteraction(act, gp), (anAKI, anAnswerExchangeInfo) -> {
+			BindingSet bindingSet = new BindingSet();
+			Binding binding = new Binding();
+			binding.put("a", "<https://www.example.org/example/fast>");
+			binding.put("c", "<https://www.example.org/example/c>");
+			bindingSet.add(binding);
+			return bindingSet;
+		});
+
+		slowKb.register(new AnswerKnowledgeInteraction(act, gp), (anAKI, anAnswerExchangeInfo) -> {
+			try {
+				slowLatch.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				LOG.error("{}", e);
+			}
+			BindingSet bindingSet = new BindingSet();
+			Binding binding = new Binding();
+			binding.put("a", "<https://www.example.org/example/slow>");
+			binding.put("c", "<https://www.example.org/example/c>");
+			bindingSet.add(binding);
+			return bindingSet;
+		});
+
+		askKI = new AskKnowledgeInteraction(act, gp);
+		askingKb.register(askKI);
+		kn.sync();
+	}
+
+	@Test
+	public void testAskWithDeadline() throws InterruptedException, ExecutionException {
+		BindingSet streamed = new BindingSet();
+		AskOptions options = new AskOptions(0, Duration.ofSeconds(1), bs -> {
+			synchronized (streamed) {
+				streamed.addAll(bs);
+			}
+		});
+
+		Instant start = Instant.now();
+		AskResult result = askingKb.ask(askKI, new RecipientSelector(), new BindingSet(), options).get();
+		Duration duration = Duration.between(start, Instant.now());
+		LOG.info("Ask with deadline took {}ms: {}", duration.toMillis(), result);
+
+		assertTrue(duration.compareTo(Duration.ofSeconds(5)) < 0, "Should not wait for the slow knowledge base.");
+		assertTrue(result.isPartial());
+		assertEquals(1, result.getBindings().size());
+		Binding b = result.getBindings().iterator().next();
+		assertEquals("<https://www.example.org/example/fast>", b.get("a"));
+		assertEquals(result.getBindings(), streamed);
+
+		boolean slowFailed = false;
+		for (AskExchangeInfo aei : result.getExchangeInfoPerKnowledgeBase()) {
+			if (aei.getKnowledgeBaseId().equals(slowKb.getKnowledgeBaseId()))
+				slowFailed = aei.getStatus().equals(Status.FAILED);
+		}
+		assertTrue(slowFailed, "The exchange with the slow knowledge base should be cancelled.");
+	}
+
+	@Test
+	public void testAskWithLimit() throws InterruptedException, ExecutionException {
+		AskOptions options = new AskOptions(1, null);
+
+		Instant start = Instant.now();
+		AskResult result = askingKb.ask(askKI, new RecipientSelector(), new BindingSet(), options).get();
+		Duration duration = Duration.between(start, Instant.now());
+		LOG.info("Ask with limit took {}ms: {}", duration.toMillis(), result);
+
+		assertTrue(duration.compareTo(Duration.ofSeconds(5)) < 0, "Should not wait for the slow knowledge base.");
+		assertTrue(result.isPartial());
+		assertEquals(1, result.getBindings().size());
+		assertEquals("<https://www.example.org/example/fast>", result.getBindings().iterator().next().get("a"));
+		assertFalse(result.getBindings().isEmpty());
+	}
+
+	@AfterAll
+	public static void cleanup() throws InterruptedException, ExecutionException {
+		LOG.info("Clean up: {}", TestAskAnswerPartial.class.getSimpleName());
+		slowLatch.countDown();
+		kn.stop().get();
+	}
+}
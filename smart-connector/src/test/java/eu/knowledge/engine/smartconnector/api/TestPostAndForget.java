@@ -0,0 +1,98 @@
+package eu.knowledge.engine.smartconnector.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.graph.PrefixMappingMem;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.knowledge.engine.smartconnector.util.KnowledgeBaseImpl;
+import eu.knowledge.engine.smartconnector.util.KnowledgeNetwork;
+
+public class TestPostAndForget {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestPostAndForget.class);
+	private static KnowledgeNetwork kn;
+
+	@Test
+	public void testPostAndForget() throws InterruptedException, ExecutionException, TimeoutException {
+		PrefixMappingMem prefixes = new PrefixMappingMem();
+		prefixes.setNsPrefixes(PrefixMapping.Standard);
+		prefixes.setNsPrefix("ex", "https://www.example.org/example/");
+
+		kn = new KnowledgeNetwork();
+		var kb1 = new KnowledgeBaseImpl("kb1");
+		kn.addKB(kb1);
+		var kb2 = new KnowledgeBaseImpl("kb2");
+		kn.addKB(kb2);
+		var kb3 = new KnowledgeBaseImpl("kb3");
+		kn.addKB(kb3);
+
+		GraphPattern gp = new GraphPattern(prefixes, "?a ex:hasValue ?b .");
+		PostKnowledgeInteraction pKI = new PostKnowledgeInteraction(new CommunicativeAct(), gp, null);
+		kb1.register(pKI);
+
+		CountDownLatch reacted = new CountDownLatch(1);
+		ReactKnowledgeInteraction rKI2 = new ReactKnowledgeInteraction(new CommunicativeAct(), gp, null);
+		kb2.register(rKI2, (anRKI, aReactExchangeInfo) -> {
+			LOG.trace("KB2 reacting...");
+			assertEquals(1, aReactExchangeInfo.getArgumentBindings().size());
+			reacted.countDown();
+			return new BindingSet();
+		});
+
+		ReactKnowledgeInteraction rKI3 = new ReactKnowledgeInteraction(new CommunicativeAct(), gp, null);
+		kb3.register(rKI3, (anRKI, aReactExchangeInfo) -> {
+			throw new IllegalStateException("KB3 failed to react.");
+		});
+
+		kn.sync();
+
+		BindingSet bindingSet = new BindingSet();
+		Binding binding = new Binding();
+		binding.put("a", "<https://www.example.org/example/sensor1>");
+		binding.put("b", "\"22\"^^<http://www.w3.org/2001/XMLSchema#integer>");
+		bindingSet.add(binding);
+
+		CountDownLatch failed = new CountDownLatch(1);
+		var failedKnowledgeBase = new URI[1];
+		kb1.postAndForget(pKI, bindingSet, (aKnowledgeBase, aKnowledgeInteraction, aFailedMessage) -> {
+			LOG.info("Post to KI <{}> failed: {}", aKnowledgeInteraction, aFailedMessage);
+			failedKnowledgeBase[0] = aKnowledgeBase;
+			failed.countDown();
+		}).get(5, TimeUnit.SECONDS);
+
+		// the post finishes without waiting for the reactions, which arrive later.
+		assertTrue(reacted.await(5, TimeUnit.SECONDS), "KB2 should have received the posted data.");
+		assertTrue(failed.await(5, TimeUnit.SECONDS), "The failure of KB3 should have been reported.");
+		assertEquals(kb3.getKnowledgeBaseId(), failedKnowledgeBase[0]);
+
+		// every post reports its failures to its own listener.
+		CountDownLatch failedFirst = new CountDownLatch(1);
+		CountDownLatch failedSecond = new CountDownLatch(1);
+		kb1.postAndForget(pKI, bindingSet, (aKnowledgeBase, aKnowledgeInteraction, aFailedMessage) -> {
+			failedFirst.countDown();
+		}).get(5, TimeUnit.SECONDS);
+		kb1.postAndForget(pKI, bindingSet, (aKnowledgeBase, aKnowledgeInteraction, aFailedMessage) -> {
+			failedSecond.countDown();
+		}).get(5, TimeUnit.SECONDS);
+		assertTrue(failedFirst.await(5, TimeUnit.SECONDS), "The first post should have been notified.");
+		assertTrue(failedSecond.await(5, TimeUnit.SECONDS), "The second post should have been notified.");
+	}
+
+	@AfterAll
+	public static void cleanup() throws InterruptedException, ExecutionException {
+		LOG.info("Clean up: {}", TestPostAndForget.class.getSimpleName());
+		kn.stop().get();
+	}
+}
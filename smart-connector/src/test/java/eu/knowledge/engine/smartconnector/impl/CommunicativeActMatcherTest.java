@@ -0,0 +1,57 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.jupiter.api.Test;
+
+import eu.knowledge.engine.smartconnector.api.CommunicativeAct;
+import eu.knowledge.engine.smartconnector.api.Vocab;
+
+public class CommunicativeActMatcherTest {
+
+	private final CommunicativeActMatcher matcher = new CommunicativeActMatcher();
+
+	@Test
+	public void testDefaultActs() {
+		assertTrue(this.matcher.matches(new CommunicativeAct(), new CommunicativeAct()));
+	}
+
+	@Test
+	public void testSubclassSatisfiesSuperclass() {
+		var inform = new CommunicativeAct();
+		var newKnowledge = act(Vocab.NEW_KNOWLEDGE_PURPOSE, Vocab.NEW_KNOWLEDGE_PURPOSE);
+
+		// a new knowledge purpose is also an inform purpose, but not vice versa.
+		assertFalse(this.matcher.matches(inform, newKnowledge));
+		assertFalse(this.matcher.matches(newKnowledge, inform));
+
+		var informToNewKnowledge = act(Vocab.INFORM_PURPOSE, Vocab.NEW_KNOWLEDGE_PURPOSE);
+		assertTrue(this.matcher.matches(informToNewKnowledge, act(Vocab.NEW_KNOWLEDGE_PURPOSE, Vocab.INFORM_PURPOSE)));
+		assertFalse(
+				this.matcher.matches(informToNewKnowledge, act(Vocab.RETRIEVE_KNOWLEDGE_PURPOSE, Vocab.INFORM_PURPOSE)));
+	}
+
+	@Test
+	public void testCustomPurposes() {
+		Resource custom = ResourceFactory.createResource("https://www.example.org/CustomPurpose");
+		Resource other = ResourceFactory.createResource("https://www.example.org/OtherPurpose");
+
+		assertTrue(this.matcher.matches(act(custom, custom), act(custom, custom)));
+		assertFalse(this.matcher.matches(act(custom, custom), act(other, other)));
+		assertFalse(this.matcher.matches(act(custom, custom), new CommunicativeAct()));
+
+		// multiple requirements should all be satisfied
+		var both = new CommunicativeAct(Set.of(custom, other), Set.of(custom, other));
+		assertTrue(this.matcher.matches(both, both));
+		assertFalse(this.matcher.matches(both, act(custom, custom)));
+	}
+
+	private static CommunicativeAct act(Resource aRequirement, Resource aSatisfaction) {
+		return new CommunicativeAct(Set.of(aRequirement), Set.of(aSatisfaction));
+	}
+}
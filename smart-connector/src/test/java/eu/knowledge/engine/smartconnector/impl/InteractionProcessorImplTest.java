@@ -1,5 +1,6 @@
 package eu.knowledge.engine.smartconnector.impl;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -29,6 +30,7 @@ import eu.knowledge.engine.smartconnector.api.Binding;
 import eu.knowledge.engine.smartconnector.api.BindingSet;
 import eu.knowledge.engine.smartconnector.api.CommunicativeAct;
 import eu.knowledge.engine.smartconnector.api.GraphPattern;
+import eu.knowledge.engine.smartconnector.api.PostFailureListener;
 import eu.knowledge.engine.smartconnector.api.RecipientSelector;
 import eu.knowledge.engine.smartconnector.messaging.AnswerMessage;
 import eu.knowledge.engine.smartconnector.messaging.AskMessage;
@@ -111,6 +113,43 @@ public class InteractionProcessorImplTest {
 		}
 	}
 
+	@Test
+	void testRepeatedAsk() throws InterruptedException, ExecutionException, URISyntaxException {
+
+		AskKnowledgeInteraction askInteraction = new AskKnowledgeInteraction(new CommunicativeAct(),
+				new GraphPattern(this.graphPattern1));
+		MyKnowledgeInteractionInfo kii = new MyKnowledgeInteractionInfo(new URI("http://www.example.org/"),
+				new URI("http://www.example.org/"), askInteraction, null, null);
+
+		// the second ask should (re)use the plan of the first ask and give the same
+		// result.
+		for (int i = 0; i < 2; i++) {
+			BindingSet bindings = this.interactionProcessor.planAskFromKnowledgeBase(kii, new RecipientSelector())
+					.execute(new BindingSet()).get().getBindings();
+			assertEquals(2, bindings.size());
+		}
+	}
+
+	@Test
+	void testChangingRecipients() throws InterruptedException, ExecutionException, URISyntaxException {
+
+		AskKnowledgeInteraction askInteraction = new AskKnowledgeInteraction(new CommunicativeAct(),
+				new GraphPattern(this.graphPattern1));
+		MyKnowledgeInteractionInfo kii = new MyKnowledgeInteractionInfo(new URI("http://www.example.org/"),
+				new URI("http://www.example.org/"), askInteraction, null, null);
+
+		// every ask involves different knowledge interactions, so the rule store of
+		// the previous plan should be updated with the ones that joined or left.
+		List<RecipientSelector> selectors = List.of(new RecipientSelector(this.knowledgeBaseId2),
+				new RecipientSelector(), new RecipientSelector(this.knowledgeBaseId3), new RecipientSelector());
+		List<Integer> expectedSizes = List.of(1, 2, 1, 2);
+		for (int i = 0; i < selectors.size(); i++) {
+			BindingSet bindings = this.interactionProcessor.planAskFromKnowledgeBase(kii, selectors.get(i))
+					.execute(new BindingSet()).get().getBindings();
+			assertEquals(expectedSizes.get(i), bindings.size());
+		}
+	}
+
 	public class TestOtherKnowledgeBaseStore implements OtherKnowledgeBaseStore {
 
 		@Override
@@ -152,6 +191,20 @@ public class InteractionProcessorImplTest {
 
 		}
 
+		@Override
+		public Set<OtherKnowledgeBase> getOtherKnowledgeBases(RecipientSelector aSelector) {
+			// only selectors with specific knowledge bases are used in these tests.
+			Set<OtherKnowledgeBase> others = this.getOtherKnowledgeBases();
+			if (aSelector.getBindingSet().isEmpty())
+				return others;
+
+			Set<String> ids = new HashSet<>();
+			for (Binding b : aSelector.getBindingSet())
+				ids.add(b.get("kb"));
+			others.removeIf(kb -> !ids.contains("<" + kb.getId() + ">"));
+			return others;
+		}
+
 		@Override
 		public CompletableFuture<Void> populate() {
 			// TODO Auto-generated method stub
@@ -176,6 +229,14 @@ public class InteractionProcessorImplTest {
 
 		}
 
+		@Override
+		public void addListener(OtherKnowledgeBaseStoreListener listener) {
+		}
+
+		@Override
+		public void removeListener(OtherKnowledgeBaseStoreListener listener) {
+		}
+
 		@Override
 		public void stop() {
 			// TODO Auto-generated method stub
@@ -248,6 +309,10 @@ public class InteractionProcessorImplTest {
 			return null;
 		}
 
+		@Override
+		public void sendPostMessageAndForget(PostMessage postMessage, PostFailureListener aListener) {
+		}
+
 		@Override
 		public void registerInteractionProcessor(InteractionProcessor interactionProcessor) {
 		}
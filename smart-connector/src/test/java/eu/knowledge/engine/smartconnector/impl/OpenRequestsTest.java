@@ -0,0 +1,73 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+public class OpenRequestsTest {
+
+	// the wheel is advanced manually, so it does not tick by itself.
+	private final TimingWheel wheel = new TimingWheel(10, 8);
+
+	@Test
+	public void testReply() throws Exception {
+		var requests = new OpenRequests<String>("Messages", 10, this.wheel);
+		UUID id = UUID.randomUUID();
+		CompletableFuture<String> future = requests.open(id, 1, TimeUnit.SECONDS);
+		assertEquals(1, requests.getStats().open());
+
+		requests.get(id).complete("reply");
+		assertEquals("reply", future.get());
+		assertNull(requests.get(id));
+		assertEquals(new OpenRequests.Stats(0, 1, 1, 0, 0), requests.getStats());
+
+		// a late timeout does not affect the completed future
+		this.wheel.advanceTo(System.nanoTime() + TimeUnit.SECONDS.toNanos(2));
+		assertEquals("reply", future.get());
+	}
+
+	@Test
+	public void testTimeout() {
+		var requests = new OpenRequests<String>("Messages", 10, this.wheel);
+		long start = System.nanoTime();
+		// longer than a full turn of the wheel
+		CompletableFuture<String> future = requests.open(UUID.randomUUID(), 200, TimeUnit.MILLISECONDS);
+		CompletableFuture<String> noTimeout = requests.open(UUID.randomUUID(), 0, TimeUnit.MILLISECONDS);
+
+		this.wheel.advanceTo(start + TimeUnit.MILLISECONDS.toNanos(150));
+		assertFalse(future.isDone());
+
+		this.wheel.advanceTo(start + TimeUnit.MILLISECONDS.toNanos(250));
+		var e = assertThrows(ExecutionException.class, () -> future.get());
+		assertInstanceOf(TimeoutException.class, e.getCause());
+		assertFalse(noTimeout.isDone());
+		assertEquals(new OpenRequests.Stats(1, 2, 0, 1, 0), requests.getStats());
+	}
+
+	@Test
+	public void testEvictOldest() {
+		var requests = new OpenRequests<String>("Messages", 2, this.wheel);
+		CompletableFuture<String> first = requests.open(UUID.randomUUID(), 0, TimeUnit.SECONDS);
+		CompletableFuture<String> second = requests.open(UUID.randomUUID(), 0, TimeUnit.SECONDS);
+		CompletableFuture<String> third = requests.open(UUID.randomUUID(), 0, TimeUnit.SECONDS);
+
+		assertTrue(first.isCompletedExceptionally());
+		assertFalse(second.isDone());
+		assertFalse(third.isDone());
+		assertEquals(new OpenRequests.Stats(2, 3, 0, 0, 1), requests.getStats());
+
+		assertEquals(2, requests.cancelAll());
+		assertEquals(0, requests.getStats().open());
+	}
+}
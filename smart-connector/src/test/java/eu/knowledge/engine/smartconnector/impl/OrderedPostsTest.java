@@ -0,0 +1,83 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.smartconnector.messaging.PostMessage;
+import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
+
+public class OrderedPostsTest {
+
+	private static final URI KB = URI.create("https://www.example.org/kb");
+	private static final URI POST_KI = URI.create("https://www.example.org/kb/post");
+	private static final URI REACT_KI_1 = URI.create("https://www.example.org/kb1/react");
+	private static final URI REACT_KI_2 = URI.create("https://www.example.org/kb2/react");
+
+	private final Map<PostMessage, CompletableFuture<ReactMessage>> sent = new LinkedHashMap<>();
+
+	private CompletableFuture<ReactMessage> send(PostMessage aMessage) {
+		var reaction = new CompletableFuture<ReactMessage>();
+		this.sent.put(aMessage, reaction);
+		return reaction;
+	}
+
+	@Test
+	public void testOrderPerReactKnowledgeInteraction() {
+		var orderedPosts = new OrderedPosts();
+		PostMessage first = post(REACT_KI_1);
+		PostMessage second = post(REACT_KI_1);
+		PostMessage other = post(REACT_KI_2);
+
+		CompletableFuture<ReactMessage> firstReaction = orderedPosts.send(first, this::send);
+		CompletableFuture<ReactMessage> secondReaction = orderedPosts.send(second, this::send);
+		orderedPosts.send(other, this::send);
+
+		// the second post waits for the reaction to the first one
+		assertEquals(List.of(first, other), new ArrayList<>(this.sent.keySet()));
+
+		ReactMessage reaction = react(first);
+		this.sent.get(first).complete(reaction);
+		assertEquals(reaction, firstReaction.join());
+		assertEquals(List.of(first, other, second), new ArrayList<>(this.sent.keySet()));
+
+		assertFalse(secondReaction.isDone());
+		this.sent.get(second).complete(react(second));
+		assertTrue(secondReaction.isDone());
+	}
+
+	@Test
+	public void testFailureDoesNotBlock() {
+		var orderedPosts = new OrderedPosts();
+		PostMessage first = post(REACT_KI_1);
+		PostMessage second = post(REACT_KI_1);
+
+		CompletableFuture<ReactMessage> firstReaction = orderedPosts.send(first, _ -> {
+			throw new IOException("The other knowledge base might have been stopped.");
+		});
+		orderedPosts.send(second, this::send);
+
+		assertTrue(firstReaction.isCompletedExceptionally());
+		assertEquals(List.of(second), new ArrayList<>(this.sent.keySet()));
+	}
+
+	private static PostMessage post(URI aReactKnowledgeInteraction) {
+		return new PostMessage(KB, POST_KI, KB, aReactKnowledgeInteraction, new BindingSet());
+	}
+
+	private static ReactMessage react(PostMessage aPostMessage) {
+		return new ReactMessage(KB, aPostMessage.getToKnowledgeInteraction(), KB, POST_KI,
+				aPostMessage.getMessageId(), new BindingSet());
+	}
+}
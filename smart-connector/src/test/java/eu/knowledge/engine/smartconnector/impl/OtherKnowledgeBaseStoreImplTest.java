@@ -0,0 +1,162 @@
+package eu.knowledge.engine.smartconnector.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eu.knowledge.engine.smartconnector.api.AnswerKnowledgeInteraction;
+import eu.knowledge.engine.smartconnector.api.AskKnowledgeInteraction;
+import eu.knowledge.engine.smartconnector.api.CommunicativeAct;
+import eu.knowledge.engine.smartconnector.api.GraphPattern;
+import eu.knowledge.engine.smartconnector.api.KnowledgeBase;
+import eu.knowledge.engine.smartconnector.api.KnowledgeInteraction;
+import eu.knowledge.engine.smartconnector.api.RecipientSelector;
+import eu.knowledge.engine.smartconnector.api.SmartConnector;
+
+public class OtherKnowledgeBaseStoreImplTest {
+
+	private static final URI KB1 = URI.create("https://www.example.org/kb1");
+	private static final URI KB2 = URI.create("https://www.example.org/kb2");
+	private static final URI KB3 = URI.create("https://www.example.org/kb3");
+
+	/**
+	 * Selects the knowledge bases that have an answer knowledge interaction.
+	 */
+	private static final RecipientSelector ANSWERING = new RecipientSelector() {
+		@Override
+		public GraphPattern getPattern() {
+			return new GraphPattern("?kb <https://w3id.org/knowledge-engine/hasKnowledgeInteraction> ?ki . "
+					+ "?ki a <https://w3id.org/knowledge-engine/AnswerKnowledgeInteraction> .");
+		}
+	};
+
+	private SmartConnectorImpl sc;
+	private OtherKnowledgeBaseStoreImpl store;
+
+	@BeforeEach
+	public void setUp() {
+		this.sc = (SmartConnectorImpl) SmartConnectorBuilder.newSmartConnector(new KnowledgeBase() {
+
+			@Override
+			public URI getKnowledgeBaseId() {
+				return URI.create("https://www.example.org/me");
+			}
+
+			@Override
+			public String getKnowledgeBaseName() {
+				return "me";
+			}
+
+			@Override
+			public String getKnowledgeBaseDescription() {
+				return "";
+			}
+
+			@Override
+			public void smartConnectorReady(SmartConnector aSC) {
+			}
+
+			@Override
+			public void smartConnectorConnectionLost(SmartConnector aSC) {
+			}
+
+			@Override
+			public void smartConnectorConnectionRestored(SmartConnector aSC) {
+			}
+
+			@Override
+			public void smartConnectorStopped(SmartConnector aSC) {
+			}
+		}).create();
+
+		// the store is filled by the test, not by the knowledge directory.
+		this.store = new OtherKnowledgeBaseStoreImpl(this.sc, null);
+		this.store.stop();
+
+		this.store.addKnowledgeBase(kb(KB1, answer(KB1)));
+		this.store.addKnowledgeBase(kb(KB2, ask(KB2)));
+	}
+
+	@AfterEach
+	public void tearDown() throws InterruptedException, ExecutionException {
+		this.sc.stop().get();
+	}
+
+	@Test
+	public void testWildcardSelector() {
+		assertEquals(Set.of(KB1, KB2), this.select(new RecipientSelector()));
+
+		this.store.addKnowledgeBase(kb(KB3));
+		assertEquals(Set.of(KB1, KB2, KB3), this.select(new RecipientSelector()));
+
+		this.store.removeKnowledgeBase(kb(KB1));
+		assertEquals(Set.of(KB2, KB3), this.select(new RecipientSelector()));
+	}
+
+	@Test
+	public void testKnowledgeBaseIdSelector() {
+		assertEquals(Set.of(KB1), this.select(new RecipientSelector(KB1)));
+		assertEquals(Set.of(KB1, KB2), this.select(new RecipientSelector(Arrays.asList(KB1, KB2, KB3))));
+
+		// knowledge bases that are not available are not selected
+		assertEquals(Set.of(), this.select(new RecipientSelector(KB3)));
+		this.store.addKnowledgeBase(kb(KB3));
+		assertEquals(Set.of(KB3), this.select(new RecipientSelector(KB3)));
+
+		this.store.removeKnowledgeBase(kb(KB1));
+		assertEquals(Set.of(), this.select(new RecipientSelector(KB1)));
+	}
+
+	@Test
+	public void testCustomPatternSelector() {
+		assertEquals(Set.of(KB1), this.select(ANSWERING));
+
+		// the metadata follows the updates of the knowledge bases
+		this.store.updateKnowledgeBase(kb(KB2, ask(KB2), answer(KB2)));
+		assertEquals(Set.of(KB1, KB2), this.select(ANSWERING));
+
+		this.store.updateKnowledgeBase(kb(KB1));
+		assertEquals(Set.of(KB2), this.select(ANSWERING));
+
+		this.store.removeKnowledgeBase(kb(KB2));
+		assertEquals(Set.of(), this.select(ANSWERING));
+
+		this.store.addKnowledgeBase(kb(KB3, answer(KB3)));
+		assertEquals(Set.of(KB3), this.select(ANSWERING));
+	}
+
+	private Set<URI> select(RecipientSelector aSelector) {
+		Set<URI> ids = new HashSet<>();
+		for (OtherKnowledgeBase okb : this.store.getOtherKnowledgeBases(aSelector))
+			ids.add(okb.getId());
+		return ids;
+	}
+
+	private static OtherKnowledgeBase kb(URI anId, KnowledgeInteractionInfo... someKnowledgeInteractions) {
+		return new OtherKnowledgeBase(anId, anId.toString(), "", List.of(someKnowledgeInteractions), null);
+	}
+
+	private static KnowledgeInteractionInfo answer(URI aKnowledgeBaseId) {
+		return ki(aKnowledgeBaseId, "answer",
+				new AnswerKnowledgeInteraction(new CommunicativeAct(), new GraphPattern("?s <p> ?o")));
+	}
+
+	private static KnowledgeInteractionInfo ask(URI aKnowledgeBaseId) {
+		return ki(aKnowledgeBaseId, "ask",
+				new AskKnowledgeInteraction(new CommunicativeAct(), new GraphPattern("?s <p> ?o")));
+	}
+
+	private static KnowledgeInteractionInfo ki(URI aKnowledgeBaseId, String aName, KnowledgeInteraction aKI) {
+		return new KnowledgeInteractionInfo(URI.create(aKnowledgeBaseId + "/interaction/" + aName), aKnowledgeBaseId,
+				aKI);
+	}
+}
@@ -0,0 +1,152 @@
+package eu.knowledge.engine.smartconnector.runtime.messaging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import eu.knowledge.engine.reasoner.api.Binding;
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.smartconnector.messaging.AnswerMessage;
+import eu.knowledge.engine.smartconnector.messaging.AskMessage;
+import eu.knowledge.engine.smartconnector.messaging.ErrorMessage;
+import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
+import eu.knowledge.engine.smartconnector.messaging.PostMessage;
+import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
+
+public class BinaryMessageConverterTest {
+
+	private final URI kb1Id = URI.create("http://example.org/kb1");
+	private final URI kb1KiId = URI.create("http://example.org/kb1/interaction/ki");
+	private final URI kb2Id = URI.create("http://example.org/kb2");
+	private final URI kb2KiId = URI.create("http://example.org/kb2/interaction/ki");
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		BindingSet bindingSet = new BindingSet();
+		Binding b1 = new Binding();
+		b1.put("s", "<http://example.org/sensor1>");
+		b1.put("v", "\"22.5\"^^<http://www.w3.org/2001/XMLSchema#decimal>");
+		b1.put("l", "\"woonkamer\"@nl");
+		bindingSet.add(b1);
+		Binding b2 = new Binding();
+		b2.put("s", "<http://example.org/sensor2>");
+		b2.put("v", "\"ëén \\\"quoted\\\"\"");
+		bindingSet.add(b2);
+		Binding b3 = new Binding();
+		b3.put("s", "_:b0");
+		b3.put("v", "42");
+		bindingSet.add(b3);
+
+		var ask = new AskMessage(kb1Id, kb1KiId, kb2Id, kb2KiId, bindingSet);
+		var answer = new AnswerMessage(kb2Id, kb2KiId, kb1Id, kb1KiId, ask.getMessageId(), bindingSet);
+		var post = new PostMessage(kb1Id, kb1KiId, kb2Id, kb2KiId, new BindingSet());
+		var react = new ReactMessage(kb2Id, kb2KiId, kb1Id, kb1KiId, post.getMessageId(), bindingSet,
+				"Something went wrong.");
+		var error = new ErrorMessage(kb2Id, kb2KiId, kb1Id, kb1KiId, UUID.randomUUID(), "Unknown interaction.");
+
+		List<KnowledgeMessage> received = BinaryMessageConverter
+				.fromBinary(BinaryMessageConverter.toBinary(List.of(ask, answer, post, react, error)));
+		assertEquals(5, received.size());
+
+		var receivedAsk = (AskMessage) received.get(0);
+		assertMessageEquals(ask, receivedAsk);
+		assertEquals(bindingSet, receivedAsk.getBindings());
+
+		var receivedAnswer = (AnswerMessage) received.get(1);
+		assertMessageEquals(answer, receivedAnswer);
+		assertEquals(ask.getMessageId(), receivedAnswer.getReplyToAskMessage());
+		assertNull(receivedAnswer.getFailedMessage());
+		assertEquals(bindingSet, receivedAnswer.getBindings());
+
+		var receivedPost = (PostMessage) received.get(2);
+		assertMessageEquals(post, receivedPost);
+		assertTrue(receivedPost.getArgument().isEmpty());
+
+		var receivedReact = (ReactMessage) received.get(3);
+		assertMessageEquals(react, receivedReact);
+		assertEquals(post.getMessageId(), receivedReact.getReplyToPostMessage());
+		assertEquals("Something went wrong.", receivedReact.getFailedMessage());
+		assertEquals(bindingSet, receivedReact.getResult());
+
+		var receivedError = (ErrorMessage) received.get(4);
+		assertMessageEquals(error, receivedError);
+		assertEquals(error.getReplyToMessage(), receivedError.getReplyToMessage());
+		assertEquals(error.getErrorMessage(), receivedError.getErrorMessage());
+	}
+
+	@Test
+	public void testLargeBatchIsCompressed() throws Exception {
+		List<KnowledgeMessage> messages = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			BindingSet bindingSet = new BindingSet();
+			for (int j = 0; j < 10; j++) {
+				Binding b = new Binding();
+				b.put("s", "<http://example.org/sensor" + j + ">");
+				b.put("v", Integer.toString(i * j));
+				bindingSet.add(b);
+			}
+			messages.add(new PostMessage(kb1Id, kb1KiId, kb2Id, kb2KiId, bindingSet));
+		}
+
+		List<KnowledgeMessage> received = BinaryMessageConverter
+				.fromBinary(BinaryMessageConverter.toBinary(messages));
+		assertEquals(messages.size(), received.size());
+		for (int i = 0; i < messages.size(); i++) {
+			assertMessageEquals(messages.get(i), received.get(i));
+			assertEquals(((PostMessage) messages.get(i)).getArgument(), ((PostMessage) received.get(i)).getArgument());
+		}
+	}
+
+	@Test
+	public void testInvalidInput() {
+		assertThrows(IOException.class, () -> BinaryMessageConverter.fromBinary(new byte[] { 1, 2, 3, 4, 5, 6 }));
+		assertThrows(IOException.class, () -> BinaryMessageConverter.fromBinary(new byte[0]));
+	}
+
+	@Test
+	public void testUntrustedSizes() {
+		// a negative number of strings.
+		assertThrows(IOException.class, () -> BinaryMessageConverter
+				.fromBinary(body(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F })));
+		// more strings than there are bytes.
+		assertThrows(IOException.class, () -> BinaryMessageConverter
+				.fromBinary(body(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 })));
+		// a string that is longer than the body.
+		assertThrows(IOException.class,
+				() -> BinaryMessageConverter.fromBinary(body(new byte[] { 1, (byte) 0xFF, 0x7F, 'a' })));
+		// a node that cannot be parsed.
+		assertThrows(IOException.class,
+				() -> BinaryMessageConverter.fromBinary(body(new byte[] { 1, 1, '(', 1, 5, 0, 0 })));
+	}
+
+	private static byte[] body(byte[] body) throws IOException {
+		var bytes = new ByteArrayOutputStream();
+		var out = new DataOutputStream(bytes);
+		out.writeInt(0x4B454D53);
+		out.writeByte(1);
+		out.writeByte(0);
+		out.write(body);
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private void assertMessageEquals(KnowledgeMessage expected, KnowledgeMessage actual) {
+		assertEquals(expected.getClass(), actual.getClass());
+		assertEquals(expected.getMessageId(), actual.getMessageId());
+		assertEquals(expected.getFromKnowledgeBase(), actual.getFromKnowledgeBase());
+		assertEquals(expected.getFromKnowledgeInteraction(), actual.getFromKnowledgeInteraction());
+		assertEquals(expected.getToKnowledgeBase(), actual.getToKnowledgeBase());
+		assertEquals(expected.getToKnowledgeInteraction(), actual.getToKnowledgeInteraction());
+	}
+}
@@ -132,4 +132,56 @@ public class DistributedMessageDispatcherTest {
 			assertTrue(NetUtils.portAvailable(8080));
 		}
 	}
+
+	@Test
+	void testRemoteMessagesSentConcurrently() throws Exception {
+		assertTrue(NetUtils.portAvailable(8080));
+		KnowledgeDirectory kd = new KnowledgeDirectory(8080);
+		MessageDispatcher md1 = new MessageDispatcher(8081, new URI("http://localhost:8081"),
+				new URI("http://localhost:8080"));
+		MessageDispatcher md2 = new MessageDispatcher(8082, new URI("http://localhost:8082"),
+				new URI("http://localhost:8080"));
+
+		try {
+			kd.start();
+
+			Thread.sleep(1000);
+
+			md1.start();
+			md2.start();
+
+			URI kb1Id = new URI("http://test.com/kb1");
+			URI kb2Id = new URI("http://test.com/kb2");
+			MockSmartConnector sc1 = new MockSmartConnector(kb1Id);
+			MockSmartConnector sc2 = new MockSmartConnector(kb2Id);
+
+			md1.getLocalSmartConnectorConnectionManager().smartConnectorAdded(sc1);
+			md2.getLocalSmartConnectorConnectionManager().smartConnectorAdded(sc2);
+
+			Thread.sleep(5000);
+
+			BindingSet bindingSet = new BindingSet();
+			Binding binding = new Binding();
+			binding.put("a", "<b>");
+			bindingSet.add(binding);
+
+			// more messages than are sent at the same time, so some of them are queued.
+			int nrOfMessages = 100;
+			for (int i = 0; i < nrOfMessages; i++) {
+				sc1.send(new AskMessage(kb1Id, kb1Id, kb2Id, kb2Id, bindingSet));
+			}
+
+			for (int i = 0; i < 50 && sc2.getNrOfReceivedMessages() < nrOfMessages; i++) {
+				Thread.sleep(100);
+			}
+			assertEquals(nrOfMessages, sc2.getNrOfReceivedMessages());
+
+		} finally {
+			md1.stop();
+			md2.stop();
+
+			kd.stop();
+			assertTrue(NetUtils.portAvailable(8080));
+		}
+	}
 }
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +39,7 @@ public class MockSmartConnector implements RuntimeSmartConnector, SmartConnector
 	private final URI knowledgeBaseId;
 	private MessageDispatcherEndpoint messageDispatcherEndpoint;
 	private KnowledgeMessage lastMessage;
+	private final AtomicInteger nrOfReceivedMessages = new AtomicInteger(0);
 
 	public MockSmartConnector(URI knowledgeBaseId) {
 		this.knowledgeBaseId = knowledgeBaseId;
@@ -139,10 +141,15 @@ public class MockSmartConnector implements RuntimeSmartConnector, SmartConnector
 		return this.lastMessage;
 	}
 
+	public int getNrOfReceivedMessages() {
+		return this.nrOfReceivedMessages.get();
+	}
+
 	private void receiveMessage(KnowledgeMessage message) {
 		LOG.info(this.knowledgeBaseId + ": Received " + message.getClass().getSimpleName() + " with ID "
 				+ message.getMessageId());
 		this.lastMessage = message;
+		this.nrOfReceivedMessages.incrementAndGet();
 	}
 
 	@Override
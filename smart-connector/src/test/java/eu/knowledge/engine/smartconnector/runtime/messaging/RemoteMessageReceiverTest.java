@@ -0,0 +1,105 @@
+package eu.knowledge.engine.smartconnector.runtime.messaging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
+import eu.knowledge.engine.smartconnector.messaging.PostMessage;
+import eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.MessageBatchResult;
+
+public class RemoteMessageReceiverTest {
+
+	private final URI kb1Id = URI.create("http://example.org/kb1");
+	private final URI kb1KiId = URI.create("http://example.org/kb1/interaction/ki");
+	private final URI kb2Id = URI.create("http://example.org/kb2");
+	private final URI kb2KiId = URI.create("http://example.org/kb2/interaction/ki");
+
+	@Test
+	public void testBatchWithUndeliverableMessage() throws Exception {
+		var delivered = new PostMessage(kb1Id, kb1KiId, kb2Id, kb2KiId, new BindingSet());
+		var undeliverable = new PostMessage(kb1Id, kb1KiId, kb2Id, kb2KiId, new BindingSet());
+
+		List<KnowledgeMessage> received = new ArrayList<>();
+		var receiver = new RemoteMessageReceiver(new MessageDispatcher() {
+			@Override
+			void deliverToLocalSmartConnector(KnowledgeMessage message) throws IOException {
+				if (message.getMessageId().equals(undeliverable.getMessageId()))
+					throw new IOException("Unknown knowledge base.");
+				received.add(message);
+			}
+		});
+
+		Response response = receiver.messagingBinaryPost(null,
+				new ByteArrayInputStream(BinaryMessageConverter.toBinary(List.of(delivered, undeliverable))), null);
+
+		// the batch is accepted, only the undeliverable message failed.
+		assertEquals(202, response.getStatus());
+		assertEquals(List.of(delivered.getMessageId()), received.stream().map(KnowledgeMessage::getMessageId).toList());
+		var result = (MessageBatchResult) response.getEntity();
+		assertEquals(1, result.getFailedMessages().size());
+		assertEquals(undeliverable.getMessageId().toString(), result.getFailedMessages().get(0).getMessageId());
+		assertEquals("Unknown knowledge base.", result.getFailedMessages().get(0).getReason());
+
+		response = receiver.messagingBinaryPost(null,
+				new ByteArrayInputStream(BinaryMessageConverter.toBinary(List.of(delivered))), null);
+		assertEquals(202, response.getStatus());
+		assertNull(response.getEntity());
+	}
+
+	@Test
+	public void testBatchThatBreaksHalfway() throws Exception {
+		var first = new PostMessage(kb1Id, kb1KiId, kb2Id, kb2KiId, new BindingSet());
+		var second = new PostMessage(kb1Id, kb1KiId, kb2Id, kb2KiId, new BindingSet());
+
+		List<KnowledgeMessage> received = new ArrayList<>();
+		var receiver = new RemoteMessageReceiver(new MessageDispatcher() {
+			@Override
+			void deliverToLocalSmartConnector(KnowledgeMessage message) throws IOException {
+				received.add(message);
+			}
+		});
+
+		// cut off the end of the second message.
+		var out = new ByteArrayOutputStream();
+		StreamingMessageConverter.toJson(List.of(first, second), out);
+		byte[] body = Arrays.copyOf(out.toByteArray(), out.size() - 10);
+
+		// the first message was delivered, so the batch is accepted and lists it.
+		Response response = receiver.messagingBatchPost(null, new ByteArrayInputStream(body), null);
+		assertEquals(202, response.getStatus());
+		assertEquals(List.of(first.getMessageId()), received.stream().map(KnowledgeMessage::getMessageId).toList());
+		var result = (MessageBatchResult) response.getEntity();
+		assertEquals(List.of(first.getMessageId().toString()), result.getDeliveredMessages());
+		assertTrue(result.getFailedMessages().isEmpty());
+		assertNotNull(result.getError());
+
+		// nothing was delivered, so the batch is not accepted at all.
+		body = Arrays.copyOf(out.toByteArray(), 20);
+		assertEquals(400, receiver.messagingBatchPost(null, new ByteArrayInputStream(body), null).getStatus());
+		assertEquals(1, received.size());
+	}
+
+	@Test
+	public void testInvalidBinaryBatch() throws Exception {
+		var receiver = new RemoteMessageReceiver(new MessageDispatcher());
+
+		// a header followed by a negative number of strings.
+		byte[] body = { 0x4B, 0x45, 0x4D, 0x53, 1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F };
+		assertEquals(400, receiver.messagingBinaryPost(null, new ByteArrayInputStream(body), null).getStatus());
+	}
+}
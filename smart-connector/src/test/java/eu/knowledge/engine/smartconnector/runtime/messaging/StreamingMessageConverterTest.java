@@ -0,0 +1,127 @@
+package eu.knowledge.engine.smartconnector.runtime.messaging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.knowledge.engine.reasoner.api.Binding;
+import eu.knowledge.engine.reasoner.api.BindingSet;
+import eu.knowledge.engine.smartconnector.messaging.AnswerMessage;
+import eu.knowledge.engine.smartconnector.messaging.AskMessage;
+import eu.knowledge.engine.smartconnector.messaging.ErrorMessage;
+import eu.knowledge.engine.smartconnector.messaging.KnowledgeMessage;
+import eu.knowledge.engine.smartconnector.messaging.PostMessage;
+import eu.knowledge.engine.smartconnector.messaging.ReactMessage;
+
+public class StreamingMessageConverterTest {
+
+	private final URI kb1Id = URI.create("http://example.org/kb1");
+	private final URI kb1KiId = URI.create("http://example.org/kb1/interaction/ki");
+	private final URI kb2Id = URI.create("http://example.org/kb2");
+	private final URI kb2KiId = URI.create("http://example.org/kb2/interaction/ki");
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	@Test
+	public void testBatchRoundTrip() throws Exception {
+		BindingSet bindingSet = createBindingSet();
+		var ask = new AskMessage(kb1Id, kb1KiId, kb2Id, kb2KiId, bindingSet);
+		var answer = new AnswerMessage(kb2Id, kb2KiId, kb1Id, kb1KiId, ask.getMessageId(), bindingSet);
+		var post = new PostMessage(kb1Id, kb1KiId, kb2Id, kb2KiId, new BindingSet());
+		var react = new ReactMessage(kb2Id, kb2KiId, kb1Id, kb1KiId, post.getMessageId(), bindingSet,
+				"Something went wrong.");
+		var error = new ErrorMessage(kb2Id, kb2KiId, kb1Id, kb1KiId, UUID.randomUUID(), "Unknown interaction.");
+
+		var out = new ByteArrayOutputStream();
+		StreamingMessageConverter.toJson(List.of(ask, answer, post, react, error), out);
+
+		List<KnowledgeMessage> received = new ArrayList<>();
+		int nrOfMessages = StreamingMessageConverter.fromJson(new ByteArrayInputStream(out.toByteArray()),
+				received::add);
+		assertEquals(5, nrOfMessages);
+		assertEquals(5, received.size());
+
+		var receivedAsk = (AskMessage) received.get(0);
+		assertEquals(ask.toString(), receivedAsk.toString());
+		assertEquals(bindingSet, receivedAsk.getBindings());
+
+		var receivedAnswer = (AnswerMessage) received.get(1);
+		assertEquals(ask.getMessageId(), receivedAnswer.getReplyToAskMessage());
+		assertEquals(bindingSet, receivedAnswer.getBindings());
+
+		assertEquals(post.getMessageId(), received.get(2).getMessageId());
+
+		var receivedReact = (ReactMessage) received.get(3);
+		assertEquals(post.getMessageId(), receivedReact.getReplyToPostMessage());
+		assertEquals("Something went wrong.", receivedReact.getFailedMessage());
+		assertEquals(bindingSet, receivedReact.getResult());
+
+		assertEquals(error.toString(), received.get(4).toString());
+	}
+
+	@Test
+	public void testCompatibleWithGeneratedModel() throws Exception {
+		// a single message can be read by the endpoints of older KERs
+		BindingSet bindingSet = createBindingSet();
+		var answer = new AnswerMessage(kb2Id, kb2KiId, kb1Id, kb1KiId, UUID.randomUUID(), bindingSet);
+		var out = new ByteArrayOutputStream();
+		StreamingMessageConverter.toJson(answer, out);
+
+		var model = objectMapper.readValue(out.toByteArray(),
+				eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.AnswerMessage.class);
+		AnswerMessage converted = MessageConverter.fromJson(model);
+		assertEquals(answer.getMessageId(), converted.getMessageId());
+		assertEquals(answer.getReplyToAskMessage(), converted.getReplyToAskMessage());
+		assertEquals(bindingSet, converted.getBindings());
+
+		// and a batch written from the generated model can be read as a stream
+		var batch = new eu.knowledge.engine.smartconnector.runtime.messaging.inter_ker.model.MessageBatch();
+		batch.addAnswerMessagesItem(model);
+		byte[] json = objectMapper.writeValueAsBytes(batch);
+
+		List<KnowledgeMessage> received = new ArrayList<>();
+		StreamingMessageConverter.fromJson(new ByteArrayInputStream(json), received::add);
+		assertEquals(1, received.size());
+		assertEquals(answer.getMessageId(), received.get(0).getMessageId());
+		assertEquals(bindingSet, ((AnswerMessage) received.get(0)).getBindings());
+	}
+
+	@Test
+	public void testInvalidInput() {
+		assertThrows(IOException.class, () -> StreamingMessageConverter.fromJson(
+				new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)), m -> {
+				}));
+		assertThrows(IllegalArgumentException.class, () -> StreamingMessageConverter.fromJson(
+				new ByteArrayInputStream("{\"askMessages\": [{\"messageId\": \"x\"}]}".getBytes(StandardCharsets.UTF_8)),
+				m -> {
+				}));
+	}
+
+	private BindingSet createBindingSet() {
+		BindingSet bindingSet = new BindingSet();
+		Binding b1 = new Binding();
+		b1.put("s", "<http://example.org/sensor1>");
+		b1.put("v", "\"22.5\"^^<http://www.w3.org/2001/XMLSchema#decimal>");
+		b1.put("l", "\"woonkamer\"@nl");
+		bindingSet.add(b1);
+		Binding b2 = new Binding();
+		b2.put("s", "<http://example.org/sensor2>");
+		b2.put("v", "\"ëén \\\"quoted\\\"\"");
+		bindingSet.add(b2);
+		return bindingSet;
+	}
+}